@@ -0,0 +1,86 @@
+package com.example.auth_service.aspect;
+
+import com.example.auth_service.annotation.RateLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * {@link RateLimitAspect#rateLimit} в пределах лимита: с явным ключом и с ключом по IP-адресу.
+ * Redis заменён заглушкой-счётчиком, поэтому измеряется стоимость аспекта без сетевого обмена.
+ * Счётчик не опускается ниже 2, чтобы не выполнять установку TTL, которая в реальности бывает раз в окно.
+ * Состояние на поток: атрибуты запроса хранятся в {@link RequestContextHolder} потока.
+ */
+@State(Scope.Thread)
+public class RateLimitAspectBenchmark {
+
+    private RateLimitAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+    private RateLimit explicitKey;
+    private RateLimit ipKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        AtomicLong counter = new AtomicLong(1);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, Long> valueOperations = Mockito.mock(ValueOperations.class, Mockito.withSettings().stubOnly());
+        Mockito.when(valueOperations.increment(anyString())).thenAnswer(invocation -> counter.incrementAndGet() % 1_000 + 2);
+        @SuppressWarnings("unchecked")
+        RedisTemplate<String, Long> redisTemplate = Mockito.mock(RedisTemplate.class, Mockito.withSettings().stubOnly());
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        aspect = new RateLimitAspect(redisTemplate, new SimpleMeterRegistry());
+
+        Signature signature = Mockito.mock(Signature.class, Mockito.withSettings().stubOnly());
+        Mockito.when(signature.getDeclaringTypeName()).thenReturn("com.example.auth_service.controller.auth.AuthController");
+        Mockito.when(signature.getName()).thenReturn("signin");
+        joinPoint = Mockito.mock(ProceedingJoinPoint.class, Mockito.withSettings().stubOnly());
+        Mockito.when(joinPoint.getSignature()).thenReturn(signature);
+        Mockito.when(joinPoint.proceed()).thenReturn("ok");
+
+        explicitKey = rateLimit("rate_limit:signin");
+        ipKey = rateLimit("");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.168.10.25");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object rateLimitExplicitKey() throws Throwable {
+        return aspect.rateLimit(joinPoint, explicitKey);
+    }
+
+    @Benchmark
+    public Object rateLimitIpKey() throws Throwable {
+        return aspect.rateLimit(joinPoint, ipKey);
+    }
+
+    private static RateLimit rateLimit(String key) {
+        RateLimit rateLimit = Mockito.mock(RateLimit.class, Mockito.withSettings().stubOnly());
+        Mockito.when(rateLimit.value()).thenReturn(Integer.MAX_VALUE);
+        Mockito.when(rateLimit.timeWindow()).thenReturn(60);
+        Mockito.when(rateLimit.key()).thenReturn(key);
+        return rateLimit;
+    }
+}
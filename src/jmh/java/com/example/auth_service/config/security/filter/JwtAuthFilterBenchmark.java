@@ -0,0 +1,122 @@
+package com.example.auth_service.config.security.filter;
+
+import com.example.auth_service.config.JwtBlacklistProperties;
+import com.example.auth_service.config.SessionProperties;
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.redis.JwtBlacklistRepository;
+import com.example.auth_service.repository.redis.RedisSessionRepository;
+import com.example.auth_service.serialization.SessionRecord;
+import com.example.auth_service.serialization.SessionRecordCodec;
+import com.example.auth_service.service.SessionService;
+import com.example.auth_service.service.redis.RedisService;
+import com.example.auth_service.service.security.CustomUserDetails;
+import com.example.auth_service.service.security.CustomUserDetailsService;
+import com.example.auth_service.service.security.RoleAuthorities;
+import com.example.auth_service.service.security.jwt.JwtBlacklistService;
+import com.example.auth_service.service.security.jwt.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Полный проход {@link JwtAuthFilter#doFilterInternal} для запроса с действительным токеном.
+ * <p>
+ * Проверка подписи и разбор токена — настоящие. Черный список проверяется настоящим локальным фильтром,
+ * выгруженным из пустого списка. Redis заменён заглушками без сетевого обмена:
+ * сессия устройства существует и не истекла, поэтому измеряется процессорная стоимость
+ * фильтра без задержки сети. Пользователь берётся из заглушки {@link CustomUserDetailsService},
+ * как при попадании в кэш {@code userDetails}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    private static final String USERNAME = "benchmark";
+    private static final String SESSION_ID = "benchmark-device";
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername(USERNAME);
+        user.setActive(true);
+        user.setRoleMask(Role.RoleType.ROLE_USER.bit());
+        CustomUserDetails userDetails = new CustomUserDetails(user, RoleAuthorities.of(user.getRoleMask()));
+
+        JwtUtil jwtUtil = newJwtUtil();
+        String token = jwtUtil.generateToken(user, userDetails.getAuthorities(), SESSION_ID);
+
+        JwtBlacklistRepository blacklistRepository =
+                Mockito.mock(JwtBlacklistRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(blacklistRepository.findActive()).thenReturn(Map.of());
+        @SuppressWarnings("unchecked")
+        RedisTemplate<String, String> blacklistTemplate =
+                Mockito.mock(RedisTemplate.class, Mockito.withSettings().stubOnly());
+        JwtBlacklistService blacklist = new JwtBlacklistService(blacklistRepository, blacklistTemplate,
+                new JwtBlacklistProperties(), new SimpleMeterRegistry());
+        blacklist.sync();
+
+        long now = Instant.now().getEpochSecond();
+        byte[] session = SessionRecordCodec.encode(SessionRecord.create(token, "127.0.0.1", now, now + 3_600));
+        @SuppressWarnings("unchecked")
+        HashOperations<String, Object, Object> hashOperations =
+                Mockito.mock(HashOperations.class, Mockito.withSettings().stubOnly());
+        Mockito.when(hashOperations.get(anyString(), eq(SESSION_ID))).thenReturn(session);
+        @SuppressWarnings("unchecked")
+        RedisTemplate<String, byte[]> redisTemplate = Mockito.mock(RedisTemplate.class, Mockito.withSettings().stubOnly());
+        Mockito.when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        SessionService sessionService = new SessionService(new RedisSessionRepository(redisTemplate),
+                Mockito.mock(RedisService.class, Mockito.withSettings().stubOnly()),
+                new SessionProperties());
+
+        CustomUserDetailsService userDetailsService =
+                Mockito.mock(CustomUserDetailsService.class, Mockito.withSettings().stubOnly());
+        Mockito.when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
+
+        filter = new JwtAuthFilter(jwtUtil, userDetailsService, blacklist, sessionService,
+                new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/objects");
+        request.addHeader("Authorization", "Bearer " + token);
+        chain = (servletRequest, servletResponse) -> { };
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilterInternal(request, response, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    private static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil(null);
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark");
+        ReflectionTestUtils.setField(jwtUtil, "jwtLifeTimeDuration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "auth_service");
+        return jwtUtil;
+    }
+}
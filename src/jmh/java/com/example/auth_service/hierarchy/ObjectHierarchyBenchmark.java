@@ -0,0 +1,109 @@
+package com.example.auth_service.hierarchy;
+
+import com.example.auth_service.model.ObjectType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сравнение обходов дерева объектов в памяти с текущим рекурсивным {@code TaskService.getAllDescendantIds}.
+ * <p>
+ * Дерево из ~1 млн узлов: 1000 зданий × 10 этажей × 9 квартир × 10 комнат. Базовый вариант
+ * повторяет алгоритм сервиса, но вместо {@code findByParentId} берёт детей из готового
+ * {@link HashMap}, то есть без единого обращения к базе данных. Реальный метод дополнительно
+ * выполняет по SQL-запросу на каждый узел поддерева, поэтому разрыв на практике больше.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class ObjectHierarchyBenchmark {
+
+    private static final int BUILDINGS = 1000;
+    private static final int FLOORS = 10;
+    private static final int APARTMENTS = 9;
+    private static final int ROOMS = 10;
+
+    private ObjectHierarchy hierarchy;
+    private Map<Long, List<Long>> childrenByParent;
+    private long buildingId;
+    private long roomId;
+
+    @Setup
+    public void setUp() {
+        int capacity = BUILDINGS * (1 + FLOORS * (1 + APARTMENTS * (1 + ROOMS)));
+        long[] ids = new long[capacity];
+        long[] parentIds = new long[capacity];
+        byte[] types = new byte[capacity];
+        childrenByParent = new HashMap<>(capacity * 2);
+
+        int count = 0;
+        long nextId = 1;
+        for (int b = 0; b < BUILDINGS; b++) {
+            long building = nextId++;
+            count = add(ids, parentIds, types, count, building, ObjectHierarchy.NO_PARENT, ObjectType.BUILDING);
+            for (int f = 0; f < FLOORS; f++) {
+                long floor = nextId++;
+                count = add(ids, parentIds, types, count, floor, building, ObjectType.FLOOR);
+                for (int a = 0; a < APARTMENTS; a++) {
+                    long apartment = nextId++;
+                    count = add(ids, parentIds, types, count, apartment, floor, ObjectType.APARTMENT);
+                    for (int r = 0; r < ROOMS; r++) {
+                        count = add(ids, parentIds, types, count, nextId++, apartment, ObjectType.ROOM);
+                    }
+                }
+            }
+        }
+        hierarchy = ObjectHierarchy.of(ids, parentIds, types, count);
+        buildingId = ids[(BUILDINGS / 2) * (capacity / BUILDINGS)];
+        roomId = nextId - 1;
+    }
+
+    @Benchmark
+    public long[] descendantsOfBuildingSnapshot() {
+        return hierarchy.descendantIds(buildingId);
+    }
+
+    @Benchmark
+    public List<Long> descendantsOfBuildingRecursive() {
+        return getAllDescendantIds(buildingId);
+    }
+
+    @Benchmark
+    public int countDescendantsOfBuildingSnapshot() {
+        return hierarchy.countDescendants(buildingId);
+    }
+
+    @Benchmark
+    public long[] ancestorsOfRoomSnapshot() {
+        return hierarchy.ancestorIds(roomId);
+    }
+
+    /**
+     * Копия алгоритма {@code TaskService.getAllDescendantIds} с картой вместо репозитория.
+     */
+    private List<Long> getAllDescendantIds(Long parentId) {
+        List<Long> result = new ArrayList<>();
+        List<Long> children = childrenByParent.getOrDefault(parentId, List.of());
+        for (Long child : children) {
+            result.add(child);
+            result.addAll(getAllDescendantIds(child));
+        }
+        return result;
+    }
+
+    private int add(long[] ids, long[] parentIds, byte[] types, int count,
+                    long id, long parentId, ObjectType type) {
+        ids[count] = id;
+        parentIds[count] = parentId;
+        types[count] = (byte) type.ordinal();
+        if (parentId != ObjectHierarchy.NO_PARENT) {
+            childrenByParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(id);
+        }
+        return count + 1;
+    }
+}
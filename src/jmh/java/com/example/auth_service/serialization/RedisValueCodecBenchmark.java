@@ -0,0 +1,96 @@
+package com.example.auth_service.serialization;
+
+import com.example.auth_service.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Стоимость сериализации значений Redis: стандартная сериализация Java, которой L2-кэш
+ * писал {@link UserDto} раньше, против {@link CompactRedisSerializer}, а также разбор
+ * и проверка записи сессии {@link SessionRecordCodec} — работа фильтра на каждый запрос.
+ * <p>
+ * Размеры значений в байтах для обоих форматов печатает отчёт {@code ./gradlew sessionFootprint}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class RedisValueCodecBenchmark {
+
+    private static final int LIST_SIZE = 500;
+
+    private final JdkSerializationRedisSerializer jdk =
+            new JdkSerializationRedisSerializer(getClass().getClassLoader());
+    private final CompactRedisSerializer compact = new CompactRedisSerializer(getClass().getClassLoader());
+
+    private UserDto user;
+    private List<UserDto> users;
+    private byte[] jdkUser;
+    private byte[] compactUser;
+    private byte[] jdkUsers;
+    private byte[] compactUsers;
+    private String token;
+    private byte[] sessionRecord;
+
+    @Setup
+    public void setUp() {
+        user = user(42);
+        users = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            users.add(user(i));
+        }
+        users = List.copyOf(users);
+        jdkUser = jdk.serialize(user);
+        compactUser = compact.serialize(user);
+        jdkUsers = jdk.serialize(users);
+        compactUsers = compact.serialize(users);
+        // Длина и алфавит как у токена доступа HS256 с ролью пользователя
+        token = "eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzI1NiJ9." + "x".repeat(150) + "." + "s".repeat(43);
+        long now = System.currentTimeMillis() / 1000;
+        sessionRecord = SessionRecordCodec.encode(SessionRecord.create(token, "203.0.113.7", now, now + 3_600));
+    }
+
+    @Benchmark
+    public byte[] userJdkSerialize() {
+        return jdk.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] userCompactSerialize() {
+        return compact.serialize(user);
+    }
+
+    @Benchmark
+    public Object userJdkDeserialize() {
+        return jdk.deserialize(jdkUser);
+    }
+
+    @Benchmark
+    public Object userCompactDeserialize() {
+        return compact.deserialize(compactUser);
+    }
+
+    @Benchmark
+    public Object userListJdkDeserialize() {
+        return jdk.deserialize(jdkUsers);
+    }
+
+    @Benchmark
+    public Object userListCompactDeserialize() {
+        return compact.deserialize(compactUsers);
+    }
+
+    @Benchmark
+    public boolean sessionDecodeAndMatch() {
+        SessionRecord record = SessionRecordCodec.decode(sessionRecord);
+        return record != null && record.matches(token);
+    }
+
+    private static UserDto user(long id) {
+        return new UserDto(id, "user-" + id, "user-" + id + "@example.com", "Иван", "Петров", "ROLE_USER", true);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.auth_service.service.security;
+
+import com.example.auth_service.cache.CacheNames;
+import com.example.auth_service.cache.TwoLevelCacheManager;
+import com.example.auth_service.config.CacheProperties;
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link CustomUserDetailsService#loadUserByUsername} с кэшем {@code userDetails} и без него.
+ * <p>
+ * Кэшированный вариант проходит через настоящий прокси {@code @Cacheable} и {@link TwoLevelCacheManager}
+ * с настройками кэша из {@code application.yml} (только локальный уровень). Репозиторий заменён
+ * заглушкой с задержкой {@link #repositoryLatencyMicros}, имитирующей запрос к базе данных:
+ * при нулевой задержке видна собственная стоимость сервиса, при ненулевой — выигрыш кэша.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class UserDetailsServiceBenchmark {
+
+    private static final String USERNAME = "benchmark";
+
+    @Param({"0", "300"})
+    public long repositoryLatencyMicros;
+
+    private AnnotationConfigApplicationContext context;
+    private CustomUserDetailsService uncached;
+    private CustomUserDetailsService cached;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername(USERNAME);
+        user.setPassword("hash");
+        user.setActive(true);
+        user.setRoleMask(Role.RoleType.ROLE_USER.bit());
+
+        long latencyNanos = repositoryLatencyMicros * 1_000;
+        UserRepository userRepository = Mockito.mock(UserRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(userRepository.findByUsername(USERNAME)).thenAnswer(invocation -> {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            return Optional.of(user);
+        });
+
+        uncached = new CustomUserDetailsService(userRepository, event -> { });
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(UserRepository.class, () -> userRepository);
+        context.register(CachingConfig.class, CustomUserDetailsService.class);
+        context.refresh();
+        cached = context.getBean(CustomUserDetailsService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUncached() {
+        return uncached.loadUserByUsername(USERNAME);
+    }
+
+    @Benchmark
+    public UserDetails loadCached() {
+        return cached.loadUserByUsername(USERNAME);
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            CacheProperties.Spec spec = new CacheProperties.Spec();
+            spec.setMaximumSize(10_000);
+            spec.setL1Ttl(Duration.ofMinutes(2));
+            spec.setL2Enabled(false);
+            CacheProperties properties = new CacheProperties();
+            properties.getSpecs().put(CacheNames.USER_DETAILS, spec);
+            return new TwoLevelCacheManager(properties, null, null, new SimpleMeterRegistry());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.auth_service.service.security.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.User;
+import com.example.auth_service.service.security.RoleAuthorities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * Выпуск и проверка JWT: {@link JwtUtil#generateToken} и {@link JwtUtil#decodeToken}.
+ * Redis не участвует: черный список проверяется в {@code isValid}, а не здесь.
+ */
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private List<GrantedAuthority> authorities;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = newJwtUtil();
+        user = new User();
+        user.setId(42L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setFirstName("Иван");
+        user.setLastName("Петров");
+        user.setActive(true);
+        authorities = RoleAuthorities.of(Role.RoleType.ROLE_USER.bit() | Role.RoleType.ROLE_ADMIN.bit());
+        token = jwtUtil.generateToken(user, authorities);
+    }
+
+    @Benchmark
+    public String generateTokenForUser() {
+        return jwtUtil.generateToken(user, authorities);
+    }
+
+    @Benchmark
+    public String generateTokenForUsername() {
+        return jwtUtil.generateToken(user.getUsername(), authorities);
+    }
+
+    @Benchmark
+    public DecodedJWT decodeToken() {
+        return jwtUtil.decodeToken(token);
+    }
+
+    /**
+     * Создаёт {@link JwtUtil} с параметрами, которые в приложении приходят из конфигурации.
+     */
+    private static JwtUtil newJwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil(null);
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark");
+        ReflectionTestUtils.setField(jwtUtil, "jwtLifeTimeDuration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "auth_service");
+        return jwtUtil;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.auth_service.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Результаты одной точки входа: гистограмма задержек в микросекундах, ошибки и отброшенные запросы.
+ * Задержка отсчитывается от запланированного момента отправки, а не от фактического, поэтому
+ * очередь на стороне нагрузчика не скрывает замедление сервера (coordinated omission).
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Учитывает завершённый запрос.
+     *
+     * @param latencyNanos задержка от запланированного момента отправки
+     * @param success      true для ответа 2xx
+     */
+    public void record(long latencyNanos, boolean success) {
+        latencies.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Учитывает запрос, не отправленный из-за предела одновременных запросов.
+     */
+    public void drop() {
+        dropped.increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.auth_service.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Отчёт по результатам: сводная таблица в консоль и файл {@code .hgrm} на каждую точку входа.
+ * Файлы {@code .hgrm} открываются HdrHistogram Plotter и позволяют сравнить распределения
+ * задержек двух прогонов на одном графике.
+ */
+public class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final List<EndpointStats> endpoints;
+    private final Duration duration;
+
+    public LatencyReport(List<EndpointStats> endpoints, Duration duration) {
+        this.endpoints = endpoints;
+        this.duration = duration;
+    }
+
+    /**
+     * Печатает сводную таблицу: задержки в миллисекундах.
+     */
+    public void print(PrintStream out) {
+        out.printf("%-14s %8s %7s %7s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "count", "errors", "dropped", "rps", "p50", "p90", "p99", "p99.9", "max");
+        for (EndpointStats endpoint : endpoints) {
+            Histogram histogram = endpoint.getLatencies();
+            out.printf("%-14s %8d %7d %7d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n",
+                    endpoint.getName(),
+                    histogram.getTotalCount(),
+                    endpoint.getErrors(),
+                    endpoint.getDropped(),
+                    histogram.getTotalCount() / (duration.toMillis() / 1_000.0),
+                    millis(histogram, 50),
+                    millis(histogram, 90),
+                    millis(histogram, 99),
+                    millis(histogram, 99.9),
+                    histogram.getMaxValue() / MICROS_PER_MILLI);
+        }
+    }
+
+    /**
+     * Записывает распределения задержек в каталог отчёта.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (EndpointStats endpoint : endpoints) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.getName() + ".hgrm")))) {
+                endpoint.getLatencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
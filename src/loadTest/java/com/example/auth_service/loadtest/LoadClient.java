@@ -0,0 +1,211 @@
+package com.example.auth_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP-запросы сценариев к запущенному приложению.
+ * <p>
+ * Ограничение частоты ({@code @RateLimit}) считается по адресу клиента, поэтому каждый запрос
+ * приходит со своим {@code X-Forwarded-For}: иначе уже пятый вход за минуту упирался бы в 429.
+ * Приложение запускается с {@code server.forward-headers-strategy=native}, и Tomcat принимает
+ * заголовок от локального адреса.
+ * </p>
+ */
+public class LoadClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String BOUNDARY = "load-test-boundary";
+
+    private final com.fasterxml.jackson.databind.ObjectMapper json = new com.fasterxml.jackson.databind.ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final AtomicInteger clientAddress = new AtomicInteger();
+    private final String baseUrl;
+
+    /** Токены доступа пользователей {@code browse-*}. */
+    private final Map<String, String> accessTokens = new ConcurrentHashMap<>();
+    /** Свободные пользователи {@code refresh-*} с текущим refresh-токеном. */
+    private final Queue<Map.Entry<String, String>> idleRefreshTokens = new ConcurrentLinkedQueue<>();
+    private final String[] browseUsers;
+
+    public LoadClient(String baseUrl, List<String> browseUsers) {
+        this.baseUrl = baseUrl;
+        this.browseUsers = browseUsers.toArray(String[]::new);
+    }
+
+    /**
+     * Входит пользователями {@code browse-*} и {@code refresh-*}, чтобы у сценариев были
+     * действующие токены.
+     */
+    public void prepareSessions(List<String> refreshUsers) {
+        for (String username : browseUsers) {
+            HttpResponse<String> response = login(username).join();
+            requireOk(response, username);
+            accessTokens.put(username, readToken(response));
+        }
+        for (String username : refreshUsers) {
+            HttpResponse<String> response = login(username).join();
+            requireOk(response, username);
+            String refreshToken = refreshCookie(response)
+                    .orElseThrow(() -> new IllegalStateException("Нет refresh-токена для " + username));
+            idleRefreshTokens.add(Map.entry(username, refreshToken));
+        }
+    }
+
+    /**
+     * POST /auth/login случайным пользователем из списка.
+     */
+    public CompletableFuture<Boolean> login(List<String> users) {
+        String username = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+        return login(username).thenApply(LoadClient::isOk);
+    }
+
+    /**
+     * POST /auth/refresh свободным пользователем: токен одноразовый, поэтому пользователь
+     * занят, пока не придёт ответ с новым токеном.
+     */
+    public CompletableFuture<Boolean> refresh() {
+        Map.Entry<String, String> session = idleRefreshTokens.poll();
+        if (session == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        HttpRequest request = request("/auth/refresh")
+                .header("Cookie", "refreshToken=" + session.getValue())
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return send(request).whenComplete((response, error) -> {
+            String next = response == null ? session.getValue() : refreshCookie(response).orElse(session.getValue());
+            idleRefreshTokens.add(Map.entry(session.getKey(), next));
+        }).thenApply(LoadClient::isOk);
+    }
+
+    /**
+     * GET /real-estate-objects/{id}/tree по случайному зданию.
+     */
+    public CompletableFuture<Boolean> tree(long[] buildingIds) {
+        long id = buildingIds[ThreadLocalRandom.current().nextInt(buildingIds.length)];
+        return send(authorized("/real-estate-objects/" + id + "/tree?depth=10").GET().build())
+                .thenApply(LoadClient::isOk);
+    }
+
+    /**
+     * GET /tasks/object/{id}/status-stats по случайному зданию.
+     */
+    public CompletableFuture<Boolean> statusStats(long[] buildingIds) {
+        long id = buildingIds[ThreadLocalRandom.current().nextInt(buildingIds.length)];
+        return send(authorized("/tasks/object/" + id + "/status-stats").GET().build())
+                .thenApply(LoadClient::isOk);
+    }
+
+    /**
+     * POST /api/files/upload: PDF заданного размера к случайной задаче.
+     */
+    public CompletableFuture<Boolean> upload(long[] taskIds, byte[] file) {
+        long taskId = taskIds[ThreadLocalRandom.current().nextInt(taskIds.length)];
+        HttpRequest request = authorized("/api/files/upload")
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(taskId, file)))
+                .build();
+        return send(request).thenApply(LoadClient::isOk);
+    }
+
+    /**
+     * @return содержимое PDF-файла заданного размера
+     */
+    public static byte[] pdf(int size) {
+        byte[] content = new byte[size];
+        ThreadLocalRandom.current().nextBytes(content);
+        byte[] header = "%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(header, 0, content, 0, Math.min(header.length, size));
+        return content;
+    }
+
+    private CompletableFuture<HttpResponse<String>> login(String username) {
+        String body = json.createObjectNode()
+                .put("username", username)
+                .put("password", PortfolioGenerator.PASSWORD)
+                .toString();
+        HttpRequest request = request("/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return send(request);
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        String username = browseUsers[ThreadLocalRandom.current().nextInt(browseUsers.length)];
+        return request(path).header("Authorization", "Bearer " + accessTokens.get(username));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        int address = clientAddress.incrementAndGet();
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("X-Forwarded-For", "10." + (address >>> 16 & 0xFF) + "." + (address >>> 8 & 0xFF)
+                        + "." + (address & 0xFF));
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String readToken(HttpResponse<String> response) {
+        try {
+            JsonNode body = json.readTree(response.body());
+            return body.get("jwtToken").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException("Не удалось прочитать токен из ответа: " + response.body(), e);
+        }
+    }
+
+    private static Optional<String> refreshCookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("refreshToken="))
+                .map(cookie -> cookie.substring("refreshToken=".length()).split(";", 2)[0])
+                .filter(value -> !value.isEmpty())
+                .findFirst();
+    }
+
+    private static byte[] multipart(long taskId, byte[] file) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(file.length + 512);
+        String head = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"taskId\"\r\n\r\n"
+                + taskId + "\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"files\"; filename=\"load-test.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n";
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(file);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static void requireOk(HttpResponse<String> response, String username) {
+        if (!isOk(response)) {
+            throw new IllegalStateException("Вход " + username + " вернул " + response.statusCode());
+        }
+    }
+
+    private static boolean isOk(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.auth_service.loadtest;
+
+import com.example.auth_service.AuthServiceApplication;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сквозной нагрузочный тест: Postgres и Redis в контейнерах, приложение целиком
+ * на случайном порту, портфель объектов из {@link PortfolioGenerator} и открытая модель
+ * нагрузки {@link OpenModelDriver} по основным сценариям — вход, обновление токена,
+ * дерево объектов, статистика задач и загрузка файлов.
+ * <p>
+ * Портфель записывается до старта приложения: схема создаётся миграциями Liquibase заранее,
+ * поэтому кэши и дерево объектов в памяти, заполняемые при старте, видят все данные.
+ * </p>
+ * <p>
+ * Запуск: {@code ./gradlew loadTest}. Нужен Docker.
+ * </p>
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    private static final String REDIS_PASSWORD = "load-test";
+    private static final String CHANGE_LOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+             GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+                     .withCommand("redis-server", "--requirepass", REDIS_PASSWORD, "--enable-debug-command", "yes")
+                     .withExposedPorts(6379)) {
+            postgres.start();
+            redis.start();
+
+            migrate(postgres);
+            log.info("Генерация портфеля: {} объектов", settings.objectCount());
+            PortfolioGenerator.Portfolio portfolio = new PortfolioGenerator(settings)
+                    .generate(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+            Path uploadDir = Files.createTempDirectory("load-test-uploads");
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                    .properties(applicationProperties(settings, postgres, redis, uploadDir))
+                    .run()) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+                LoadClient client = new LoadClient("http://localhost:" + port, portfolio.browseUsers());
+                client.prepareSessions(portfolio.refreshUsers());
+
+                byte[] file = LoadClient.pdf(settings.uploadBytes());
+                EndpointStats login = new EndpointStats("login");
+                EndpointStats refresh = new EndpointStats("refresh");
+                EndpointStats tree = new EndpointStats("tree");
+                EndpointStats stats = new EndpointStats("status-stats");
+                EndpointStats upload = new EndpointStats("upload");
+                List<OpenModelDriver.Scenario> scenarios = List.of(
+                        new OpenModelDriver.Scenario(login, settings.loginRate(),
+                                () -> client.login(portfolio.loginUsers())),
+                        new OpenModelDriver.Scenario(refresh, settings.refreshRate(), client::refresh),
+                        new OpenModelDriver.Scenario(tree, settings.treeRate(),
+                                () -> client.tree(portfolio.buildingIds())),
+                        new OpenModelDriver.Scenario(stats, settings.statsRate(),
+                                () -> client.statusStats(portfolio.buildingIds())),
+                        new OpenModelDriver.Scenario(upload, settings.uploadRate(),
+                                () -> client.upload(portfolio.taskIds(), file)));
+
+                log.info("Прогрев {}, измерение {}, виртуальные потоки: {}",
+                        settings.warmUp(), settings.duration(), settings.virtualThreads());
+                OpenModelDriver driver = new OpenModelDriver(settings.maxInFlight(), settings.warmUp(), settings.duration());
+                if (!settings.redisStall().isZero()) {
+                    scheduleRedisStall(redis, settings);
+                }
+                driver.run(scenarios);
+
+                LatencyReport report = new LatencyReport(List.of(login, refresh, tree, stats, upload),
+                        settings.duration());
+                report.print(System.out);
+                System.out.printf("peak in-flight: %d (virtual threads: %s)%n",
+                        driver.getPeakInFlight(), settings.virtualThreads());
+                report.write(settings.reportDir());
+                log.info("Гистограммы задержек записаны в {}", settings.reportDir().toAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Применяет миграции Liquibase приложения. При старте приложения они уже отмечены как выполненные.
+     */
+    private static void migrate(PostgreSQLContainer<?> postgres) throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        liquibase.setChangeLog(CHANGE_LOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    /**
+     * Останавливает Redis командой {@code DEBUG SLEEP} в середине измерения: все запросы проверяют
+     * сессию в Redis, и на платформенных потоках пул Tomcat быстро исчерпывается.
+     */
+    private static void scheduleRedisStall(GenericContainer<?> redis, LoadTestSettings settings) {
+        Duration delay = settings.warmUp().plus(settings.duration().dividedBy(2));
+        Thread stall = new Thread(() -> {
+            try {
+                Thread.sleep(delay.toMillis());
+                log.info("Остановка Redis на {}", settings.redisStall());
+                redis.execInContainer("redis-cli", "-a", REDIS_PASSWORD, "DEBUG", "SLEEP",
+                        String.valueOf(settings.redisStall().toMillis() / 1000.0));
+            } catch (Exception e) {
+                log.warn("Не удалось остановить Redis: {}", e.getMessage());
+            }
+        }, "redis-stall");
+        stall.setDaemon(true);
+        stall.start();
+    }
+
+    private static Map<String, Object> applicationProperties(LoadTestSettings settings,
+                                                             PostgreSQLContainer<?> postgres,
+                                                             GenericContainer<?> redis,
+                                                             Path uploadDir) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.threads.virtual.enabled", settings.virtualThreads());
+        // Адрес клиента берётся из X-Forwarded-For, см. LoadClient
+        properties.put("server.forward-headers-strategy", "native");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.redis.data.host", redis.getHost());
+        properties.put("spring.redis.data.port", redis.getMappedPort(6379));
+        properties.put("spring.redis.data.password", REDIS_PASSWORD);
+        properties.put("spring.data.redis.host", redis.getHost());
+        properties.put("spring.data.redis.port", redis.getMappedPort(6379));
+        properties.put("spring.data.redis.password", REDIS_PASSWORD);
+        properties.put("file.upload-dir", uploadDir.toString());
+        // Журнал SQL на каждый запрос искажает задержки сильнее, чем сама нагрузка
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        for (String logger : List.of("", ".service", ".config", ".controller", ".repository")) {
+            properties.put("logging.level.com.example.auth_service" + logger, "WARN");
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.auth_service.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Параметры нагрузочного теста. Читаются из системных свойств {@code load.*},
+ * которые Gradle передаёт из {@code -Pload.*}.
+ *
+ * @param buildings          число зданий
+ * @param entrances          подъездов в здании
+ * @param floors             этажей в подъезде
+ * @param apartments         квартир на этаже
+ * @param tasksPerObject     задач на каждый объект
+ * @param attachmentsPerTask вложений на задачу
+ * @param users              пользователей с активной сессией для просмотра и загрузки файлов
+ * @param loginRate          входов в секунду
+ * @param refreshRate        обновлений токена в секунду
+ * @param treeRate           запросов поддерева здания в секунду
+ * @param statsRate          запросов статистики задач по зданию в секунду
+ * @param uploadRate         загрузок файлов в секунду
+ * @param uploadBytes        размер загружаемого файла
+ * @param warmUp             прогрев, результаты которого отбрасываются
+ * @param duration           длительность измерения
+ * @param maxInFlight        предел одновременных запросов; при превышении запрос считается отброшенным
+ * @param virtualThreads     обрабатывать ли запросы приложения на виртуальных потоках
+ * @param redisStall         длительность остановки Redis в середине измерения; ноль — без остановки
+ * @param reportDir          каталог для гистограмм
+ */
+public record LoadTestSettings(int buildings,
+                               int entrances,
+                               int floors,
+                               int apartments,
+                               int tasksPerObject,
+                               int attachmentsPerTask,
+                               int users,
+                               double loginRate,
+                               double refreshRate,
+                               double treeRate,
+                               double statsRate,
+                               double uploadRate,
+                               int uploadBytes,
+                               Duration warmUp,
+                               Duration duration,
+                               int maxInFlight,
+                               boolean virtualThreads,
+                               Duration redisStall,
+                               Path reportDir) {
+
+    /**
+     * @return параметры из системных свойств со значениями по умолчанию для небольшого портфеля
+     */
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                intProperty("load.buildings", 20),
+                intProperty("load.entrances", 4),
+                intProperty("load.floors", 9),
+                intProperty("load.apartments", 4),
+                intProperty("load.tasks-per-object", 2),
+                intProperty("load.attachments-per-task", 1),
+                intProperty("load.users", 200),
+                doubleProperty("load.login-rate", 5),
+                doubleProperty("load.refresh-rate", 10),
+                doubleProperty("load.tree-rate", 50),
+                doubleProperty("load.stats-rate", 50),
+                doubleProperty("load.upload-rate", 5),
+                intProperty("load.upload-bytes", 256 * 1024),
+                Duration.parse(System.getProperty("load.warm-up", "PT30S")),
+                Duration.parse(System.getProperty("load.duration", "PT2M")),
+                intProperty("load.max-in-flight", 2_000),
+                Boolean.parseBoolean(System.getProperty("load.virtual-threads", "false")),
+                Duration.parse(System.getProperty("load.redis-stall", "PT0S")),
+                Path.of(System.getProperty("load.report-dir", "build/reports/load-test")));
+    }
+
+    /**
+     * @return общее число объектов портфеля
+     */
+    public long objectCount() {
+        long perEntrance = 1 + (long) floors * (1 + apartments);
+        return (long) buildings * (1 + (long) entrances * perEntrance);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        return Double.parseDouble(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.auth_service.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Генератор нагрузки открытой модели: запросы приходят пуассоновским потоком с заданной
+ * интенсивностью независимо от того, успел ли сервер ответить на предыдущие.
+ * <p>
+ * Закрытая модель (N потоков, каждый ждёт ответа) при замедлении сервера сама снижает
+ * нагрузку и занижает хвостовые задержки. Здесь каждый запрос получает запланированное
+ * время отправки, и задержка считается от него, поэтому время ожидания в очереди
+ * нагрузчика входит в результат.
+ * </p>
+ */
+@Slf4j
+public class OpenModelDriver {
+
+    /**
+     * Сценарий нагрузки.
+     *
+     * @param stats   результаты сценария
+     * @param rate    запросов в секунду
+     * @param request отправляет один запрос; результат — признак ответа 2xx
+     */
+    public record Scenario(EndpointStats stats, double rate, Supplier<CompletableFuture<Boolean>> request) {
+    }
+
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final AtomicInteger currentInFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Duration warmUp;
+    private final Duration duration;
+
+    public OpenModelDriver(int maxInFlight, Duration warmUp, Duration duration) {
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.warmUp = warmUp;
+        this.duration = duration;
+    }
+
+    /**
+     * Подаёт нагрузку всеми сценариями одновременно и дожидается завершения отправленных запросов.
+     *
+     * @param scenarios сценарии
+     */
+    public void run(List<Scenario> scenarios) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmUp.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Thread> threads = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            if (scenario.rate() <= 0) {
+                continue;
+            }
+            Thread thread = new Thread(() -> arrivals(scenario, start, measureFrom, end),
+                    "load-" + scenario.stats().getName());
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Все разрешения вернутся, когда ответят уже отправленные запросы
+        log.info("Нагрузка снята, ожидание незавершённых запросов");
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            log.warn("Часть запросов не завершилась за минуту после окончания теста");
+        }
+    }
+
+    /**
+     * Наибольшее число одновременно ожидавших ответа запросов. Пока сервер успевает, оно близко
+     * к интенсивности, умноженной на задержку; когда потоки сервера исчерпаны, запросы копятся
+     * в его очереди и число растёт до предела {@code maxInFlight}.
+     *
+     * @return пиковое число запросов в полёте
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    private void arrivals(Scenario scenario, long start, long measureFrom, long end) {
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / scenario.rate();
+        long intended = start;
+        while (true) {
+            intended += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+            if (intended >= end) {
+                return;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    scenario.stats().drop();
+                }
+                continue;
+            }
+            peakInFlight.accumulateAndGet(currentInFlight.incrementAndGet(), Math::max);
+            long scheduled = intended;
+            CompletableFuture<Boolean> response;
+            try {
+                response = scenario.request().get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((success, error) -> {
+                currentInFlight.decrementAndGet();
+                inFlight.release();
+                if (measured) {
+                    scenario.stats().record(System.nanoTime() - scheduled, error == null && Boolean.TRUE.equals(success));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.auth_service.loadtest;
+
+import com.example.auth_service.model.ObjectType;
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.TaskStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет базу данных портфелем объектов недвижимости заданной формы:
+ * здания → подъезды → этажи → квартиры, задачи на каждом объекте и вложения к задачам.
+ * <p>
+ * Пишет пакетными вставками JDBC в обход приложения: портфель в сотни тысяч объектов
+ * создаётся за секунды. Идентификаторы назначаются явно, после вставки последовательности
+ * сдвигаются, чтобы приложение продолжило нумерацию. Схему к этому моменту уже создал Liquibase.
+ * </p>
+ * <p>
+ * Пользователи делятся на три группы, чтобы сценарии не мешали друг другу: вход сверх предела
+ * устройств закрывает самую давнюю сессию пользователя, а обновление токена делает прежний
+ * токен устройства недействительным:
+ * {@code browse-*} держат сессию для просмотра и загрузок, {@code refresh-*} обновляют токен,
+ * {@code login-*} только входят.
+ * </p>
+ */
+public class PortfolioGenerator {
+
+    /** Пароль всех сгенерированных пользователей. */
+    public static final String PASSWORD = "LoadTest-123";
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final LoadTestSettings settings;
+    private final Random random = new Random(42);
+
+    public PortfolioGenerator(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Сгенерированный портфель: то, что нужно сценариям для выбора целей запросов.
+     *
+     * @param buildingIds  идентификаторы зданий
+     * @param taskIds      идентификаторы задач
+     * @param browseUsers  логины пользователей для просмотра и загрузок
+     * @param refreshUsers логины пользователей для обновления токена
+     * @param loginUsers   логины пользователей для входа
+     */
+    public record Portfolio(long[] buildingIds,
+                            long[] taskIds,
+                            List<String> browseUsers,
+                            List<String> refreshUsers,
+                            List<String> loginUsers) {
+    }
+
+    /**
+     * Заполняет базу данных.
+     *
+     * @param jdbcUrl  адрес базы данных
+     * @param username пользователь базы данных
+     * @param password пароль
+     * @return описание сгенерированного портфеля
+     */
+    public Portfolio generate(String jdbcUrl, String username, String password) throws SQLException {
+        String url = jdbcUrl + (jdbcUrl.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            connection.setAutoCommit(false);
+
+            List<String> browse = names("browse", settings.users());
+            List<String> refresh = names("refresh", settings.users());
+            List<String> login = names("login", settings.users());
+            long[] userIds = insertUsers(connection, browse, refresh, login);
+
+            long[] buildingIds = new long[settings.buildings()];
+            List<Long> objectIds = insertObjects(connection, userIds, buildingIds);
+            long[] taskIds = insertTasks(connection, objectIds, userIds);
+            insertAttachments(connection, taskIds);
+
+            for (String table : List.of("users", "objects", "tasks", "task_attachments")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                            + "(SELECT max(id) FROM " + table + "))");
+                }
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+            return new Portfolio(buildingIds, taskIds, browse, refresh, login);
+        }
+    }
+
+    private long[] insertUsers(Connection connection, List<String> browse, List<String> refresh,
+                               List<String> login) throws SQLException {
+        // Хеш один на всех: BCrypt намеренно медленный, а соль для теста не важна.
+        // С префиксом алгоритма, как у приложения, иначе первый вход каждого пользователя пересчитывал бы хеш
+        String hash = "{bcrypt}" + new BCryptPasswordEncoder().encode(PASSWORD);
+        List<String> all = new ArrayList<>(browse);
+        all.addAll(refresh);
+        all.addAll(login);
+
+        long firstId = nextId(connection, "users");
+        long roleId;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT id FROM roles WHERE role_type = '" + Role.RoleType.ROLE_USER.name() + "'")) {
+            resultSet.next();
+            roleId = resultSet.getLong(1);
+        }
+
+        long[] ids = new long[all.size()];
+        try (PreparedStatement users = connection.prepareStatement("""
+                INSERT INTO users (id, username, email, password, active, first_name, last_name, role_mask)
+                VALUES (?, ?, ?, ?, true, ?, ?, ?)
+                """);
+             PreparedStatement roles = connection.prepareStatement(
+                     "INSERT INTO users_roles (user_id, role_id) VALUES (?, ?)")) {
+            for (int i = 0; i < all.size(); i++) {
+                long id = firstId + i;
+                ids[i] = id;
+                String name = all.get(i);
+                users.setLong(1, id);
+                users.setString(2, name);
+                users.setString(3, name + "@load.test");
+                users.setString(4, hash);
+                users.setString(5, "Пользователь");
+                users.setString(6, name);
+                users.setInt(7, Role.RoleType.ROLE_USER.bit());
+                users.addBatch();
+                roles.setLong(1, id);
+                roles.setLong(2, roleId);
+                roles.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    users.executeBatch();
+                    roles.executeBatch();
+                }
+            }
+            users.executeBatch();
+            roles.executeBatch();
+        }
+        return ids;
+    }
+
+    private List<Long> insertObjects(Connection connection, long[] userIds, long[] buildingIds) throws SQLException {
+        List<Long> ids = new ArrayList<>((int) settings.objectCount());
+        long nextId = nextId(connection, "objects");
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO objects (id, name, object_type, parent_id, created_by, responsible_user_id)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """)) {
+            for (int b = 0; b < settings.buildings(); b++) {
+                long building = nextId++;
+                buildingIds[b] = building;
+                addObject(insert, ids, building, "Здание " + (b + 1), ObjectType.BUILDING, null, userIds);
+                for (int e = 0; e < settings.entrances(); e++) {
+                    long entrance = nextId++;
+                    addObject(insert, ids, entrance, "Подъезд " + (e + 1), ObjectType.ENTRANCE, building, userIds);
+                    for (int f = 0; f < settings.floors(); f++) {
+                        long floor = nextId++;
+                        addObject(insert, ids, floor, "Этаж " + (f + 1), ObjectType.FLOOR, entrance, userIds);
+                        for (int a = 0; a < settings.apartments(); a++) {
+                            addObject(insert, ids, nextId++, "Квартира " + (f * settings.apartments() + a + 1),
+                                    ObjectType.APARTMENT, floor, userIds);
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return ids;
+    }
+
+    private void addObject(PreparedStatement insert, List<Long> ids, long id, String name, ObjectType type,
+                           Long parentId, long[] userIds) throws SQLException {
+        insert.setLong(1, id);
+        insert.setString(2, name);
+        insert.setString(3, type.name());
+        if (parentId == null) {
+            insert.setNull(4, Types.BIGINT);
+        } else {
+            insert.setLong(4, parentId);
+        }
+        insert.setLong(5, userIds[random.nextInt(userIds.length)]);
+        insert.setLong(6, userIds[random.nextInt(userIds.length)]);
+        insert.addBatch();
+        ids.add(id);
+        if (ids.size() % BATCH_SIZE == 0) {
+            insert.executeBatch();
+        }
+    }
+
+    private long[] insertTasks(Connection connection, List<Long> objectIds, long[] userIds) throws SQLException {
+        long[] ids = new long[objectIds.size() * settings.tasksPerObject()];
+        long nextId = nextId(connection, "tasks");
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO tasks (id, title, description, status, deadline, object_id, created_by_id, responsible_user_id)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """)) {
+            int count = 0;
+            for (long objectId : objectIds) {
+                for (int t = 0; t < settings.tasksPerObject(); t++) {
+                    long id = nextId++;
+                    ids[count++] = id;
+                    insert.setLong(1, id);
+                    insert.setString(2, "Задача " + id);
+                    insert.setString(3, "Сгенерировано нагрузочным тестом");
+                    insert.setString(4, STATUSES[random.nextInt(STATUSES.length)].name());
+                    insert.setTimestamp(5, Timestamp.valueOf(now.plusDays(random.nextInt(60) - 10)));
+                    insert.setLong(6, objectId);
+                    insert.setLong(7, userIds[random.nextInt(userIds.length)]);
+                    insert.setLong(8, userIds[random.nextInt(userIds.length)]);
+                    insert.addBatch();
+                    if (count % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return ids;
+    }
+
+    /**
+     * Вложения создаются только строками в базе: файлы на диске для сценариев не нужны,
+     * а объём таблицы влияет на запросы списков и архивов.
+     */
+    private void insertAttachments(Connection connection, long[] taskIds) throws SQLException {
+        long nextId = nextId(connection, "task_attachments");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO task_attachments (id, task_id, file_path) VALUES (?, ?, ?)")) {
+            int count = 0;
+            for (long taskId : taskIds) {
+                for (int a = 0; a < settings.attachmentsPerTask(); a++) {
+                    long id = nextId++;
+                    insert.setLong(1, id);
+                    insert.setLong(2, taskId);
+                    insert.setString(3, "seed/" + taskId + "/" + id + ".jpg");
+                    insert.addBatch();
+                    if (++count % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT coalesce(max(id), 0) + 1 FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static List<String> names(String prefix, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            names.add(prefix + "-" + i);
+        }
+        return names;
+    }
+}
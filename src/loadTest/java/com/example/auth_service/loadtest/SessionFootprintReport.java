@@ -0,0 +1,212 @@
+package com.example.auth_service.loadtest;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.auth_service.dto.UserDto;
+import com.example.auth_service.serialization.CompactRedisSerializer;
+import com.example.auth_service.serialization.SessionRecord;
+import com.example.auth_service.serialization.SessionRecordCodec;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Отчёт о памяти Redis под сессии: прежний формат (хеш с полями {@code token} и {@code expiry})
+ * против хеша сессий устройств с двоичными записями {@link SessionRecordCodec}, по одному
+ * устройству на пользователя, а также размеры значений L2-кэша
+ * {@code userInfo} в стандартной сериализации Java и в {@link CompactRedisSerializer}.
+ * <p>
+ * Сессии пишутся конвейером в чистый Redis в контейнере, расход — разница {@code used_memory}
+ * до и после, делённая на число сессий, то есть вместе с ключом, TTL и накладными
+ * расходами словаря. Токены — настоящие JWT той же формы, что выдаёт {@code JwtUtil}.
+ * </p>
+ * <p>
+ * Запуск: {@code ./gradlew sessionFootprint -Pload.sessions=1000000}. Нужен Docker.
+ * </p>
+ */
+@Slf4j
+public class SessionFootprintReport {
+
+    private static final String REDIS_PASSWORD = "footprint";
+    private static final long SESSION_TTL_MILLIS = TimeUnit.HOURS.toMillis(2);
+    private static final int PIPELINE_BATCH = 10_000;
+    private static final int USER_LIST_SIZE = 1_000;
+    private static final String DEVICE = "Zm9vdHByaW50LWRl";
+
+    private record Row(String name, long sessions, long usedBytes, long sampleKeyBytes, int valueBytes) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = Integer.parseInt(System.getProperty("load.sessions", "1000000"));
+        Path reportDir = Path.of(System.getProperty("load.report-dir", "build/reports/load-test"));
+
+        try (GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine")
+                .withCommand("redis-server", "--requirepass", REDIS_PASSWORD)
+                .withExposedPorts(6379)) {
+            redis.start();
+            RedisClient client = RedisClient.create(RedisURI.builder()
+                    .withHost(redis.getHost())
+                    .withPort(redis.getMappedPort(6379))
+                    .withPassword(REDIS_PASSWORD.toCharArray())
+                    .build());
+            try (StatefulRedisConnection<String, byte[]> connection =
+                         client.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE))) {
+                Algorithm algorithm = Algorithm.HMAC256("footprint-secret-footprint-secret");
+
+                List<Row> rows = new ArrayList<>();
+                rows.add(measure(connection, "hash (token, expiry)", sessions, "session:", "token", (async, i) -> {
+                    String token = token(algorithm, i);
+                    long expiry = System.currentTimeMillis() + SESSION_TTL_MILLIS;
+                    String key = "session:user-" + i;
+                    async.hset(key, Map.of(
+                            "token", token.getBytes(StandardCharsets.UTF_8),
+                            "expiry", String.valueOf(expiry).getBytes(StandardCharsets.UTF_8)));
+                    return async.pexpire(key, SESSION_TTL_MILLIS);
+                }));
+                long now = System.currentTimeMillis() / 1000;
+                rows.add(measure(connection, "binary v" + SessionRecordCodec.VERSION, sessions, "sessions:", DEVICE,
+                        (async, i) -> {
+                            String key = "sessions:user-" + i;
+                            SessionRecord record = SessionRecord.create(token(algorithm, i), "203.0.113.7", now,
+                                    now + TimeUnit.DAYS.toSeconds(7));
+                            async.hset(key, DEVICE, SessionRecordCodec.encode(record));
+                            return async.pexpire(key, TimeUnit.DAYS.toMillis(7));
+                        }));
+
+                String cacheReport = cacheValueSizes(connection.sync());
+                try (PrintStream out = new PrintStream(Files.newOutputStream(
+                        Files.createDirectories(reportDir).resolve("session-footprint.txt")), true,
+                        StandardCharsets.UTF_8)) {
+                    print(System.out, rows, cacheReport);
+                    print(out, rows, cacheReport);
+                }
+                log.info("Отчёт записан в {}", reportDir.resolve("session-footprint.txt").toAbsolutePath());
+            } finally {
+                client.shutdown();
+            }
+        }
+    }
+
+    private static Row measure(StatefulRedisConnection<String, byte[]> connection, String name, int sessions,
+                               String prefix, String sampleField, BiFunction<RedisAsyncCommands<String, byte[]>, Integer,
+                               RedisFuture<?>> write) throws Exception {
+        RedisCommands<String, byte[]> sync = connection.sync();
+        sync.flushall();
+        long before = usedMemory(sync);
+
+        log.info("Запись {} сессий: {}", sessions, name);
+        RedisAsyncCommands<String, byte[]> async = connection.async();
+        connection.setAutoFlushCommands(false);
+        try {
+            List<RedisFuture<?>> batch = new ArrayList<>(PIPELINE_BATCH);
+            for (int i = 0; i < sessions; i++) {
+                batch.add(write.apply(async, i));
+                if (batch.size() == PIPELINE_BATCH || i == sessions - 1) {
+                    connection.flushCommands();
+                    for (RedisFuture<?> future : batch) {
+                        future.get(1, TimeUnit.MINUTES);
+                    }
+                    batch.clear();
+                }
+            }
+        } finally {
+            connection.setAutoFlushCommands(true);
+        }
+
+        long used = usedMemory(sync) - before;
+        String sampleKey = prefix + "user-0";
+        Long sampleKeyBytes = sync.memoryUsage(sampleKey);
+        byte[] value = sync.hget(sampleKey, sampleField);
+        return new Row(name, sessions, used, sampleKeyBytes == null ? 0 : sampleKeyBytes,
+                value == null ? 0 : value.length);
+    }
+
+    /**
+     * Размеры одной записи {@code userInfo} и списка {@code userInfoList} в обоих форматах
+     * и их {@code MEMORY USAGE} в Redis.
+     */
+    private static String cacheValueSizes(RedisCommands<String, byte[]> sync) {
+        JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer(
+                SessionFootprintReport.class.getClassLoader());
+        CompactRedisSerializer compact = new CompactRedisSerializer(SessionFootprintReport.class.getClassLoader());
+        UserDto user = user(42);
+        List<UserDto> users = new ArrayList<>(USER_LIST_SIZE);
+        for (int i = 0; i < USER_LIST_SIZE; i++) {
+            users.add(user(i));
+        }
+        users = List.copyOf(users);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-28s %12s %12s %14s %14s%n",
+                "cache value", "jdk bytes", "compact", "jdk in redis", "compact redis"));
+        appendCacheRow(report, sync, "userInfo (1 user)", jdk.serialize(user), compact.serialize(user));
+        appendCacheRow(report, sync, "userInfoList (" + USER_LIST_SIZE + " users)",
+                jdk.serialize(users), compact.serialize(users));
+        return report.toString();
+    }
+
+    private static void appendCacheRow(StringBuilder report, RedisCommands<String, byte[]> sync, String name,
+                                       byte[] jdkValue, byte[] compactValue) {
+        sync.set("cache:jdk", jdkValue);
+        sync.set("cache:compact", compactValue);
+        report.append(String.format("%-28s %12d %12d %14d %14d%n", name, jdkValue.length, compactValue.length,
+                sync.memoryUsage("cache:jdk"), sync.memoryUsage("cache:compact")));
+        sync.del("cache:jdk", "cache:compact");
+    }
+
+    private static void print(PrintStream out, List<Row> rows, String cacheReport) {
+        out.printf("%-22s %10s %14s %12s %14s %12s%n",
+                "session format", "sessions", "used memory", "bytes/sess", "MEMORY USAGE", "value bytes");
+        for (Row row : rows) {
+            out.printf("%-22s %10d %11.1f MB %12.1f %14d %12d%n",
+                    row.name(), row.sessions(), row.usedBytes() / (1024.0 * 1024.0),
+                    (double) row.usedBytes() / row.sessions(), row.sampleKeyBytes(), row.valueBytes());
+        }
+        out.println();
+        out.print(cacheReport);
+    }
+
+    private static long usedMemory(RedisCommands<String, byte[]> sync) {
+        for (String line : sync.info("memory").split("\r?\n")) {
+            if (line.startsWith("used_memory:")) {
+                return Long.parseLong(line.substring("used_memory:".length()).trim());
+            }
+        }
+        throw new IllegalStateException("В INFO memory нет used_memory");
+    }
+
+    private static String token(Algorithm algorithm, int i) {
+        long now = System.currentTimeMillis();
+        return JWT.create()
+                .withSubject("user-" + i)
+                .withIssuer("auth_service")
+                .withClaim("roles", "ROLE_USER")
+                .withIssuedAt(new Date(now))
+                .withExpiresAt(new Date(now + SESSION_TTL_MILLIS))
+                .sign(algorithm);
+    }
+
+    private static UserDto user(long id) {
+        return new UserDto(id, "user-" + id, "user-" + id + "@example.com", "Иван", "Петров", "ROLE_USER", true);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.auth_service.aspect;
 
 import com.example.auth_service.annotation.RateLimit;
 import com.example.auth_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 public class RateLimitAspect {
 
     private final RedisTemplate<String, Long> rateLimitRedisTemplate;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Обрабатывает вызовы методов с аннотацией @RateLimit.
@@ -47,12 +49,24 @@ public class RateLimitAspect {
         
         if (currentCount > rateLimit.value()) {
             log.warn("Rate limit exceeded for key: {}", key);
+            meterRegistry.counter("rate_limit.rejections", "endpoint", endpoint(joinPoint)).increment();
             throw new RateLimitExceededException("Rate limit exceeded. Try again later.");
         }
         
         return joinPoint.proceed();
     }
 
+    /**
+     * Возвращает имя точки входа для метрик: простое имя класса и метод, например {@code AuthController.login}.
+     *
+     * @param joinPoint Точка соединения
+     * @return Имя точки входа
+     */
+    private String endpoint(ProceedingJoinPoint joinPoint) {
+        String typeName = joinPoint.getSignature().getDeclaringTypeName();
+        return typeName.substring(typeName.lastIndexOf('.') + 1) + "." + joinPoint.getSignature().getName();
+    }
+
     /**
      * Генерирует ключ для Redis на основе метода и параметров запроса.
      *
@@ -0,0 +1,59 @@
+package com.example.auth_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Принимает сообщения об инвалидации от других узлов и сбрасывает соответствующие записи L1
+ * или записи локальных кэшей, зарегистрированных как {@link RemoteInvalidationTarget}.
+ */
+@Slf4j
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final Map<String, RemoteInvalidationTarget> targets;
+    private final String nodeId;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager,
+                                     List<RemoteInvalidationTarget> targets,
+                                     String nodeId) {
+        this.cacheManager = cacheManager;
+        this.targets = targets.stream()
+                .collect(Collectors.toUnmodifiableMap(RemoteInvalidationTarget::getCacheName, Function.identity()));
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4 || parts[1].length() != 1) {
+            log.warn("Некорректное сообщение об инвалидации кэша");
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        char operation = parts[1].charAt(0);
+        String cacheName = parts[2];
+        RemoteInvalidationTarget target = targets.get(cacheName);
+        if (target != null) {
+            if (operation == CacheInvalidationPublisher.CLEAR) {
+                target.clearLocal();
+            } else if (operation == CacheInvalidationPublisher.EVICT) {
+                target.evictLocal(parts[3]);
+            }
+        } else if (operation == CacheInvalidationPublisher.CLEAR) {
+            cacheManager.applyRemoteInvalidation(cacheName, null);
+        } else if (operation == CacheInvalidationPublisher.EVICT) {
+            cacheManager.applyRemoteInvalidation(cacheName, parts[3]);
+        }
+        log.debug("Получена инвалидация кэша {} от узла {}", cacheName, parts[0]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.auth_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Рассылает другим узлам сообщения об инвалидации записей кэша через Redis pub/sub.
+ * <p>
+ * Формат сообщения: {@code узел|операция|кэш|ключ}, где операция — {@code E} (удаление ключа)
+ * или {@code C} (очистка кэша). Собственные сообщения узел игнорирует.
+ * </p>
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    static final char EVICT = 'E';
+    static final char CLEAR = 'C';
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(nodeId + "|" + EVICT + "|" + cacheName + "|" + key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(nodeId + "|" + CLEAR + "|" + cacheName + "|");
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (Exception e) {
+            // Записи L1 на других узлах истекут по TTL
+            log.warn("Не удалось разослать инвалидацию кэша: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.auth_service.cache;
+
+/**
+ * Имена кэшей приложения.
+ */
+public final class CacheNames {
+
+    /** Данные пользователя для Spring Security по логину. Только L1: содержит хеш пароля. */
+    public static final String USER_DETAILS = "userDetails";
+
+    /** Информация о пользователе ({@code UserDto}) по логину. */
+    public static final String USER_INFO = "userInfo";
+
+    /** Список информации обо всех пользователях. Сбрасывается целиком при любом изменении пользователя. */
+    public static final String USER_INFO_LIST = "userInfoList";
+
+    /** Пути от корня до объекта недвижимости по ID (см. {@link ObjectPathCache}). */
+    public static final String OBJECT_PATH = "objectPath";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.auth_service.cache;
+
+/**
+ * Снимок статистики двухуровневого кэша.
+ *
+ * @param name        имя кэша
+ * @param l1Size      приблизительное число записей в L1
+ * @param l1Hits      попадания в L1
+ * @param l1Misses    промахи L1
+ * @param l1Evictions вытеснения из L1 по размеру или времени жизни
+ * @param l2Hits      попадания в Redis после промаха L1
+ * @param l2Misses    промахи Redis
+ * @param l2Errors    ошибки обращения к Redis (кэш продолжает работать только на L1)
+ */
+public record CacheStatistics(String name,
+                              long l1Size,
+                              long l1Hits,
+                              long l1Misses,
+                              long l1Evictions,
+                              long l2Hits,
+                              long l2Misses,
+                              long l2Errors) {
+}
@@ -0,0 +1,294 @@
+package com.example.auth_service.cache;
+
+import com.example.auth_service.dto.ObjectResponseDto;
+import com.example.auth_service.event.ObjectDeletedEvent;
+import com.example.auth_service.event.ObjectMovedEvent;
+import com.example.auth_service.event.ObjectUpdatedEvent;
+import com.example.auth_service.event.RoleChangedEvent;
+import com.example.auth_service.event.UserChangedEvent;
+import com.example.auth_service.event.UserDeletedEvent;
+import com.example.auth_service.mapper.ObjectMapper;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.projection.ObjectPathRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Кэш путей (хлебных крошек) от корня дерева объектов до каждого объекта.
+ * <p>
+ * Путь объекта хранится целиком, поэтому повторный запрос — одно обращение к карте.
+ * При промахе путь строится от ближайшего закэшированного предка, и попутно кэшируются
+ * пути всех промежуточных объектов. Индекс «родитель → дети» позволяет при переименовании
+ * или переносе объекта сбросить пути всего его поддерева, а индекс «пользователь → объекты» —
+ * при изменении пользователя сбросить только объекты, где он создатель или ответственный.
+ * При старте кэш прогревается одним запросом-проекцией всех объектов с данными пользователей.
+ * </p>
+ * <p>
+ * Инвалидации рассылаются другим узлам через общий канал Redis pub/sub. Путь, построенный
+ * по данным, прочитанным до инвалидации, в кэш не попадает (см. {@link #generation}).
+ * </p>
+ */
+@Slf4j
+@Component
+public class ObjectPathCache implements RemoteInvalidationTarget {
+
+    private final ObjectRepository objectRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationPublisher publisher;
+    private final boolean warmUpEnabled;
+
+    /** Неизменяемые пути от корня до объекта включительно. */
+    private final Map<Long, List<ObjectResponseDto>> paths = new ConcurrentHashMap<>();
+    /** Дети закэшированных объектов; ссылки на перенесённые объекты лишь вызывают лишнюю инвалидацию. */
+    private final Map<Long, Set<Long>> children = new ConcurrentHashMap<>();
+    /** Закэшированные объекты по создателю и ответственному; устаревшие ссылки лишь вызывают лишнюю инвалидацию. */
+    private final Map<Long, Set<Long>> objectsByUser = new ConcurrentHashMap<>();
+    /** Счётчик инвалидаций: увеличивается до удаления записей и сверяется после записи пути. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ObjectPathCache(ObjectRepository objectRepository,
+                           ObjectMapper objectMapper,
+                           CacheInvalidationPublisher publisher,
+                           @Value("${object.path-cache.warm-up:true}") boolean warmUpEnabled) {
+        this.objectRepository = objectRepository;
+        this.objectMapper = objectMapper;
+        this.publisher = publisher;
+        this.warmUpEnabled = warmUpEnabled;
+    }
+
+    /**
+     * Возвращает путь от корня до объекта.
+     *
+     * @param id идентификатор объекта
+     * @return неизменяемый список объектов от корня до текущего; пустой, если объект не найден
+     */
+    @Transactional(readOnly = true)
+    public List<ObjectResponseDto> getPath(Long id) {
+        List<ObjectResponseDto> cached = paths.get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return build(id, generation.get(),
+                objectId -> objectRepository.findById(objectId).map(objectMapper::toDto).orElse(null));
+    }
+
+    /**
+     * Заполняет кэш путями всех объектов после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (!warmUpEnabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        long stamp = generation.get();
+        List<ObjectPathRow> rows = objectRepository.findAllPathRows();
+        Map<Long, ObjectResponseDto> byId = new HashMap<>(rows.size() * 2);
+        for (ObjectPathRow row : rows) {
+            byId.put(row.getId(), objectMapper.toDto(row));
+        }
+        for (Long id : byId.keySet()) {
+            if (!paths.containsKey(id)) {
+                build(id, stamp, byId::get);
+            }
+        }
+        log.info("Кэш путей объектов прогрет: {} объектов за {} мс",
+                byId.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectUpdated(ObjectUpdatedEvent event) {
+        invalidateSubtree(event.objectId());
+        publisher.publishEvict(CacheNames.OBJECT_PATH, event.objectId().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectMoved(ObjectMovedEvent event) {
+        unlink(event.oldParentId(), event.objectId());
+        invalidateSubtree(event.objectId());
+        publisher.publishEvict(CacheNames.OBJECT_PATH, event.objectId().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectDeleted(ObjectDeletedEvent event) {
+        invalidateSubtree(event.objectId());
+        unlink(event.parentId(), event.objectId());
+        children.remove(event.objectId());
+        publisher.publishEvict(CacheNames.OBJECT_PATH, event.objectId().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidateReferencing(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        invalidateReferencing(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidateReferencing(event.userId());
+    }
+
+    @Override
+    public String getCacheName() {
+        return CacheNames.OBJECT_PATH;
+    }
+
+    @Override
+    public void evictLocal(String key) {
+        invalidateSubtree(Long.valueOf(key));
+    }
+
+    @Override
+    public void clearLocal() {
+        generation.incrementAndGet();
+        paths.clear();
+        children.clear();
+        objectsByUser.clear();
+    }
+
+    /**
+     * Возвращает статистику кэша в формате двухуровневых кэшей; уровень L2 не используется.
+     *
+     * @return снимок статистики
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(CacheNames.OBJECT_PATH, paths.size(),
+                hits.sum(), misses.sum(), 0, 0, 0, 0);
+    }
+
+    /**
+     * Удаляет пути объекта и всех его потомков.
+     *
+     * @param rootId идентификатор корня поддерева
+     */
+    void invalidateSubtree(Long rootId) {
+        generation.incrementAndGet();
+        Deque<Long> queue = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+        queue.add(rootId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            if (!visited.add(id)) {
+                continue;
+            }
+            paths.remove(id);
+            Set<Long> childIds = children.get(id);
+            if (childIds != null) {
+                queue.addAll(childIds);
+            }
+        }
+        log.debug("Сброшены пути поддерева объекта {}: {} объектов", rootId, visited.size());
+    }
+
+    /**
+     * Сбрасывает поддеревья объектов, в DTO которых указан пользователь (создатель или ответственный).
+     */
+    private void invalidateReferencing(Long userId) {
+        Set<Long> affected = objectsByUser.remove(userId);
+        if (affected == null) {
+            return;
+        }
+        for (Long id : affected) {
+            invalidateSubtree(id);
+            publisher.publishEvict(CacheNames.OBJECT_PATH, id.toString());
+        }
+    }
+
+    /**
+     * Строит путь объекта, поднимаясь до ближайшего закэшированного предка или корня,
+     * и кэширует пути всех пройденных объектов.
+     *
+     * @param id     идентификатор объекта
+     * @param stamp  значение {@link #generation} до чтения данных
+     * @param source источник DTO по идентификатору; null, если объект не найден
+     * @return путь от корня до объекта
+     */
+    private List<ObjectResponseDto> build(Long id, long stamp, Function<Long, ObjectResponseDto> source) {
+        Deque<ObjectResponseDto> chain = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+        List<ObjectResponseDto> path = List.of();
+        Long currentId = id;
+        while (currentId != null && visited.add(currentId)) {
+            List<ObjectResponseDto> cached = paths.get(currentId);
+            if (cached != null) {
+                path = cached;
+                break;
+            }
+            ObjectResponseDto dto = source.apply(currentId);
+            if (dto == null) {
+                break;
+            }
+            chain.push(dto);
+            currentId = dto.getParentId();
+        }
+
+        while (!chain.isEmpty()) {
+            ObjectResponseDto dto = chain.pop();
+            List<ObjectResponseDto> extended = new ArrayList<>(path.size() + 1);
+            extended.addAll(path);
+            extended.add(dto);
+            path = Collections.unmodifiableList(extended);
+            store(dto, path, stamp);
+        }
+        return path;
+    }
+
+    private void store(ObjectResponseDto dto, List<ObjectResponseDto> path, long stamp) {
+        if (dto.getParentId() != null) {
+            children.computeIfAbsent(dto.getParentId(), key -> ConcurrentHashMap.newKeySet()).add(dto.getId());
+        }
+        indexUser(dto.getCreatedById(), dto.getId());
+        indexUser(dto.getResponsibleUserId(), dto.getId());
+        paths.put(dto.getId(), path);
+        if (generation.get() != stamp) {
+            // За время построения прошла инвалидация: путь мог быть прочитан до изменения
+            paths.remove(dto.getId(), path);
+        }
+    }
+
+    private void indexUser(Long userId, Long objectId) {
+        if (userId != null) {
+            objectsByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(objectId);
+        }
+    }
+
+    private void unlink(Long parentId, Long childId) {
+        if (parentId == null) {
+            return;
+        }
+        Set<Long> childIds = children.get(parentId);
+        if (childIds != null) {
+            childIds.remove(childId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.auth_service.cache;
+
+/**
+ * Локальный кэш вне {@link TwoLevelCacheManager}, принимающий инвалидации от других узлов
+ * через общий канал Redis pub/sub.
+ */
+public interface RemoteInvalidationTarget {
+
+    /**
+     * @return имя кэша в сообщениях об инвалидации
+     */
+    String getCacheName();
+
+    /**
+     * Удаляет запись по ключу из сообщения.
+     *
+     * @param key ключ в строковом виде
+     */
+    void evictLocal(String key);
+
+    /**
+     * Очищает кэш целиком.
+     */
+    void clearLocal();
+}
@@ -0,0 +1,238 @@
+package com.example.auth_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Двухуровневый кэш: ограниченный локальный Caffeine (L1) поверх общего для всех узлов Redis (L2).
+ * <p>
+ * Caffeine ограничивает размер L1 и решает, какие записи в нём держать, по политике W-TinyLFU,
+ * поэтому поток разовых ключей не вытесняет часто используемые. Записи обоих уровней имеют TTL.
+ * Запись и удаление идут в оба уровня, после чего другие узлы получают сообщение и сбрасывают
+ * свою копию в L1. Ключи приводятся к строке, чтобы совпадать на всех узлах.
+ * Недоступность Redis не ломает кэш: он продолжает работать только на L1.
+ * </p>
+ * <p>
+ * Метрики L1 публикуются стандартными метрами Caffeine ({@code cache.gets}, {@code cache.evictions},
+ * {@code cache.size}), L2 — счётчиками {@code cache.l2.gets} и {@code cache.l2.errors}; все с тегом {@code cache}.
+ * </p>
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache implements MeterBinder {
+
+    private static final String KEY_PREFIX = "cache:";
+
+    private final String name;
+    private final Cache<String, Object> l1;
+    private final RedisTemplate<String, Object> l2;
+    private final Duration l2Ttl;
+    private final CacheInvalidationPublisher publisher;
+
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+    private final LongAdder l2Errors = new LongAdder();
+
+    /**
+     * @param name      имя кэша
+     * @param l1        локальный кэш
+     * @param l2        шаблон Redis или null, если второй уровень отключён
+     * @param l2Ttl     время жизни записей в Redis
+     * @param publisher рассылка инвалидаций
+     */
+    public TwoLevelCache(String name, Cache<String, Object> l1, RedisTemplate<String, Object> l2,
+                         Duration l2Ttl, CacheInvalidationPublisher publisher) {
+        super(true);
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.l2Ttl = l2Ttl;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = String.valueOf(key);
+        Object value = l1.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        value = readL2(localKey);
+        if (value != null) {
+            l1.put(localKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * Загрузка значения при промахе выполняется один раз на ключ в пределах узла:
+     * параллельные запросы того же ключа ждут результата первого.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = String.valueOf(key);
+        Object stored = l1.get(localKey, k -> {
+            Object fromL2 = readL2(k);
+            if (fromL2 != null) {
+                return fromL2;
+            }
+            Object loaded;
+            try {
+                loaded = toStoreValue(valueLoader.call());
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            writeL2(k, loaded);
+            return loaded;
+        });
+        return (T) fromStoreValue(stored);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = String.valueOf(key);
+        Object stored = toStoreValue(value);
+        l1.put(localKey, stored);
+        writeL2(localKey, stored);
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = String.valueOf(key);
+        l1.invalidate(localKey);
+        if (l2 != null) {
+            try {
+                l2.delete(redisKey(localKey));
+            } catch (Exception e) {
+                l2Errors.increment();
+                log.warn("Не удалось удалить ключ {} кэша {} из Redis: {}", localKey, name, e.getMessage());
+            }
+        }
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        l1.invalidateAll();
+        if (l2 != null) {
+            try {
+                List<String> keys = new ArrayList<>();
+                ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + name + ":*").count(500).build();
+                try (Cursor<String> cursor = l2.scan(options)) {
+                    cursor.forEachRemaining(keys::add);
+                }
+                if (!keys.isEmpty()) {
+                    l2.delete(keys);
+                }
+            } catch (Exception e) {
+                l2Errors.increment();
+                log.warn("Не удалось очистить кэш {} в Redis: {}", name, e.getMessage());
+            }
+        }
+        publisher.publishClear(name);
+    }
+
+    /**
+     * Удаляет ключ только из локального уровня. Вызывается по сообщению от другого узла.
+     */
+    void evictLocal(String key) {
+        l1.invalidate(key);
+    }
+
+    /**
+     * Очищает только локальный уровень. Вызывается по сообщению от другого узла.
+     */
+    void clearLocal() {
+        l1.invalidateAll();
+    }
+
+    /**
+     * Возвращает статистику обоих уровней.
+     */
+    public CacheStatistics getStatistics() {
+        CacheStats stats = l1.stats();
+        return new CacheStatistics(name, l1.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                l2Hits.sum(), l2Misses.sum(), l2Errors.sum());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, l1, name);
+        FunctionCounter.builder("cache.l2.gets", l2Hits, LongAdder::sum)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .description("Обращения к Redis-уровню кэша")
+                .register(registry);
+        FunctionCounter.builder("cache.l2.gets", l2Misses, LongAdder::sum)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .description("Обращения к Redis-уровню кэша")
+                .register(registry);
+        FunctionCounter.builder("cache.l2.errors", l2Errors, LongAdder::sum)
+                .tag("cache", name)
+                .description("Ошибки обращения к Redis-уровню кэша")
+                .register(registry);
+    }
+
+    private Object readL2(String localKey) {
+        if (l2 == null) {
+            return null;
+        }
+        try {
+            Object value = l2.opsForValue().get(redisKey(localKey));
+            if (value != null) {
+                l2Hits.increment();
+            } else {
+                l2Misses.increment();
+            }
+            return value;
+        } catch (Exception e) {
+            l2Errors.increment();
+            log.warn("Ошибка чтения кэша {} из Redis: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeL2(String localKey, Object value) {
+        if (l2 == null) {
+            return;
+        }
+        try {
+            l2.opsForValue().set(redisKey(localKey), value, l2Ttl);
+        } catch (Exception e) {
+            l2Errors.increment();
+            log.warn("Ошибка записи кэша {} в Redis: {}", name, e.getMessage());
+        }
+    }
+
+    private String redisKey(String localKey) {
+        return KEY_PREFIX + name + ":" + localKey;
+    }
+}
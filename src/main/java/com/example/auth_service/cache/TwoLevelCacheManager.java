@@ -0,0 +1,108 @@
+package com.example.auth_service.cache;
+
+import com.example.auth_service.config.CacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Менеджер двухуровневых кэшей {@link TwoLevelCache}.
+ * <p>
+ * Кэши, перечисленные в {@code cache.specs}, создаются при старте, остальные — по первому обращению
+ * с настройками {@code cache.default-spec}. Менеджер учитывает транзакции: запись и удаление,
+ * выполненные внутри транзакции, применяются только после её фиксации, чтобы параллельный
+ * запрос не закэшировал данные, которые ещё могут откатиться.
+ * Каждый созданный кэш, в том числе по первому обращению, регистрирует свои метрики в {@link MeterRegistry}.
+ * </p>
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final CacheProperties properties;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheInvalidationPublisher publisher;
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(CacheProperties properties,
+                                RedisTemplate<String, Object> redisTemplate,
+                                CacheInvalidationPublisher publisher,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.getSpecs().keySet().stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    /**
+     * Возвращает статистику всех кэшей.
+     */
+    public List<CacheStatistics> getStatistics() {
+        return getCacheNames().stream()
+                .map(this::getTwoLevelCache)
+                .filter(Objects::nonNull)
+                .map(TwoLevelCache::getStatistics)
+                .toList();
+    }
+
+    /**
+     * Применяет инвалидацию, полученную от другого узла, к локальному уровню.
+     *
+     * @param cacheName имя кэша
+     * @param key       ключ или null для очистки всего кэша
+     */
+    void applyRemoteInvalidation(String cacheName, String key) {
+        TwoLevelCache cache = getTwoLevelCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    private TwoLevelCache getTwoLevelCache(String name) {
+        Cache cache = lookupCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return cache instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+    }
+
+    private TwoLevelCache createCache(String name) {
+        CacheProperties.Spec spec = properties.specFor(name);
+        log.info("Создание кэша {}: L1 до {} записей, TTL {}, L2 {}", name, spec.getMaximumSize(),
+                spec.getL1Ttl(), spec.isL2Enabled() ? "Redis, TTL " + spec.getL2Ttl() : "отключён");
+        TwoLevelCache cache = new TwoLevelCache(name,
+                Caffeine.newBuilder()
+                        .maximumSize(spec.getMaximumSize())
+                        .expireAfterWrite(spec.getL1Ttl())
+                        .recordStats()
+                        .build(),
+                spec.isL2Enabled() ? redisTemplate : null,
+                spec.getL2Ttl(),
+                publisher);
+        cache.bindTo(meterRegistry);
+        return cache;
+    }
+}
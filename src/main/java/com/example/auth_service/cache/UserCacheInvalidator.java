@@ -0,0 +1,60 @@
+package com.example.auth_service.cache;
+
+import com.example.auth_service.event.RoleChangedEvent;
+import com.example.auth_service.event.UserChangedEvent;
+import com.example.auth_service.event.UserDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Сбрасывает пользовательские кэши по доменным событиям после фиксации транзакции.
+ * <p>
+ * Записи конкретного пользователя удаляются по логину, список всех пользователей сбрасывается целиком.
+ * Используются {@link Cache#evictIfPresent} и {@link Cache#invalidate}: они выполняются сразу,
+ * тогда как {@code evict} транзакционного кэша на фазе AFTER_COMMIT регистрировал бы
+ * синхронизацию, которая уже не будет вызвана.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictUser(event.username());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        evictUser(event.username());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evictUser(event.username());
+    }
+
+    private void evictUser(String username) {
+        Cache userDetails = cacheManager.getCache(CacheNames.USER_DETAILS);
+        if (userDetails != null) {
+            userDetails.evictIfPresent(username);
+        }
+        Cache userInfo = cacheManager.getCache(CacheNames.USER_INFO);
+        if (userInfo != null) {
+            userInfo.evictIfPresent(username);
+        }
+        Cache userInfoList = cacheManager.getCache(CacheNames.USER_INFO_LIST);
+        if (userInfoList != null) {
+            userInfoList.invalidate();
+        }
+        log.debug("Кэш пользователя {} сброшен", username);
+    }
+}
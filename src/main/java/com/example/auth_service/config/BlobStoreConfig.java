@@ -0,0 +1,80 @@
+package com.example.auth_service.config;
+
+import com.example.auth_service.storage.BlobStore;
+import com.example.auth_service.storage.LocalBlobStore;
+import com.example.auth_service.storage.S3BlobStore;
+import com.example.auth_service.storage.ShardedBlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Конфигурация хранилища файлов. Реализация {@link BlobStore} выбирается
+ * свойством {@code file.storage.backend}: {@code local}, {@code sharded} или {@code s3}.
+ */
+@Slf4j
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore blobStore(FileStorageConfig fileStorageConfig) {
+        FileStorageConfig.Storage storage = fileStorageConfig.getStorage();
+        log.info("Хранилище файлов: {}", storage.getBackend());
+        return switch (storage.getBackend()) {
+            case LOCAL -> new LocalBlobStore(Paths.get(fileStorageConfig.getUploadDir()));
+            case SHARDED -> {
+                List<Path> roots = storage.getShardDirs().stream().map(Paths::get).toList();
+                yield new ShardedBlobStore(roots);
+            }
+            case S3 -> s3BlobStore(storage.getS3());
+        };
+    }
+
+    private S3BlobStore s3BlobStore(FileStorageConfig.S3 properties) {
+        if (!StringUtils.hasText(properties.getBucket())) {
+            throw new IllegalStateException("Не задан бакет file.storage.s3.bucket");
+        }
+        Region region = Region.of(properties.getRegion());
+        AwsCredentialsProvider credentials = StringUtils.hasText(properties.getAccessKey())
+                ? StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(properties.getAccessKey(), properties.getSecretKey()))
+                : DefaultCredentialsProvider.create();
+        S3Configuration serviceConfiguration = S3Configuration.builder()
+                .pathStyleAccessEnabled(properties.isPathStyleAccess())
+                .build();
+
+        S3Client.Builder clientBuilder = S3Client.builder()
+                .region(region)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration);
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                .region(region)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration);
+        if (StringUtils.hasText(properties.getEndpoint())) {
+            URI endpoint = URI.create(properties.getEndpoint());
+            clientBuilder.endpointOverride(endpoint);
+            presignerBuilder.endpointOverride(endpoint);
+        }
+
+        S3BlobStore store = new S3BlobStore(clientBuilder.build(), presignerBuilder.build(), properties.getBucket());
+        if (properties.isCreateBucket()) {
+            store.createBucketIfMissing();
+        }
+        return store;
+    }
+}
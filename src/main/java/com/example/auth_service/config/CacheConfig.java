@@ -1,19 +1,62 @@
 package com.example.auth_service.config;
 
-import org.springframework.cache.CacheManager;
+import com.example.auth_service.cache.CacheInvalidationListener;
+import com.example.auth_service.cache.CacheInvalidationPublisher;
+import com.example.auth_service.cache.RemoteInvalidationTarget;
+import com.example.auth_service.cache.TwoLevelCacheManager;
+import com.example.auth_service.serialization.CompactRedisSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
+/**
+ * Конфигурация кэширования: локальный Caffeine (L1) поверх Redis (L2)
+ * с рассылкой инвалидаций между узлами через Redis pub/sub.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(java.util.Arrays.asList("userDetails", "userInfo"));
-        return cacheManager;
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RedisConnectionFactory connectionFactory,
+                                                                 CacheProperties cacheProperties) {
+        return new CacheInvalidationPublisher(new StringRedisTemplate(connectionFactory),
+                cacheProperties.getInvalidationChannel());
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             CacheProperties cacheProperties,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             MeterRegistry meterRegistry) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new CompactRedisSerializer(getClass().getClassLoader()));
+        template.afterPropertiesSet();
+        return new TwoLevelCacheManager(cacheProperties, template, cacheInvalidationPublisher, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            List<RemoteInvalidationTarget> remoteInvalidationTargets,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, remoteInvalidationTargets,
+                        cacheInvalidationPublisher.getNodeId()),
+                new ChannelTopic(cacheInvalidationPublisher.getChannel()));
+        return container;
     }
-} 
\ No newline at end of file
+}
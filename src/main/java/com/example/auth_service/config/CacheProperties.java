@@ -0,0 +1,55 @@
+package com.example.auth_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки двухуровневого кэша ({@code cache.*}).
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    /** Канал Redis, по которому узлы рассылают друг другу инвалидации. */
+    private String invalidationChannel = "cache:invalidation";
+
+    /** Настройки для кэшей, не перечисленных в {@link #specs}. */
+    private Spec defaultSpec = new Spec();
+
+    /** Настройки по именам кэшей. */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * Возвращает настройки кэша с учётом значений по умолчанию.
+     *
+     * @param name имя кэша
+     * @return настройки кэша
+     */
+    public Spec specFor(String name) {
+        return specs.getOrDefault(name, defaultSpec);
+    }
+
+    /**
+     * Настройки одного кэша.
+     */
+    @Getter
+    @Setter
+    public static class Spec {
+        /** Максимальное число записей в локальном кэше (L1). */
+        private long maximumSize = 10_000;
+        /** Время жизни записи в L1 после записи. */
+        private Duration l1Ttl = Duration.ofMinutes(5);
+        /** Время жизни записи в Redis (L2). */
+        private Duration l2Ttl = Duration.ofMinutes(30);
+        /** Использовать ли Redis в качестве второго уровня. */
+        private boolean l2Enabled = true;
+    }
+}
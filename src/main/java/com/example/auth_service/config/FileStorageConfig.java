@@ -1,12 +1,19 @@
 package com.example.auth_service.config;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @ConfigurationProperties(prefix = "file")
 public class FileStorageConfig {
     private String uploadDir;
+    private final Storage storage = new Storage();
 
     public String getUploadDir() {
         return uploadDir;
@@ -15,4 +22,51 @@ public class FileStorageConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
-} 
\ No newline at end of file
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Тип хранилища файлов.
+     */
+    public enum Backend {
+        /** Каталог {@code file.upload-dir} на локальном диске. */
+        LOCAL,
+        /** Несколько каталогов {@code file.storage.shard-dirs}, обычно на разных дисках. */
+        SHARDED,
+        /** S3-совместимое объектное хранилище. */
+        S3
+    }
+
+    /**
+     * Настройки хранилища файлов ({@code file.storage.*}).
+     */
+    @Getter
+    @Setter
+    public static class Storage {
+        private Backend backend = Backend.LOCAL;
+        private List<String> shardDirs = new ArrayList<>();
+        /** Срок действия ссылок для прямого скачивания. */
+        private Duration presignTtl = Duration.ofMinutes(10);
+        private final S3 s3 = new S3();
+    }
+
+    /**
+     * Настройки S3-совместимого хранилища ({@code file.storage.s3.*}).
+     */
+    @Getter
+    @Setter
+    public static class S3 {
+        /** Адрес сервиса; пустой для AWS S3. */
+        private String endpoint;
+        private String region = "us-east-1";
+        private String bucket;
+        private String accessKey;
+        private String secretKey;
+        /** Адресация бакета в пути запроса, необходима для MinIO. */
+        private boolean pathStyleAccess = true;
+        /** Создавать бакет при старте, если его нет. */
+        private boolean createBucket = false;
+    }
+}
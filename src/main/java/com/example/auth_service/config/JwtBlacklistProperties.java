@@ -0,0 +1,39 @@
+package com.example.auth_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки локального фильтра черного списка JWT ({@code jwt.blacklist.*}).
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "jwt.blacklist")
+public class JwtBlacklistProperties {
+
+    /** Канал Redis pub/sub, по которому узлы сообщают друг другу об отозванных токенах. */
+    private String channel = "jwt:revocations";
+
+    /**
+     * Интервал полной выгрузки черного списка из Redis. Ограничивает окно, в котором узел,
+     * пропустивший сообщение pub/sub (например, при переподключении), не видит отзыв токена.
+     */
+    private Duration syncInterval = Duration.ofSeconds(30);
+
+    /**
+     * Сколько времени фильтр считается актуальным без успешной выгрузки. Дальше каждая проверка
+     * снова идёт в Redis, как без фильтра.
+     */
+    private Duration maxStaleness = Duration.ofMinutes(2);
+
+    /** Ожидаемое число отозванных действующих токенов; фильтр растёт, если их больше. */
+    private int expectedEntries = 100_000;
+
+    /** Доля ложных срабатываний фильтра, то есть проверок, которые всё же уходят в Redis. */
+    private double falsePositiveProbability = 0.001;
+}
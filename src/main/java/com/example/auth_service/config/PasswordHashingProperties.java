@@ -0,0 +1,34 @@
+package com.example.auth_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройки хеширования паролей ({@code password-hashing.*}).
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * Алгоритм новых хешей: {@code bcrypt} или {@code pbkdf2}. Хеши других алгоритмов и с другой
+     * стоимостью по-прежнему проверяются и пересчитываются при следующем успешном входе.
+     */
+    private String encodingId = "bcrypt";
+
+    /** Стоимость BCrypt (log2 числа раундов). */
+    private int bcryptStrength = 10;
+
+    /** Число потоков хеширования; по умолчанию — по числу ядер. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Сколько операций может ждать свободного потока. Сверх этого запрос сразу получает 503,
+     * а не ждёт секунды в очереди: при стоимости 10 одна операция занимает ядро на десятки миллисекунд.
+     */
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,57 @@
+package com.example.auth_service.config;
+
+import com.example.auth_service.trace.RedisTraceProxies;
+import com.example.auth_service.trace.RequestBudgetFilter;
+import com.example.auth_service.trace.SqlTraceListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Учёт обращений к базе данных и Redis в рамках запроса: источник данных оборачивается
+ * datasource-proxy, фабрика подключений Redis — {@link RedisTraceProxies},
+ * а {@link RequestBudgetFilter} открывает трассу на каждый HTTP-запрос.
+ * Включается свойством {@code request-budget.enabled=true} — в профилях {@code dev} и {@code test};
+ * в остальных окружениях прокси не создаются.
+ */
+@Configuration
+@ConditionalOnProperty(name = "request-budget.enabled", havingValue = "true")
+public class RequestBudgetConfig {
+
+    @Bean
+    public static BeanPostProcessor requestTraceBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlTraceListener())
+                            .build();
+                }
+                if (bean instanceof RedisConnectionFactory connectionFactory) {
+                    return RedisTraceProxies.trace(connectionFactory);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Фильтр стоит раньше Spring Security, чтобы в трассу попали обращения к Redis при проверке токена.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestBudgetFilter> requestBudgetFilter(RequestBudgetProperties properties) {
+        FilterRegistrationBean<RequestBudgetFilter> registration =
+                new FilterRegistrationBean<>(new RequestBudgetFilter(properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.auth_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки учёта обращений к базе данных и Redis в рамках запроса ({@code request-budget.*}).
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "request-budget")
+public class RequestBudgetProperties {
+
+    /** Учитывать ли обращения к базе данных и Redis. */
+    private boolean enabled = true;
+
+    /** Добавлять ли счётчики в заголовки ответа; включается в разработке и тестах. */
+    private boolean exposeHeaders = false;
+
+    /** Бюджет для точек входа, не перечисленных в {@link #endpoints}. */
+    private Budget defaultBudget = new Budget();
+
+    /** Бюджеты по точкам входа: ключ — метод и шаблон пути, например {@code GET /tasks/{id}}. */
+    private Map<String, Budget> endpoints = new LinkedHashMap<>();
+
+    /**
+     * Возвращает бюджет точки входа с учётом значения по умолчанию.
+     *
+     * @param endpoint метод и шаблон пути
+     * @return бюджет
+     */
+    public Budget budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+
+    /**
+     * Допустимое число обращений за один запрос.
+     */
+    @Getter
+    @Setter
+    public static class Budget {
+        /** Число SQL-запросов. */
+        private int sqlStatements = 10;
+        /** Число команд Redis. */
+        private int redisCommands = 10;
+    }
+}
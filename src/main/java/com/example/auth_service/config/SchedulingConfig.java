@@ -0,0 +1,12 @@
+package com.example.auth_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает выполнение периодических задач ({@link org.springframework.scheduling.annotation.Scheduled}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
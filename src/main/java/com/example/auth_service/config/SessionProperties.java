@@ -0,0 +1,33 @@
+package com.example.auth_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки сессий устройств ({@code session.*}).
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "session")
+public class SessionProperties {
+
+    /** Срок бездействия, после которого токен доступа устройства перестаёт приниматься. */
+    private Duration idleTimeout = Duration.ofHours(2);
+
+    /** Предельный срок сессии устройства; продлевается при обновлении токена, как и refresh-токен. */
+    private Duration maxLifetime = Duration.ofDays(7);
+
+    /** Предел одновременных сессий пользователя; при входе сверх предела закрывается самая давняя по активности. */
+    private int maxDevices = 10;
+
+    /**
+     * Как часто запрос продлевает сессию. Продление — отдельная запись в Redis, поэтому
+     * делается не на каждый запрос, а не чаще этого интервала; бездействие отсчитывается с точностью до него.
+     */
+    private Duration touchInterval = Duration.ofMinutes(5);
+}
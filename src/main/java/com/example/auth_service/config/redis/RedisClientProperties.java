@@ -0,0 +1,47 @@
+package com.example.auth_service.config.redis;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки клиента Lettuce и пула подключений Redis ({@code redis.client.*}).
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "redis.client")
+public class RedisClientProperties {
+
+    /** Таймаут выполнения команды. */
+    private Duration commandTimeout = Duration.ofSeconds(2);
+
+    /** Таймаут установки соединения. */
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /** Время на завершение команд при остановке приложения. */
+    private Duration shutdownTimeout = Duration.ofMillis(100);
+
+    /** Пул выделенных подключений. */
+    private Pool pool = new Pool();
+
+    /**
+     * Пул выделенных подключений: через них идут блокирующие команды и транзакции,
+     * остальные команды используют общее подключение.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+        /** Максимальное число подключений. */
+        private int maxActive = 16;
+        /** Максимальное число простаивающих подключений. */
+        private int maxIdle = 8;
+        /** Минимальное число простаивающих подключений. */
+        private int minIdle = 2;
+        /** Предельное ожидание свободного подключения. */
+        private Duration maxWait = Duration.ofMillis(500);
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.auth_service.config.redis;
 
+import com.example.auth_service.config.JwtBlacklistProperties;
 import com.example.auth_service.exception.RedisConfigurationException;
 import com.example.auth_service.model.PasswordResetToken;
+import com.example.auth_service.service.security.jwt.JwtBlacklistService;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -34,12 +46,21 @@ public class RedisConfig {
 
     /**
      * Создает и настраивает фабрику подключений к Redis.
+     * <p>
+     * Обычные команды идут через одно общее подключение, в том числе конвейерные; блокирующие команды
+     * и транзакции берут выделенное подключение из пула. Клиент переподключается сам, а пока
+     * соединения нет, команды отклоняются сразу, а не копятся в буфере до таймаута.
+     * Ресурсы клиента общие с автоконфигурацией Spring Boot, поэтому Lettuce пишет задержки команд в Micrometer.
+     * </p>
      *
+     * @param clientResources ресурсы клиента Lettuce.
+     * @param properties      настройки клиента и пула.
      * @return {@link LettuceConnectionFactory} для работы с Redis.
      * @throws RedisConfigurationException если конфигурация некорректна.
      */
     @Bean
-    public LettuceConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory(ClientResources clientResources,
+                                                           RedisClientProperties properties) {
         if (host == null || host.isBlank()) {
             log.error("Хост Redis не может быть пустым");
             throw new RedisConfigurationException("Хост Redis не может быть пустым");
@@ -60,7 +81,44 @@ public class RedisConfig {
         redisConfig.setPort(port);
         redisConfig.setPassword(password);
 
-        return new LettuceConnectionFactory(redisConfig);
+        RedisClientProperties.Pool pool = properties.getPool();
+        GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(pool.getMaxActive());
+        poolConfig.setMaxIdle(pool.getMaxIdle());
+        poolConfig.setMinIdle(pool.getMinIdle());
+        poolConfig.setMaxWait(pool.getMaxWait());
+        // Имя в JMX, по которому CommonsObjectPool2Metrics отдаёт заполненность пула
+        poolConfig.setJmxNamePrefix("redis");
+
+        ClientOptions clientOptions = ClientOptions.builder()
+                .autoReconnect(true)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .socketOptions(SocketOptions.builder().connectTimeout(properties.getConnectTimeout()).build())
+                .timeoutOptions(TimeoutOptions.enabled(properties.getCommandTimeout()))
+                .build();
+
+        LettucePoolingClientConfiguration clientConfig = LettucePoolingClientConfiguration.builder()
+                .poolConfig(poolConfig)
+                .clientResources(clientResources)
+                .clientOptions(clientOptions)
+                .commandTimeout(properties.getCommandTimeout())
+                .shutdownTimeout(properties.getShutdownTimeout())
+                .build();
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(redisConfig, clientConfig);
+        connectionFactory.setShareNativeConnection(true);
+        return connectionFactory;
+    }
+
+    /**
+     * Метрики пулов commons-pool2 ({@code commons.pool2.num.active}, {@code num.waiters},
+     * {@code mean.borrow.wait.time} и др.) по данным JMX.
+     *
+     * @return привязка метрик пулов к реестру
+     */
+    @Bean
+    public CommonsObjectPool2Metrics commonsObjectPool2Metrics() {
+        return new CommonsObjectPool2Metrics();
     }
 
     /**
@@ -87,6 +145,24 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    /**
+     * Создает шаблон Redis для хешей сессий: поля — строки, значения — двоичные записи
+     * (см. {@code SessionRecordCodec}).
+     *
+     * @param connectionFactory Фабрика подключений к Redis.
+     * @return {@link RedisTemplate} с ключами-строками и значениями-массивами байт.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> sessionRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
     /**
      * Создает и настраивает шаблон Redis для работы с объектами PasswordResetToken.
      *
@@ -101,4 +177,22 @@ public class RedisConfig {
         template.setValueSerializer(new Jackson2JsonRedisSerializer<>(PasswordResetToken.class));
         return template;
     }
+
+    /**
+     * Подписывает локальный фильтр черного списка JWT на отзывы токенов с других узлов.
+     *
+     * @param connectionFactory   Фабрика подключений к Redis.
+     * @param jwtBlacklistService Черный список, принимающий сообщения.
+     * @param properties          Настройки черного списка.
+     * @return контейнер подписки
+     */
+    @Bean
+    public RedisMessageListenerContainer jwtRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        JwtBlacklistService jwtBlacklistService,
+                                                                        JwtBlacklistProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(jwtBlacklistService, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
 }
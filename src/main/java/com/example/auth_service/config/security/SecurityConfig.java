@@ -1,8 +1,12 @@
 package com.example.auth_service.config.security;
 
+import com.example.auth_service.config.PasswordHashingProperties;
 import com.example.auth_service.config.security.filter.JwtAuthFilter;
+import com.example.auth_service.service.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,12 +20,17 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 /**
  * Конфигурация безопасности приложения.
  * Настраивает фильтрацию запросов, аутентификацию и управление сессиями.
@@ -34,17 +43,23 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final JwtAuthFilter jwtAuthFilter;
 
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     /**
      * Настраивает цепочку фильтров безопасности.
      *
-     * @param http объект для конфигурации HTTP безопасности.
+     * @param http                   объект для конфигурации HTTP безопасности.
+     * @param authenticationProvider провайдер аутентификации по логину и паролю.
      * @return настроенная цепочка безопасности.
      * @throws Exception если произошла ошибка конфигурации.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           AuthenticationProvider authenticationProvider) throws Exception {
         log.info("Настройка SecurityFilterChain");
 
         http
@@ -55,12 +70,18 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/auth/**"
                         ).permitAll()
+                        // Проверка состояния открыта; метрики Prometheus — только на порту управления,
+                        // который не публикуется наружу
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                         // Доступ к объектам недвижимости
                         .requestMatchers(HttpMethod.GET, "/real-estate-objects").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/real-estate-objects").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/real-estate-objects/{id}").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/real-estate-objects/{id}").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/real-estate-objects/my-objects").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/real-estate-objects/{id}/tree").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/real-estate-objects/by-responsible/{userId}").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/real-estate-objects/{id}/assign-responsible/{userId}").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/real-estate-objects/{id}/remove-responsible").hasRole("ADMIN")
@@ -69,11 +90,14 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/users").hasRole("ADMIN") // создание пользователя
                         .requestMatchers(HttpMethod.GET, "/users/info").authenticated() // инфо о себе
                         .requestMatchers(HttpMethod.GET, "/users/info/all").hasRole("ADMIN") // инфо обо всех
+                        .requestMatchers(HttpMethod.GET, "/users/info/search").hasRole("ADMIN") // поиск пользователей
                         .requestMatchers(HttpMethod.GET, "/users/info/{id}").hasRole("ADMIN") // инфо по ID
                         .requestMatchers(HttpMethod.PUT, "/users/update/first-name").authenticated() // обновление имени
                         .requestMatchers(HttpMethod.PUT, "/users/update/last-name").authenticated() // обновление фамилии
                         .requestMatchers(HttpMethod.PUT, "/users/update/email").authenticated() // обновление почты
                         .requestMatchers(HttpMethod.PUT, "/users/update/{userId}/role").hasRole("ADMIN") // обновление роли
+                        .requestMatchers(HttpMethod.GET, "/users/sessions").authenticated() // свои сессии устройств
+                        .requestMatchers(HttpMethod.DELETE, "/users/sessions", "/users/sessions/{sessionId}").authenticated() // отзыв своих сессий
                         .requestMatchers(HttpMethod.DELETE, "/users/{id}").hasRole("ADMIN") // удаление пользователей
 
                         // Доступ к задачам
@@ -93,14 +117,20 @@ public class SecurityConfig {
                         // Доступ к файлам
                         .requestMatchers(HttpMethod.POST, "/api/files/upload").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/files/download/{fileName:.+}").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/files/link/{fileName:.+}").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/files/thumbnail/{size}/{fileName:.+}").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/files/{fileName:.+}").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/files/task/{taskId}").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/files/object/{objectId}/archive").hasAnyRole("USER", "ADMIN")
+
+                        // Администрирование
+                        .requestMatchers(HttpMethod.GET, "/api/admin/caches").hasRole("ADMIN")
 
                         // Любые другие запросы требуют авторизации
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         log.info("SecurityFilterChain настроен успешно");
@@ -109,24 +139,40 @@ public class SecurityConfig {
 
     /**
      * Создает и возвращает {@link PasswordEncoder} для хеширования паролей.
+     * <p>
+     * Новые хеши получают префикс алгоритма ({@code {bcrypt}}, {@code {pbkdf2}}), хеши без префикса
+     * считаются BCrypt. Хеши другого алгоритма или стоимости пересчитываются при успешном входе.
+     * Все операции выполняются на выделенном пуле {@link BoundedPasswordEncoder}.
+     * </p>
      *
-     * @return экземпляр {@link BCryptPasswordEncoder}.
+     * @param properties    настройки хеширования.
+     * @param meterRegistry реестр метрик пула.
+     * @return экземпляр {@link BoundedPasswordEncoder}.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        log.info("Создание PasswordEncoder (BCrypt)");
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        log.info("Создание PasswordEncoder ({}, стоимость BCrypt {}, потоков {})",
+                properties.getEncodingId(), properties.getBcryptStrength(), properties.getThreads());
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(properties.getEncodingId(), Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, properties.getThreads(), properties.getQueueCapacity(),
+                meterRegistry);
     }
 
     /**
      * Настраивает провайдера аутентификации.
      * Использует {@link DaoAuthenticationProvider} с кастомным сервисом загрузки пользователей.
+     * После успешного входа устаревший хеш пароля сохраняется заново через {@link UserDetailsPasswordService}.
      *
+     * @param passwordEncoder кодировщик паролей.
      * @return экземпляр {@link AuthenticationProvider}.
      * @throws IllegalStateException если userDetailsService не инициализирован.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         if (userDetailsService == null) {
             log.error("UserDetailsService не может быть null");
             throw new IllegalStateException("UserDetailsService не может быть null");
@@ -135,7 +181,8 @@ public class SecurityConfig {
         log.info("Настройка AuthenticationProvider");
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
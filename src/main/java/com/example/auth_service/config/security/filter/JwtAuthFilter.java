@@ -2,15 +2,16 @@ package com.example.auth_service.config.security.filter;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.example.auth_service.repository.redis.RedisRepository;
 import com.example.auth_service.service.SessionService;
+import com.example.auth_service.service.security.jwt.JwtBlacklistService;
 import com.example.auth_service.service.security.jwt.JwtUtil;
 import com.example.auth_service.service.security.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,8 +21,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Фильтр для аутентификации JWT.
@@ -29,13 +30,31 @@ import java.util.Date;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    /** Атрибут запроса с идентификатором сессии устройства, от имени которой выполнен запрос. */
+    public static final String SESSION_ID_ATTRIBUTE = "sessionId";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService customUserDetailsService;
-    private final RedisRepository redisRepository;
+    private final JwtBlacklistService jwtBlacklistService;
     private final SessionService sessionService;
+    /** Время проверки токена: успешные и отклонённые запросы считаются отдельно. */
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthFilter(JwtUtil jwtUtil,
+                         CustomUserDetailsService customUserDetailsService,
+                         JwtBlacklistService jwtBlacklistService,
+                         SessionService sessionService,
+                         MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.customUserDetailsService = customUserDetailsService;
+        this.jwtBlacklistService = jwtBlacklistService;
+        this.sessionService = sessionService;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
 
     /**
      * Проверяет и обрабатывает JWT-токен из запроса.
@@ -53,6 +72,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
+            long start = System.nanoTime();
+            boolean authenticated = false;
             try {
                 DecodedJWT decodedJWT = jwtUtil.decodeToken(token);
                 String username = decodedJWT.getSubject();
@@ -63,17 +84,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     throw new JWTVerificationException("Токен истек");
                 }
 
-                // Проверяем, не находится ли токен в черном списке
-                if (redisRepository.isExists(token)) {
+                // Проверяем, не находится ли токен в черном списке: обычно без обращения к Redis
+                if (jwtBlacklistService.isRevoked(JwtUtil.tokenId(decodedJWT))) {
                     log.warn("Токен находится в черном списке");
                     throw new JWTVerificationException("Токен находится в черном списке");
                 }
 
-                // Проверяем валидность сессии
-                if (!sessionService.isSessionValid(username, token)) {
+                // Проверяем сессию устройства: одно обращение к Redis, продление — не чаще session.touch-interval
+                String sessionId = decodedJWT.getClaim(JwtUtil.SESSION_ID_CLAIM).asString();
+                if (!sessionService.validateSession(username, sessionId, token)) {
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     return;
                 }
+                request.setAttribute(SESSION_ID_ATTRIBUTE, sessionId);
 
                 // Загружаем пользователя из базы данных
                 UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
@@ -86,9 +109,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 // Устанавливаем аутентификацию в контекст безопасности
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                // Обновляем сессию
-                sessionService.updateSession(username, token, Duration.ofHours(2));
-
+                authenticated = true;
                 log.debug("Успешная аутентификация для пользователя: {}", username);
             } catch (JWTVerificationException e) {
                 log.error("Ошибка верификации JWT: {}", e.getMessage());
@@ -98,9 +119,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                 log.error("Ошибка обработки JWT: {}", e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
+            } finally {
+                (authenticated ? authenticatedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.filter")
+                .description("Проверка JWT-токена запроса")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
\ No newline at end of file
@@ -10,7 +10,6 @@ import com.example.auth_service.dto.ForgotPasswordDto;
 import com.example.auth_service.service.AuthService;
 import com.example.auth_service.service.SessionService;
 import com.example.auth_service.service.security.jwt.JwtUtil;
-import jakarta.mail.MessagingException;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -20,7 +19,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import java.time.Duration;
 
 /**
  * Контроллер для аутентификации и регистрации пользователей.
@@ -48,12 +46,11 @@ public class AuthController {
      * </p>
      *
      * @param userSignupDto DTO с данными для регистрации пользователя.
-     * @throws MessagingException если не удалось отправить email.
      */
     @RateLimit(value = 3, timeWindow = 3600)
     @PostMapping("/register-user")
     @ResponseStatus(HttpStatus.CREATED)
-    public void register(@Valid @RequestBody UserSignupDto userSignupDto) throws MessagingException {
+    public void register(@Valid @RequestBody UserSignupDto userSignupDto) {
         log.info("Регистрация пользователя: {}", userSignupDto.getEmail());
         authService.register(userSignupDto, false);  // false - для обычного пользователя
     }
@@ -66,12 +63,11 @@ public class AuthController {
      * </p>
      *
      * @param userSignupDto DTO с данными администратора.
-     * @throws MessagingException если не удалось отправить email.
      */
     @RateLimit(value = 1, timeWindow = 3600)
     @PostMapping("/register-admin")
     @ResponseStatus(HttpStatus.CREATED)
-    public void registerAdmin(@Valid @RequestBody UserSignupDto userSignupDto) throws MessagingException {
+    public void registerAdmin(@Valid @RequestBody UserSignupDto userSignupDto) {
         log.info("Регистрация администратора: {}", userSignupDto.getEmail());
         authService.register(userSignupDto, true);  // true - для администратора
     }
@@ -84,14 +80,16 @@ public class AuthController {
      * </p>
      *
      * @param userSigninDto DTO с данными для входа.
+     * @param request HTTP-запрос, адрес клиента попадает в список сессий.
      * @param response HTTP-ответ, в который добавляется cookie с токеном.
      * @return Ответ с JWT-токеном.
      */
     @RateLimit(value = 5, timeWindow = 60)
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody UserSigninDto userSigninDto, HttpServletResponse response) {
+    public ResponseEntity<AuthResponse> login(@RequestBody UserSigninDto userSigninDto, HttpServletRequest request,
+                                              HttpServletResponse response) {
         log.info("Аутентификация пользователя: {}", userSigninDto.getUsername());
-        AuthResponse authResponse = authService.login(userSigninDto, response);
+        AuthResponse authResponse = authService.login(userSigninDto, request.getRemoteAddr(), response);
         return ResponseEntity.ok(authResponse);
     }
 
@@ -139,12 +137,11 @@ public class AuthController {
      * </p>
      *
      * @param email Адрес электронной почты пользователя.
-     * @throws MessagingException если не удалось отправить email.
      */
     @RateLimit(value = 3, timeWindow = 3600)
     @PostMapping("/resend-verification")
     @ResponseStatus(HttpStatus.OK)
-    public void resendEmailVerification(@RequestParam String email) throws MessagingException {
+    public void resendEmailVerification(@RequestParam String email) {
         log.info("Запрос на повторную отправку кода подтверждения на email: {}", email);
         authService.resendConfirmationCode(email);
     }
@@ -188,12 +185,11 @@ public class AuthController {
      * </p>
      *
      * @param forgotPasswordDto DTO с email пользователя.
-     * @throws MessagingException если не удалось отправить email.
      */
     @RateLimit(value = 3, timeWindow = 3600)
     @PostMapping("/forgot-password")
     @ResponseStatus(HttpStatus.OK)
-    public void forgotPassword(@Valid @RequestBody ForgotPasswordDto forgotPasswordDto) throws MessagingException {
+    public void forgotPassword(@Valid @RequestBody ForgotPasswordDto forgotPasswordDto) {
         log.info("Запрос на сброс пароля для email: {}", forgotPasswordDto.getEmail());
         authService.sendPasswordResetLink(forgotPasswordDto.getEmail());
     }
@@ -237,8 +233,8 @@ public class AuthController {
                 DecodedJWT decodedJWT = jwtUtil.decodeToken(token);
                 String username = decodedJWT.getSubject();
 
-                if (sessionService.isSessionValid(username, token)) {
-                    sessionService.updateSession(username, token, Duration.ofHours(2));
+                String sessionId = decodedJWT.getClaim(JwtUtil.SESSION_ID_CLAIM).asString();
+                if (sessionService.validateSession(username, sessionId, token)) {
                     log.info("Токен успешно валидирован для пользователя: {}", username);
                     return ResponseEntity.ok().build();
                 }
@@ -0,0 +1,43 @@
+package com.example.auth_service.controller;
+
+import com.example.auth_service.cache.CacheStatistics;
+import com.example.auth_service.cache.ObjectPathCache;
+import com.example.auth_service.cache.TwoLevelCacheManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Контроллер для просмотра состояния кэшей приложения.
+ * Доступен только администраторам.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/caches")
+public class CacheController {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final ObjectPathCache objectPathCache;
+
+    /**
+     * Возвращает статистику попаданий, промахов и вытеснений по каждому кэшу.
+     *
+     * @return список статистик кэшей
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatistics>> getStatistics() {
+        log.debug("Запрос статистики кэшей");
+        List<CacheStatistics> statistics = new ArrayList<>(cacheManager.getStatistics());
+        statistics.add(objectPathCache.getStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+}
@@ -3,15 +3,26 @@ package com.example.auth_service.controller;
 import com.example.auth_service.exception.FileNotFoundException;
 import com.example.auth_service.exception.FileStorageException;
 import com.example.auth_service.exception.InvalidFileException;
+import com.example.auth_service.model.ThumbnailSize;
+import com.example.auth_service.service.AttachmentArchiveService;
 import com.example.auth_service.service.FileStorageService;
+import com.example.auth_service.service.ThumbnailService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Контроллер для управления файлами.
@@ -23,10 +34,19 @@ import java.util.Map;
 public class FileController {
 
     private final FileStorageService fileStorageService;
+    private final ThumbnailService thumbnailService;
+    private final AttachmentArchiveService attachmentArchiveService;
+    private final Duration archiveTimeout;
 
     @Autowired
-    public FileController(FileStorageService fileStorageService) {
+    public FileController(FileStorageService fileStorageService,
+                          ThumbnailService thumbnailService,
+                          AttachmentArchiveService attachmentArchiveService,
+                          @Value("${file.archive.timeout:PT30M}") Duration archiveTimeout) {
         this.fileStorageService = fileStorageService;
+        this.thumbnailService = thumbnailService;
+        this.attachmentArchiveService = attachmentArchiveService;
+        this.archiveTimeout = archiveTimeout;
     }
 
     /**
@@ -56,6 +76,27 @@ public class FileController {
         return fileStorageService.getTaskFiles(taskId);
     }
 
+    /**
+     * Выгружает ZIP-архив со всеми вложениями задач объекта и всех его потомков.
+     * Архив формируется потоково, без временных файлов на сервере. Выгрузка может длиться дольше
+     * общего тайм-аута асинхронных запросов, поэтому для неё задаётся собственный
+     * ({@code file.archive.timeout}).
+     *
+     * @param objectId   идентификатор корневого объекта
+     * @param webRequest текущий запрос
+     * @return ResponseEntity с потоковым телом архива
+     */
+    @GetMapping("/object/{objectId}/archive")
+    public ResponseEntity<StreamingResponseBody> exportObjectAttachments(@PathVariable Long objectId,
+                                                                         NativeWebRequest webRequest) {
+        log.info("Получен запрос на выгрузку архива вложений для объекта {}", objectId);
+        ResponseEntity<StreamingResponseBody> response = attachmentArchiveService.exportObjectAttachments(objectId);
+        WebAsyncUtils.getAsyncManager(webRequest)
+                .registerCallableInterceptor(ArchiveTimeoutInterceptor.class.getName(),
+                        new ArchiveTimeoutInterceptor(archiveTimeout));
+        return response;
+    }
+
     /**
      * Скачивает файл по его имени.
      * Файл будет отправлен как вложение (attachment).
@@ -71,6 +112,38 @@ public class FileController {
         return fileStorageService.downloadFile(fileName);
     }
 
+    /**
+     * Возвращает ссылку для скачивания файла.
+     * Для S3-хранилища это подписанная ссылка с ограниченным сроком действия,
+     * по которой файл скачивается напрямую из хранилища.
+     *
+     * @param fileName имя файла
+     * @return ResponseEntity со ссылкой для скачивания
+     * @throws InvalidFileException если имя файла пустое
+     * @throws FileNotFoundException если файл не найден
+     */
+    @GetMapping("/link/{fileName:.+}")
+    public ResponseEntity<Map<String, String>> getDownloadLink(@PathVariable String fileName) {
+        log.info("Получен запрос на ссылку для скачивания файла: {}", fileName);
+        return fileStorageService.getDownloadLink(fileName);
+    }
+
+    /**
+     * Возвращает превью изображения указанного размера.
+     * Превью генерируются в фоне после загрузки и отдаются с долгоживущими заголовками кэширования.
+     *
+     * @param size     размер превью ({@code small}, {@code medium}, {@code large})
+     * @param fileName имя исходного файла
+     * @return ResponseEntity с превью
+     * @throws InvalidFileException если размер не поддерживается
+     * @throws FileNotFoundException если превью ещё не готово
+     */
+    @GetMapping("/thumbnail/{size}/{fileName:.+}")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String size, @PathVariable String fileName) {
+        log.debug("Получен запрос на превью {} файла: {}", size, fileName);
+        return thumbnailService.loadThumbnail(fileName, ThumbnailSize.fromPath(size));
+    }
+
     /**
      * Удаляет файл по его имени.
      *
@@ -85,4 +158,18 @@ public class FileController {
         log.info("Получен запрос на удаление файла: {}", fileName);
         return fileStorageService.deleteFile(fileName);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Задаёт тайм-аут асинхронной обработки перед её запуском: Spring MVC выставляет общий
+     * тайм-аут до вызова обработчика, а потоковое тело запускается уже после него.
+     */
+    private record ArchiveTimeoutInterceptor(Duration timeout) implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncWebRequest) {
+                asyncWebRequest.setTimeout(timeout.toMillis());
+            }
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.auth_service.controller;
 
 import com.example.auth_service.dto.ObjectResponseDto;
+import com.example.auth_service.dto.ObjectTreeNodeDto;
 import com.example.auth_service.model.ObjectType;
 import com.example.auth_service.service.ObjectService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -25,6 +30,7 @@ import java.util.List;
 public class ObjectController {
 
     private final ObjectService objectService;
+    private final ObjectMapper jsonMapper;
 
     /**
      * Получить все объекты недвижимости.
@@ -73,6 +79,29 @@ public class ObjectController {
         return ResponseEntity.ok(objectService.getChildren(id));
     }
 
+    /**
+     * Получить поддерево объекта недвижимости с вложенными дочерними объектами.
+     * <p>
+     * Поддерево выбирается одним запросом и сериализуется прямо в поток ответа,
+     * вместо поуровневых запросов {@code /children}.
+     * </p>
+     *
+     * @param id    идентификатор корневого объекта
+     * @param depth глубина дерева относительно корня (по умолчанию 10)
+     * @return корневой узел с вложенными детьми
+     */
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<StreamingResponseBody> getObjectTree(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "10") int depth) {
+        ObjectTreeNodeDto tree = objectService.getObjectTree(id, depth);
+        StreamingResponseBody body = outputStream -> jsonMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(outputStream, tree);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Создать новый объект недвижимости.
      *
@@ -1,5 +1,6 @@
 package com.example.auth_service.controller.user;
 
+import com.example.auth_service.dto.PageDto;
 import com.example.auth_service.dto.UserDto;
 import com.example.auth_service.service.user.UserInfoService;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -63,6 +65,26 @@ public class UserInfoController {
         return ResponseEntity.ok(allUsersInfo);
     }
 
+    /**
+     * Ищет пользователей постранично.
+     * <p>
+     * Этот метод доступен только администраторам. Параметр {@code query} ищет без учёта регистра
+     * по началу логина, email, имени или фамилии; без него возвращаются все пользователи.
+     * </p>
+     *
+     * @param query префикс для поиска (необязательный).
+     * @param page  номер страницы, начиная с 0.
+     * @param size  размер страницы (не более 100).
+     * @return {@link ResponseEntity} со страницей {@link UserDto}.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageDto<UserDto>> searchUsers(@RequestParam(required = false) String query,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userInfoService.searchUsers(query, page, size));
+    }
+
     /**
      * Получает информацию о пользователе по его идентификатору.
      * <p>
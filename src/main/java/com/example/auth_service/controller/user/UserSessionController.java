@@ -0,0 +1,68 @@
+package com.example.auth_service.controller.user;
+
+import com.example.auth_service.config.security.filter.JwtAuthFilter;
+import com.example.auth_service.dto.SessionDto;
+import com.example.auth_service.service.SessionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Контроллер сессий устройств текущего пользователя: просмотр и отзыв.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/users/sessions")
+public class UserSessionController {
+
+    private final SessionService sessionService;
+
+    /**
+     * Возвращает действующие сессии текущего пользователя; сессия запроса отмечена {@code current}.
+     *
+     * @param authentication   Объект аутентификации текущего пользователя.
+     * @param currentSessionId Идентификатор сессии запроса.
+     * @return {@link ResponseEntity} со списком {@link SessionDto}.
+     */
+    @GetMapping
+    public ResponseEntity<List<SessionDto>> getSessions(Authentication authentication,
+                                                        @RequestAttribute(name = JwtAuthFilter.SESSION_ID_ATTRIBUTE,
+                                                                required = false) String currentSessionId) {
+        return ResponseEntity.ok(sessionService.listSessions(authentication.getName(), currentSessionId));
+    }
+
+    /**
+     * Завершает одну сессию текущего пользователя, в том числе текущую.
+     *
+     * @param authentication Объект аутентификации текущего пользователя.
+     * @param sessionId      Идентификатор сессии.
+     * @return 204 No Content или 404 Not Found, если такой сессии нет.
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> revokeSession(Authentication authentication, @PathVariable String sessionId) {
+        boolean revoked = sessionService.revokeSession(authentication.getName(), sessionId);
+        return revoked ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Завершает все сессии текущего пользователя на всех устройствах.
+     *
+     * @param authentication Объект аутентификации текущего пользователя.
+     * @return 204 No Content.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> revokeAllSessions(Authentication authentication) {
+        sessionService.revokeAllSessions(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.auth_service.dto;
+
+import com.example.auth_service.model.ObjectType;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO узла дерева объектов недвижимости.
+ * Содержит основные данные объекта и вложенные дочерние узлы.
+ */
+@Data
+public class ObjectTreeNodeDto {
+
+    /**
+     * Уникальный идентификатор объекта.
+     */
+    private Long id;
+
+    /**
+     * Название объекта.
+     */
+    private String name;
+
+    /**
+     * Тип объекта.
+     */
+    private ObjectType objectType;
+
+    /**
+     * Идентификатор родительского объекта.
+     */
+    private Long parentId;
+
+    /**
+     * Идентификатор ответственного пользователя.
+     */
+    private Long responsibleUserId;
+
+    /**
+     * Имя ответственного пользователя.
+     */
+    private String responsibleUserFirstName;
+
+    /**
+     * Фамилия ответственного пользователя.
+     */
+    private String responsibleUserLastName;
+
+    /**
+     * Дочерние узлы. Пусты, если глубина выборки исчерпана или детей нет.
+     */
+    private List<ObjectTreeNodeDto> children = new ArrayList<>();
+}
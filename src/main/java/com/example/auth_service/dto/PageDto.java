@@ -0,0 +1,57 @@
+package com.example.auth_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * DTO страницы результатов.
+ * Используется вместо сериализации {@link Page} напрямую, чтобы формат ответа не зависел от Spring Data.
+ *
+ * @param <T> тип элементов страницы
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<T> {
+
+    /**
+     * Элементы текущей страницы.
+     */
+    private List<T> content;
+
+    /**
+     * Номер страницы, начиная с 0.
+     */
+    private int page;
+
+    /**
+     * Размер страницы.
+     */
+    private int size;
+
+    /**
+     * Общее число элементов.
+     */
+    private long totalElements;
+
+    /**
+     * Общее число страниц.
+     */
+    private int totalPages;
+
+    /**
+     * Создаёт DTO из страницы Spring Data.
+     *
+     * @param page страница результатов
+     * @param <T>  тип элементов
+     * @return DTO страницы
+     */
+    public static <T> PageDto<T> of(Page<T> page) {
+        return new PageDto<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.auth_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO сессии устройства пользователя.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionDto {
+
+    /**
+     * Идентификатор сессии. Передаётся в запрос отзыва.
+     */
+    private String id;
+
+    /**
+     * Время входа на устройстве.
+     */
+    private Instant createdAt;
+
+    /**
+     * Последняя активность с точностью до интервала продления сессии.
+     */
+    private Instant lastSeenAt;
+
+    /**
+     * Предельный срок сессии без обновления токена.
+     */
+    private Instant expiresAt;
+
+    /**
+     * IP-адрес, с которого выполнен вход, или null.
+     */
+    private String address;
+
+    /**
+     * Сессия, от имени которой выполнен запрос.
+     */
+    private boolean current;
+}
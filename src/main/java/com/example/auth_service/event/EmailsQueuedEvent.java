@@ -0,0 +1,12 @@
+package com.example.auth_service.event;
+
+import java.util.List;
+
+/**
+ * Событие о постановке писем в очередь отправки.
+ * Публикуется внутри транзакции бизнес-операции и обрабатывается после её фиксации.
+ *
+ * @param messageIds идентификаторы писем в очереди
+ */
+public record EmailsQueuedEvent(List<Long> messageIds) {
+}
@@ -0,0 +1,13 @@
+package com.example.auth_service.event;
+
+import com.example.auth_service.model.ObjectType;
+
+/**
+ * Событие о создании объекта недвижимости.
+ *
+ * @param objectId   идентификатор объекта
+ * @param parentId   идентификатор родителя или {@code null} для корневого объекта
+ * @param objectType тип объекта
+ */
+public record ObjectCreatedEvent(Long objectId, Long parentId, ObjectType objectType) {
+}
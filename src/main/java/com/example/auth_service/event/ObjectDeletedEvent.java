@@ -0,0 +1,10 @@
+package com.example.auth_service.event;
+
+/**
+ * Событие об удалении объекта недвижимости.
+ *
+ * @param objectId идентификатор удалённого объекта
+ * @param parentId идентификатор его родителя или {@code null}
+ */
+public record ObjectDeletedEvent(Long objectId, Long parentId) {
+}
@@ -0,0 +1,12 @@
+package com.example.auth_service.event;
+
+/**
+ * Событие о переносе объекта недвижимости к другому родителю.
+ * Затрагивает пути всех потомков объекта.
+ *
+ * @param objectId    идентификатор объекта
+ * @param oldParentId прежний родитель или {@code null}
+ * @param newParentId новый родитель или {@code null}
+ */
+public record ObjectMovedEvent(Long objectId, Long oldParentId, Long newParentId) {
+}
@@ -0,0 +1,13 @@
+package com.example.auth_service.event;
+
+import com.example.auth_service.model.ObjectType;
+
+/**
+ * Событие об изменении атрибутов объекта недвижимости (имя, тип, ответственный).
+ * О смене родителя дополнительно публикуется {@link ObjectMovedEvent}.
+ *
+ * @param objectId   идентификатор объекта
+ * @param objectType тип объекта после изменения
+ */
+public record ObjectUpdatedEvent(Long objectId, ObjectType objectType) {
+}
@@ -0,0 +1,14 @@
+package com.example.auth_service.event;
+
+import com.example.auth_service.model.Role;
+
+/**
+ * Событие о смене роли пользователя.
+ * Публикуется внутри транзакции и обрабатывается подписчиками после её фиксации.
+ *
+ * @param userId   идентификатор пользователя
+ * @param username логин пользователя
+ * @param roleType новая роль
+ */
+public record RoleChangedEvent(Long userId, String username, Role.RoleType roleType) {
+}
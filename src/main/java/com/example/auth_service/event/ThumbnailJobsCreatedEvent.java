@@ -0,0 +1,12 @@
+package com.example.auth_service.event;
+
+import java.util.List;
+
+/**
+ * Событие о создании заданий на генерацию превью.
+ * Публикуется внутри транзакции загрузки файлов и обрабатывается после её фиксации.
+ *
+ * @param jobIds идентификаторы созданных заданий
+ */
+public record ThumbnailJobsCreatedEvent(List<Long> jobIds) {
+}
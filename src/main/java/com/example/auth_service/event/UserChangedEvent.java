@@ -0,0 +1,11 @@
+package com.example.auth_service.event;
+
+/**
+ * Событие об изменении учётной записи пользователя: создание, активация, смена профиля или пароля.
+ * Публикуется внутри транзакции и обрабатывается подписчиками после её фиксации.
+ *
+ * @param userId   идентификатор пользователя
+ * @param username логин пользователя
+ */
+public record UserChangedEvent(Long userId, String username) {
+}
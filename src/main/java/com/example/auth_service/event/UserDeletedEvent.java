@@ -0,0 +1,11 @@
+package com.example.auth_service.event;
+
+/**
+ * Событие об удалении пользователя.
+ * Публикуется внутри транзакции и обрабатывается подписчиками после её фиксации.
+ *
+ * @param userId   идентификатор удалённого пользователя
+ * @param username логин удалённого пользователя
+ */
+public record UserDeletedEvent(Long userId, String username) {
+}
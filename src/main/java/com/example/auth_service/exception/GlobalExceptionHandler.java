@@ -1,6 +1,7 @@
 package com.example.auth_service.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -98,6 +99,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(ex.getMessage());
     }
 
+    /**
+     * Обрабатывает исключение, связанное с переполнением очереди хеширования паролей.
+     *
+     * @param ex Исключение {@link PasswordHashingOverloadedException}
+     * @return Ответ с кодом 503 SERVICE UNAVAILABLE и заголовком Retry-After
+     */
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<String> handlePasswordHashingOverloadedException(PasswordHashingOverloadedException ex) {
+        log.warn("Хеширование паролей перегружено: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     /**
      * Обрабатывает исключения, связанные с системными ошибками.
      *
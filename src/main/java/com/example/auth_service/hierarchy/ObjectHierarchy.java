@@ -0,0 +1,410 @@
+package com.example.auth_service.hierarchy;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Дерево объектов недвижимости в примитивных массивах.
+ * <p>
+ * Узел — индекс в параллельных массивах: идентификатор ({@code long}), индекс родителя,
+ * первого ребёнка и соседей (связный список детей «первый ребёнок / следующий брат»),
+ * порядковый номер типа. Идентификатор переводится в индекс через {@link LongIntHashMap}.
+ * Обходы идут по индексам без упаковки и без обращений к базе данных; освобождённые
+ * при удалении ячейки переиспользуются.
+ * </p>
+ * <p>
+ * Чтение и изменение защищены {@link ReentrantReadWriteLock}: обходы выполняются параллельно,
+ * изменения из событий — по одному. Порядок детей не гарантируется.
+ * </p>
+ */
+public final class ObjectHierarchy {
+
+    /** Идентификатор «родителя» корневых объектов. */
+    public static final long NO_PARENT = 0L;
+
+    /** Отсутствующий индекс; равен {@link LongIntHashMap#MISSING}, чтобы сравнивать с ним результат поиска в индексе. */
+    private static final int NONE = LongIntHashMap.MISSING;
+    private static final byte FREE = -1;
+    private static final long[] EMPTY = new long[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] prevSibling;
+    private byte[] type;
+    private final LongIntHashMap index;
+
+    /** Число занятых ячеек массивов, включая освобождённые. */
+    private int used;
+    /** Голова списка освобождённых ячеек, связанного через {@link #nextSibling}. */
+    private int freeHead = NONE;
+    private int size;
+
+    private ObjectHierarchy(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        prevSibling = new int[capacity];
+        type = new byte[capacity];
+        index = new LongIntHashMap(capacity);
+    }
+
+    /**
+     * Строит дерево из параллельных массивов. Объекты с неизвестным родителем становятся корнями.
+     *
+     * @param ids       идентификаторы объектов
+     * @param parentIds идентификаторы родителей или {@link #NO_PARENT}
+     * @param types     порядковые номера типов
+     * @param count     число объектов
+     * @return построенное дерево
+     */
+    public static ObjectHierarchy of(long[] ids, long[] parentIds, byte[] types, int count) {
+        ObjectHierarchy hierarchy = new ObjectHierarchy(count);
+        for (int i = 0; i < count; i++) {
+            int node = hierarchy.allocate(ids[i], types[i]);
+            hierarchy.index.put(ids[i], node);
+        }
+        for (int i = 0; i < count; i++) {
+            int parentNode = parentIds[i] == NO_PARENT ? NONE : hierarchy.index.get(parentIds[i]);
+            if (parentNode != NONE && !hierarchy.createsCycle(i, parentNode)) {
+                hierarchy.link(i, parentNode);
+            }
+        }
+        return hierarchy;
+    }
+
+    /**
+     * @return число объектов в дереве
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return index.get(id) != LongIntHashMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет объект или обновляет тип и родителя существующего.
+     *
+     * @param id       идентификатор объекта
+     * @param parentId идентификатор родителя или {@link #NO_PARENT}
+     * @param typeOrdinal порядковый номер типа
+     * @return false, если родитель неизвестен или перенос создал бы цикл; объект тогда становится корнем
+     */
+    public boolean upsert(long id, long parentId, byte typeOrdinal) {
+        lock.writeLock().lock();
+        try {
+            int node = index.get(id);
+            if (node == LongIntHashMap.MISSING) {
+                node = allocate(id, typeOrdinal);
+                index.put(id, node);
+            } else {
+                type[node] = typeOrdinal;
+            }
+            return attach(node, parentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Переносит объект к другому родителю.
+     *
+     * @return false, если объект неизвестен, родитель неизвестен или перенос создал бы цикл; объект тогда становится корнем
+     */
+    public boolean move(long id, long newParentId) {
+        lock.writeLock().lock();
+        try {
+            int node = index.get(id);
+            return node != LongIntHashMap.MISSING && attach(node, newParentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Меняет тип объекта.
+     */
+    public void setType(long id, byte typeOrdinal) {
+        lock.writeLock().lock();
+        try {
+            int node = index.get(id);
+            if (node != LongIntHashMap.MISSING) {
+                type[node] = typeOrdinal;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет объект. Его дети, если они остались, становятся корнями.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int node = index.get(id);
+            if (node == LongIntHashMap.MISSING) {
+                return;
+            }
+            while (firstChild[node] != NONE) {
+                unlink(firstChild[node]);
+            }
+            unlink(node);
+            index.remove(id);
+            type[node] = FREE;
+            nextSibling[node] = freeHead;
+            freeHead = node;
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return идентификаторы прямых детей; пустой массив для неизвестного объекта
+     */
+    public long[] childIds(long id) {
+        lock.readLock().lock();
+        try {
+            int node = index.get(id);
+            if (node == LongIntHashMap.MISSING) {
+                return EMPTY;
+            }
+            LongBuffer result = new LongBuffer(8);
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                result.add(ids[child]);
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы всех потомков объекта (без него самого) в порядке обхода в глубину.
+     *
+     * @return идентификаторы потомков; пустой массив для неизвестного объекта
+     */
+    public long[] descendantIds(long id) {
+        lock.readLock().lock();
+        try {
+            int root = index.get(id);
+            if (root == LongIntHashMap.MISSING) {
+                return EMPTY;
+            }
+            LongBuffer result = new LongBuffer(64);
+            for (int node = nextInSubtree(root, root); node != NONE; node = nextInSubtree(node, root)) {
+                result.add(ids[node]);
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return число потомков объекта; 0 для неизвестного объекта
+     */
+    public int countDescendants(long id) {
+        lock.readLock().lock();
+        try {
+            int root = index.get(id);
+            if (root == LongIntHashMap.MISSING) {
+                return 0;
+            }
+            int count = 0;
+            for (int node = nextInSubtree(root, root); node != NONE; node = nextInSubtree(node, root)) {
+                count++;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает предков объекта от корня до непосредственного родителя.
+     *
+     * @return идентификаторы предков; пустой массив для корня или неизвестного объекта
+     */
+    public long[] ancestorIds(long id) {
+        lock.readLock().lock();
+        try {
+            int node = index.get(id);
+            if (node == LongIntHashMap.MISSING) {
+                return EMPTY;
+            }
+            int depth = 0;
+            for (int current = parent[node]; current != NONE; current = parent[current]) {
+                depth++;
+            }
+            long[] result = new long[depth];
+            for (int current = parent[node]; current != NONE; current = parent[current]) {
+                result[--depth] = ids[current];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return идентификаторы объектов указанного типа
+     */
+    public long[] idsByType(byte typeOrdinal) {
+        lock.readLock().lock();
+        try {
+            LongBuffer result = new LongBuffer(64);
+            for (int node = 0; node < used; node++) {
+                if (type[node] == typeOrdinal) {
+                    result.add(ids[node]);
+                }
+            }
+            return result.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Следующий узел поддерева {@code root} в прямом обходе: сначала вниз к первому ребёнку,
+     * затем к брату, затем вверх до предка, у которого есть брат. Обход не использует стек.
+     */
+    private int nextInSubtree(int node, int root) {
+        if (firstChild[node] != NONE) {
+            return firstChild[node];
+        }
+        while (node != root) {
+            if (nextSibling[node] != NONE) {
+                return nextSibling[node];
+            }
+            node = parent[node];
+        }
+        return NONE;
+    }
+
+    private boolean attach(int node, long parentId) {
+        int parentNode = parentId == NO_PARENT ? NONE : index.get(parentId);
+        if (parentNode == parent[node] && parentNode != NONE) {
+            return true;
+        }
+        unlink(node);
+        if (parentNode == NONE) {
+            return parentId == NO_PARENT;
+        }
+        if (createsCycle(node, parentNode)) {
+            return false;
+        }
+        link(node, parentNode);
+        return true;
+    }
+
+    private boolean createsCycle(int node, int newParent) {
+        for (int current = newParent; current != NONE; current = parent[current]) {
+            if (current == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void link(int node, int parentNode) {
+        parent[node] = parentNode;
+        prevSibling[node] = NONE;
+        nextSibling[node] = firstChild[parentNode];
+        if (firstChild[parentNode] != NONE) {
+            prevSibling[firstChild[parentNode]] = node;
+        }
+        firstChild[parentNode] = node;
+    }
+
+    private void unlink(int node) {
+        int parentNode = parent[node];
+        if (parentNode == NONE) {
+            return;
+        }
+        if (prevSibling[node] != NONE) {
+            nextSibling[prevSibling[node]] = nextSibling[node];
+        } else {
+            firstChild[parentNode] = nextSibling[node];
+        }
+        if (nextSibling[node] != NONE) {
+            prevSibling[nextSibling[node]] = prevSibling[node];
+        }
+        parent[node] = NONE;
+        nextSibling[node] = NONE;
+        prevSibling[node] = NONE;
+    }
+
+    private int allocate(long id, byte typeOrdinal) {
+        int node;
+        if (freeHead != NONE) {
+            node = freeHead;
+            freeHead = nextSibling[node];
+        } else {
+            if (used == ids.length) {
+                grow();
+            }
+            node = used++;
+        }
+        ids[node] = id;
+        type[node] = typeOrdinal;
+        parent[node] = NONE;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        prevSibling[node] = NONE;
+        size++;
+        return node;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        prevSibling = Arrays.copyOf(prevSibling, capacity);
+        type = Arrays.copyOf(type, capacity);
+    }
+
+    /**
+     * Растущий массив {@code long} для результатов обходов.
+     */
+    private static final class LongBuffer {
+
+        private long[] values;
+        private int length;
+
+        LongBuffer(int capacity) {
+            values = new long[capacity];
+        }
+
+        void add(long value) {
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length << 1);
+            }
+            values[length++] = value;
+        }
+
+        long[] toArray() {
+            return length == 0 ? EMPTY : Arrays.copyOf(values, length);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.auth_service.hierarchy;
+
+import com.example.auth_service.event.ObjectCreatedEvent;
+import com.example.auth_service.event.ObjectDeletedEvent;
+import com.example.auth_service.event.ObjectMovedEvent;
+import com.example.auth_service.event.ObjectUpdatedEvent;
+import com.example.auth_service.model.ObjectType;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.projection.ObjectHierarchyNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Модель чтения дерева объектов в памяти.
+ * <p>
+ * При старте дерево загружается одним потоковым запросом в {@link ObjectHierarchy}, а затем
+ * поддерживается событиями {@code ObjectService} после фиксации транзакций. События, пришедшие
+ * во время загрузки, накапливаются и применяются к построенному дереву, поэтому изменения,
+ * зафиксированные параллельно с чтением, не теряются. Включается свойством
+ * {@code object.hierarchy-snapshot.enabled}.
+ * </p>
+ * <p>
+ * Дерево согласовано с базой данных с точностью до событий, ещё не обработанных после фиксации.
+ * Пока загрузка не завершена, {@link #snapshot()} пуст и вызывающие обращаются к базе данных.
+ * </p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "object.hierarchy-snapshot.enabled", havingValue = "true")
+public class ObjectHierarchyService {
+
+    private final ObjectRepository objectRepository;
+    /**
+     * Под монитором выполняются только операции в памяти: виртуальный поток, закреплённый
+     * на несущем потоке внутри {@code synchronized}, не должен ждать ввода-вывода.
+     */
+    private final Object monitor = new Object();
+
+    private volatile ObjectHierarchy hierarchy;
+    /** События, пришедшие во время загрузки; null вне загрузки. */
+    private List<Object> pendingEvents;
+
+    public ObjectHierarchyService(ObjectRepository objectRepository) {
+        this.objectRepository = objectRepository;
+    }
+
+    /**
+     * @return дерево объектов, если оно загружено
+     */
+    public Optional<ObjectHierarchy> snapshot() {
+        return Optional.ofNullable(hierarchy);
+    }
+
+    /**
+     * Загружает дерево из базы данных. Вызывается после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        synchronized (monitor) {
+            pendingEvents = new ArrayList<>();
+        }
+        long started = System.nanoTime();
+        ObjectHierarchy loaded;
+        try {
+            loaded = readHierarchy();
+        } catch (RuntimeException e) {
+            synchronized (monitor) {
+                pendingEvents = null;
+            }
+            throw e;
+        }
+
+        int applied;
+        synchronized (monitor) {
+            for (Object event : pendingEvents) {
+                apply(loaded, event);
+            }
+            applied = pendingEvents.size();
+            pendingEvents = null;
+            hierarchy = loaded;
+        }
+        log.info("Дерево объектов загружено в память: {} объектов за {} мс, применено {} событий",
+                loaded.size(), (System.nanoTime() - started) / 1_000_000, applied);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectCreated(ObjectCreatedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectUpdated(ObjectUpdatedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectMoved(ObjectMovedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onObjectDeleted(ObjectDeletedEvent event) {
+        dispatch(event);
+    }
+
+    private void dispatch(Object event) {
+        synchronized (monitor) {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+                return;
+            }
+            if (hierarchy != null) {
+                apply(hierarchy, event);
+            }
+        }
+    }
+
+    /**
+     * Применяет событие к дереву. Операции идемпотентны, поэтому повтор изменения,
+     * уже попавшего в загруженные данные, ничего не портит.
+     */
+    private void apply(ObjectHierarchy target, Object event) {
+        boolean consistent = true;
+        if (event instanceof ObjectCreatedEvent created) {
+            consistent = target.upsert(created.objectId(), parentKey(created.parentId()), ordinal(created.objectType()));
+        } else if (event instanceof ObjectUpdatedEvent updated && updated.objectType() != null) {
+            target.setType(updated.objectId(), ordinal(updated.objectType()));
+        } else if (event instanceof ObjectMovedEvent moved) {
+            consistent = target.move(moved.objectId(), parentKey(moved.newParentId()));
+        } else if (event instanceof ObjectDeletedEvent deleted) {
+            target.remove(deleted.objectId());
+        }
+        if (!consistent) {
+            log.warn("Событие {} не удалось применить к дереву объектов: родитель неизвестен или образуется цикл", event);
+        }
+    }
+
+    private ObjectHierarchy readHierarchy() {
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, objectRepository.count()));
+        long[] ids = new long[capacity];
+        long[] parentIds = new long[capacity];
+        byte[] types = new byte[capacity];
+        int count = 0;
+        try (Stream<ObjectHierarchyNode> nodes = objectRepository.streamHierarchyNodes()) {
+            for (ObjectHierarchyNode node : (Iterable<ObjectHierarchyNode>) nodes::iterator) {
+                if (count == ids.length) {
+                    int grown = ids.length + (ids.length >> 1);
+                    ids = Arrays.copyOf(ids, grown);
+                    parentIds = Arrays.copyOf(parentIds, grown);
+                    types = Arrays.copyOf(types, grown);
+                }
+                ids[count] = node.getId();
+                parentIds[count] = parentKey(node.getParentId());
+                types[count] = ordinal(ObjectType.valueOf(node.getObjectType()));
+                count++;
+            }
+        }
+        return ObjectHierarchy.of(ids, parentIds, types, count);
+    }
+
+    private static long parentKey(Long parentId) {
+        return parentId == null ? ObjectHierarchy.NO_PARENT : parentId;
+    }
+
+    private static byte ordinal(ObjectType type) {
+        return (byte) type.ordinal();
+    }
+}
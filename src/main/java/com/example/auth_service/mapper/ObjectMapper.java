@@ -2,6 +2,9 @@ package com.example.auth_service.mapper;
 
 import com.example.auth_service.dto.ObjectResponseDto;
 import com.example.auth_service.model.ObjectEntity;
+import com.example.auth_service.model.RoleMask;
+import com.example.auth_service.repository.projection.ObjectPathRow;
+import org.hibernate.Hibernate;
 import org.mapstruct.Mapper;
 
 /**
@@ -18,6 +21,49 @@ public class ObjectMapper {
      * @return преобразованный объект DTO
      */
     public ObjectResponseDto toDto(ObjectEntity entity) {
+        return toDto(entity, true);
+    }
+
+    /**
+     * Преобразует только что сохранённую сущность, не загружая связанные сущности.
+     * Для ссылок, полученных через {@code getReferenceById} и ещё не загруженных,
+     * заполняются только идентификаторы: иные поля потребовали бы отдельного запроса.
+     *
+     * @param entity сохранённая сущность
+     * @return преобразованный объект DTO
+     */
+    public ObjectResponseDto toCreatedDto(ObjectEntity entity) {
+        return toDto(entity, false);
+    }
+
+    /**
+     * Преобразует строку проекции {@link ObjectPathRow} в DTO с теми же полями, что и {@link #toDto(ObjectEntity)}.
+     *
+     * @param row строка проекции
+     * @return преобразованный объект DTO
+     */
+    public ObjectResponseDto toDto(ObjectPathRow row) {
+        ObjectResponseDto dto = new ObjectResponseDto();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setObjectType(row.getObjectType());
+        dto.setParentId(row.getParentId());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setCreatedById(row.getCreatedById());
+        if (row.getCreatedById() != null) {
+            dto.setCreatedByFirstName(row.getCreatedByFirstName());
+            dto.setCreatedByLastName(row.getCreatedByLastName());
+        }
+        dto.setResponsibleUserId(row.getResponsibleUserId());
+        if (row.getResponsibleUserId() != null) {
+            dto.setResponsibleUserFirstName(row.getResponsibleUserFirstName());
+            dto.setResponsibleUserLastName(row.getResponsibleUserLastName());
+            dto.setResponsibleUserRole(RoleMask.types(row.getResponsibleUserRoleMask()).toString());
+        }
+        return dto;
+    }
+
+    private ObjectResponseDto toDto(ObjectEntity entity, boolean loadReferences) {
         if (entity == null) {
             return null;
         }
@@ -32,18 +78,21 @@ public class ObjectMapper {
         // Преобразуем данные о пользователе, создавшем объект
         if (entity.getCreatedBy() != null) {
             dto.setCreatedById(entity.getCreatedBy().getId());
-            dto.setCreatedByFirstName(entity.getCreatedBy().getFirstName());
-            dto.setCreatedByLastName(entity.getCreatedBy().getLastName());
+            if (loadReferences || Hibernate.isInitialized(entity.getCreatedBy())) {
+                dto.setCreatedByFirstName(entity.getCreatedBy().getFirstName());
+                dto.setCreatedByLastName(entity.getCreatedBy().getLastName());
+            }
         }
 
         // Преобразуем данные о пользователе, ответственном за объект
         if (entity.getResponsibleUser() != null) {
             dto.setResponsibleUserId(entity.getResponsibleUser().getId());
-            dto.setResponsibleUserFirstName(entity.getResponsibleUser().getFirstName());
-            dto.setResponsibleUserLastName(entity.getResponsibleUser().getLastName());
-            // Понимание ролей в виде строки
-            dto.setResponsibleUserRole(entity.getResponsibleUser().getRoles() != null ?
-                    entity.getResponsibleUser().getRoles().toString() : "ROLE_USER");
+            if (loadReferences || Hibernate.isInitialized(entity.getResponsibleUser())) {
+                dto.setResponsibleUserFirstName(entity.getResponsibleUser().getFirstName());
+                dto.setResponsibleUserLastName(entity.getResponsibleUser().getLastName());
+                // Роли в виде строки — из битовой маски, без загрузки таблицы связей
+                dto.setResponsibleUserRole(RoleMask.types(entity.getResponsibleUser().getRoleMask()).toString());
+            }
         }
 
         return dto;
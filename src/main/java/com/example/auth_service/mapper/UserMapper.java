@@ -0,0 +1,55 @@
+package com.example.auth_service.mapper;
+
+import com.example.auth_service.dto.UserDto;
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.RoleMask;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.projection.UserSummary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Маппер для преобразования пользователя в {@link UserDto}.
+ * Единое место, где определяется отображаемая роль пользователя: роль с наименьшим битом маски.
+ */
+@Component
+public class UserMapper {
+
+    /** Роль, отображаемая для пользователя без назначенных ролей. */
+    static final String DEFAULT_ROLE = Role.RoleType.ROLE_USER.name();
+
+    /**
+     * Преобразует сущность {@link User} в DTO {@link UserDto}.
+     *
+     * @param user сущность пользователя
+     * @return DTO пользователя
+     */
+    public UserDto toDto(User user) {
+        return new UserDto(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                RoleMask.primary(user.getRoleMask()).name(),
+                user.isActive()
+        );
+    }
+
+    /**
+     * Преобразует проекцию {@link UserSummary} в DTO {@link UserDto}.
+     *
+     * @param summary проекция пользователя
+     * @return DTO пользователя
+     */
+    public UserDto toDto(UserSummary summary) {
+        return new UserDto(
+                summary.getId(),
+                summary.getUsername(),
+                summary.getEmail(),
+                summary.getFirstName(),
+                summary.getLastName(),
+                summary.getRoleMask() != null ? RoleMask.primary(summary.getRoleMask()).name() : DEFAULT_ROLE,
+                Boolean.TRUE.equals(summary.getActive())
+        );
+    }
+}
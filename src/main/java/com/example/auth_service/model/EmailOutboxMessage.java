@@ -0,0 +1,107 @@
+package com.example.auth_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Исходящее письмо в очереди отправки.
+ * Записывается в той же транзакции, что и бизнес-операция, и отправляется фоновыми воркерами.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "email_outbox")
+public class EmailOutboxMessage {
+
+    /** Уникальный идентификатор письма. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Адрес получателя. */
+    @Column(nullable = false)
+    private String recipient;
+
+    /** Тема письма. */
+    @Column(nullable = false)
+    private String subject;
+
+    /** Текст письма. */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    /** Является ли текст письма HTML. */
+    @Column(nullable = false)
+    private boolean html;
+
+    /** Текущий статус письма. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    /** Количество предпринятых попыток отправки. */
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    /** Время, раньше которого письмо не будет отправляться повторно. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Текст последней ошибки отправки. */
+    @Column(name = "last_error")
+    private String lastError;
+
+    /** Дата и время постановки письма в очередь. */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /** Дата и время последнего изменения. */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Статусы исходящего письма.
+     */
+    public enum Status {
+        /** Ожидает отправки. */
+        PENDING,
+        /** Отправляется одним из воркеров. */
+        SENDING,
+        /** Успешно отправлено. */
+        SENT,
+        /** Исчерпаны попытки отправки или адрес отклонён сервером. */
+        DEAD
+    }
+}
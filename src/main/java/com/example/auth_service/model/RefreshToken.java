@@ -16,6 +16,8 @@ public class RefreshToken {
     private Long id;
     private String username;
     private String token;
+    /** Сессия устройства, которой принадлежит токен. */
+    private String sessionId;
     private LocalDateTime expiresAt;
     private LocalDateTime createdAt;
 } 
\ No newline at end of file
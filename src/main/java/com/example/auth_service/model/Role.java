@@ -43,12 +43,23 @@ public class Role {
     /**
      * Перечисление для типов ролей.
      * Определяет доступные типы ролей в системе.
+     * <p>
+     * Порядковый номер константы задаёт её бит в {@code users.role_mask} (см. {@link RoleMask}),
+     * поэтому новые роли добавляются только в конец, а существующие не переставляются.
+     * </p>
      */
     public enum RoleType {
         ROLE_USER,  // Роль пользователя с ограниченными правами
         ROLE_ADMIN,
         ROLE_DIRECTOR,
         ROLE_CHIEF,
-        ROLE_RESPONSIBLE// Роль администратора с расширенными правами
+        ROLE_RESPONSIBLE;// Роль администратора с расширенными правами
+
+        /**
+         * @return бит роли в маске ролей пользователя
+         */
+        public int bit() {
+            return 1 << ordinal();
+        }
     }
 }
@@ -0,0 +1,63 @@
+package com.example.auth_service.model;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Операции с битовой маской ролей пользователя ({@code users.role_mask}).
+ * Бит роли — {@link Role.RoleType#bit()}.
+ */
+public final class RoleMask {
+
+    private static final Role.RoleType[] TYPES = Role.RoleType.values();
+
+    private RoleMask() {
+    }
+
+    /**
+     * Строит маску по набору ролей.
+     *
+     * @param roles роли пользователя; null — пустая маска
+     * @return битовая маска
+     */
+    public static int of(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= role.getRoleType().bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Проверяет наличие роли в маске.
+     */
+    public static boolean has(int mask, Role.RoleType type) {
+        return (mask & type.bit()) != 0;
+    }
+
+    /**
+     * @return роли, установленные в маске
+     */
+    public static Set<Role.RoleType> types(int mask) {
+        EnumSet<Role.RoleType> types = EnumSet.noneOf(Role.RoleType.class);
+        for (Role.RoleType type : TYPES) {
+            if (has(mask, type)) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Возвращает основную роль — с наименьшим порядковым номером.
+     *
+     * @param mask битовая маска
+     * @return основная роль или {@link Role.RoleType#ROLE_USER}, если маска пуста
+     */
+    public static Role.RoleType primary(int mask) {
+        return mask == 0 ? Role.RoleType.ROLE_USER : TYPES[Integer.numberOfTrailingZeros(mask)];
+    }
+}
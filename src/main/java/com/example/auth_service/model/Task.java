@@ -40,12 +40,16 @@ public class Task {
     private LocalDateTime deadline;
 
     /** Объект недвижимости, к которому привязана задача. */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "object_id", nullable = false)
     private ObjectEntity realEstateObject;
 
     /** Список вложений к задаче. */
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<TaskAttachment> attachments;
 
     /**
@@ -59,11 +63,18 @@ public class Task {
     /**
      * Пользователь, создавший задачу.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User createdBy;
 
-    @ManyToOne
+    /**
+     * Пользователь, ответственный за задачу.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "responsible_user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User responsibleUser;
 }
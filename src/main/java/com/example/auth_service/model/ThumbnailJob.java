@@ -0,0 +1,88 @@
+package com.example.auth_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Задание на генерацию превью для изображения-вложения.
+ * Хранится в базе данных, чтобы задания переживали перезапуск приложения.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "thumbnail_jobs")
+public class ThumbnailJob {
+
+    /** Уникальный идентификатор задания. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Имя исходного файла в хранилище. */
+    @Column(name = "file_path", nullable = false)
+    private String filePath;
+
+    /** Текущий статус задания. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    /** Количество предпринятых попыток обработки. */
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    /** Текст последней ошибки обработки. */
+    @Column(name = "last_error")
+    private String lastError;
+
+    /** Дата и время создания задания. */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /** Дата и время последнего изменения задания. */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Статусы задания на генерацию превью.
+     */
+    public enum Status {
+        /** Ожидает обработки. */
+        PENDING,
+        /** Обрабатывается одним из воркеров. */
+        PROCESSING,
+        /** Превью успешно сгенерированы. */
+        DONE,
+        /** Исчерпаны попытки обработки. */
+        FAILED
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.auth_service.model;
+
+import com.example.auth_service.exception.InvalidFileException;
+
+/**
+ * Фиксированные размеры превью для изображений-вложений.
+ * Значение задаёт максимальную длину большей стороны превью в пикселях.
+ */
+public enum ThumbnailSize {
+    /** Миниатюра для списков вложений. */
+    SMALL(128),
+
+    /** Превью для карточки задачи. */
+    MEDIUM(320),
+
+    /** Увеличенное превью для просмотра. */
+    LARGE(640);
+
+    private final int maxDimension;
+
+    ThumbnailSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Возвращает имя каталога, в котором хранятся превью данного размера.
+     *
+     * @return имя каталога в нижнем регистре
+     */
+    public String directoryName() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Определяет размер превью по значению из URL (без учёта регистра).
+     *
+     * @param value значение из URL, например {@code small}
+     * @return размер превью
+     * @throws InvalidFileException если размер не поддерживается
+     */
+    public static ThumbnailSize fromPath(String value) {
+        for (ThumbnailSize size : values()) {
+            if (size.name().equalsIgnoreCase(value)) {
+                return size;
+            }
+        }
+        throw new InvalidFileException("Неподдерживаемый размер превью: " + value);
+    }
+}
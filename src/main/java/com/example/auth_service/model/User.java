@@ -13,7 +13,9 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.Set;
 
@@ -65,19 +67,48 @@ public class User {
 
     /**
      * Роли пользователя.
-     * Связь "многие ко многим" с таблицей ролей.
-     * Используется eager загрузка для немедленной загрузки ролей.
+     * Связь "многие ко многим" с таблицей ролей, загружается лениво и нужна только для
+     * администрирования. Проверки прав выполняются по {@link #roleMask}.
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "users_roles",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
             inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Role> roles;
 
+    /**
+     * Роли пользователя в виде битовой маски (см. {@link RoleMask}).
+     * Синхронизируется с {@link #roles} в {@link #setRoles(Set)}.
+     */
+    @Column(name = "role_mask", nullable = false)
+    private int roleMask;
+
     /**
      * Статус активации пользователя.
      * По умолчанию пользователь не активирован.
      */
     @Column(name = "active", nullable = false)
     private boolean active = false;  // Значение по умолчанию - false
+
+    /**
+     * Устанавливает роли пользователя и пересчитывает {@link #roleMask}.
+     *
+     * @param roles новые роли
+     */
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        this.roleMask = RoleMask.of(roles);
+    }
+
+    /**
+     * Проверяет наличие роли по битовой маске, не обращаясь к таблице связей.
+     *
+     * @param type тип роли
+     * @return true, если роль назначена пользователю
+     */
+    public boolean hasRole(Role.RoleType type) {
+        return RoleMask.has(roleMask, type);
+    }
 }
@@ -0,0 +1,77 @@
+package com.example.auth_service.repository;
+
+import com.example.auth_service.model.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий очереди исходящих писем.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Находит письма, готовые к отправке.
+     *
+     * @param status статус письма
+     * @param now    текущее время
+     * @return список писем (не более 100) в порядке готовности
+     */
+    List<EmailOutboxMessage> findTop100ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            EmailOutboxMessage.Status status, LocalDateTime now);
+
+    /**
+     * Атомарно захватывает письмо для отправки.
+     * Захват удаётся, только если письмо всё ещё ожидает отправки и его время пришло,
+     * поэтому одно письмо не может быть отправлено двумя воркерами или узлами одновременно.
+     *
+     * @param id      идентификатор письма
+     * @param now     текущее время
+     * @param pending статус ожидания
+     * @param sending статус отправки
+     * @return 1, если письмо захвачено, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = :sending, m.attempts = m.attempts + 1, m.updatedAt = :now " +
+            "where m.id = :id and m.status = :pending and m.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id,
+              @Param("now") LocalDateTime now,
+              @Param("pending") EmailOutboxMessage.Status pending,
+              @Param("sending") EmailOutboxMessage.Status sending);
+
+    /**
+     * Возвращает в очередь письма, зависшие в отправке (например, после падения узла).
+     *
+     * @param threshold письма, не обновлявшиеся с этого момента, считаются зависшими
+     * @param pending   статус ожидания
+     * @param sending   статус отправки
+     * @return количество возвращённых в очередь писем
+     */
+    @Transactional
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = :pending where m.status = :sending and m.updatedAt < :threshold")
+    int releaseStale(@Param("threshold") LocalDateTime threshold,
+                     @Param("pending") EmailOutboxMessage.Status pending,
+                     @Param("sending") EmailOutboxMessage.Status sending);
+
+    /**
+     * Удаляет письма в указанном статусе, не изменявшиеся с заданного момента.
+     * Отправленные письма содержат коды подтверждения и ссылки сброса пароля, поэтому долго не хранятся.
+     *
+     * @param status    статус писем
+     * @param threshold граница времени последнего изменения
+     * @return количество удалённых писем
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from EmailOutboxMessage m where m.status = :status and m.updatedAt < :threshold")
+    int purge(@Param("status") EmailOutboxMessage.Status status, @Param("threshold") LocalDateTime threshold);
+}
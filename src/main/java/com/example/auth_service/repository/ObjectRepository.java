@@ -2,10 +2,19 @@ package com.example.auth_service.repository;
 
 import com.example.auth_service.model.ObjectEntity;
 import com.example.auth_service.model.ObjectType;
+import com.example.auth_service.repository.projection.ObjectHierarchyNode;
+import com.example.auth_service.repository.projection.ObjectPathRow;
+import com.example.auth_service.repository.projection.ObjectTreeRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с объектами недвижимости.
@@ -32,4 +41,76 @@ public interface ObjectRepository extends JpaRepository<ObjectEntity, Long> {
      * Найти все объекты, за которые отвечает пользователь с указанным ID.
      */
     List<ObjectEntity> findByResponsibleUserId(Long userId);
+
+    /**
+     * Потоково выдаёт все объекты в виде узлов дерева (идентификатор, родитель, тип).
+     * Требует открытой транзакции; строки читаются порциями, а не загружаются целиком.
+     */
+    @Query(value = "SELECT o.id AS \"id\", o.parent_id AS \"parentId\", o.object_type AS \"objectType\" FROM objects o",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ObjectHierarchyNode> streamHierarchyNodes();
+
+    /**
+     * Выбирает все объекты с данными создателя и ответственного одним запросом
+     * для прогрева кэша путей.
+     *
+     * @return строки всех объектов
+     */
+    @Query("""
+            SELECT o.id AS id, p.id AS parentId, o.name AS name, o.objectType AS objectType,
+                   o.createdAt AS createdAt,
+                   c.id AS createdById, c.firstName AS createdByFirstName, c.lastName AS createdByLastName,
+                   r.id AS responsibleUserId, r.firstName AS responsibleUserFirstName,
+                   r.lastName AS responsibleUserLastName, r.roleMask AS responsibleUserRoleMask
+            FROM ObjectEntity o
+            LEFT JOIN o.parent p
+            LEFT JOIN o.createdBy c
+            LEFT JOIN o.responsibleUser r
+            """)
+    List<ObjectPathRow> findAllPathRows();
+
+    /**
+     * Находит объект и его потомков до указанной глубины одним запросом.
+     * Поддерево разворачивается рекурсивным CTE, ответственные пользователи подтягиваются соединением.
+     *
+     * @param rootId   идентификатор корня поддерева
+     * @param maxDepth максимальная глубина относительно корня
+     * @return строки, упорядоченные по глубине: родитель всегда предшествует детям
+     */
+    @Query(value = """
+            WITH RECURSIVE subtree AS (
+                SELECT o.id, 0 AS depth FROM objects o WHERE o.id = :rootId
+                UNION ALL
+                SELECT c.id, s.depth + 1 FROM objects c JOIN subtree s ON c.parent_id = s.id
+                WHERE s.depth < :maxDepth
+            )
+            SELECT o.id AS "id", o.parent_id AS "parentId", o.name AS "name",
+                   o.object_type AS "objectType", s.depth AS "depth",
+                   u.id AS "responsibleUserId", u.first_name AS "responsibleUserFirstName",
+                   u.last_name AS "responsibleUserLastName"
+            FROM subtree s
+            JOIN objects o ON o.id = s.id
+            LEFT JOIN users u ON u.id = o.responsible_user_id
+            ORDER BY s.depth, o.id
+            """, nativeQuery = true)
+    List<ObjectTreeRow> findSubtree(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Проверяет, входит ли объект в поддерево другого объекта (включая сам корень).
+     * Цепочка предков поднимается рекурсивным CTE; {@code UNION} останавливает обход на циклах.
+     *
+     * @param rootId   идентификатор корня поддерева
+     * @param objectId идентификатор проверяемого объекта
+     * @return true, если {@code objectId} совпадает с {@code rootId} или является его потомком
+     */
+    @Query(value = """
+            WITH RECURSIVE ancestors AS (
+                SELECT o.id, o.parent_id FROM objects o WHERE o.id = :objectId
+                UNION
+                SELECT p.id, p.parent_id FROM objects p JOIN ancestors a ON p.id = a.parent_id
+            )
+            SELECT EXISTS (SELECT 1 FROM ancestors WHERE id = :rootId)
+            """, nativeQuery = true)
+    boolean isInSubtree(@Param("rootId") Long rootId, @Param("objectId") Long objectId);
 }
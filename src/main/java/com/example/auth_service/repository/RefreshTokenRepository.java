@@ -2,9 +2,34 @@ package com.example.auth_service.repository;
 
 import com.example.auth_service.model.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByToken(String token);
     void deleteByToken(String token);
+
+    /**
+     * Находит refresh-токены одной сессии устройства.
+     */
+    List<RefreshToken> findByUsernameAndSessionId(String username, String sessionId);
+
+    /**
+     * Находит все refresh-токены пользователя.
+     */
+    List<RefreshToken> findByUsername(String username);
+
+    /**
+     * Удаляет refresh-токены одной сессии устройства.
+     */
+    @Transactional
+    void deleteByUsernameAndSessionId(String username, String sessionId);
+
+    /**
+     * Удаляет все refresh-токены пользователя.
+     */
+    @Transactional
+    void deleteByUsername(String username);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.example.auth_service.repository;
 
 import com.example.auth_service.model.TaskAttachment;
+import com.example.auth_service.repository.projection.AttachmentArchiveEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,4 +31,27 @@ public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment,
      * @return Optional с найденным вложением или пустой Optional, если вложение не найдено
      */
     Optional<TaskAttachment> findByFilePath(String filePath);
-} 
\ No newline at end of file
+
+    /**
+     * Находит все вложения задач, привязанных к объекту и всем его потомкам, одним запросом.
+     * Поддерево объектов разворачивается рекурсивным CTE на стороне базы данных.
+     *
+     * @param objectId идентификатор корневого объекта
+     * @return вложения, упорядоченные по объекту, задаче и порядку загрузки
+     */
+    @Query(value = """
+            WITH RECURSIVE subtree AS (
+                SELECT o.id, o.name FROM objects o WHERE o.id = :objectId
+                UNION ALL
+                SELECT c.id, c.name FROM objects c JOIN subtree s ON c.parent_id = s.id
+            )
+            SELECT s.id AS "objectId", s.name AS "objectName",
+                   t.id AS "taskId", t.title AS "taskTitle",
+                   a.file_path AS "filePath"
+            FROM subtree s
+            JOIN tasks t ON t.object_id = s.id
+            JOIN task_attachments a ON a.task_id = t.id
+            ORDER BY s.id, t.id, a.id
+            """, nativeQuery = true)
+    List<AttachmentArchiveEntry> findArchiveEntriesBySubtree(@Param("objectId") Long objectId);
+}
@@ -1,11 +1,18 @@
 package com.example.auth_service.repository;
 
+import com.example.auth_service.dto.TaskDTO;
 import com.example.auth_service.model.Task;
 import com.example.auth_service.model.TaskStatus;
+import com.example.auth_service.repository.projection.TaskStatusCount;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для работы с задачами.
@@ -13,6 +20,18 @@ import java.util.List;
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    /**
+     * Общая часть запросов DTO: объект берётся из внешнего ключа, пользователи — внешними соединениями.
+     */
+    String SELECT_DTO = """
+            SELECT new com.example.auth_service.dto.TaskDTO(
+                t.id, t.title, t.description, t.status, t.createdAt, t.deadline,
+                t.realEstateObject.id, c.firstName, c.lastName, r.id, r.firstName, r.lastName)
+            FROM Task t
+            LEFT JOIN t.createdBy c
+            LEFT JOIN t.responsibleUser r
+            """;
+
     /**
      * Находит все задачи с указанным статусом.
      *
@@ -43,4 +62,52 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Найти задачи по списку id объектов
     List<Task> findByRealEstateObjectIdIn(List<Long> objectIds);
 
+    /**
+     * Загружает задачу вместе с автором и ответственным одним запросом.
+     *
+     * @param id идентификатор задачи
+     * @return задача с инициализированными пользователями
+     */
+    @EntityGraph(attributePaths = {"createdBy", "responsibleUser"})
+    Optional<Task> findWithUsersById(Long id);
+
+    /**
+     * Возвращает все задачи в виде DTO одним запросом без загрузки связанных сущностей.
+     *
+     * @return список DTO задач
+     */
+    @Query(SELECT_DTO + "ORDER BY t.id")
+    List<TaskDTO> findAllDtos();
+
+    /**
+     * Возвращает задачу в виде DTO.
+     *
+     * @param id идентификатор задачи
+     * @return DTO задачи, если она найдена
+     */
+    @Query(SELECT_DTO + "WHERE t.id = :id")
+    Optional<TaskDTO> findDtoById(@Param("id") Long id);
+
+    /**
+     * Возвращает задачи объекта недвижимости в виде DTO.
+     *
+     * @param objectId идентификатор объекта недвижимости
+     * @return список DTO задач
+     */
+    @Query(SELECT_DTO + "WHERE t.realEstateObject.id = :objectId ORDER BY t.id")
+    List<TaskDTO> findDtosByObjectId(@Param("objectId") Long objectId);
+
+    /**
+     * Считает задачи по статусам для набора объектов, не загружая сами задачи.
+     *
+     * @param objectIds идентификаторы объектов недвижимости
+     * @return количество задач для каждого встречающегося статуса
+     */
+    @Query("""
+            SELECT t.status AS status, count(t) AS count
+            FROM Task t
+            WHERE t.realEstateObject.id IN :objectIds
+            GROUP BY t.status
+            """)
+    List<TaskStatusCount> countByStatusForObjects(@Param("objectIds") Collection<Long> objectIds);
 }
@@ -0,0 +1,70 @@
+package com.example.auth_service.repository;
+
+import com.example.auth_service.model.ThumbnailJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Репозиторий очереди заданий на генерацию превью.
+ */
+@Repository
+public interface ThumbnailJobRepository extends JpaRepository<ThumbnailJob, Long> {
+
+    /**
+     * Находит первые по порядку задания с указанным статусом.
+     *
+     * @param status статус задания
+     * @return список заданий (не более 100)
+     */
+    List<ThumbnailJob> findTop100ByStatusOrderByIdAsc(ThumbnailJob.Status status);
+
+    /**
+     * Атомарно захватывает задание для обработки.
+     * Захват удаётся, только если задание всё ещё находится в статусе {@code PENDING},
+     * поэтому одно задание не может быть обработано двумя воркерами одновременно.
+     *
+     * @param id  идентификатор задания
+     * @param now текущее время
+     * @param pending статус ожидания
+     * @param processing статус обработки
+     * @return 1, если задание захвачено, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("update ThumbnailJob j set j.status = :processing, j.attempts = j.attempts + 1, j.updatedAt = :now " +
+            "where j.id = :id and j.status = :pending")
+    int claim(@Param("id") Long id,
+              @Param("now") LocalDateTime now,
+              @Param("pending") ThumbnailJob.Status pending,
+              @Param("processing") ThumbnailJob.Status processing);
+
+    /**
+     * Возвращает в очередь задания, зависшие в обработке (например, после падения узла).
+     *
+     * @param threshold задания, не обновлявшиеся с этого момента, считаются зависшими
+     * @param pending статус ожидания
+     * @param processing статус обработки
+     * @return количество возвращённых в очередь заданий
+     */
+    @Transactional
+    @Modifying
+    @Query("update ThumbnailJob j set j.status = :pending where j.status = :processing and j.updatedAt < :threshold")
+    int releaseStale(@Param("threshold") LocalDateTime threshold,
+                     @Param("pending") ThumbnailJob.Status pending,
+                     @Param("processing") ThumbnailJob.Status processing);
+
+    /**
+     * Удаляет все задания для указанного файла.
+     *
+     * @param filePath имя файла в хранилище
+     */
+    @Transactional
+    void deleteByFilePath(String filePath);
+}
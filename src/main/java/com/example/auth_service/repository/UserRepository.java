@@ -1,8 +1,15 @@
 package com.example.auth_service.repository;
 
 import com.example.auth_service.model.User;
+import com.example.auth_service.repository.projection.UserSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -31,6 +38,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Проверяет, существует ли пользователь с указанным именем.
+     *
+     * @param username Имя пользователя.
+     * @return {@link Boolean} true, если пользователь с данным именем существует, иначе false.
+     */
+    boolean existsByUsername(String username);
+
     /**
      * Проверяет, существует ли пользователь с указанным email.
      *
@@ -38,4 +53,66 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return {@link Boolean} true, если пользователь с данным email существует, иначе false.
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Заменяет хеш пароля, только если он не изменился: пересчёт хеша при входе не затирает
+     * пароль, сброшенный параллельно.
+     *
+     * @param username        имя пользователя
+     * @param currentPassword хеш, с которым пользователь вошёл
+     * @param newPassword     новый хеш того же пароля
+     * @return 1, если хеш заменён, иначе 0
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.username = :username and u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("username") String username,
+                                  @Param("currentPassword") String currentPassword,
+                                  @Param("newPassword") String newPassword);
+
+    /**
+     * Возвращает страницу пользователей в виде проекции, упорядоченную по идентификатору.
+     *
+     * @param pageable параметры страницы (сортировка задаётся запросом)
+     * @return страница проекций пользователей
+     */
+    @Query(value = """
+            SELECT u.id AS "id", u.username AS "username", u.email AS "email",
+                   u.first_name AS "firstName", u.last_name AS "lastName", u.active AS "active",
+                   u.role_mask AS "roleMask"
+            FROM users u
+            ORDER BY u.id
+            """,
+            countQuery = "SELECT count(*) FROM users",
+            nativeQuery = true)
+    Page<UserSummary> findSummaries(Pageable pageable);
+
+    /**
+     * Ищет пользователей по префиксу логина, почты, имени или фамилии без учёта регистра.
+     * Каждое условие обслуживается своим индексом по {@code lower(...)}.
+     *
+     * @param pattern  шаблон LIKE в нижнем регистре с экранированными спецсимволами, например {@code "ива%"}
+     * @param pageable параметры страницы (сортировка задаётся запросом)
+     * @return страница проекций пользователей
+     */
+    @Query(value = """
+            SELECT u.id AS "id", u.username AS "username", u.email AS "email",
+                   u.first_name AS "firstName", u.last_name AS "lastName", u.active AS "active",
+                   u.role_mask AS "roleMask"
+            FROM users u
+            WHERE lower(u.username) LIKE :pattern
+               OR lower(u.email) LIKE :pattern
+               OR lower(u.first_name) LIKE :pattern
+               OR lower(u.last_name) LIKE :pattern
+            ORDER BY u.id
+            """,
+            countQuery = """
+            SELECT count(*) FROM users u
+            WHERE lower(u.username) LIKE :pattern
+               OR lower(u.email) LIKE :pattern
+               OR lower(u.first_name) LIKE :pattern
+               OR lower(u.last_name) LIKE :pattern
+            """,
+            nativeQuery = true)
+    Page<UserSummary> searchSummaries(@Param("pattern") String pattern, Pageable pageable);
 }
@@ -0,0 +1,23 @@
+package com.example.auth_service.repository.projection;
+
+/**
+ * Проекция вложения для выгрузки архива по поддереву объектов.
+ * Содержит только поля, необходимые для построения имени записи в архиве.
+ */
+public interface AttachmentArchiveEntry {
+
+    /** Идентификатор объекта, к которому привязана задача. */
+    Long getObjectId();
+
+    /** Название объекта. */
+    String getObjectName();
+
+    /** Идентификатор задачи. */
+    Long getTaskId();
+
+    /** Название задачи. */
+    String getTaskTitle();
+
+    /** Имя файла вложения в хранилище. */
+    String getFilePath();
+}
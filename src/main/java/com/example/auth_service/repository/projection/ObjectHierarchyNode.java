@@ -0,0 +1,16 @@
+package com.example.auth_service.repository.projection;
+
+/**
+ * Проекция объекта для построения дерева в памяти: только идентификаторы и тип.
+ */
+public interface ObjectHierarchyNode {
+
+    /** Идентификатор объекта. */
+    Long getId();
+
+    /** Идентификатор родителя или null для корневого объекта. */
+    Long getParentId();
+
+    /** Тип объекта (имя константы {@link com.example.auth_service.model.ObjectType}). */
+    String getObjectType();
+}
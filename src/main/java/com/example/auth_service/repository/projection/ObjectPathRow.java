@@ -0,0 +1,48 @@
+package com.example.auth_service.repository.projection;
+
+import com.example.auth_service.model.ObjectType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция объекта для прогрева кэша путей: поля DTO объекта вместе с данными
+ * создателя и ответственного пользователя, полученные одним запросом.
+ */
+public interface ObjectPathRow {
+
+    /** Идентификатор объекта. */
+    Long getId();
+
+    /** Идентификатор родителя или null для корневого объекта. */
+    Long getParentId();
+
+    /** Название объекта. */
+    String getName();
+
+    /** Тип объекта. */
+    ObjectType getObjectType();
+
+    /** Дата и время создания объекта. */
+    LocalDateTime getCreatedAt();
+
+    /** Идентификатор создателя или null. */
+    Long getCreatedById();
+
+    /** Имя создателя. */
+    String getCreatedByFirstName();
+
+    /** Фамилия создателя. */
+    String getCreatedByLastName();
+
+    /** Идентификатор ответственного пользователя или null. */
+    Long getResponsibleUserId();
+
+    /** Имя ответственного пользователя. */
+    String getResponsibleUserFirstName();
+
+    /** Фамилия ответственного пользователя. */
+    String getResponsibleUserLastName();
+
+    /** Битовая маска ролей ответственного пользователя. */
+    Integer getResponsibleUserRoleMask();
+}
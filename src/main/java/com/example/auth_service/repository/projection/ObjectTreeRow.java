@@ -0,0 +1,31 @@
+package com.example.auth_service.repository.projection;
+
+/**
+ * Строка выборки поддерева объектов: объект, его глубина относительно корня и ответственный пользователь.
+ */
+public interface ObjectTreeRow {
+
+    /** Идентификатор объекта. */
+    Long getId();
+
+    /** Идентификатор родителя. */
+    Long getParentId();
+
+    /** Название объекта. */
+    String getName();
+
+    /** Тип объекта (имя константы {@link com.example.auth_service.model.ObjectType}). */
+    String getObjectType();
+
+    /** Глубина относительно корня поддерева (корень — 0). */
+    Integer getDepth();
+
+    /** Идентификатор ответственного пользователя или null. */
+    Long getResponsibleUserId();
+
+    /** Имя ответственного пользователя. */
+    String getResponsibleUserFirstName();
+
+    /** Фамилия ответственного пользователя. */
+    String getResponsibleUserLastName();
+}
@@ -0,0 +1,15 @@
+package com.example.auth_service.repository.projection;
+
+import com.example.auth_service.model.TaskStatus;
+
+/**
+ * Проекция количества задач в одном статусе.
+ */
+public interface TaskStatusCount {
+
+    /** Статус задачи. */
+    TaskStatus getStatus();
+
+    /** Количество задач в статусе. */
+    Long getCount();
+}
@@ -0,0 +1,28 @@
+package com.example.auth_service.repository.projection;
+
+/**
+ * Проекция пользователя для списков: только отображаемые поля и маска ролей, без пароля и коллекций.
+ */
+public interface UserSummary {
+
+    /** Идентификатор пользователя. */
+    Long getId();
+
+    /** Логин. */
+    String getUsername();
+
+    /** Адрес электронной почты. */
+    String getEmail();
+
+    /** Имя. */
+    String getFirstName();
+
+    /** Фамилия. */
+    String getLastName();
+
+    /** Битовая маска ролей (см. {@link com.example.auth_service.model.RoleMask}). */
+    Integer getRoleMask();
+
+    /** Признак активности учётной записи. */
+    Boolean getActive();
+}
@@ -0,0 +1,36 @@
+package com.example.auth_service.repository.redis;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Репозиторий черного списка JWT.
+ * Записи хранятся по идентификатору токена (claim {@code jti} или дайджест токена), а не по самому токену.
+ */
+public interface JwtBlacklistRepository {
+
+    /**
+     * Добавляет токен в черный список до момента его истечения.
+     *
+     * @param tokenId   Идентификатор токена.
+     * @param expiresAt Время истечения токена; после него запись не нужна.
+     * @throws IllegalArgumentException Если идентификатор или время истечения не указаны.
+     */
+    void add(String tokenId, Date expiresAt);
+
+    /**
+     * Проверяет, находится ли токен в черном списке.
+     *
+     * @param tokenId Идентификатор токена.
+     * @return true, если токен отозван и ещё не истек.
+     * @throws IllegalArgumentException Если идентификатор пустой.
+     */
+    boolean contains(String tokenId);
+
+    /**
+     * Удаляет истекшие записи и возвращает действующие.
+     *
+     * @return идентификаторы отозванных токенов и время их истечения в миллисекундах
+     */
+    Map<String, Long> findActive();
+}
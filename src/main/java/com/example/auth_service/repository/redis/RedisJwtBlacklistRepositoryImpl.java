@@ -1,127 +1,75 @@
 package com.example.auth_service.repository.redis;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Реализация репозитория для работы с черным списком JWT в Redis.
- * Этот класс управляет сохранением и удалением JWT-токенов в Redis, а также проверяет их наличие.
+ * Черный список JWT в Redis: одно сортированное множество {@code jwt:blacklist}, элемент — идентификатор
+ * токена, вес — время истечения токена в миллисекундах.
+ * <p>
+ * Проверка — один ZSCORE. Истекшие записи удаляются ZREMRANGEBYSCORE при периодической выгрузке
+ * {@link #findActive()}. Ключ множества общий для всех токенов, поэтому TTL ему не назначается.
+ * </p>
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class RedisJwtBlacklistRepositoryImpl implements RedisRepository {
+@Timed(value = "redis.operations", description = "Операции с Redis")
+public class RedisJwtBlacklistRepositoryImpl implements JwtBlacklistRepository {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private static final String SESSION_PREFIX = "session:";
-
-    /**
-     * Сохраняет значение в Redis с указанным ключом и временем истечения.
-     *
-     * @param key   Ключ, по которому сохраняется значение в Redis.
-     * @param value Значение, которое будет сохранено.
-     * @param date  Время, когда ключ должен истечь и быть удален из Redis.
-     * @throws IllegalArgumentException Если ключ или значение пустое.
-     */
-    @Override
-    public void save(String key, String value, Date date) {
-        if (key == null || key.isBlank()) {
-            throw new IllegalArgumentException("Ключ не может быть пустым.");
-        }
+    private static final String BLACKLIST_KEY = "jwt:blacklist";
 
-        this.redisTemplate.opsForValue().set(key, value);
-        expireAt(key, date);
-    }
+    private final RedisTemplate<String, String> redisTemplate;
 
-    /**
-     * Устанавливает время истечения для ключа в Redis.
-     *
-     * @param key  Ключ, для которого будет установлено время истечения.
-     * @param date Время, когда ключ должен истечь.
-     * @throws IllegalArgumentException Если ключ или время истечения не указаны.
-     */
     @Override
-    public void expireAt(String key, Date date) {
-        if (key == null || key.isBlank()) {
-            throw new IllegalArgumentException("Ключ не может быть пустым.");
+    public void add(String tokenId, Date expiresAt) {
+        if (tokenId == null || tokenId.isBlank()) {
+            throw new IllegalArgumentException("Идентификатор токена не может быть пустым.");
         }
-        if (date == null) {
+        if (expiresAt == null) {
             throw new IllegalArgumentException("Дата истечения не может быть пустой.");
         }
 
-        redisTemplate.expireAt(key, date);
-    }
-
-    /**
-     * Проверяет, существует ли ключ в Redis.
-     *
-     * @param key Ключ, который нужно проверить.
-     * @return true, если ключ существует; false, если нет.
-     * @throws IllegalArgumentException Если ключ пустой.
-     */
-    @Override
-    public boolean isExists(String key) {
-        if (key == null || key.isBlank()) {
-            throw new IllegalArgumentException("Ключ не может быть пустым.");
-        }
-
-        return this.redisTemplate.hasKey(key);
+        redisTemplate.opsForZSet().add(BLACKLIST_KEY, tokenId, expiresAt.getTime());
     }
 
-    /**
-     * Получает значение, связанное с ключом в Redis.
-     *
-     * @param key Ключ, по которому нужно получить значение.
-     * @return Значение, связанное с ключом, или null, если ключ не найден.
-     * @throws IllegalArgumentException Если ключ пустой.
-     */
     @Override
-    public String getValue(String key) {
-        if (key == null || key.isBlank()) {
-            throw new IllegalArgumentException("Ключ не может быть пустым.");
+    public boolean contains(String tokenId) {
+        if (tokenId == null || tokenId.isBlank()) {
+            throw new IllegalArgumentException("Идентификатор токена не может быть пустым.");
         }
 
-        return this.redisTemplate.opsForValue().get(key);
+        Double expiresAt = redisTemplate.opsForZSet().score(BLACKLIST_KEY, tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
     }
 
-    /**
-     * Получает время истечения сессии.
-     *
-     * @param username Имя пользователя.
-     * @return Время истечения сессии или null, если сессия не найдена.
-     */
     @Override
-    public Date getSessionExpiry(String username) {
-        String key = SESSION_PREFIX + username;
-        if (redisTemplate.hasKey(key)) {
-            String expiryStr = (String) redisTemplate.opsForHash().get(key, "expiry");
-            if (expiryStr != null) {
-                return new Date(Long.parseLong(expiryStr));
-            }
+    public Map<String, Long> findActive() {
+        ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+        long now = System.currentTimeMillis();
+        Long removed = zSet.removeRangeByScore(BLACKLIST_KEY, Double.NEGATIVE_INFINITY, now);
+        if (removed != null && removed > 0) {
+            log.debug("Удалено истекших записей черного списка: {}", removed);
         }
-        return null;
-    }
 
-    /**
-     * Обновляет время жизни сессии.
-     *
-     * @param username Имя пользователя.
-     * @param duration Новая длительность сессии.
-     */
-    @Override
-    public void refreshSession(String username, java.time.Duration duration) {
-        String key = SESSION_PREFIX + username;
-        if (redisTemplate.hasKey(key)) {
-            String token = (String) redisTemplate.opsForHash().get(key, "token");
-            if (token != null) {
-                redisTemplate.opsForHash().put(key, "expiry", String.valueOf(System.currentTimeMillis() + duration.toMillis()));
-                redisTemplate.expire(key, duration);
-                log.debug("Сессия пользователя {} обновлена на {}", username, duration);
+        Set<ZSetOperations.TypedTuple<String>> entries = zSet.rangeWithScores(BLACKLIST_KEY, 0, -1);
+        Map<String, Long> active = new HashMap<>();
+        if (entries != null) {
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() != null && entry.getScore() != null) {
+                    active.put(entry.getValue(), entry.getScore().longValue());
+                }
             }
         }
+        return active;
     }
 }
@@ -1,59 +1,172 @@
 package com.example.auth_service.repository.redis;
 
-import lombok.RequiredArgsConstructor;
+import com.example.auth_service.serialization.SessionRecord;
+import com.example.auth_service.serialization.SessionRecordCodec;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Сессии устройств в Redis: один хеш {@code sessions:<логин>} на пользователя, поле — идентификатор
+ * сессии, значение — запись {@link SessionRecordCodec}.
+ * <p>
+ * Проверка запроса — один HGET. Список сессий — HGETALL, то есть O(устройств); отзыв одной
+ * сессии — HDEL, всех — DEL. TTL ключа равен самому дальнему сроку среди сессий, сроки отдельных
+ * сессий хранятся в записях; истёкшие записи вычищаются при следующем входе.
+ * </p>
+ * <p>
+ * Префикс отличается от прежних {@code session:} (хеш на одну сессию) и {@code sess:} (строка):
+ * ключи старых форматов не читаются как хеш сессий и просто истекают по своему TTL.
+ * </p>
+ */
 @Repository
-@RequiredArgsConstructor
 @Slf4j
+@Timed(value = "redis.operations", description = "Операции с Redis")
 public class RedisSessionRepository {
 
-    private final StringRedisTemplate redisTemplate;
-    private static final String SESSION_PREFIX = "session:";
+    private static final String SESSION_PREFIX = "sessions:";
+    private static final byte[] ANY = new byte[0];
 
-    public void saveSession(String username, String token, Duration duration) {
-        String key = SESSION_PREFIX + username;
-        redisTemplate.opsForHash().put(key, "token", token);
-        redisTemplate.opsForHash().put(key, "expiry", String.valueOf(System.currentTimeMillis() + duration.toMillis()));
-        redisTemplate.expire(key, duration);
+    /**
+     * Заменяет запись сессии, только если сессия ещё есть и, когда задана ожидаемая запись, не изменилась.
+     * Так продление не воскрешает отозванную сессию и не затирает токен, обновлённый параллельно.
+     * Возвращает 1, если запись заменена.
+     */
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if not current or (ARGV[3] ~= '' and current ~= ARGV[3]) then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            if redis.call('PTTL', KEYS[1]) < tonumber(ARGV[4]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            end
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> sessionRedisTemplate;
+    private final HashOperations<String, String, byte[]> hashOperations;
+
+    public RedisSessionRepository(RedisTemplate<String, byte[]> sessionRedisTemplate) {
+        this.sessionRedisTemplate = sessionRedisTemplate;
+        this.hashOperations = sessionRedisTemplate.opsForHash();
     }
 
-    public boolean isSessionExists(String username, String token) {
-        String key = SESSION_PREFIX + username;
-        if (!redisTemplate.hasKey(key)) {
-            log.debug("Сессия не найдена для пользователя: {}", username);
-            return false;
-        }
-        String storedToken = (String) redisTemplate.opsForHash().get(key, "token");
-        return token.equals(storedToken);
+    /**
+     * @return сессия или null, если её нет или запись не читается
+     */
+    public SessionRecord findSession(String username, String sessionId) {
+        return SessionRecordCodec.decode(hashOperations.get(key(username), sessionId));
     }
 
-    public boolean isSessionExpired(String username, String token) {
-        String key = SESSION_PREFIX + username;
-        String expiryTime = (String) redisTemplate.opsForHash().get(key, "expiry");
-        if (expiryTime == null) {
-            log.debug("Время истечения не найдено для пользователя: {}", username);
-            return true;
+    /**
+     * @return все читаемые сессии пользователя по идентификатору, включая истёкшие
+     */
+    public Map<String, SessionRecord> findSessions(String username) {
+        Map<String, SessionRecord> sessions = new LinkedHashMap<>();
+        hashOperations.entries(key(username)).forEach((sessionId, bytes) -> {
+            SessionRecord record = SessionRecordCodec.decode(bytes);
+            if (record != null) {
+                sessions.put(sessionId, record);
+            }
+        });
+        return sessions;
+    }
+
+    /**
+     * Сохраняет новую сессию. Истёкшие и нечитаемые записи удаляются, а если действующих сессий
+     * уже {@code maxDevices}, удаляются самые давние по активности.
+     * <p>
+     * Вход редок, поэтому проверка предела выполняется на стороне приложения, а не атомарно:
+     * при одновременных входах предел может быть превышен на время до следующего входа.
+     * </p>
+     *
+     * @return идентификаторы удалённых сессий
+     */
+    public List<String> saveSession(String username, String sessionId, SessionRecord record, int maxDevices) {
+        String key = key(username);
+        long now = record.createdAt();
+        List<String> removed = new ArrayList<>();
+        List<Map.Entry<String, SessionRecord>> live = new ArrayList<>();
+        hashOperations.entries(key).forEach((id, bytes) -> {
+            SessionRecord existing = SessionRecordCodec.decode(bytes);
+            if (existing == null || existing.expiresAt() <= now) {
+                removed.add(id);
+            } else {
+                live.add(Map.entry(id, existing));
+            }
+        });
+        live.sort(Comparator.comparingLong(entry -> entry.getValue().lastSeenAt()));
+        long expiresAt = record.expiresAt();
+        for (int i = 0; i < live.size(); i++) {
+            if (live.size() - i >= maxDevices) {
+                removed.add(live.get(i).getKey());
+            } else {
+                expiresAt = Math.max(expiresAt, live.get(i).getValue().expiresAt());
+            }
         }
-        boolean isExpired = System.currentTimeMillis() > Long.parseLong(expiryTime);
-        if (isExpired) {
-            log.debug("Сессия истекла для пользователя: {}", username);
+
+        if (!removed.isEmpty()) {
+            hashOperations.delete(key, removed.toArray());
         }
-        return isExpired;
+        hashOperations.put(key, sessionId, SessionRecordCodec.encode(record));
+        sessionRedisTemplate.expireAt(key, Instant.ofEpochSecond(expiresAt));
+        return removed;
+    }
+
+    /**
+     * Заменяет запись, если сессия не изменилась с момента чтения {@code current}.
+     *
+     * @return false, если сессию отозвали или изменили
+     */
+    public boolean replaceSessionIfUnchanged(String username, String sessionId, SessionRecord current,
+                                             SessionRecord updated) {
+        return replace(username, sessionId, SessionRecordCodec.encode(current), updated);
+    }
+
+    /**
+     * Заменяет запись, если сессия ещё существует.
+     *
+     * @return false, если сессию отозвали
+     */
+    public boolean replaceSessionIfExists(String username, String sessionId, SessionRecord updated) {
+        return replace(username, sessionId, ANY, updated);
+    }
+
+    /**
+     * @return true, если сессия была
+     */
+    public boolean removeSession(String username, String sessionId) {
+        return hashOperations.delete(key(username), sessionId) > 0;
+    }
+
+    public void removeSessions(String username) {
+        sessionRedisTemplate.delete(key(username));
     }
 
-    public void updateSession(String username, String token, Duration duration) {
-        String key = SESSION_PREFIX + username;
-        redisTemplate.opsForHash().put(key, "expiry", String.valueOf(System.currentTimeMillis() + duration.toMillis()));
-        redisTemplate.expire(key, duration);
+    private boolean replace(String username, String sessionId, byte[] expected, SessionRecord updated) {
+        long ttlMillis = Math.max(1, (updated.expiresAt() - Instant.now().getEpochSecond()) * 1000);
+        Long replaced = sessionRedisTemplate.execute(REPLACE_SCRIPT, List.of(key(username)),
+                sessionId.getBytes(StandardCharsets.UTF_8),
+                SessionRecordCodec.encode(updated),
+                expected,
+                Long.toString(ttlMillis).getBytes(StandardCharsets.UTF_8));
+        return replaced != null && replaced == 1L;
     }
 
-    public void removeSession(String username) {
-        String key = SESSION_PREFIX + username;
-        redisTemplate.delete(key);
+    private static String key(String username) {
+        return SESSION_PREFIX + username;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.auth_service.serialization;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Чтение формата {@link BinaryWriter}. Обрыв данных или переполнение varint
+ * приводят к {@link SerializationException}.
+ */
+final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    BinaryReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Некорректное число varint");
+    }
+
+    String readString() {
+        long length = readVarLong();
+        if (length < 0 || length > remaining()) {
+            throw new SerializationException("Длина строки выходит за границы данных");
+        }
+        String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+        position += (int) length;
+        return value;
+    }
+
+    byte[] readBytes(int count) {
+        require(count);
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + count);
+        position += count;
+        return bytes;
+    }
+
+    private int remaining() {
+        return buffer.length - position;
+    }
+
+    private void require(int count) {
+        if (count < 0 || count > remaining()) {
+            throw new SerializationException("Данные оборваны на позиции " + position);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.auth_service.serialization;
+
+import com.example.auth_service.dto.UserDto;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сериализатор значений L2-кэша: {@link UserDto} и списки {@link UserDto} пишутся компактным
+ * двоичным форматом, остальные значения — стандартной сериализацией Java.
+ * <p>
+ * Первый байт значения — тег формата и его версии. Поток стандартной сериализации всегда
+ * начинается с байта {@code 0xAC}, поэтому записи, сохранённые до перехода на этот формат,
+ * читаются без миграции и вытесняются по TTL. Неизвестный тег — ошибка чтения,
+ * которую {@code TwoLevelCache} считает промахом.
+ * </p>
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /** {@link UserDto}, версия 1. */
+    static final int USER_V1 = 0x01;
+
+    /** Список {@link UserDto}, версия 1. */
+    static final int USER_LIST_V1 = 0x02;
+
+    /** Первый байт потока стандартной сериализации Java ({@code STREAM_MAGIC}). */
+    private static final int JDK_STREAM_MAGIC = 0xAC;
+
+    private final JdkSerializationRedisSerializer fallback;
+
+    /**
+     * @param classLoader загрузчик классов для значений в стандартной сериализации
+     */
+    public CompactRedisSerializer(ClassLoader classLoader) {
+        this.fallback = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof UserDto user) {
+            BinaryWriter writer = new BinaryWriter(96).writeByte(USER_V1);
+            UserDtoCodec.write(writer, user);
+            return writer.toByteArray();
+        }
+        if (value instanceof List<?> list && isUserList(list)) {
+            BinaryWriter writer = new BinaryWriter(16 + list.size() * 64)
+                    .writeByte(USER_LIST_V1)
+                    .writeVarLong(list.size());
+            for (Object user : list) {
+                UserDtoCodec.write(writer, (UserDto) user);
+            }
+            return writer.toByteArray();
+        }
+        return fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        int tag = bytes[0] & 0xFF;
+        return switch (tag) {
+            case USER_V1 -> UserDtoCodec.read(new BinaryReader(bytes, 1));
+            case USER_LIST_V1 -> readUserList(new BinaryReader(bytes, 1));
+            case JDK_STREAM_MAGIC -> fallback.deserialize(bytes);
+            default -> throw new SerializationException("Неизвестный формат значения кэша: 0x" + Integer.toHexString(tag));
+        };
+    }
+
+    private static boolean isUserList(List<?> list) {
+        for (Object element : list) {
+            if (!(element instanceof UserDto)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<UserDto> readUserList(BinaryReader reader) {
+        long size = reader.readVarLong();
+        if (size > Integer.MAX_VALUE) {
+            throw new SerializationException("Некорректный размер списка: " + size);
+        }
+        // Ёмкость не берётся из данных напрямую: повреждённая длина не должна выделять гигабайты
+        List<UserDto> users = new ArrayList<>((int) Math.min(size, 1024));
+        for (long i = 0; i < size; i++) {
+            users.add(UserDtoCodec.read(reader));
+        }
+        return List.copyOf(users);
+    }
+}
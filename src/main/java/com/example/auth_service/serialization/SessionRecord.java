@@ -0,0 +1,112 @@
+package com.example.auth_service.serialization;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Сессия одного устройства пользователя. Время — в секундах эпохи.
+ * <p>
+ * Вместо токена доступа хранится его дайджест: для проверки достаточно сравнить дайджесты,
+ * а утечка содержимого Redis не раскрывает действующие токены. Дайджест — первые 16 байт
+ * SHA-256: подделать токен с нужной подписью HMAC всё равно нельзя, а короткая запись
+ * оставляет хеш пользователя в компактной кодировке Redis (listpack, значения до 64 байт).
+ * </p>
+ *
+ * @param createdAt   вход на устройстве
+ * @param lastSeenAt  последняя активность с точностью до интервала продления
+ * @param expiresAt   предельный срок сессии устройства, совпадает со сроком refresh-токена
+ * @param tokenDigest дайджест текущего токена доступа устройства
+ * @param address     IPv4 или IPv6 адрес входа; пустой, если неизвестен
+ */
+public record SessionRecord(long createdAt,
+                            long lastSeenAt,
+                            long expiresAt,
+                            byte[] tokenDigest,
+                            byte[] address) {
+
+    /** Длина дайджеста токена в байтах. */
+    public static final int DIGEST_LENGTH = 16;
+
+    private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+    /**
+     * @param token     токен доступа
+     * @param address   адрес клиента или null
+     * @param now       текущее время
+     * @param expiresAt предельный срок сессии
+     * @return запись новой сессии
+     */
+    public static SessionRecord create(String token, String address, long now, long expiresAt) {
+        return new SessionRecord(now, now, expiresAt, digest(token), addressBytes(address));
+    }
+
+    /**
+     * @return та же сессия с новым токеном и отметкой активности
+     */
+    public SessionRecord withToken(String token, long now, long newExpiresAt) {
+        return new SessionRecord(createdAt, now, newExpiresAt, digest(token), address);
+    }
+
+    /**
+     * @return та же сессия с новой отметкой активности
+     */
+    public SessionRecord touchedAt(long now) {
+        return new SessionRecord(createdAt, now, expiresAt, tokenDigest, address);
+    }
+
+    /**
+     * Сессия действует, пока не истёк её предельный срок и не превышен срок бездействия.
+     */
+    public boolean isActive(long now, long idleTimeoutSeconds) {
+        return now < expiresAt && now < lastSeenAt + idleTimeoutSeconds;
+    }
+
+    /**
+     * Проверяет, что сессия выдана для этого токена. Сравнение за постоянное время.
+     */
+    public boolean matches(String token) {
+        return MessageDigest.isEqual(tokenDigest, digest(token));
+    }
+
+    /**
+     * @return адрес входа строкой или null
+     */
+    public String addressString() {
+        if (address.length == 0) {
+            return null;
+        }
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    static byte[] digest(String token) {
+        try {
+            byte[] sha256 = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(sha256, DIGEST_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Разбирает только IP-литералы: {@link InetAddress#getByName} для имени хоста пошёл бы в DNS.
+     */
+    private static byte[] addressBytes(String address) {
+        if (address == null || !(address.indexOf(':') >= 0 || IPV4.matcher(address).matches())) {
+            return new byte[0];
+        }
+        try {
+            return InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return new byte[0];
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.auth_service.serialization;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Двоичная запись сессии устройства ({@link SessionRecord}) в поле хеша Redis:
+ * байт версии, три времени в varint, дайджест токена и адрес с длиной — до 49 байт.
+ * <p>
+ * Версия 1 хранила одну сессию на пользователя в строковом ключе и больше не читается.
+ * Запись с неизвестной версией считается отсутствующей: пользователь просто входит заново.
+ * </p>
+ */
+public final class SessionRecordCodec {
+
+    /** Текущая версия формата. */
+    public static final byte VERSION = 2;
+
+    private SessionRecordCodec() {
+    }
+
+    /**
+     * @param record сессия
+     * @return запись для Redis
+     */
+    public static byte[] encode(SessionRecord record) {
+        return new BinaryWriter(1 + 15 + SessionRecord.DIGEST_LENGTH + 17)
+                .writeByte(VERSION)
+                .writeVarLong(record.createdAt())
+                .writeVarLong(record.lastSeenAt())
+                .writeVarLong(record.expiresAt())
+                .writeBytes(record.tokenDigest())
+                .writeByte(record.address().length)
+                .writeBytes(record.address())
+                .toByteArray();
+    }
+
+    /**
+     * @param bytes запись из Redis или null
+     * @return сессия или null, если записи нет, её версия неизвестна или она повреждена
+     */
+    public static SessionRecord decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != VERSION) {
+            return null;
+        }
+        try {
+            BinaryReader reader = new BinaryReader(bytes, 1);
+            long createdAt = reader.readVarLong();
+            long lastSeenAt = reader.readVarLong();
+            long expiresAt = reader.readVarLong();
+            byte[] digest = reader.readBytes(SessionRecord.DIGEST_LENGTH);
+            byte[] address = reader.readBytes(reader.readByte());
+            return new SessionRecord(createdAt, lastSeenAt, expiresAt, digest, address);
+        } catch (SerializationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.auth_service.serialization;
+
+import com.example.auth_service.dto.UserDto;
+
+/**
+ * Компактная запись {@link UserDto}: байт флагов (активность и наличие каждого поля),
+ * идентификатор в varint и строки в UTF-8 с длиной. Имена полей и описание класса,
+ * которые пишет стандартная сериализация Java, не хранятся.
+ * <p>
+ * Порядок полей — часть формата: при изменении состава полей нужен новый тег
+ * в {@link CompactRedisSerializer}, а чтение старого тега остаётся.
+ * </p>
+ */
+final class UserDtoCodec {
+
+    private static final int ACTIVE = 1;
+    private static final int HAS_ID = 1 << 1;
+    private static final int HAS_USERNAME = 1 << 2;
+    private static final int HAS_EMAIL = 1 << 3;
+    private static final int HAS_FIRST_NAME = 1 << 4;
+    private static final int HAS_LAST_NAME = 1 << 5;
+    private static final int HAS_ROLES = 1 << 6;
+
+    private UserDtoCodec() {
+    }
+
+    static void write(BinaryWriter writer, UserDto user) {
+        int flags = (user.isActive() ? ACTIVE : 0)
+                | (user.getId() != null ? HAS_ID : 0)
+                | (user.getUsername() != null ? HAS_USERNAME : 0)
+                | (user.getEmail() != null ? HAS_EMAIL : 0)
+                | (user.getFirstName() != null ? HAS_FIRST_NAME : 0)
+                | (user.getLastName() != null ? HAS_LAST_NAME : 0)
+                | (user.getRoles() != null ? HAS_ROLES : 0);
+        writer.writeByte(flags);
+        if (user.getId() != null) {
+            writer.writeVarLong(user.getId());
+        }
+        writeIfPresent(writer, user.getUsername());
+        writeIfPresent(writer, user.getEmail());
+        writeIfPresent(writer, user.getFirstName());
+        writeIfPresent(writer, user.getLastName());
+        writeIfPresent(writer, user.getRoles());
+    }
+
+    static UserDto read(BinaryReader reader) {
+        int flags = reader.readByte();
+        UserDto user = new UserDto();
+        user.setActive((flags & ACTIVE) != 0);
+        if ((flags & HAS_ID) != 0) {
+            user.setId(reader.readVarLong());
+        }
+        user.setUsername(readIfPresent(reader, flags, HAS_USERNAME));
+        user.setEmail(readIfPresent(reader, flags, HAS_EMAIL));
+        user.setFirstName(readIfPresent(reader, flags, HAS_FIRST_NAME));
+        user.setLastName(readIfPresent(reader, flags, HAS_LAST_NAME));
+        user.setRoles(readIfPresent(reader, flags, HAS_ROLES));
+        return user;
+    }
+
+    private static void writeIfPresent(BinaryWriter writer, String value) {
+        if (value != null) {
+            writer.writeString(value);
+        }
+    }
+
+    private static String readIfPresent(BinaryReader reader, int flags, int flag) {
+        return (flags & flag) != 0 ? reader.readString() : null;
+    }
+}
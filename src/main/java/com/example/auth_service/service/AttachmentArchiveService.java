@@ -0,0 +1,183 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.exception.FileNotFoundException;
+import com.example.auth_service.exception.ObjectNotFoundException;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.TaskAttachmentRepository;
+import com.example.auth_service.repository.projection.AttachmentArchiveEntry;
+import com.example.auth_service.storage.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Сервис выгрузки всех вложений задач поддерева объектов одним ZIP-архивом.
+ * <p>
+ * Метаданные вложений получаются одним запросом, а содержимое файлов потоково пишется
+ * в ответ через {@link ZipOutputStream} без временных файлов: в памяти находится только
+ * буфер копирования. Уже сжатые форматы записываются без повторного сжатия (STORED).
+ * </p>
+ */
+@Slf4j
+@Service
+public class AttachmentArchiveService {
+
+    /** Размер буфера копирования файлов в архив. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Максимальная длина сегмента пути внутри архива. */
+    private static final int MAX_SEGMENT_LENGTH = 80;
+    /** Расширения файлов, которые уже сжаты и не выигрывают от DEFLATE. */
+    private static final Set<String> STORED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "docx", "xlsx");
+
+    private final BlobStore blobStore;
+    private final ObjectRepository objectRepository;
+    private final TaskAttachmentRepository taskAttachmentRepository;
+
+    public AttachmentArchiveService(BlobStore blobStore,
+                                    ObjectRepository objectRepository,
+                                    TaskAttachmentRepository taskAttachmentRepository) {
+        this.blobStore = blobStore;
+        this.objectRepository = objectRepository;
+        this.taskAttachmentRepository = taskAttachmentRepository;
+    }
+
+    /**
+     * Формирует потоковый ответ с архивом вложений объекта и всех его потомков.
+     *
+     * @param objectId идентификатор корневого объекта
+     * @return ResponseEntity с потоковым телом архива
+     * @throws ObjectNotFoundException если объект не найден
+     */
+    public ResponseEntity<StreamingResponseBody> exportObjectAttachments(Long objectId) {
+        log.info("Выгрузка архива вложений для поддерева объекта {}", objectId);
+
+        if (!objectRepository.existsById(objectId)) {
+            throw new ObjectNotFoundException("Объект не найден");
+        }
+
+        List<AttachmentArchiveEntry> entries = taskAttachmentRepository.findArchiveEntriesBySubtree(objectId);
+        log.info("Найдено {} вложений для архива объекта {}", entries.size(), objectId);
+
+        StreamingResponseBody body = outputStream -> writeArchive(entries, outputStream);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("object-" + objectId + "-attachments.zip")
+                .build();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    /**
+     * Записывает архив в выходной поток.
+     * Отсутствующие в хранилище файлы пропускаются, чтобы одна потерянная запись не обрывала выгрузку.
+     *
+     * @param entries      вложения для архивации
+     * @param outputStream поток ответа
+     * @throws IOException если запись в поток не удалась
+     */
+    private void writeArchive(List<AttachmentArchiveEntry> entries, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        Set<String> usedNames = new HashSet<>();
+        int written = 0;
+
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            for (AttachmentArchiveEntry entry : entries) {
+                Resource file;
+                try {
+                    file = blobStore.load(entry.getFilePath());
+                } catch (FileNotFoundException e) {
+                    log.warn("Файл {} отсутствует в хранилище и пропущен при архивации", entry.getFilePath());
+                    continue;
+                }
+
+                ZipEntry zipEntry = new ZipEntry(uniqueName(entryName(entry), usedNames));
+                if (STORED_EXTENSIONS.contains(extension(entry.getFilePath()))) {
+                    prepareStoredEntry(zipEntry, file, buffer);
+                }
+                zip.putNextEntry(zipEntry);
+                try (InputStream in = file.getInputStream()) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                    }
+                }
+                zip.closeEntry();
+                written++;
+            }
+        }
+        log.info("Архив сформирован: {} файлов", written);
+    }
+
+    /**
+     * Настраивает запись без сжатия. Формат ZIP требует заранее знать размер и CRC32
+     * такой записи, поэтому файл предварительно читается для подсчёта контрольной суммы.
+     *
+     * @param zipEntry запись архива
+     * @param file     ресурс вложения
+     * @param buffer   буфер чтения
+     * @throws IOException если файл не удалось прочитать
+     */
+    private void prepareStoredEntry(ZipEntry zipEntry, Resource file, byte[] buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        zipEntry.setMethod(ZipEntry.STORED);
+        zipEntry.setSize(size);
+        zipEntry.setCompressedSize(size);
+        zipEntry.setCrc(crc.getValue());
+    }
+
+    /**
+     * Строит путь записи в архиве вида {@code объект-id/задача-id/файл}.
+     */
+    private String entryName(AttachmentArchiveEntry entry) {
+        return sanitize(entry.getObjectName()) + "-" + entry.getObjectId() + "/"
+                + sanitize(entry.getTaskTitle()) + "-" + entry.getTaskId() + "/"
+                + entry.getFilePath();
+    }
+
+    private String uniqueName(String name, Set<String> usedNames) {
+        String candidate = name;
+        int counter = 1;
+        while (!usedNames.add(candidate)) {
+            candidate = name + "-" + counter++;
+        }
+        return candidate;
+    }
+
+    private String sanitize(String segment) {
+        if (segment == null || segment.isBlank()) {
+            return "untitled";
+        }
+        String cleaned = segment.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        return cleaned.length() > MAX_SEGMENT_LENGTH ? cleaned.substring(0, MAX_SEGMENT_LENGTH) : cleaned;
+    }
+
+    private String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase();
+    }
+}
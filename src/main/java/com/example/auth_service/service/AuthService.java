@@ -3,9 +3,11 @@ package com.example.auth_service.service;
 import com.example.auth_service.dto.AuthResponse;
 import com.example.auth_service.dto.UserSigninDto;
 import com.example.auth_service.dto.UserSignupDto;
+import com.example.auth_service.event.UserChangedEvent;
 import com.example.auth_service.exception.AuthException;
 import com.example.auth_service.exception.EmailAlreadyExistsException;
 import com.example.auth_service.exception.InvalidConfirmationCodeException;
+import com.example.auth_service.exception.PasswordHashingOverloadedException;
 import com.example.auth_service.exception.UserAlreadyExistsException;
 import com.example.auth_service.exception.UserNotActivatedException;
 import com.example.auth_service.exception.UserNotFoundException;
@@ -15,26 +17,30 @@ import com.example.auth_service.repository.RoleRepository;
 import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.service.email.EmailService;
 import com.example.auth_service.service.redis.RedisService;
+import com.example.auth_service.service.security.RoleAuthorities;
 import com.example.auth_service.service.security.jwt.JwtUtil;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import jakarta.mail.MessagingException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import java.time.Duration;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Сервис для аутентификации и регистрации пользователей.
@@ -45,6 +51,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AuthService {
 
+    /** SQLSTATE нарушения уникальности. */
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
@@ -53,36 +62,83 @@ public class AuthService {
     private final RedisService redisService;
     private final EmailService emailService;
     private final SessionService sessionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Регистрирует нового пользователя или администратора.
+     * <p>
+     * Занятые имя и email отсекаются до хеширования: повторная регистрация не тратит время BCrypt
+     * и место в очереди хеширования. Проверки и хеширование выполняются вне транзакции, поэтому
+     * ожидание в очереди не удерживает соединение с базой данных. Одновременные регистрации с одинаковыми
+     * данными отсекает уникальный индекс при вставке.
+     * </p>
      *
      * @param userSignupDto Данные для регистрации.
      * @param isAdmin       true, если регистрируется администратор, false — пользователь.
      * @throws UserAlreadyExistsException Если пользователь с таким именем уже существует.
      * @throws EmailAlreadyExistsException Если пользователь с таким email уже существует.
-     * @throws MessagingException Если произошла ошибка при отправке письма.
      */
-    public void register(UserSignupDto userSignupDto, boolean isAdmin) throws MessagingException {
+    public void register(UserSignupDto userSignupDto, boolean isAdmin) {
         log.info("Попытка регистрации {} с именем {}", isAdmin ? "администратора" : "пользователя", userSignupDto.getUsername());
 
         // Проверка существования пользователя с таким же именем
-        if (userRepository.findByUsername(userSignupDto.getUsername()).isPresent()) {
+        if (userRepository.existsByUsername(userSignupDto.getUsername())) {
             log.warn("Пользователь с именем {} уже существует", userSignupDto.getUsername());
             throw new UserAlreadyExistsException("Пользователь с таким именем уже существует");
         }
 
         // Проверка существования пользователя с таким же email
-        if (userRepository.findByEmail(userSignupDto.getEmail()).isPresent()) {
+        if (userRepository.existsByEmail(userSignupDto.getEmail())) {
             log.warn("Пользователь с email {} уже существует", userSignupDto.getEmail());
             throw new EmailAlreadyExistsException("Пользователь с таким email уже существует");
         }
 
+        String passwordHash = passwordEncoder.encode(userSignupDto.getPassword());
+        try {
+            transactionTemplate.executeWithoutResult(status -> createUser(userSignupDto, isAdmin, passwordHash));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateSignupException(userSignupDto, e);
+        }
+
+        log.info("{} с именем {} успешно зарегистрирован. Код подтверждения отправлен на почту.",
+                isAdmin ? "Администратор" : "Пользователь", userSignupDto.getUsername());
+    }
+
+    /**
+     * Преобразует нарушение уникальности имени или email, возникшее при одновременной регистрации,
+     * в соответствующее исключение. Остальные нарушения целостности пробрасываются как есть.
+     */
+    private static RuntimeException duplicateSignupException(UserSignupDto userSignupDto,
+                                                             DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && UNIQUE_VIOLATION.equals(violation.getSQLState())) {
+                String constraint = violation.getConstraintName();
+                if (constraint != null && constraint.contains("email")) {
+                    log.warn("Пользователь с email {} уже существует", userSignupDto.getEmail());
+                    return new EmailAlreadyExistsException("Пользователь с таким email уже существует");
+                }
+                log.warn("Пользователь с именем {} уже существует", userSignupDto.getUsername());
+                return new UserAlreadyExistsException("Пользователь с таким именем уже существует");
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Сохраняет пользователя и ставит письмо с кодом подтверждения в очередь. Выполняется в транзакции.
+     *
+     * @param userSignupDto Данные для регистрации.
+     * @param isAdmin       true, если регистрируется администратор, false — пользователь.
+     * @param passwordHash  Хеш пароля.
+     */
+    private void createUser(UserSignupDto userSignupDto, boolean isAdmin, String passwordHash) {
         // Создание нового пользователя
         User user = new User();
         user.setUsername(userSignupDto.getUsername());
         user.setEmail(userSignupDto.getEmail());
-        user.setPassword(passwordEncoder.encode(userSignupDto.getPassword()));
+        user.setPassword(passwordHash);
         user.setActive(false); // Устанавливаем флаг активности в false
 
         // Назначение роли для пользователя
@@ -94,14 +150,12 @@ public class AuthService {
 
         // Сохранение пользователя в базу данных
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
-        // Генерация и отправка кода подтверждения
+        // Генерация кода подтверждения и постановка письма в очередь в той же транзакции
         String code = generateConfirmationCode();
         redisService.saveConfirmationCode(userSignupDto.getEmail(), code);
         emailService.sendConfirmationCode(userSignupDto.getEmail(), code);
-
-        log.info("{} с именем {} успешно зарегистрирован. Код подтверждения отправлен на почту.",
-                isAdmin ? "Администратор" : "Пользователь", userSignupDto.getUsername());
     }
 
     /**
@@ -116,12 +170,20 @@ public class AuthService {
     /**
      * Выполняет вход пользователя в систему.
      *
+     * Каждый вход открывает отдельную сессию устройства, прежние сессии пользователя продолжают действовать.
+     * <p>
+     * Метод выполняется вне транзакции: каждый запрос к базе сразу возвращает соединение в пул,
+     * поэтому вход, ожидающий в очереди хеширования паролей, соединение не удерживает.
+     * </p>
+     *
      * @param userSigninDto Данные для входа пользователя.
+     * @param clientAddress IP-адрес клиента для списка сессий.
      * @return JWT токен для аутентификации пользователя.
      * @throws UserNotFoundException Если пользователь с таким именем не найден.
      * @throws UserNotActivatedException Если пользователь не активирован.
      */
-    public AuthResponse login(UserSigninDto userSigninDto, HttpServletResponse response) {
+    @Timed(value = "auth.login", description = "Вход по логину и паролю")
+    public AuthResponse login(UserSigninDto userSigninDto, String clientAddress, HttpServletResponse response) {
         log.info("Попытка входа в систему для пользователя {}", userSigninDto.getUsername());
         String usernameOrEmail = userSigninDto.getUsername();
         User user;
@@ -139,20 +201,20 @@ public class AuthService {
             log.warn("Пользователь {} не активирован", userSigninDto.getUsername());
             throw new UserNotActivatedException("Пользователь не активирован. Пожалуйста, подтвердите ваш email.");
         }
+        String sessionId = sessionService.newSessionId();
         String accessToken = jwtUtil.generateToken(
                 user,
-                user.getRoles().stream()
-                        .map(role -> new SimpleGrantedAuthority(role.getRoleType().name()))
-                        .collect(Collectors.toList())
+                RoleAuthorities.of(user.getRoleMask()),
+                sessionId
         );
         // Генерация refresh token
         String refreshToken = UUID.randomUUID().toString();
         // Сохраняем refresh token в Redis
-        saveRefreshToken(user.getUsername(), refreshToken, Duration.ofDays(7));
+        saveRefreshToken(user.getUsername(), refreshToken, sessionId, Duration.ofDays(7));
         // Устанавливаем refresh token в cookie
         addRefreshTokenToCookie(refreshToken, response);
-        // Сохраняем access token в сессии (если нужно)
-        sessionService.saveSession(user.getUsername(), accessToken, Duration.ofHours(2));
+        // Открываем сессию устройства
+        sessionService.saveSession(user.getUsername(), sessionId, accessToken, clientAddress);
         log.info("Пользователь {} успешно авторизован", userSigninDto.getUsername());
         return new AuthResponse(accessToken);
     }
@@ -192,6 +254,7 @@ public class AuthService {
         // Активировать пользователя
         user.setActive(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
         // Удалить код подтверждения из Redis
         redisService.deleteConfirmationCode(email);
@@ -199,15 +262,15 @@ public class AuthService {
         log.info("Email пользователя {} успешно подтвержден. Аккаунт активирован.", email);
 
         // Генерация JWT токена
+        String sessionId = sessionService.newSessionId();
         String token = jwtUtil.generateToken(
                 user,
-                user.getRoles().stream()
-                        .map(role -> new SimpleGrantedAuthority(role.getRoleType().name()))
-                        .collect(Collectors.toList())
+                RoleAuthorities.of(user.getRoleMask()),
+                sessionId
         );
 
-        // Сохраняем сессию в Redis
-        sessionService.saveSession(user.getUsername(), token, Duration.ofHours(2)); // Сессия на 2 часа
+        // Сохраняем сессию устройства в Redis
+        sessionService.saveSession(user.getUsername(), sessionId, token, null);
 
         log.info("Пользователь {} успешно активирован и авторизован", email);
 
@@ -216,8 +279,8 @@ public class AuthService {
     }
 
     /**
-     * Выполняет выход пользователя из системы.
-     *
+     * Выполняет выход пользователя из системы: удаляет refresh token из cookie и завершает его сессию устройства.
+     * Сессии на других устройствах продолжают действовать.
      */
     public void logout(HttpServletRequest request, HttpServletResponse response) {
         String refreshToken = null;
@@ -232,7 +295,11 @@ public class AuthService {
         if (refreshToken != null) {
             String username = redisService.findUsernameByRefreshToken(refreshToken);
             if (username != null) {
+                String sessionId = redisService.findSessionIdByRefreshToken(username, refreshToken);
                 deleteRefreshToken(username, refreshToken);
+                if (sessionId != null) {
+                    sessionService.revokeSession(username, sessionId);
+                }
             }
         }
         // Удалить cookie у клиента
@@ -258,7 +325,8 @@ public class AuthService {
         return authHeader.substring(7);
     }
 
-    public void resendConfirmationCode(String email) throws MessagingException {
+    @Transactional
+    public void resendConfirmationCode(String email) {
         log.info("Запрос на повторную отправку кода подтверждения для email: {}", email);
 
         // Проверка, существует ли пользователь с таким email
@@ -287,10 +355,10 @@ public class AuthService {
      * Отправляет инструкции для сброса пароля на email пользователя.
      *
      * @param email Email пользователя.
-     * @throws MessagingException Если произошла ошибка при отправке письма.
      * @throws UserNotFoundException Если пользователь с таким email не найден.
      */
-    public void sendPasswordResetLink(String email) throws MessagingException {
+    @Transactional
+    public void sendPasswordResetLink(String email) {
         log.info("Запрос на сброс пароля для email: {}", email);
 
         // Проверка, существует ли пользователь с таким email
@@ -313,6 +381,7 @@ public class AuthService {
 
     /**
      * Сбрасывает пароль пользователя.
+     * Все сессии устройств закрываются, возвращается токен новой сессии.
      *
      * @param token Токен для сброса пароля.
      * @param newPassword Новый пароль.
@@ -333,22 +402,29 @@ public class AuthService {
             // Сбрасываем пароль
             user.setPassword(passwordEncoder.encode(newPassword));
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
 
             // Удаляем токен сброса пароля из Redis
             redisService.deletePasswordResetToken(user.getEmail());
 
+            // Закрываем сессии всех устройств: тот, кто знал старый пароль, теряет доступ
+            sessionService.revokeAllSessions(username);
+
             log.info("Пароль для пользователя {} успешно сброшен", username);
 
-            // Генерация нового токена и возвращение в AuthResponse
+            // Новая сессия устройства, с которого сброшен пароль, и токен, привязанный к ней
+            String sessionId = sessionService.newSessionId();
             String newToken = jwtUtil.generateToken(
                     user,
-                    user.getRoles().stream()
-                            .map(role -> new SimpleGrantedAuthority(role.getRoleType().name()))
-                            .collect(Collectors.toList())
+                    RoleAuthorities.of(user.getRoleMask()),
+                    sessionId
             );
+            sessionService.saveSession(username, sessionId, newToken, null);
 
             return new AuthResponse(newToken);
 
+        } catch (PasswordHashingOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Ошибка при сбросе пароля: {}", e.getMessage());
             throw new AuthException("Ошибка при сбросе пароля");
@@ -375,14 +451,15 @@ public class AuthService {
     }
 
     /**
-     * Сохраняет refresh токен в Redis с указанным временем жизни.
+     * Сохраняет refresh токен сессии устройства в Redis с указанным временем жизни.
      *
      * @param username     имя пользователя
      * @param refreshToken refresh токен
+     * @param sessionId    идентификатор сессии устройства
      * @param duration     время жизни токена
      */
-    public void saveRefreshToken(String username, String refreshToken, Duration duration) {
-        redisService.saveRefreshToken(username, refreshToken, duration);
+    public void saveRefreshToken(String username, String refreshToken, String sessionId, Duration duration) {
+        redisService.saveRefreshToken(username, refreshToken, sessionId, duration);
         log.debug("Сохранён refresh token для пользователя: {} на срок {} секунд", username, duration.getSeconds());
     }
 
@@ -412,14 +489,17 @@ public class AuthService {
 
     /**
      * Обновляет access токен на основе переданного refresh токена из cookie.
+     * Новый токен относится к той же сессии устройства; если сессию отозвали, refresh токен удаляется.
      *
      * @param refreshToken refresh токен из cookie
      * @param response     HTTP-ответ для установки новой cookie
      * @return новый access токен в обёртке AuthResponse или null, если refresh токен недействителен
      */
+    @Timed(value = "auth.refresh", description = "Обновление access-токена по refresh-токену")
     public AuthResponse refreshAccessToken(String refreshToken, HttpServletResponse response) {
         String username = redisService.findUsernameByRefreshToken(refreshToken);
-        if (username == null || !isRefreshTokenValid(username, refreshToken)) {
+        String sessionId = username == null ? null : redisService.findSessionIdByRefreshToken(username, refreshToken);
+        if (sessionId == null) {
             log.warn("Попытка обновления токена: refresh token невалиден или не найден");
             return null;
         }
@@ -432,18 +512,20 @@ public class AuthService {
 
         String accessToken = jwtUtil.generateToken(
                 user,
-                user.getRoles().stream()
-                        .map(role -> new SimpleGrantedAuthority(role.getRoleType().name()))
-                        .collect(Collectors.toList())
+                RoleAuthorities.of(user.getRoleMask()),
+                sessionId
         );
+        if (!sessionService.rotateSession(username, sessionId, accessToken)) {
+            deleteRefreshToken(username, refreshToken);
+            return null;
+        }
         log.debug("Сгенерирован новый access token для пользователя: {}", username);
 
         // Ротация refresh токена
         String newRefreshToken = UUID.randomUUID().toString();
-        saveRefreshToken(user.getUsername(), newRefreshToken, Duration.ofDays(7));
+        saveRefreshToken(user.getUsername(), newRefreshToken, sessionId, Duration.ofDays(7));
         addRefreshTokenToCookie(newRefreshToken, response);
         deleteRefreshToken(user.getUsername(), refreshToken);
-        sessionService.saveSession(user.getUsername(), accessToken, Duration.ofHours(2));
 
         log.info("Успешное обновление access и refresh токенов для пользователя: {}", username);
         return new AuthResponse(accessToken);
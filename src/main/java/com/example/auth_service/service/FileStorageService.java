@@ -1,6 +1,7 @@
 package com.example.auth_service.service;
 
 import com.example.auth_service.config.FileStorageConfig;
+import com.example.auth_service.event.ThumbnailJobsCreatedEvent;
 import com.example.auth_service.exception.FileNotFoundException;
 import com.example.auth_service.exception.FileStorageException;
 import com.example.auth_service.exception.InvalidFileException;
@@ -9,38 +10,51 @@ import com.example.auth_service.model.Task;
 import com.example.auth_service.model.TaskAttachment;
 import com.example.auth_service.repository.TaskAttachmentRepository;
 import com.example.auth_service.repository.TaskRepository;
+import com.example.auth_service.storage.BlobStore;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 /**
  * Сервис для управления файлами в системе.
  * Предоставляет функциональность для загрузки, скачивания и удаления файлов.
  * Включает валидацию файлов и обработку ошибок.
+ * Содержимое файлов хранится в {@link BlobStore}, реализация которого задаётся конфигурацией.
  */
 @Slf4j
 @Service
 public class FileStorageService {
 
-    private final Path fileStorageLocation;
+    private final BlobStore blobStore;
+    private final Duration presignTtl;
     private final TaskRepository taskRepository;
     private final TaskAttachmentRepository taskAttachmentRepository;
+    private final ThumbnailService thumbnailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    /** Размеры загруженных и отданных файлов. */
+    private final DistributionSummary uploadedBytes;
+    private final DistributionSummary downloadedBytes;
 
     /** Максимальный размер файла (10MB) */
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
@@ -58,32 +72,45 @@ public class FileStorageService {
 
     /**
      * Создает новый экземпляр сервиса для работы с файлами.
-     * Инициализирует директорию для хранения файлов.
      *
      * @param fileStorageConfig конфигурация хранилища файлов
+     * @param blobStore хранилище содержимого файлов
      * @param taskRepository репозиторий задач
      * @param taskAttachmentRepository репозиторий вложений задач
-     * @throws FileStorageException если не удалось создать директорию для хранения файлов
+     * @param thumbnailService сервис генерации превью
+     * @param eventPublisher публикатор событий приложения
+     * @param transactionManager менеджер транзакций для записи вложений
+     * @param meterRegistry реестр метрик
      */
     @Autowired
     public FileStorageService(FileStorageConfig fileStorageConfig,
+                            BlobStore blobStore,
                             TaskRepository taskRepository,
-                            TaskAttachmentRepository taskAttachmentRepository) {
-        this.fileStorageLocation = Paths.get(fileStorageConfig.getUploadDir())
-                .toAbsolutePath().normalize();
+                            TaskAttachmentRepository taskAttachmentRepository,
+                            ThumbnailService thumbnailService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.blobStore = blobStore;
+        this.presignTtl = fileStorageConfig.getStorage().getPresignTtl();
         this.taskRepository = taskRepository;
         this.taskAttachmentRepository = taskAttachmentRepository;
-
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-        } catch (Exception ex) {
-            throw new FileStorageException("Не удалось создать директорию для хранения загруженных файлов.", ex);
-        }
+        this.thumbnailService = thumbnailService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.uploadedBytes = bytesSummary(meterRegistry, "files.upload.bytes", "Размер загруженных файлов");
+        this.downloadedBytes = bytesSummary(meterRegistry, "files.download.bytes", "Размер отданных файлов");
     }
 
     /**
      * Загружает массив файлов в хранилище и связывает их с задачей.
      * Выполняет валидацию каждого файла перед загрузкой.
+     * <p>
+     * Файлы передаются в хранилище вне транзакции: загрузка в S3 может длиться секунды,
+     * и всё это время транзакция держала бы соединение из пула. Затем записи вложений и задания
+     * на генерацию превью создаются одной короткой транзакцией; задания передаются воркерам
+     * после её фиксации. Если загрузка или транзакция не удались, уже загруженные файлы удаляются.
+     * </p>
      *
      * @param taskId идентификатор задачи
      * @param files массив файлов для загрузки
@@ -92,29 +119,37 @@ public class FileStorageService {
      * @throws FileStorageException если произошла ошибка при сохранении файлов
      * @throws TaskNotFoundException если задача не найдена
      */
+    @Timed(value = "files.upload", description = "Загрузка файлов к задаче")
     public ResponseEntity<List<Map<String, String>>> uploadFiles(Long taskId, MultipartFile[] files) {
-        log.info("Получен запрос на загрузку {} файлов для задачи {}", files.length, taskId);
-        
         if (files == null || files.length == 0) {
             throw new InvalidFileException("Не выбраны файлы для загрузки");
         }
-
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Задача не найдена: " + taskId));
-
-        List<Map<String, String>> responses = new ArrayList<>();
+        log.info("Получен запрос на загрузку {} файлов для задачи {}", files.length, taskId);
 
         for (MultipartFile file : files) {
             validateFile(file);
-            log.info("Загрузка файла: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
-            String fileName = storeFile(file);
+        }
+        if (!taskRepository.existsById(taskId)) {
+            throw new TaskNotFoundException("Задача не найдена: " + taskId);
+        }
 
-            // Сохраняем информацию о файле в базе данных
-            TaskAttachment attachment = TaskAttachment.builder()
-                    .task(task)
-                    .filePath(fileName)
-                    .build();
-            taskAttachmentRepository.save(attachment);
+        List<String> stored = new ArrayList<>(files.length);
+        try {
+            for (MultipartFile file : files) {
+                log.info("Загрузка файла: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+                stored.add(storeFile(file));
+            }
+            transactionTemplate.executeWithoutResult(status -> saveAttachments(taskId, files, stored));
+        } catch (RuntimeException e) {
+            deleteStored(stored);
+            throw e;
+        }
+
+        List<Map<String, String>> responses = new ArrayList<>();
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            String fileName = stored.get(i);
+            uploadedBytes.record(file.getSize());
 
             String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
                     .path("/api/files/download/")
@@ -134,6 +169,44 @@ public class FileStorageService {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Создаёт записи вложений и задания на генерацию превью для уже загруженных файлов.
+     * Выполняется в транзакции.
+     */
+    private void saveAttachments(Long taskId, MultipartFile[] files, List<String> stored) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Задача не найдена: " + taskId));
+
+        List<Long> thumbnailJobIds = new ArrayList<>();
+        for (int i = 0; i < files.length; i++) {
+            String fileName = stored.get(i);
+            taskAttachmentRepository.save(TaskAttachment.builder()
+                    .task(task)
+                    .filePath(fileName)
+                    .build());
+            if (thumbnailService.isSupported(files[i].getContentType())) {
+                thumbnailJobIds.add(thumbnailService.createJob(fileName));
+            }
+        }
+
+        if (!thumbnailJobIds.isEmpty()) {
+            eventPublisher.publishEvent(new ThumbnailJobsCreatedEvent(thumbnailJobIds));
+        }
+    }
+
+    /**
+     * Удаляет файлы, загруженные в хранилище, если записи о них не были сохранены.
+     */
+    private void deleteStored(List<String> stored) {
+        for (String fileName : stored) {
+            try {
+                blobStore.delete(fileName);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось удалить файл {} после неудачной загрузки: {}", fileName, e.getMessage());
+            }
+        }
+    }
+
     /**
      * Скачивает файл по его имени.
      *
@@ -142,6 +215,8 @@ public class FileStorageService {
      * @throws InvalidFileException если имя файла пустое
      * @throws FileNotFoundException если файл не найден
      */
+    @Timed(value = "files.download.prepare",
+            description = "Подготовка ответа для скачивания файла; передача содержимого клиенту не входит")
     public ResponseEntity<Resource> downloadFile(String fileName) {
         log.info("Получен запрос на скачивание файла: {}", fileName);
         
@@ -150,6 +225,7 @@ public class FileStorageService {
         }
 
         Resource resource = loadFileAsResource(fileName);
+        recordDownloadSize(resource);
         // Определяем Content-Type по расширению файла
         String contentType = getFileType(fileName);
 
@@ -159,6 +235,44 @@ public class FileStorageService {
                 .body(resource);
     }
 
+    /**
+     * Возвращает ссылку для скачивания файла.
+     * Если хранилище поддерживает подписанные ссылки, клиент получает прямую ссылку на хранилище
+     * с ограниченным сроком действия и скачивает файл в обход потоков обработки запросов приложения.
+     * Иначе возвращается обычная ссылка на {@code /api/files/download}.
+     *
+     * @param fileName имя файла
+     * @return ResponseEntity со ссылкой ({@code url}), признаком прямой ссылки ({@code direct})
+     *         и временем истечения прямой ссылки ({@code expiresAt})
+     * @throws InvalidFileException если имя файла пустое
+     * @throws FileNotFoundException если файл не найден
+     */
+    public ResponseEntity<Map<String, String>> getDownloadLink(String fileName) {
+        log.info("Получен запрос на ссылку для скачивания файла: {}", fileName);
+
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new InvalidFileException("Имя файла не может быть пустым");
+        }
+        if (!blobStore.exists(fileName)) {
+            throw new FileNotFoundException("Файл не найден: " + fileName);
+        }
+
+        Map<String, String> response = new HashMap<>();
+        Optional<URI> presigned = blobStore.presignDownload(fileName, fileName, presignTtl);
+        if (presigned.isPresent()) {
+            response.put("url", presigned.get().toString());
+            response.put("direct", "true");
+            response.put("expiresAt", Instant.now().plus(presignTtl).toString());
+        } else {
+            response.put("url", ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/files/download/")
+                    .path(fileName)
+                    .toUriString());
+            response.put("direct", "false");
+        }
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Удаляет файл по его имени.
      *
@@ -179,6 +293,7 @@ public class FileStorageService {
         taskAttachmentRepository.findByFilePath(fileName)
                 .ifPresent(taskAttachmentRepository::delete);
 
+        thumbnailService.deleteThumbnails(fileName);
         deleteFileInternal(fileName);
         log.info("Файл {} удалён (если существовал)", fileName);
         return ResponseEntity.ok().build();
@@ -218,10 +333,9 @@ public class FileStorageService {
             
             // Получаем размер файла
             try {
-                Path filePath = fileStorageLocation.resolve(attachment.getFilePath());
-                long size = Files.size(filePath);
+                long size = blobStore.size(attachment.getFilePath());
                 fileInfo.put("size", String.valueOf(size));
-            } catch (IOException e) {
+            } catch (FileNotFoundException | FileStorageException e) {
                 log.warn("Не удалось получить размер файла {}: {}", attachment.getFilePath(), e.getMessage());
                 fileInfo.put("size", "0");
             }
@@ -294,15 +408,34 @@ public class FileStorageService {
         String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
         String fileName = UUID.randomUUID().toString() + fileExtension;
 
-        try {
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        try (InputStream content = file.getInputStream()) {
+            blobStore.put(fileName, content, file.getSize(), file.getContentType());
             return fileName;
         } catch (IOException ex) {
             throw new FileStorageException("Не удалось сохранить файл " + fileName + ". Пожалуйста, попробуйте ещё раз!", ex);
         }
     }
 
+    /**
+     * Учитывает размер отдаваемого файла. Размер известен хранилищу без чтения содержимого.
+     *
+     * @param resource ресурс файла
+     */
+    private void recordDownloadSize(Resource resource) {
+        try {
+            downloadedBytes.record(resource.contentLength());
+        } catch (IOException ex) {
+            log.debug("Не удалось определить размер файла {}: {}", resource.getFilename(), ex.getMessage());
+        }
+    }
+
+    private static DistributionSummary bytesSummary(MeterRegistry meterRegistry, String name, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
     /**
      * Загружает файл как ресурс по его имени.
      *
@@ -311,17 +444,7 @@ public class FileStorageService {
      * @throws FileNotFoundException если файл не найден
      */
     private Resource loadFileAsResource(String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new FileNotFoundException("Файл не найден: " + fileName);
-            }
-        } catch (MalformedURLException ex) {
-            throw new FileNotFoundException("Файл не найден: " + fileName, ex);
-        }
+        return blobStore.load(fileName);
     }
 
     /**
@@ -332,14 +455,9 @@ public class FileStorageService {
      * @throws FileStorageException если произошла ошибка при удалении файла
      */
     private void deleteFileInternal(String fileName) {
-        try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            if (!Files.exists(filePath)) {
-                throw new FileNotFoundException("Файл не найден: " + fileName);
-            }
-            Files.deleteIfExists(filePath);
-        } catch (IOException ex) {
-            throw new FileStorageException("Не удалось удалить файл " + fileName, ex);
+        if (!blobStore.exists(fileName)) {
+            throw new FileNotFoundException("Файл не найден: " + fileName);
         }
+        blobStore.delete(fileName);
     }
 } 
\ No newline at end of file
@@ -1,6 +1,13 @@
 package com.example.auth_service.service;
 
+import com.example.auth_service.cache.ObjectPathCache;
 import com.example.auth_service.dto.ObjectResponseDto;
+import com.example.auth_service.dto.ObjectTreeNodeDto;
+import com.example.auth_service.event.ObjectCreatedEvent;
+import com.example.auth_service.event.ObjectDeletedEvent;
+import com.example.auth_service.event.ObjectMovedEvent;
+import com.example.auth_service.event.ObjectUpdatedEvent;
+import com.example.auth_service.exception.InvalidDataException;
 import com.example.auth_service.exception.ObjectNotFoundException;
 import com.example.auth_service.mapper.ObjectMapper;
 import com.example.auth_service.model.ObjectEntity;
@@ -8,16 +15,22 @@ import com.example.auth_service.model.ObjectType;
 import com.example.auth_service.model.User;
 import com.example.auth_service.repository.ObjectRepository;
 import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.repository.projection.ObjectTreeRow;
+import com.example.auth_service.service.security.CurrentUserProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -25,15 +38,24 @@ import java.util.stream.Collectors;
  * Сервис для управления объектами недвижимости.
  * Предоставляет методы для создания, обновления, удаления и получения объектов недвижимости,
  * а также для назначения и удаления ответственного пользователя.
+ * Изменения публикуют доменные события, которые подписчики обрабатывают после фиксации транзакции.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ObjectService {
 
+    /** Максимальная глубина дерева, которую можно запросить за один раз. */
+    static final int MAX_TREE_DEPTH = 32;
+    /** SQLSTATE нарушения внешнего ключа. */
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     private final ObjectRepository objectRepository;
     private final ObjectMapper objectMapper;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectPathCache objectPathCache;
+    private final CurrentUserProvider currentUserProvider;
 
     /**
      * Создает новый объект недвижимости.
@@ -41,7 +63,9 @@ public class ObjectService {
      * @param objectDto DTO с данными для создания объекта
      * @return DTO созданного объекта
      * @throws IllegalArgumentException если объект или его поля невалидны
+     * @throws ObjectNotFoundException если родительский объект или ответственный пользователь не существует
      */
+    @Transactional
     public ObjectResponseDto createObject(ObjectResponseDto objectDto) {
         Assert.notNull(objectDto, "Объект не должен быть null");
         Assert.hasText(objectDto.getName(), "Имя объекта не должно быть пустым");
@@ -52,33 +76,40 @@ public class ObjectService {
         // Преобразуем DTO в сущность
         ObjectEntity entity = objectMapper.toEntity(objectDto);
 
-        // Если родительский объект задан (parentId != null), то связываем с родителем
+        // Внешние ключи задаются ссылками без загрузки: существование родителя и ответственного
+        // проверяет ограничение внешнего ключа при вставке
         if (objectDto.getParentId() != null) {
-            Optional<ObjectEntity> parentEntity = objectRepository.findById(objectDto.getParentId());
-            parentEntity.ifPresent(entity::setParent);  // Устанавливаем родителя, если он найден
+            entity.setParent(objectRepository.getReferenceById(objectDto.getParentId()));
         }
 
-        // Устанавливаем создателя объекта
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            String username = authentication.getName();
-            Optional<User> currentUser = userRepository.findByUsername(username);
-            currentUser.ifPresent(entity::setCreatedBy);
-        }
+        // Создатель объекта — пользователь из контекста безопасности
+        User currentUser = currentUserProvider.getCurrentUser().orElse(null);
+        entity.setCreatedBy(currentUser);
 
-        // Устанавливаем ответственного пользователя, если указан
         if (objectDto.getResponsibleUserId() != null) {
-            User responsibleUser = userRepository.findById(objectDto.getResponsibleUserId())
-                    .orElseThrow(() -> new RuntimeException("Ответственный пользователь не найден"));
-            entity.setResponsibleUser(responsibleUser);
+            entity.setResponsibleUser(currentUser != null && objectDto.getResponsibleUserId().equals(currentUser.getId())
+                    ? currentUser
+                    : userRepository.getReferenceById(objectDto.getResponsibleUserId()));
         }
 
         // Сохраняем объект в базу данных
-        ObjectEntity savedEntity = objectRepository.save(entity);
+        ObjectEntity savedEntity;
+        try {
+            savedEntity = objectRepository.save(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (!isForeignKeyViolation(e)) {
+                throw e;
+            }
+            log.warn("Не удалось создать объект {}: {}", objectDto.getName(), e.getMostSpecificCause().getMessage());
+            throw new ObjectNotFoundException("Родительский объект или ответственный пользователь не найден");
+        }
         log.info("Объект успешно создан с ID: {}", savedEntity.getId());
+        eventPublisher.publishEvent(new ObjectCreatedEvent(savedEntity.getId(),
+                savedEntity.getParent() != null ? savedEntity.getParent().getId() : null,
+                savedEntity.getObjectType()));
 
-        // Преобразуем сущность обратно в DTO и возвращаем
-        return objectMapper.toDto(savedEntity);
+        // Преобразуем сущность обратно в DTO, не загружая ссылки на родителя и ответственного
+        return objectMapper.toCreatedDto(savedEntity);
     }
 
     /**
@@ -86,6 +117,7 @@ public class ObjectService {
      *
      * @return Список всех объектов недвижимости в формате DTO
      */
+    @Transactional(readOnly = true)
     public List<ObjectResponseDto> getAllObjects() {
         log.info("Получение всех объектов");
         List<ObjectEntity> entities = objectRepository.findAll();
@@ -102,6 +134,7 @@ public class ObjectService {
      * @return ResponseEntity с объектом недвижимости в формате DTO
      * @throws ObjectNotFoundException если объект не найден
      */
+    @Transactional(readOnly = true)
     public ResponseEntity<ObjectResponseDto> getObjectById(Long id) {
         log.info("Запрос на получение объекта с ID: {}", id);
         return objectRepository.findById(id)
@@ -122,6 +155,7 @@ public class ObjectService {
      * @param type тип объекта недвижимости
      * @return Список объектов данного типа в формате DTO
      */
+    @Transactional(readOnly = true)
     public List<ObjectResponseDto> getObjectsByType(ObjectType type) {
         log.info("Запрос на получение объектов типа: {}", type);
         List<ObjectEntity> entities = objectRepository.findByObjectType(type);
@@ -136,6 +170,7 @@ public class ObjectService {
      * @param parentId идентификатор родительского объекта
      * @return Список дочерних объектов в формате DTO
      */
+    @Transactional(readOnly = true)
     public List<ObjectResponseDto> getChildren(Long parentId) {
         log.info("Запрос на получение дочерних объектов для ID: {}", parentId);
         List<ObjectEntity> entities = objectRepository.findByParentId(parentId);
@@ -151,7 +186,9 @@ public class ObjectService {
      * @param updatedObject DTO с новыми данными объекта
      * @return Обновленный объект недвижимости в формате DTO
      * @throws ObjectNotFoundException если объект с указанным ID не найден
+     * @throws InvalidDataException если новый родитель — сам объект или его потомок
      */
+    @Transactional
     public ObjectResponseDto updateObject(Long id, ObjectResponseDto updatedObject) {
         Assert.notNull(updatedObject, "Обновленный объект не должен быть null");
         Assert.hasText(updatedObject.getName(), "Имя объекта не должно быть пустым");
@@ -161,11 +198,18 @@ public class ObjectService {
 
         return objectRepository.findById(id)
                 .map(existing -> {
+                    Long oldParentId = existing.getParent() != null ? existing.getParent().getId() : null;
                     existing.setName(updatedObject.getName());
                     existing.setObjectType(updatedObject.getObjectType());
 
-                    // Обновляем родительский объект
+                    // Обновляем родительский объект; объект нельзя переместить в собственное поддерево
                     if (updatedObject.getParentId() != null) {
+                        if (!Objects.equals(oldParentId, updatedObject.getParentId())
+                                && objectRepository.isInSubtree(id, updatedObject.getParentId())) {
+                            log.warn("Отклонено перемещение объекта {} под собственного потомка {}",
+                                    id, updatedObject.getParentId());
+                            throw new InvalidDataException("Нельзя переместить объект внутрь его собственного поддерева");
+                        }
                         ObjectEntity parent = objectRepository.findById(updatedObject.getParentId())
                                 .orElseThrow(() -> new ObjectNotFoundException("Родительский объект не найден"));
                         existing.setParent(parent);
@@ -184,6 +228,11 @@ public class ObjectService {
 
                     ObjectEntity savedObject = objectRepository.save(existing);
                     log.info("Объект обновлен: {}", savedObject);
+
+                    eventPublisher.publishEvent(new ObjectUpdatedEvent(id, savedObject.getObjectType()));
+                    if (!Objects.equals(oldParentId, updatedObject.getParentId())) {
+                        eventPublisher.publishEvent(new ObjectMovedEvent(id, oldParentId, updatedObject.getParentId()));
+                    }
                     return objectMapper.toDto(savedObject);
                 })
                 .orElseThrow(() -> {
@@ -199,6 +248,7 @@ public class ObjectService {
      * @throws ObjectNotFoundException если объект с указанным ID не найден
      * @throws IllegalStateException если объект имеет дочерние объекты и не может быть удален
      */
+    @Transactional
     public void deleteObject(Long id) {
         log.info("Запрос на удаление объекта с ID: {}", id);
 
@@ -215,7 +265,9 @@ public class ObjectService {
             throw new IllegalStateException("Удаление невозможно: у объекта есть дочерние элементы");
         }
 
+        Long parentId = object.getParent() != null ? object.getParent().getId() : null;
         objectRepository.delete(object);
+        eventPublisher.publishEvent(new ObjectDeletedEvent(id, parentId));
         log.info("Объект с ID {} успешно удален", id);
     }
 
@@ -224,19 +276,15 @@ public class ObjectService {
      *
      * @return Список объектов, созданных текущим пользователем
      */
+    @Transactional(readOnly = true)
     public List<ObjectResponseDto> getCurrentUserObjects() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            String username = authentication.getName();
-            Optional<User> currentUser = userRepository.findByUsername(username);
-
-            if (currentUser.isPresent()) {
-                log.info("Получение объектов, созданных пользователем: {}", currentUser.get().getId());
-                List<ObjectEntity> entities = objectRepository.findByCreatedById(currentUser.get().getId());
-                return entities.stream()
-                        .map(objectMapper::toDto)
-                        .collect(Collectors.toList());
-            }
+        Optional<User> currentUser = currentUserProvider.getCurrentUser();
+        if (currentUser.isPresent()) {
+            log.info("Получение объектов, созданных пользователем: {}", currentUser.get().getId());
+            List<ObjectEntity> entities = objectRepository.findByCreatedById(currentUser.get().getId());
+            return entities.stream()
+                    .map(objectMapper::toDto)
+                    .collect(Collectors.toList());
         }
         return List.of();
     }
@@ -247,6 +295,7 @@ public class ObjectService {
      * @param userId идентификатор пользователя
      * @return Список объектов, назначенных ответственным пользователем
      */
+    @Transactional(readOnly = true)
     public List<ObjectResponseDto> getObjectsByResponsibleUser(Long userId) {
         log.info("Получение объектов для ответственного пользователя с ID: {}", userId);
         List<ObjectEntity> entities = objectRepository.findByResponsibleUserId(userId);
@@ -264,6 +313,7 @@ public class ObjectService {
      * @throws ObjectNotFoundException если объект не найден
      * @throws RuntimeException если пользователь не найден
      */
+    @Transactional
     public ObjectResponseDto assignResponsibleUser(Long objectId, Long userId) {
         log.info("Назначение ответственного пользователя {} для объекта {}", userId, objectId);
 
@@ -275,6 +325,7 @@ public class ObjectService {
 
         object.setResponsibleUser(responsibleUser);
         ObjectEntity savedObject = objectRepository.save(object);
+        eventPublisher.publishEvent(new ObjectUpdatedEvent(objectId, savedObject.getObjectType()));
 
         return objectMapper.toDto(savedObject);
     }
@@ -286,6 +337,7 @@ public class ObjectService {
      * @return Обновленный объект с удаленным ответственным пользователем
      * @throws ObjectNotFoundException если объект не найден
      */
+    @Transactional
     public ObjectResponseDto removeResponsibleUser(Long objectId) {
         log.info("Удаление ответственного пользователя для объекта {}", objectId);
 
@@ -294,24 +346,78 @@ public class ObjectService {
 
         object.setResponsibleUser(null);
         ObjectEntity savedObject = objectRepository.save(object);
+        eventPublisher.publishEvent(new ObjectUpdatedEvent(objectId, savedObject.getObjectType()));
 
         return objectMapper.toDto(savedObject);
     }
 
+    /**
+     * Получает поддерево объекта до указанной глубины одним запросом.
+     * Строки приходят упорядоченными по глубине, поэтому дерево собирается за один проход
+     * по индексу «идентификатор → узел»: родитель каждого узла уже создан.
+     *
+     * @param id    идентификатор корня поддерева
+     * @param depth глубина относительно корня (0 — только сам объект)
+     * @return корневой узел с вложенными дочерними узлами
+     * @throws InvalidDataException    если глубина вне допустимого диапазона
+     * @throws ObjectNotFoundException если объект не найден
+     */
+    public ObjectTreeNodeDto getObjectTree(Long id, int depth) {
+        if (depth < 0 || depth > MAX_TREE_DEPTH) {
+            throw new InvalidDataException("Глубина дерева должна быть от 0 до " + MAX_TREE_DEPTH);
+        }
+        log.info("Запрос дерева объекта {} глубиной {}", id, depth);
+
+        List<ObjectTreeRow> rows = objectRepository.findSubtree(id, depth);
+        if (rows.isEmpty()) {
+            log.warn("Объект с ID {} не найден", id);
+            throw new ObjectNotFoundException("Объект не найден");
+        }
+
+        Map<Long, ObjectTreeNodeDto> nodes = new HashMap<>(rows.size() * 2);
+        ObjectTreeNodeDto root = null;
+        for (ObjectTreeRow row : rows) {
+            ObjectTreeNodeDto node = new ObjectTreeNodeDto();
+            node.setId(row.getId());
+            node.setName(row.getName());
+            node.setObjectType(ObjectType.valueOf(row.getObjectType()));
+            node.setParentId(row.getParentId());
+            node.setResponsibleUserId(row.getResponsibleUserId());
+            node.setResponsibleUserFirstName(row.getResponsibleUserFirstName());
+            node.setResponsibleUserLastName(row.getResponsibleUserLastName());
+            nodes.put(node.getId(), node);
+
+            if (row.getDepth() == 0) {
+                root = node;
+            } else {
+                nodes.get(row.getParentId()).getChildren().add(node);
+            }
+        }
+        log.info("Дерево объекта {} собрано: {} узлов", id, rows.size());
+        return root;
+    }
+
     /**
      * Получает путь (хлебные крошки) от корня до текущего объекта.
+     * Путь берётся из {@link ObjectPathCache}, который сбрасывается по событиям изменения объектов.
      *
      * @param id идентификатор объекта
-     * @return Список объектов от корня до текущего
+     * @return Неизменяемый список объектов от корня до текущего
      */
     public List<ObjectResponseDto> getObjectPath(Long id) {
-        List<ObjectResponseDto> path = new ArrayList<>();
-        ObjectResponseDto current = getObjectById(id).getBody();
-        while (current != null) {
-            path.add(0, current); // добавляем в начало списка
-            if (current.getParentId() == null) break;
-            current = getObjectById(current.getParentId()).getBody();
+        return objectPathCache.getPath(id);
+    }
+
+    /**
+     * Проверяет, вызвано ли нарушение целостности внешним ключом. Остальные нарушения
+     * (NOT NULL, длина, уникальность) не означают отсутствие родителя или ответственного.
+     */
+    private static boolean isForeignKeyViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
         }
-        return path;
+        return false;
     }
 }
@@ -1,53 +1,145 @@
 package com.example.auth_service.service;
 
+import com.example.auth_service.config.SessionProperties;
+import com.example.auth_service.dto.SessionDto;
 import com.example.auth_service.repository.redis.RedisSessionRepository;
+import com.example.auth_service.serialization.SessionRecord;
+import com.example.auth_service.service.redis.RedisService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
 
+/**
+ * Сессии устройств: у пользователя может быть несколько сессий, по одной на вход.
+ * Идентификатор сессии записан в токен доступа (claim {@code sid}) и привязан к refresh-токену,
+ * поэтому вход на новом устройстве не завершает сессии на остальных.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SessionService {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final RedisSessionRepository redisSessionRepository;
+    private final RedisService redisService;
+    private final SessionProperties sessionProperties;
 
     /**
-     * Сохраняет данные сессии пользователя в Redis.
-     * В качестве значения сохраняем токен и время истечения.
+     * @return новый случайный идентификатор сессии (96 бит, 16 символов base64url)
      */
-    public void saveSession(String username, String token, Duration duration) {
-        log.debug("Сохранение сессии для пользователя {} на {}", username, duration);
-        redisSessionRepository.saveSession(username, token, duration);
+    public String newSessionId() {
+        byte[] bytes = new byte[12];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     /**
-     * Получает токен сессии пользователя из Redis.
+     * Сохраняет сессию нового входа. Сверх предела устройств закрываются самые давние по активности сессии.
+     *
+     * @param username  имя пользователя
+     * @param sessionId идентификатор из {@link #newSessionId()}, записанный в токен
+     * @param token     токен доступа
+     * @param address   IP-адрес клиента или null
      */
-    public boolean isSessionValid(String username, String token) {
-        boolean isValid = redisSessionRepository.isSessionExists(username, token) && 
-                         !redisSessionRepository.isSessionExpired(username, token);
-        if (!isValid) {
-            log.warn("Сессия пользователя {} невалидна", username);
+    public void saveSession(String username, String sessionId, String token, String address) {
+        long now = Instant.now().getEpochSecond();
+        SessionRecord record = SessionRecord.create(token, address, now,
+                now + sessionProperties.getMaxLifetime().toSeconds());
+        List<String> removed = redisSessionRepository.saveSession(username, sessionId, record,
+                sessionProperties.getMaxDevices());
+        log.debug("Сохранение сессии {} пользователя {}, удалено прежних: {}", sessionId, username, removed.size());
+        for (String removedId : removed) {
+            redisService.deleteRefreshTokens(username, removedId);
         }
-        return isValid;
     }
 
     /**
-     * Обновляет время жизни сессии пользователя.
+     * Проверяет, что сессия существует, действует и выдана для этого токена. Одно обращение к Redis;
+     * не чаще {@code session.touch-interval} к нему добавляется продление сессии.
+     */
+    public boolean validateSession(String username, String sessionId, String token) {
+        if (sessionId == null) {
+            log.warn("Токен пользователя {} не содержит идентификатора сессии", username);
+            return false;
+        }
+        long now = Instant.now().getEpochSecond();
+        SessionRecord record = redisSessionRepository.findSession(username, sessionId);
+        if (record == null || !record.isActive(now, sessionProperties.getIdleTimeout().toSeconds())
+                || !record.matches(token)) {
+            log.warn("Сессия {} пользователя {} невалидна", sessionId, username);
+            return false;
+        }
+        if (now - record.lastSeenAt() >= sessionProperties.getTouchInterval().toSeconds()) {
+            redisSessionRepository.replaceSessionIfUnchanged(username, sessionId, record, record.touchedAt(now));
+        }
+        return true;
+    }
+
+    /**
+     * Привязывает к сессии новый токен доступа при обновлении по refresh-токену и продлевает её.
+     * Бездействие сверх {@code session.idle-timeout} обновлению не мешает, в отличие от отзыва.
+     *
+     * @return false, если сессия отозвана или истёк её предельный срок
+     */
+    public boolean rotateSession(String username, String sessionId, String token) {
+        long now = Instant.now().getEpochSecond();
+        SessionRecord record = redisSessionRepository.findSession(username, sessionId);
+        if (record == null || record.expiresAt() <= now) {
+            log.warn("Сессия {} пользователя {} отозвана или истекла", sessionId, username);
+            return false;
+        }
+        SessionRecord updated = record.withToken(token, now, now + sessionProperties.getMaxLifetime().toSeconds());
+        return redisSessionRepository.replaceSessionIfExists(username, sessionId, updated);
+    }
+
+    /**
+     * Возвращает действующие сессии пользователя, последние по активности первыми.
+     *
+     * @param username         имя пользователя
+     * @param currentSessionId сессия текущего запроса или null
+     */
+    public List<SessionDto> listSessions(String username, String currentSessionId) {
+        long now = Instant.now().getEpochSecond();
+        return redisSessionRepository.findSessions(username).entrySet().stream()
+                .filter(entry -> entry.getValue().expiresAt() > now)
+                .map(entry -> {
+                    SessionRecord record = entry.getValue();
+                    return new SessionDto(entry.getKey(),
+                            Instant.ofEpochSecond(record.createdAt()),
+                            Instant.ofEpochSecond(record.lastSeenAt()),
+                            Instant.ofEpochSecond(record.expiresAt()),
+                            record.addressString(),
+                            entry.getKey().equals(currentSessionId));
+                })
+                .sorted(Comparator.comparing(SessionDto::getLastSeenAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Завершает одну сессию пользователя и удаляет её refresh-токены в Redis и базе данных.
+     *
+     * @return false, если такой сессии не было
      */
-    public void updateSession(String username, String token, Duration duration) {
-        log.debug("Обновление сессии для пользователя {} на {}", username, duration);
-        redisSessionRepository.updateSession(username, token, duration);
+    public boolean revokeSession(String username, String sessionId) {
+        log.info("Отзыв сессии {} пользователя {}", sessionId, username);
+        boolean removed = redisSessionRepository.removeSession(username, sessionId);
+        redisService.deleteRefreshTokens(username, sessionId);
+        return removed;
     }
 
     /**
-     * Удаляет сессию пользователя из Redis.
+     * Завершает все сессии пользователя и удаляет его refresh-токены в Redis и базе данных.
      */
-    public void removeSession(String username) {
-        log.debug("Удаление сессии пользователя {}", username);
-        redisSessionRepository.removeSession(username);
+    public void revokeAllSessions(String username) {
+        log.info("Отзыв всех сессий пользователя {}", username);
+        redisSessionRepository.removeSessions(username);
+        redisService.deleteRefreshTokens(username);
     }
 }
@@ -4,27 +4,30 @@ import com.example.auth_service.dto.TaskCreateDTO;
 import com.example.auth_service.dto.TaskDTO;
 import com.example.auth_service.dto.TaskUpdateDTO;
 import com.example.auth_service.exception.TaskNotFoundException;
+import com.example.auth_service.hierarchy.ObjectHierarchy;
+import com.example.auth_service.hierarchy.ObjectHierarchyService;
 import com.example.auth_service.model.ObjectEntity;
 import com.example.auth_service.model.Task;
 import com.example.auth_service.model.TaskStatus;
 import com.example.auth_service.repository.ObjectRepository;
 import com.example.auth_service.repository.TaskRepository;
 import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.repository.projection.TaskStatusCount;
+import com.example.auth_service.service.security.CurrentUserProvider;
 import com.example.auth_service.model.User;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Optional;
 
 /**
  * Сервис для управления задачами.
@@ -39,6 +42,8 @@ public class TaskService {
     private final ModelMapper modelMapper;
     private final UserRepository userRepository;
     private final ObjectRepository objectRepository;
+    private final ObjectProvider<ObjectHierarchyService> objectHierarchyService;
+    private final CurrentUserProvider currentUserProvider;
 
     /**
      * Создание новой задачи.
@@ -56,12 +61,8 @@ public class TaskService {
         task.setStatus(TaskStatus.NEW);
         task.setRealEstateObject(new ObjectEntity(taskCreateDTO.getRealEstateObjectId()));
 
-        // Устанавливаем автора задачи
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден: " + username));
-        task.setCreatedBy(user);
+        // Автор задачи — пользователь из контекста безопасности, без повторного запроса к базе
+        task.setCreatedBy(currentUserProvider.requireCurrentUser());
 
         Task savedTask = taskRepository.save(task);
         TaskDTO dto = modelMapper.map(savedTask, TaskDTO.class);
@@ -78,9 +79,7 @@ public class TaskService {
      * @return Список всех задач в формате TaskDTO.
      */
     public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(task -> modelMapper.map(task, TaskDTO.class))
-                .toList();
+        return taskRepository.findAllDtos();
     }
 
     /**
@@ -91,14 +90,8 @@ public class TaskService {
      * @throws TaskNotFoundException Если задача с указанным идентификатором не найдена.
      */
     public TaskDTO getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        return taskRepository.findDtoById(id)
                 .orElseThrow(() -> new TaskNotFoundException("Задача не найдена"));
-        TaskDTO dto = modelMapper.map(task, TaskDTO.class);
-        if (task.getCreatedBy() != null) {
-            dto.setCreatedByFirstName(task.getCreatedBy().getFirstName());
-            dto.setCreatedByLastName(task.getCreatedBy().getLastName());
-        }
-        return dto;
     }
 
     /**
@@ -111,7 +104,8 @@ public class TaskService {
      */
     @Transactional
     public TaskDTO updateTask(Long id, TaskUpdateDTO taskUpdateDTO) {
-        Task task = taskRepository.findById(id)
+        // Пользователи нужны для ответа, поэтому загружаются вместе с задачей
+        Task task = taskRepository.findWithUsersById(id)
                 .orElseThrow(() -> new TaskNotFoundException("Задача не найдена"));
 
         modelMapper.map(taskUpdateDTO, task);
@@ -131,6 +125,7 @@ public class TaskService {
         taskRepository.deleteById(id);
     }
 
+    @Transactional
     public void assignResponsible(Long taskId, Long userId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -140,6 +135,7 @@ public class TaskService {
         taskRepository.save(task);
     }
 
+    @Transactional
     public void removeResponsible(Long taskId) {
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new EntityNotFoundException("Task not found"));
@@ -155,20 +151,7 @@ public class TaskService {
      */
     public List<TaskDTO> getTasksByObjectId(Long objectId) {
         log.info("Получение задач для объекта с ID: {}", objectId);
-        return taskRepository.findByRealEstateObjectId(objectId).stream()
-                .map(task -> {
-                    TaskDTO dto = modelMapper.map(task, TaskDTO.class);
-                    if (task.getCreatedBy() != null) {
-                        dto.setCreatedByFirstName(task.getCreatedBy().getFirstName());
-                        dto.setCreatedByLastName(task.getCreatedBy().getLastName());
-                    }
-                    if (task.getResponsibleUser() != null) {
-                        dto.setResponsibleUserFirstName(task.getResponsibleUser().getFirstName());
-                        dto.setResponsibleUserLastName(task.getResponsibleUser().getLastName());
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return taskRepository.findDtosByObjectId(objectId);
     }
 
     // Получить статистику задач по статусам для объекта и всех его потомков
@@ -176,25 +159,39 @@ public class TaskService {
         List<Long> allObjectIds = getAllDescendantIds(objectId);
         allObjectIds.add(objectId);
 
-        List<Task> tasks = taskRepository.findByRealEstateObjectIdIn(allObjectIds);
         Map<String, Integer> statusCounts = new HashMap<>();
         for (TaskStatus status : TaskStatus.values()) {
             statusCounts.put(status.name(), 0);
         }
-        for (Task task : tasks) {
-            String status = task.getStatus().name();
-            statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
+        // Подсчёт выполняется в базе данных, задачи не загружаются
+        for (TaskStatusCount count : taskRepository.countByStatusForObjects(allObjectIds)) {
+            statusCounts.put(count.getStatus().name(), count.getCount().intValue());
         }
         return statusCounts;
     }
 
-    // Рекурсивно получить все id потомков
+    // Получить все id потомков: из дерева в памяти, если оно включено и загружено, иначе рекурсивно из БД
     private List<Long> getAllDescendantIds(Long parentId) {
+        Optional<ObjectHierarchy> snapshot = Optional.ofNullable(objectHierarchyService.getIfAvailable())
+                .flatMap(ObjectHierarchyService::snapshot);
+        if (snapshot.isPresent()) {
+            long[] descendantIds = snapshot.get().descendantIds(parentId);
+            List<Long> result = new ArrayList<>(descendantIds.length + 1);
+            for (long id : descendantIds) {
+                result.add(id);
+            }
+            return result;
+        }
+        return loadDescendantIds(parentId);
+    }
+
+    // Рекурсивно получить все id потомков из БД
+    private List<Long> loadDescendantIds(Long parentId) {
         List<Long> result = new ArrayList<>();
         List<ObjectEntity> children = objectRepository.findByParentId(parentId);
         for (ObjectEntity child : children) {
             result.add(child.getId());
-            result.addAll(getAllDescendantIds(child.getId()));
+            result.addAll(loadDescendantIds(child.getId()));
         }
         return result;
     }
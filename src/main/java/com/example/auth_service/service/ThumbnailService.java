@@ -0,0 +1,363 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.event.ThumbnailJobsCreatedEvent;
+import com.example.auth_service.exception.FileNotFoundException;
+import com.example.auth_service.exception.FileStorageException;
+import com.example.auth_service.model.ThumbnailJob;
+import com.example.auth_service.model.ThumbnailSize;
+import com.example.auth_service.repository.ThumbnailJobRepository;
+import com.example.auth_service.storage.BlobStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис фоновой генерации превью для изображений-вложений.
+ * <p>
+ * Задания хранятся в таблице {@code thumbnail_jobs} и создаются в той же транзакции, что и вложение.
+ * После фиксации транзакции задания передаются ограниченному пулу воркеров; задания, не попавшие
+ * в пул (переполнение очереди, перезапуск приложения), подбираются периодическим опросом.
+ * Исходные файлы и превью хранятся в {@link BlobStore} под ключами {@code thumbnails/<размер>/<файл>}.
+ * Превью строятся только средствами {@link ImageIO} и раздаются с долгоживущими заголовками кэширования,
+ * так как имена файлов в хранилище уникальны и их содержимое не меняется.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    /** Префикс ключей превью в хранилище файлов. */
+    private static final String THUMBNAILS_PREFIX = "thumbnails/";
+    /** Время, после которого задание в обработке считается зависшим. */
+    private static final Duration STALE_JOB_TIMEOUT = Duration.ofMinutes(5);
+    /** Качество JPEG-превью. */
+    private static final float JPEG_QUALITY = 0.82f;
+    /** Срок кэширования превью на клиенте. */
+    private static final Duration CACHE_MAX_AGE = Duration.ofDays(365);
+
+    private final ThumbnailJobRepository thumbnailJobRepository;
+    private final BlobStore blobStore;
+    private final int maxAttempts;
+    private final ThreadPoolExecutor executor;
+
+    public ThumbnailService(BlobStore blobStore,
+                            ThumbnailJobRepository thumbnailJobRepository,
+                            @Value("${file.thumbnails.workers:2}") int workers,
+                            @Value("${file.thumbnails.queue-capacity:200}") int queueCapacity,
+                            @Value("${file.thumbnails.max-attempts:3}") int maxAttempts) {
+        this.thumbnailJobRepository = thumbnailJobRepository;
+        this.blobStore = blobStore;
+        this.maxAttempts = maxAttempts;
+
+        // Платформенные потоки и в режиме виртуальных потоков: генерация превью нагружает процессор,
+        // а число воркеров ограничивает её долю
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Проверяет, поддерживается ли генерация превью для файла данного типа.
+     *
+     * @param contentType MIME-тип файла
+     * @return true для JPEG и PNG
+     */
+    public boolean isSupported(String contentType) {
+        return MediaType.IMAGE_JPEG_VALUE.equals(contentType) || MediaType.IMAGE_PNG_VALUE.equals(contentType);
+    }
+
+    /**
+     * Создаёт задание на генерацию превью в текущей транзакции.
+     *
+     * @param fileName имя файла в хранилище
+     * @return идентификатор созданного задания
+     */
+    public Long createJob(String fileName) {
+        ThumbnailJob job = thumbnailJobRepository.save(ThumbnailJob.builder()
+                .filePath(fileName)
+                .build());
+        return job.getId();
+    }
+
+    /**
+     * Передаёт созданные задания воркерам после фиксации транзакции загрузки.
+     *
+     * @param event событие о создании заданий
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobsCreated(ThumbnailJobsCreatedEvent event) {
+        event.jobIds().forEach(this::submit);
+    }
+
+    /**
+     * Периодически подбирает задания, которые не были переданы воркерам,
+     * и возвращает в очередь зависшие задания.
+     */
+    @Scheduled(fixedDelayString = "${file.thumbnails.poll-interval:PT30S}")
+    public void pollPendingJobs() {
+        int released = thumbnailJobRepository.releaseStale(LocalDateTime.now().minus(STALE_JOB_TIMEOUT),
+                ThumbnailJob.Status.PENDING, ThumbnailJob.Status.PROCESSING);
+        if (released > 0) {
+            log.warn("Возвращено в очередь зависших заданий на генерацию превью: {}", released);
+        }
+
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<ThumbnailJob> pending = thumbnailJobRepository.findTop100ByStatusOrderByIdAsc(ThumbnailJob.Status.PENDING);
+        pending.stream()
+                .limit(capacity)
+                .forEach(job -> submit(job.getId()));
+    }
+
+    /**
+     * Возвращает превью файла с заголовками долгосрочного кэширования.
+     *
+     * @param fileName имя исходного файла
+     * @param size     размер превью
+     * @return ResponseEntity с превью
+     * @throws FileNotFoundException если превью ещё не сгенерировано или файл не является изображением
+     */
+    public ResponseEntity<Resource> loadThumbnail(String fileName, ThumbnailSize size) {
+        Resource thumbnail;
+        try {
+            thumbnail = blobStore.load(thumbnailKey(fileName, size));
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("Превью не найдено: " + fileName, e);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(isPng(fileName) ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(CACHE_MAX_AGE).cachePrivate())
+                .body(thumbnail);
+    }
+
+    /**
+     * Удаляет все превью и задания для указанного файла.
+     *
+     * @param fileName имя исходного файла
+     */
+    public void deleteThumbnails(String fileName) {
+        thumbnailJobRepository.deleteByFilePath(fileName);
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            try {
+                blobStore.delete(thumbnailKey(fileName, size));
+            } catch (FileStorageException | FileNotFoundException e) {
+                log.warn("Не удалось удалить превью {} для файла {}: {}", size, fileName, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Передаёт задание пулу воркеров. При переполнении очереди задание остаётся
+     * в статусе {@code PENDING} и будет подобрано периодическим опросом.
+     *
+     * @param jobId идентификатор задания
+     */
+    private void submit(Long jobId) {
+        try {
+            executor.execute(() -> process(jobId));
+        } catch (RejectedExecutionException e) {
+            log.debug("Очередь генерации превью заполнена, задание {} будет обработано позже", jobId);
+        }
+    }
+
+    /**
+     * Обрабатывает задание: захватывает его, генерирует превью всех размеров и фиксирует результат.
+     *
+     * @param jobId идентификатор задания
+     */
+    private void process(Long jobId) {
+        if (thumbnailJobRepository.claim(jobId, LocalDateTime.now(),
+                ThumbnailJob.Status.PENDING, ThumbnailJob.Status.PROCESSING) == 0) {
+            return;
+        }
+        ThumbnailJob job = thumbnailJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        try {
+            generate(job.getFilePath());
+            job.setStatus(ThumbnailJob.Status.DONE);
+            job.setLastError(null);
+            log.debug("Превью для файла {} сгенерированы", job.getFilePath());
+        } catch (Exception e) {
+            boolean exhausted = job.getAttempts() >= maxAttempts;
+            job.setStatus(exhausted ? ThumbnailJob.Status.FAILED : ThumbnailJob.Status.PENDING);
+            job.setLastError(e.getMessage());
+            log.warn("Ошибка генерации превью для файла {} (попытка {}): {}",
+                    job.getFilePath(), job.getAttempts(), e.getMessage());
+        }
+        thumbnailJobRepository.save(job);
+    }
+
+    /**
+     * Генерирует превью всех размеров для исходного изображения.
+     * Большие изображения декодируются с прореживанием, чтобы не держать в памяти полноразмерный растр.
+     *
+     * @param fileName имя исходного файла
+     * @throws IOException если файл не удалось прочитать или записать превью
+     */
+    private void generate(String fileName) throws IOException {
+        BufferedImage image;
+        try (InputStream source = blobStore.load(fileName).getInputStream()) {
+            image = readSubsampled(source, ThumbnailSize.LARGE.getMaxDimension() * 2);
+        }
+        boolean png = isPng(fileName);
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            BufferedImage thumbnail = scale(image, size.getMaxDimension(), png);
+            store(thumbnail, thumbnailKey(fileName, size), png);
+        }
+    }
+
+    /**
+     * Читает изображение, прореживая пиксели так, чтобы большая сторона была не меньше указанной.
+     *
+     * @param source     поток содержимого файла
+     * @param minLongSide минимальная длина большей стороны после прореживания
+     * @return декодированное изображение
+     * @throws IOException если формат не поддерживается или файл повреждён
+     */
+    private BufferedImage readSubsampled(InputStream source, int minLongSide) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                throw new IOException("Не удалось открыть изображение");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Неподдерживаемый формат изображения");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longSide / minLongSide);
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Масштабирует изображение, вписывая его в квадрат указанного размера с сохранением пропорций.
+     * Изображения меньше целевого размера не увеличиваются.
+     *
+     * @param image        исходное изображение
+     * @param maxDimension максимальная длина большей стороны
+     * @param keepAlpha    сохранять ли прозрачность
+     * @return масштабированное изображение
+     */
+    private BufferedImage scale(BufferedImage image, int maxDimension, boolean keepAlpha) {
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Кодирует превью в память и сохраняет в хранилище. Превью невелики, а хранилище
+     * гарантирует, что клиенты никогда не получат частично записанный объект.
+     *
+     * @param image превью
+     * @param key   ключ превью в хранилище
+     * @param png   записывать ли в формате PNG (иначе JPEG)
+     * @throws IOException если кодирование не удалось
+     */
+    private void store(BufferedImage image, String key, boolean png) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        if (png) {
+            ImageIO.write(image, "png", out);
+        } else {
+            writeJpeg(image, out);
+        }
+        blobStore.put(key, new ByteArrayInputStream(out.toByteArray()), out.size(),
+                png ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE);
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private String thumbnailKey(String fileName, ThumbnailSize size) {
+        if (fileName.contains("/") || fileName.contains("\\") || fileName.equals("..")) {
+            throw new FileNotFoundException("Превью не найдено: " + fileName);
+        }
+        return THUMBNAILS_PREFIX + size.directoryName() + "/" + fileName;
+    }
+
+    private boolean isPng(String fileName) {
+        return fileName.toLowerCase().endsWith(".png");
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.auth_service.service.email;
+
+import com.example.auth_service.event.EmailsQueuedEvent;
+import com.example.auth_service.model.EmailOutboxMessage;
+import com.example.auth_service.repository.EmailOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Очередь исходящих писем (transactional outbox).
+ * <p>
+ * Письмо записывается в таблицу {@code email_outbox} в транзакции бизнес-операции, поэтому запрос
+ * не ждёт SMTP-сервер, а письмо не теряется и не уходит, если транзакция откатилась.
+ * После фиксации письма пачками передаются ограниченному пулу воркеров, и каждая пачка отправляется
+ * через одно SMTP-соединение ({@link SmtpMailer}); письма, не попавшие в пул,
+ * и письма, ожидающие повторной попытки, подбираются периодическим опросом.
+ * Ошибки отправки повторяются с экспоненциальной задержкой; после исчерпания попыток
+ * или отказа сервера принять адрес письмо переводится в статус {@code DEAD}.
+ * </p>
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    /** Время, после которого письмо в отправке считается зависшим. */
+    private static final Duration STALE_SENDING_TIMEOUT = Duration.ofMinutes(5);
+    /** Максимальная длина сохраняемого текста ошибки. */
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SmtpMailer smtpMailer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration sentRetention;
+    private final ThreadPoolExecutor executor;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              SmtpMailer smtpMailer,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${email.outbox.workers:4}") int workers,
+                              @Value("${email.outbox.queue-capacity:100}") int queueCapacity,
+                              @Value("${email.outbox.batch-size:50}") int batchSize,
+                              @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                              @Value("${email.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                              @Value("${email.outbox.max-backoff:PT1H}") Duration maxBackoff,
+                              @Value("${email.outbox.sent-retention:P1D}") Duration sentRetention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.smtpMailer = smtpMailer;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sentRetention = sentRetention;
+
+        // Платформенные потоки и в режиме виртуальных потоков: методы отправки JavaMail synchronized
+        // и закрепили бы виртуальный поток на несущем на всё время SMTP-обмена; число воркеров
+        // к тому же ограничивает число соединений с SMTP-сервером
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Ставит письмо в очередь отправки в текущей транзакции.
+     * Письмо будет отправлено только после её фиксации.
+     *
+     * @param email письмо
+     * @return идентификатор письма в очереди
+     */
+    @Transactional
+    public Long enqueue(OutgoingEmail email) {
+        return enqueueAll(List.of(email)).get(0);
+    }
+
+    /**
+     * Ставит пачку писем в очередь отправки в текущей транзакции, например рассылку напоминаний.
+     * Письма будут отправлены пачками через общие SMTP-соединения только после фиксации транзакции.
+     *
+     * @param emails письма
+     * @return идентификаторы писем в очереди
+     */
+    @Transactional
+    public List<Long> enqueueAll(List<OutgoingEmail> emails) {
+        List<EmailOutboxMessage> messages = emailOutboxRepository.saveAll(emails.stream()
+                .map(email -> EmailOutboxMessage.builder()
+                        .recipient(email.to())
+                        .subject(email.subject())
+                        .body(email.body())
+                        .html(email.html())
+                        .build())
+                .toList());
+        List<Long> ids = messages.stream().map(EmailOutboxMessage::getId).toList();
+        eventPublisher.publishEvent(new EmailsQueuedEvent(ids));
+        log.debug("Поставлено в очередь писем: {}", ids.size());
+        return ids;
+    }
+
+    /**
+     * Передаёт письма воркерам после фиксации транзакции.
+     *
+     * @param event событие о постановке писем в очередь
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmailsQueued(EmailsQueuedEvent event) {
+        submitInBatches(event.messageIds());
+    }
+
+    /**
+     * Периодически подбирает письма, готовые к отправке или повторной попытке,
+     * и возвращает в очередь зависшие письма.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT5S}")
+    public void pollPendingMessages() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = emailOutboxRepository.releaseStale(now.minus(STALE_SENDING_TIMEOUT),
+                EmailOutboxMessage.Status.PENDING, EmailOutboxMessage.Status.SENDING);
+        if (released > 0) {
+            log.warn("Возвращено в очередь зависших писем: {}", released);
+        }
+
+        if (executor.getQueue().remainingCapacity() == 0) {
+            return;
+        }
+        List<Long> ready = emailOutboxRepository
+                .findTop100ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(EmailOutboxMessage.Status.PENDING, now)
+                .stream()
+                .map(EmailOutboxMessage::getId)
+                .toList();
+        submitInBatches(ready);
+    }
+
+    /**
+     * Удаляет отправленные письма старше срока хранения.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval:PT1H}")
+    public void purgeSentMessages() {
+        int purged = emailOutboxRepository.purge(EmailOutboxMessage.Status.SENT,
+                LocalDateTime.now().minus(sentRetention));
+        if (purged > 0) {
+            log.info("Удалено отправленных писем из очереди: {}", purged);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Делит письма на пачки и передаёт их пулу воркеров. При переполнении очереди письма остаются
+     * в статусе {@code PENDING} и будут подобраны периодическим опросом.
+     *
+     * @param messageIds идентификаторы писем
+     */
+    private void submitInBatches(List<Long> messageIds) {
+        for (int from = 0; from < messageIds.size(); from += batchSize) {
+            List<Long> batch = List.copyOf(messageIds.subList(from, Math.min(from + batchSize, messageIds.size())));
+            try {
+                executor.execute(() -> process(batch));
+            } catch (RejectedExecutionException e) {
+                log.debug("Очередь отправки писем заполнена, {} писем будут отправлены позже", messageIds.size() - from);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Захватывает письма пачки, отправляет захваченные через одно SMTP-соединение и фиксирует результаты.
+     *
+     * @param messageIds идентификаторы писем
+     */
+    private void process(List<Long> messageIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>(messageIds.size());
+        for (Long id : messageIds) {
+            if (emailOutboxRepository.claim(id, now,
+                    EmailOutboxMessage.Status.PENDING, EmailOutboxMessage.Status.SENDING) == 1) {
+                claimed.add(id);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        List<EmailOutboxMessage> messages = new ArrayList<>(emailOutboxRepository.findAllById(claimed));
+        messages.sort(Comparator.comparing(EmailOutboxMessage::getId));
+        List<SmtpMailer.SendResult> results = smtpMailer.sendBatch(messages.stream()
+                .map(message -> new OutgoingEmail(message.getRecipient(), message.getSubject(),
+                        message.getBody(), message.isHtml()))
+                .toList());
+
+        for (int i = 0; i < messages.size(); i++) {
+            EmailOutboxMessage message = messages.get(i);
+            SmtpMailer.SendResult result = results.get(i);
+            if (result.sent()) {
+                message.setStatus(EmailOutboxMessage.Status.SENT);
+                message.setLastError(null);
+                log.info("Письмо {} успешно отправлено на адрес: {}", message.getId(), message.getRecipient());
+            } else {
+                handleFailure(message, result);
+            }
+        }
+        emailOutboxRepository.saveAll(messages);
+    }
+
+    /**
+     * Планирует повторную попытку или переводит письмо в статус {@code DEAD}.
+     * Отказ сервера принять адрес получателя повторять бессмысленно.
+     */
+    private void handleFailure(EmailOutboxMessage message, SmtpMailer.SendResult result) {
+        Exception e = result.error();
+        boolean rejected = result.rejected();
+        String error = String.valueOf(e.getMessage());
+        message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (rejected || message.getAttempts() >= maxAttempts) {
+            message.setStatus(EmailOutboxMessage.Status.DEAD);
+            log.error("Письмо {} на адрес {} не отправлено после {} попыток: {}",
+                    message.getId(), message.getRecipient(), message.getAttempts(), e.getMessage());
+            return;
+        }
+
+        Duration delay = backoff(message.getAttempts());
+        message.setStatus(EmailOutboxMessage.Status.PENDING);
+        message.setNextAttemptAt(LocalDateTime.now().plus(delay));
+        log.warn("Ошибка отправки письма {} на адрес {} (попытка {}), повтор через {} с: {}",
+                message.getId(), message.getRecipient(), message.getAttempts(), delay.toSeconds(), e.getMessage());
+    }
+
+    /**
+     * Экспоненциальная задержка с ограничением сверху и случайным разбросом ±20%,
+     * чтобы после сбоя SMTP-сервера повторные попытки не приходили одной волной.
+     *
+     * @param attempts количество выполненных попыток
+     * @return задержка до следующей попытки
+     */
+    private Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        double jitter = ThreadLocalRandom.current().nextDouble(0.8, 1.2);
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.auth_service.service.email;
+
+/**
+ * Шаблоны писем. Тексты хранятся в {@code resources/templates/email},
+ * тема письма также может содержать переменные вида {@code {{имя}}}.
+ */
+public enum EmailTemplate {
+
+    /** Код подтверждения регистрации. Переменные: {@code code}. */
+    CONFIRMATION_CODE("confirmation-code.txt", "Код подтверждения для регистрации"),
+
+    /** Ссылка для сброса пароля. Переменные: {@code resetLink}. */
+    PASSWORD_RESET("password-reset.html", "Сброс пароля - RealEstate PRO"),
+
+    /** Напоминание о сроке задачи. Переменные: {@code username}, {@code taskTitle}, {@code deadline}, {@code taskLink}. */
+    DEADLINE_REMINDER("deadline-reminder.html", "Напоминание о сроке задачи «{{taskTitle}}»");
+
+    private final String fileName;
+    private final String subject;
+
+    EmailTemplate(String fileName, String subject) {
+        this.fileName = fileName;
+        this.subject = subject;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Является ли шаблон HTML-документом (значения переменных экранируются).
+     */
+    public boolean isHtml() {
+        return fileName.endsWith(".html");
+    }
+}
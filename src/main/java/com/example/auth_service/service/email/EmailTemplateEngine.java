@@ -0,0 +1,163 @@
+package com.example.auth_service.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Минимальный шаблонизатор писем.
+ * <p>
+ * Все {@link EmailTemplate} разбираются один раз при старте приложения на чередующиеся
+ * литеральные сегменты и переменные {@code {{имя}}}; ошибка в шаблоне не даёт приложению запуститься.
+ * Отрисовка — это последовательное добавление сегментов в переиспользуемый для потока
+ * {@link StringBuilder}, без повторного разбора и без {@code String.format}.
+ * В HTML-шаблонах значения переменных экранируются.
+ * </p>
+ */
+@Slf4j
+@Component
+public class EmailTemplateEngine {
+
+    /** Каталог шаблонов в classpath. */
+    private static final String TEMPLATES_LOCATION = "templates/email/";
+    /** Буферы больше этого размера не удерживаются потоком после отрисовки. */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final Map<EmailTemplate, CompiledTemplate> bodies = new EnumMap<>(EmailTemplate.class);
+    private final Map<EmailTemplate, CompiledTemplate> subjects = new EnumMap<>(EmailTemplate.class);
+
+    public EmailTemplateEngine() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            bodies.put(template, compile(load(template), template.isHtml()));
+            subjects.put(template, compile(template.getSubject(), false));
+        }
+        log.info("Загружено шаблонов писем: {}", bodies.size());
+    }
+
+    /**
+     * Формирует письмо по шаблону.
+     *
+     * @param template  шаблон
+     * @param to        адрес получателя
+     * @param variables значения переменных шаблона
+     * @return готовое к отправке письмо
+     * @throws IllegalArgumentException если не задано значение одной из переменных
+     */
+    public OutgoingEmail render(EmailTemplate template, String to, Map<String, String> variables) {
+        return new OutgoingEmail(to,
+                subjects.get(template).render(variables),
+                bodies.get(template).render(variables),
+                template.isHtml());
+    }
+
+    /**
+     * Разбирает текст шаблона.
+     *
+     * @param source     текст шаблона
+     * @param escapeHtml экранировать ли значения переменных
+     * @return скомпилированный шаблон
+     * @throws IllegalStateException если шаблон содержит незакрытую или пустую переменную
+     */
+    static CompiledTemplate compile(String source, boolean escapeHtml) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf("{{", position)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalStateException("Незакрытая переменная в шаблоне письма на позиции " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            if (!name.matches("[A-Za-z][A-Za-z0-9_]*")) {
+                throw new IllegalStateException("Недопустимое имя переменной в шаблоне письма: '" + name + "'");
+            }
+            literals.add(source.substring(position, open));
+            names.add(name);
+            position = close + 2;
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(literals.toArray(String[]::new), names.toArray(String[]::new), escapeHtml);
+    }
+
+    private String load(EmailTemplate template) {
+        ClassPathResource resource = new ClassPathResource(TEMPLATES_LOCATION + template.getFileName());
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось загрузить шаблон письма " + template.getFileName(), e);
+        }
+    }
+
+    /**
+     * Скомпилированный шаблон: {@code literals[0] var[0] literals[1] ... var[n-1] literals[n]}.
+     */
+    static final class CompiledTemplate {
+
+        private final String[] literals;
+        private final String[] names;
+        private final boolean escapeHtml;
+        private final int literalLength;
+
+        private CompiledTemplate(String[] literals, String[] names, boolean escapeHtml) {
+            this.literals = literals;
+            this.names = names;
+            this.escapeHtml = escapeHtml;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        String render(Map<String, String> variables) {
+            StringBuilder buffer = BUFFER.get();
+            buffer.setLength(0);
+            buffer.ensureCapacity(literalLength + 64 * names.length);
+
+            for (int i = 0; i < names.length; i++) {
+                buffer.append(literals[i]);
+                String value = variables.get(names[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("Не задано значение переменной шаблона: " + names[i]);
+                }
+                if (escapeHtml) {
+                    appendEscaped(buffer, value);
+                } else {
+                    buffer.append(value);
+                }
+            }
+            buffer.append(literals[names.length]);
+
+            String result = buffer.toString();
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+            return result;
+        }
+
+        private static void appendEscaped(StringBuilder buffer, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&' -> buffer.append("&amp;");
+                    case '<' -> buffer.append("&lt;");
+                    case '>' -> buffer.append("&gt;");
+                    case '"' -> buffer.append("&quot;");
+                    case '\'' -> buffer.append("&#39;");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.auth_service.service.email;
+
+/**
+ * Готовое к отправке письмо.
+ *
+ * @param to      адрес получателя
+ * @param subject тема письма
+ * @param body    текст письма
+ * @param html    является ли текст HTML
+ */
+public record OutgoingEmail(String to, String subject, String body, boolean html) {
+}
@@ -0,0 +1,143 @@
+package com.example.auth_service.service.email;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Отправка писем пачками через соединения {@link SmtpTransportPool}.
+ * <p>
+ * Все письма пачки передаются через одно подключённое соединение, поэтому рукопожатие
+ * TCP/STARTTLS/AUTH выполняется один раз на пачку, а не на каждое письмо. Если соединение
+ * ломается посреди пачки, оставшиеся письма отправляются через новое соединение.
+ * </p>
+ */
+@Slf4j
+@Component
+public class SmtpMailer {
+
+    private final SmtpTransportPool transportPool;
+    private final String fromEmail;
+    /** Результаты отправки по письмам: отправлено, ошибка с повтором, отказ без повтора. */
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public SmtpMailer(SmtpTransportPool transportPool,
+                      @Value("${spring.mail.username}") String fromEmail,
+                      MeterRegistry meterRegistry) {
+        this.transportPool = transportPool;
+        this.fromEmail = fromEmail;
+        this.sentCounter = messagesCounter(meterRegistry, "sent");
+        this.failedCounter = messagesCounter(meterRegistry, "failed");
+        this.rejectedCounter = messagesCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Отправляет пачку писем.
+     *
+     * @param emails письма
+     * @return результаты отправки в том же порядке, что и письма
+     */
+    @Timed(value = "email.batch", description = "Отправка пачки писем через одно SMTP-соединение")
+    public List<SendResult> sendBatch(List<OutgoingEmail> emails) {
+        List<SendResult> results = new ArrayList<>(emails.size());
+        Transport transport = null;
+        try {
+            for (OutgoingEmail email : emails) {
+                MimeMessage message;
+                try {
+                    message = toMimeMessage(email);
+                } catch (MessagingException e) {
+                    // Некорректный адрес или содержимое: повтор не поможет
+                    results.add(SendResult.failed(e, true));
+                    continue;
+                }
+
+                if (transport == null) {
+                    try {
+                        transport = transportPool.borrow();
+                    } catch (MessagingException e) {
+                        // Сервер недоступен: не пытаемся подключаться заново для каждого письма
+                        while (results.size() < emails.size()) {
+                            results.add(SendResult.failed(e, false));
+                        }
+                        break;
+                    }
+                }
+
+                try {
+                    transport.sendMessage(message, message.getAllRecipients());
+                    results.add(SendResult.ok());
+                } catch (SendFailedException e) {
+                    // Сервер отклонил адреса, но соединение осталось рабочим
+                    results.add(SendResult.failed(e, hasInvalidAddresses(e)));
+                } catch (MessagingException e) {
+                    transportPool.release(transport, true);
+                    transport = null;
+                    results.add(SendResult.failed(e, false));
+                }
+            }
+        } finally {
+            if (transport != null) {
+                transportPool.release(transport, false);
+            }
+        }
+        for (SendResult result : results) {
+            (result.sent() ? sentCounter : result.rejected() ? rejectedCounter : failedCounter).increment();
+        }
+        log.debug("Отправлена пачка из {} писем", emails.size());
+        return results;
+    }
+
+    private static Counter messagesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.messages")
+                .description("Письма, переданные SMTP-серверу")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private MimeMessage toMimeMessage(OutgoingEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(transportPool.getSession());
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        helper.setText(email.body(), email.html());
+        message.saveChanges();
+        return message;
+    }
+
+    private boolean hasInvalidAddresses(SendFailedException e) {
+        return e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0;
+    }
+
+    /**
+     * Результат отправки одного письма.
+     *
+     * @param sent     отправлено ли письмо
+     * @param rejected отклонил ли сервер адрес получателя (повтор бессмысленен)
+     * @param error    ошибка отправки
+     */
+    public record SendResult(boolean sent, boolean rejected, Exception error) {
+
+        static SendResult ok() {
+            return new SendResult(true, false, null);
+        }
+
+        static SendResult failed(Exception error, boolean rejected) {
+            return new SendResult(false, rejected, error);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.auth_service.service.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Пул подключённых SMTP-соединений.
+ * <p>
+ * Установка SMTP-сессии (TCP, STARTTLS, AUTH) занимает сотни миллисекунд, поэтому соединения
+ * переиспользуются между письмами. Соединение выдаётся в монопольное пользование, так как
+ * {@link Transport} не потокобезопасен. Простаивающие дольше {@code idle-timeout} соединения
+ * закрываются при следующей выдаче, чтобы не натыкаться на разрывы по таймауту сервера.
+ * </p>
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingQueue<PooledTransport> idle;
+    private final long idleTimeoutNanos;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${email.smtp.pool.max-idle:4}") int maxIdle,
+                             @Value("${email.smtp.pool.idle-timeout:PT60S}") Duration idleTimeout) {
+        this.mailSender = mailSender;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * Сессия JavaMail, общая для всех соединений пула.
+     */
+    public Session getSession() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * Выдаёт подключённое соединение: свободное из пула или новое.
+     *
+     * @return подключённое соединение
+     * @throws MessagingException если подключиться к SMTP-серверу не удалось
+     */
+    public Transport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            if (System.nanoTime() - pooled.releasedAt() < idleTimeoutNanos && pooled.transport().isConnected()) {
+                return pooled.transport();
+            }
+            closeQuietly(pooled.transport());
+        }
+        return connect();
+    }
+
+    /**
+     * Возвращает соединение в пул. Сломанные соединения и соединения сверх лимита закрываются.
+     *
+     * @param transport соединение
+     * @param broken    произошла ли ошибка на уровне соединения
+     */
+    public void release(Transport transport, boolean broken) {
+        if (broken || !idle.offer(new PooledTransport(transport, System.nanoTime()))) {
+            closeQuietly(transport);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            closeQuietly(pooled.transport());
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                mailSender.getUsername(), mailSender.getPassword());
+        log.debug("Открыто SMTP-соединение с {}:{}", mailSender.getHost(), mailSender.getPort());
+        return transport;
+    }
+
+    private void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Ошибка при закрытии SMTP-соединения: {}", e.getMessage());
+        }
+    }
+
+    private record PooledTransport(Transport transport, long releasedAt) {
+    }
+}
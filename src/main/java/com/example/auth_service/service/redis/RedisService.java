@@ -1,6 +1,7 @@
 package com.example.auth_service.service.redis;
 
 import com.example.auth_service.repository.redis.RedisPasswordResetTokenRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -13,6 +14,7 @@ import com.example.auth_service.model.RefreshToken;
 import com.example.auth_service.repository.RefreshTokenRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,6 +24,7 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "redis.operations", description = "Операции с Redis")
 public class RedisService {
 
     private final RedisTemplate<String, String> redisTemplate;
@@ -117,14 +120,15 @@ public class RedisService {
         passwordResetTokenRepository.deleteById(key);
     }
 
-    // Сохраняет refresh token для пользователя (Redis + БД)
-    public void saveRefreshToken(String username, String refreshToken, Duration duration) {
+    // Сохраняет refresh token сессии устройства (Redis + БД); значение ключа в Redis — идентификатор сессии
+    public void saveRefreshToken(String username, String refreshToken, String sessionId, Duration duration) {
         String key = "refresh:" + username + ":" + refreshToken;
-        redisTemplate.opsForValue().set(key, username, duration.getSeconds(), TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set(key, sessionId, duration.getSeconds(), TimeUnit.SECONDS);
         // БД
         RefreshToken entity = RefreshToken.builder()
             .username(username)
             .token(refreshToken)
+            .sessionId(sessionId)
             .expiresAt(LocalDateTime.now().plusSeconds(duration.getSeconds()))
             .createdAt(LocalDateTime.now())
             .build();
@@ -133,20 +137,27 @@ public class RedisService {
 
     // Проверяет, существует ли refresh token для пользователя (Redis + БД)
     public boolean isRefreshTokenValid(String username, String refreshToken) {
+        return findSessionIdByRefreshToken(username, refreshToken) != null;
+    }
+
+    // Возвращает идентификатор сессии устройства, которой принадлежит refresh token, или null (Redis + БД)
+    public String findSessionIdByRefreshToken(String username, String refreshToken) {
         String key = "refresh:" + username + ":" + refreshToken;
-        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
-            return true;
+        String sessionId = redisTemplate.opsForValue().get(key);
+        if (sessionId != null) {
+            return sessionId;
         }
         // Если не найдено в Redis — ищем в БД
         Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByToken(refreshToken);
         if (tokenOpt.isPresent() && tokenOpt.get().getUsername().equals(username)
+            && tokenOpt.get().getSessionId() != null
             && tokenOpt.get().getExpiresAt().isAfter(LocalDateTime.now())) {
             // Восстанавливаем в Redis
             Duration duration = Duration.between(LocalDateTime.now(), tokenOpt.get().getExpiresAt());
-            redisTemplate.opsForValue().set(key, username, duration.getSeconds(), TimeUnit.SECONDS);
-            return true;
+            redisTemplate.opsForValue().set(key, tokenOpt.get().getSessionId(), duration.getSeconds(), TimeUnit.SECONDS);
+            return tokenOpt.get().getSessionId();
         }
-        return false;
+        return null;
     }
 
     // Удаляет refresh token для пользователя (Redis + БД)
@@ -156,6 +167,27 @@ public class RedisService {
         refreshTokenRepository.deleteByToken(refreshToken);
     }
 
+    // Удаляет refresh token'ы сессии устройства (Redis + БД); ключи Redis находятся по записям в БД
+    public void deleteRefreshTokens(String username, String sessionId) {
+        deleteRefreshKeys(username, refreshTokenRepository.findByUsernameAndSessionId(username, sessionId));
+        refreshTokenRepository.deleteByUsernameAndSessionId(username, sessionId);
+    }
+
+    // Удаляет все refresh token'ы пользователя (Redis + БД)
+    public void deleteRefreshTokens(String username) {
+        deleteRefreshKeys(username, refreshTokenRepository.findByUsername(username));
+        refreshTokenRepository.deleteByUsername(username);
+    }
+
+    private void deleteRefreshKeys(String username, List<RefreshToken> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        redisTemplate.delete(tokens.stream()
+                .map(token -> "refresh:" + username + ":" + token.getToken())
+                .toList());
+    }
+
     // Находит username по refresh token (поиск по шаблону, только Redis)
     public String findUsernameByRefreshToken(String refreshToken) {
         String pattern = "refresh:*:" + refreshToken;
@@ -0,0 +1,126 @@
+package com.example.auth_service.service.security;
+
+import com.example.auth_service.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Выполняет хеширование и проверку паролей на выделенном пуле фиксированного размера.
+ * <p>
+ * BCrypt занимает ядро на десятки миллисекунд. Без пула волна входов заняла бы процессором все потоки
+ * запросов, и дешёвые запросы ждали бы вместе с ними. Здесь хешированием заняты не больше
+ * {@code password-hashing.threads} ядер, поток запроса ждёт результат без нагрузки на процессор,
+ * а при заполненной очереди сразу получает {@link PasswordHashingOverloadedException} (503).
+ * </p>
+ * <p>
+ * Пересчёт хеша при входе ({@link #upgradeEncoding}) откладывается, пока очередь заполнена больше
+ * чем наполовину: это лишняя операция хеширования, и под нагрузкой её лучше сделать при следующем входе.
+ * </p>
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final Counter rejected;
+    private final Timer queueWait;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+
+        // Платформенные потоки и в режиме виртуальных потоков: хеширование нагружает процессор,
+        // а число потоков ограничивает его долю
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Операции хеширования паролей, отклонённые из-за переполненной очереди")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.password.hashing.queue.wait")
+                .description("Ожидание свободного потока хеширования паролей")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .description("Операции хеширования паролей в очереди")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (!delegate.upgradeEncoding(encodedPassword)) {
+            return false;
+        }
+        if (executor.getQueue().size() > queueCapacity / 2) {
+            log.debug("Пересчёт хеша пароля отложен: очередь хеширования заполнена");
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> operation) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return operation.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Очередь хеширования паролей переполнена, запрос отклонён");
+            throw new PasswordHashingOverloadedException("Сервис перегружен, повторите попытку позже");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание хеширования пароля прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Ошибка хеширования пароля", e.getCause());
+        }
+    }
+}
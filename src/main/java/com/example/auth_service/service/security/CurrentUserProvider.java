@@ -0,0 +1,58 @@
+package com.example.auth_service.service.security;
+
+import com.example.auth_service.exception.UserNotFoundException;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Текущий пользователь запроса.
+ * <p>
+ * {@code JwtAuthFilter} кладёт в {@link org.springframework.security.core.context.SecurityContext}
+ * {@link CustomUserDetails} с уже загруженным {@link User}, поэтому пользователь берётся оттуда
+ * без обращения к базе данных. Контекст безопасности живёт в пределах запроса, так что компонент
+ * сам состояния не хранит. Запрос к базе выполняется только для аутентификаций другого вида.
+ * </p>
+ * <p>
+ * Возвращаемый пользователь отсоединён от контекста персистентности и может отставать от базы
+ * на время жизни кеша {@code userDetails}: его следует использовать как ссылку на строку
+ * {@code users} и для отображаемых полей, но не для изменения.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private final UserRepository userRepository;
+
+    /**
+     * @return текущий аутентифицированный пользователь, если он есть
+     */
+    public Optional<User> getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return Optional.of(details.getUser());
+        }
+        log.debug("Принципал {} не содержит пользователя, загрузка из базы данных", authentication.getName());
+        return userRepository.findByUsername(authentication.getName());
+    }
+
+    /**
+     * @return текущий аутентифицированный пользователь
+     * @throws UserNotFoundException если пользователь не аутентифицирован или не найден
+     */
+    public User requireCurrentUser() {
+        return getCurrentUser()
+                .orElseThrow(() -> new UserNotFoundException("Текущий пользователь не найден"));
+    }
+}
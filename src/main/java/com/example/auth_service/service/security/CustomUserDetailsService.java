@@ -1,29 +1,32 @@
 package com.example.auth_service.service.security;
 
+import com.example.auth_service.cache.CacheNames;
+import com.example.auth_service.event.UserChangedEvent;
 import com.example.auth_service.model.User;
 import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.exception.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.stream.Collectors;
-
 /**
  * Сервис для загрузки данных пользователя для аутентификации.
- * Реализует интерфейс {@link UserDetailsService} для интеграции с Spring Security.
+ * Реализует интерфейс {@link UserDetailsService} для интеграции с Spring Security
+ * и {@link UserDetailsPasswordService} для пересчёта устаревших хешей паролей при входе.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Загружает пользователя по имени пользователя или email.
@@ -33,7 +36,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @throws UsernameNotFoundException Если пользователь с таким идентификатором не найден.
      */
     @Override
-    @Cacheable(value = "userDetails", key = "#username")
+    @Cacheable(value = CacheNames.USER_DETAILS, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.info("Попытка загрузить пользователя с идентификатором: {}", username);
         
@@ -42,15 +45,31 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         log.info("Пользователь с идентификатором {} найден", username);
         
-        var authorities = user.getRoles().stream()
-                .map(role -> {
-                    log.info("Добавление роли {} для пользователя {}", role.getRoleType(), username);
-                    return new SimpleGrantedAuthority(role.getRoleType().name());
-                })
-                .collect(Collectors.toList());
+        var authorities = RoleAuthorities.of(user.getRoleMask());
         
         log.info("Пользователь {} имеет роли: {}", username, authorities);
         
         return new CustomUserDetails(user, authorities);
     }
+
+    /**
+     * Сохраняет хеш пароля, пересчитанный после успешного входа с новым алгоритмом или стоимостью.
+     * Если пароль успели сменить, новый хеш не сохраняется.
+     *
+     * @param user        Пользователь, вошедший со старым хешем.
+     * @param newPassword Новый хеш того же пароля.
+     * @return Тот же пользователь: закэшированная запись не изменяется, а сбрасывается событием.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePasswordIfUnchanged(user.getUsername(), user.getPassword(), newPassword) == 0) {
+            log.debug("Хеш пароля пользователя {} не пересчитан: пароль изменился", user.getUsername());
+            return user;
+        }
+
+        Long userId = user instanceof CustomUserDetails details ? details.getUser().getId() : null;
+        eventPublisher.publishEvent(new UserChangedEvent(userId, user.getUsername()));
+        log.info("Хеш пароля пользователя {} пересчитан", user.getUsername());
+        return user;
+    }
 }
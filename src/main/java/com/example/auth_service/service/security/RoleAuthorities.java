@@ -0,0 +1,43 @@
+package com.example.auth_service.service.security;
+
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.RoleMask;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Полномочия Spring Security по битовой маске ролей пользователя.
+ * Списки для всех возможных масок строятся один раз, поэтому выдача полномочий
+ * не обращается к таблице связей ролей и не создаёт объектов.
+ */
+public final class RoleAuthorities {
+
+    private static final List<List<GrantedAuthority>> BY_MASK;
+
+    static {
+        int combinations = 1 << Role.RoleType.values().length;
+        List<List<GrantedAuthority>> byMask = new ArrayList<>(combinations);
+        for (int mask = 0; mask < combinations; mask++) {
+            byMask.add(RoleMask.types(mask).stream()
+                    .map(type -> (GrantedAuthority) new SimpleGrantedAuthority(type.name()))
+                    .toList());
+        }
+        BY_MASK = List.copyOf(byMask);
+    }
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * Возвращает неизменяемый список полномочий для маски ролей.
+     *
+     * @param roleMask битовая маска ролей пользователя
+     * @return полномочия в порядке объявления ролей
+     */
+    public static List<GrantedAuthority> of(int roleMask) {
+        return BY_MASK.get(roleMask & (BY_MASK.size() - 1));
+    }
+}
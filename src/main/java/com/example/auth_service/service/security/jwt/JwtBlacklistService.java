@@ -0,0 +1,173 @@
+package com.example.auth_service.service.security.jwt;
+
+import com.example.auth_service.config.JwtBlacklistProperties;
+import com.example.auth_service.repository.redis.JwtBlacklistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Черный список JWT с локальным фильтром перед Redis.
+ * <p>
+ * Почти ни один токен не отозван, поэтому проверка идёт в три шага:
+ * <ol>
+ *     <li>точный набор недавних отзывов, пришедших по pub/sub, — токен отозван;</li>
+ *     <li>фильтр Блума, выгруженный из Redis, — если он отвечает «нет», токен не отозван и Redis не нужен;</li>
+ *     <li>иначе, при ложном срабатывании фильтра, — один ZSCORE в Redis.</li>
+ * </ol>
+ * </p>
+ * <p>
+ * Отзыв пишется в Redis до публикации, поэтому полная выгрузка, начатая после получения сообщения,
+ * уже содержит этот токен: недавний отзыв можно убрать из точного набора после такой выгрузки.
+ * Сообщение, пропущенное узлом, подхватит следующая выгрузка. Пока первой выгрузки не было
+ * или последняя успешная старше {@code jwt.blacklist.max-staleness}, каждая проверка идёт в Redis.
+ * </p>
+ */
+@Slf4j
+@Service
+public class JwtBlacklistService implements MessageListener {
+
+    private final JwtBlacklistRepository repository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JwtBlacklistProperties properties;
+
+    /** Недавние отзывы: идентификатор токена → запись, пока их не покрыла выгрузка. */
+    private final Map<String, Revocation> recent = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile long filterSyncedAtMillis;
+
+    private final Counter recentHits;
+    private final Counter filterSkips;
+    private final Counter redisChecks;
+
+    private record Revocation(long expiresAtMillis, long receivedAtMillis) {
+    }
+
+    public JwtBlacklistService(JwtBlacklistRepository repository,
+                               RedisTemplate<String, String> redisTemplate,
+                               JwtBlacklistProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.recentHits = checksCounter(meterRegistry, "recent");
+        this.filterSkips = checksCounter(meterRegistry, "filter");
+        this.redisChecks = checksCounter(meterRegistry, "redis");
+        Gauge.builder("auth.jwt.blacklist.recent", recent, Map::size)
+                .description("Недавние отзывы токенов, ещё не покрытые выгрузкой черного списка")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверяет, отозван ли токен.
+     *
+     * @param tokenId Идентификатор токена, см. {@link JwtUtil#tokenId}.
+     * @return true, если токен в черном списке.
+     */
+    public boolean isRevoked(String tokenId) {
+        long now = System.currentTimeMillis();
+        Revocation revocation = recent.get(tokenId);
+        if (revocation != null && revocation.expiresAtMillis() > now) {
+            recentHits.increment();
+            return true;
+        }
+
+        BloomFilter current = filter;
+        if (current != null && now - filterSyncedAtMillis <= properties.getMaxStaleness().toMillis()
+                && !current.mightContain(tokenId)) {
+            filterSkips.increment();
+            return false;
+        }
+
+        redisChecks.increment();
+        return repository.contains(tokenId);
+    }
+
+    /**
+     * Отзывает токен до его истечения и сообщает об этом остальным узлам.
+     *
+     * @param tokenId   Идентификатор токена.
+     * @param expiresAt Время истечения токена.
+     */
+    public void revoke(String tokenId, Date expiresAt) {
+        repository.add(tokenId, expiresAt);
+        remember(tokenId, expiresAt.getTime());
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), tokenId + "|" + expiresAt.getTime());
+        } catch (Exception e) {
+            // Запись в Redis уже есть: остальные узлы увидят отзыв после следующей выгрузки
+            log.warn("Не удалось разослать отзыв токена: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Принимает отзыв токена от другого узла.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf('|');
+        if (separator <= 0) {
+            log.warn("Некорректное сообщение об отзыве токена");
+            return;
+        }
+        try {
+            remember(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Некорректное сообщение об отзыве токена");
+        }
+    }
+
+    /**
+     * Перестраивает фильтр по полной выгрузке черного списка из Redis и убирает из набора
+     * недавних отзывов те, что выгрузка уже покрывает.
+     */
+    @Scheduled(fixedDelayString = "${jwt.blacklist.sync-interval:PT30S}")
+    public void sync() {
+        long startedAt = System.currentTimeMillis();
+        Map<String, Long> active;
+        try {
+            active = repository.findActive();
+        } catch (Exception e) {
+            log.warn("Не удалось выгрузить черный список JWT: {}", e.getMessage());
+            return;
+        }
+
+        BloomFilter rebuilt = BloomFilter.create(Math.max(properties.getExpectedEntries(), active.size() * 2),
+                properties.getFalsePositiveProbability());
+        active.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        filterSyncedAtMillis = startedAt;
+
+        recent.entrySet().removeIf(entry -> entry.getValue().receivedAtMillis() < startedAt
+                || entry.getValue().expiresAtMillis() <= startedAt);
+        log.debug("Черный список JWT выгружен: {} записей, фильтр {} бит, {} хешей",
+                active.size(), rebuilt.bitCount(), rebuilt.hashCount());
+    }
+
+    private void remember(String tokenId, long expiresAtMillis) {
+        recent.put(tokenId, new Revocation(expiresAtMillis, System.currentTimeMillis()));
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+    }
+
+    private static Counter checksCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("auth.jwt.blacklist.checks")
+                .description("Проверки черного списка JWT по источнику ответа")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
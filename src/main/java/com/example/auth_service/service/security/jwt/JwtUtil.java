@@ -6,15 +6,20 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.auth_service.model.User;
-import com.example.auth_service.repository.redis.RedisJwtBlacklistRepositoryImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -36,10 +41,13 @@ public class JwtUtil {
     @Value("${auth_service.issuer}")
     private String issuer;
 
-    private final RedisJwtBlacklistRepositoryImpl redisRepository;
+    private final JwtBlacklistService jwtBlacklistService;
 
     private static final long PASSWORD_RESET_TOKEN_EXPIRATION = 3600000; // 1 час
 
+    /** Claim с идентификатором сессии устройства. */
+    public static final String SESSION_ID_CLAIM = "sid";
+
     /**
      * Генерирует JWT токен для указанного пользователя с привилегиями.
      *
@@ -67,6 +75,7 @@ public class JwtUtil {
         String token = JWT.create()
                 .withSubject(username)
                 .withIssuer(issuer)
+                .withJWTId(UUID.randomUUID().toString())
                 .withClaim("roles", roles)
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + jwtLifeTimeDuration))
@@ -84,6 +93,19 @@ public class JwtUtil {
      * @throws IllegalArgumentException Если {@code user} или {@code authorities} пусты или null.
      */
     public String generateToken(User user, Collection<? extends GrantedAuthority> authorities) {
+        return generateToken(user, authorities, null);
+    }
+
+    /**
+     * Генерирует JWT токен для сессии устройства: идентификатор сессии записывается в claim {@link #SESSION_ID_CLAIM}.
+     *
+     * @param user Пользователь для которого генерируется токен.
+     * @param authorities Привилегии пользователя.
+     * @param sessionId Идентификатор сессии или null для токена без сессии.
+     * @return Сгенерированный JWT токен.
+     * @throws IllegalArgumentException Если {@code user} или {@code authorities} пусты или null.
+     */
+    public String generateToken(User user, Collection<? extends GrantedAuthority> authorities, String sessionId) {
         if (user == null) {
             log.error("Пользователь не может быть нулевым");
             throw new IllegalArgumentException("Пользователь не может быть нулевым");
@@ -102,12 +124,14 @@ public class JwtUtil {
         String token = JWT.create()
                 .withSubject(user.getUsername())
                 .withIssuer(issuer)
+                .withJWTId(UUID.randomUUID().toString())
                 .withClaim("roles", roles)
                 .withClaim("userId", user.getId())
                 .withClaim("email", user.getEmail())
                 .withClaim("firstName", user.getFirstName())
                 .withClaim("lastName", user.getLastName())
                 .withClaim("active", user.isActive())
+                .withClaim(SESSION_ID_CLAIM, sessionId)
                 .withIssuedAt(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + jwtLifeTimeDuration))
                 .sign(Algorithm.HMAC256(jwtSecret));
@@ -128,11 +152,6 @@ public class JwtUtil {
             return false;
         }
 
-        if (redisRepository.isExists(token)) {
-            log.warn("Токен находится в черном списке");
-            return false;
-        }
-
         try {
             DecodedJWT decodedJWT = decodeToken(token);
             Date expirationDate = decodedJWT.getExpiresAt();
@@ -140,6 +159,10 @@ public class JwtUtil {
                 log.warn("Токен истек");
                 return false;
             }
+            if (jwtBlacklistService.isRevoked(tokenId(decodedJWT))) {
+                log.warn("Токен находится в черном списке");
+                return false;
+            }
             return true;
         } catch (IllegalArgumentException e) {
             log.error("Некорректный токен: {}", e.getMessage());
@@ -158,13 +181,34 @@ public class JwtUtil {
         DecodedJWT decodedJWT = decodeToken(token);
         Date expirationDate = decodedJWT.getExpiresAt();
         if (expirationDate != null) {
-            redisRepository.save(token, "blacklisted", expirationDate);
+            jwtBlacklistService.revoke(tokenId(decodedJWT), expirationDate);
             log.debug("Токен добавлен в черный список");
         } else {
             log.warn("Не удалось добавить токен в черный список, так как его срок действия истек");
         }
     }
 
+    /**
+     * Возвращает идентификатор токена для черного списка: claim {@code jti}, а для токенов,
+     * выданных без него, — первые 16 байт SHA-256 от токена в base64url.
+     *
+     * @param decodedJWT Декодированный токен.
+     * @return Идентификатор токена.
+     */
+    public static String tokenId(DecodedJWT decodedJWT) {
+        String jwtId = decodedJWT.getId();
+        if (jwtId != null && !jwtId.isBlank()) {
+            return jwtId;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(decodedJWT.getToken().getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
     /**
      * Декодирует JWT токен и возвращает его содержимое.
      * Проверяет, что токен является валидным.
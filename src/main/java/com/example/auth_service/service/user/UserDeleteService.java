@@ -1,10 +1,14 @@
 package com.example.auth_service.service.user;
 
+import com.example.auth_service.event.UserDeletedEvent;
 import com.example.auth_service.exception.UserNotFoundException;
+import com.example.auth_service.model.User;
 import com.example.auth_service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Сервис для удаления пользователя.
@@ -19,6 +23,7 @@ import org.springframework.stereotype.Service;
 public class UserDeleteService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Удаляет пользователя по его уникальному идентификатору.
@@ -31,17 +36,20 @@ public class UserDeleteService {
      * @param id идентификатор пользователя, которого нужно удалить
      * @throws UserNotFoundException если пользователь с указанным ID не найден в базе данных
      */
+    @Transactional
     public void deleteUser(Long id) {
         log.info("Удаление пользователя с ID: {}", id);
 
         // Проверка существования пользователя в базе данных
-        if (!userRepository.existsById(id)) {
-            log.warn("Попытка удаления несуществующего пользователя с ID: {}", id);
-            throw new UserNotFoundException("Пользователь не найден");
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Попытка удаления несуществующего пользователя с ID: {}", id);
+                    return new UserNotFoundException("Пользователь не найден");
+                });
 
         // Удаление пользователя
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserDeletedEvent(user.getId(), user.getUsername()));
         log.info("Пользователь с ID {} успешно удален", id);
     }
 }
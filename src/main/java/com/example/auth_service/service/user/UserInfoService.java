@@ -1,21 +1,30 @@
 package com.example.auth_service.service.user;
 
+import com.example.auth_service.cache.CacheNames;
+import com.example.auth_service.dto.PageDto;
 import com.example.auth_service.dto.UserDto;
+import com.example.auth_service.exception.InvalidDataException;
 import com.example.auth_service.exception.UserNotFoundException;
-import com.example.auth_service.model.User;
+import com.example.auth_service.mapper.UserMapper;
 import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.repository.projection.UserSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Сервис для получения информации о пользователях.
  * <p>
  * Этот сервис предоставляет методы для получения информации о пользователях как по их имени пользователя, так и по ID.
  * Также доступны методы для получения информации обо всех пользователях.
+ * Результаты по логину и общий список кэшируются и сбрасываются по событиям изменения пользователей
+ * (см. {@link com.example.auth_service.cache.UserCacheInvalidator}).
  * </p>
  */
 @Service
@@ -23,7 +32,11 @@ import java.util.List;
 @Slf4j
 public class UserInfoService {
 
+    /** Максимальный размер страницы поиска пользователей. */
+    static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final UserMapper userMapper;
 
     /**
      * Получить информацию о пользователе по его имени пользователя.
@@ -36,22 +49,11 @@ public class UserInfoService {
      * @return {@link UserDto} с информацией о пользователе
      * @throws UserNotFoundException если пользователь с указанным именем не найден
      */
-//    @Cacheable(value = "userInfo", key = "#username")
+    @Cacheable(value = CacheNames.USER_INFO, key = "#username")
     public UserDto getUserInfo(String username) {
         log.info("Запрос информации пользователя: {}", username);
         return userRepository.findByUsername(username)
-                .map(user -> new UserDto(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getRoles().stream()
-                                .findFirst()
-                                .map(role -> role.getRoleType().toString())
-                                .orElse("ROLE_USER"),
-                        user.isActive()
-                ))
+                .map(userMapper::toDto)
                 .orElseThrow(() -> {
                     log.error("Пользователь {} не найден", username);
                     return new UserNotFoundException("Пользователь не найден");
@@ -66,21 +68,11 @@ public class UserInfoService {
      *
      * @return список {@link UserDto} с информацией обо всех пользователях
      */
+    @Cacheable(value = CacheNames.USER_INFO_LIST, key = "'all'")
     public List<UserDto> getAllUserInfo() {
         log.info("Запрос информации о всех пользователях");
         return userRepository.findAll().stream()
-                .map(user -> new UserDto(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getRoles().stream()
-                                .findFirst()
-                                .map(role -> role.getRoleType().toString())
-                                .orElse("ROLE_USER"),
-                        user.isActive()
-                ))
+                .map(userMapper::toDto)
                 .toList();
     }
 
@@ -98,21 +90,48 @@ public class UserInfoService {
     public UserDto getUserById(Long id) {
         log.info("Запрос информации о пользователе с ID: {}", id);
         return userRepository.findById(id)
-                .map(user -> new UserDto(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getRoles().stream()
-                                .findFirst()
-                                .map(role -> role.getRoleType().toString())
-                                .orElse("ROLE_USER"),
-                        user.isActive()
-                ))
+                .map(userMapper::toDto)
                 .orElseThrow(() -> {
                     log.warn("Пользователь с ID {} не найден", id);
                     return new UserNotFoundException("Пользователь не найден");
                 });
     }
+
+    /**
+     * Получить страницу пользователей с необязательным поиском по префиксу.
+     * <p>
+     * Поиск выполняется без учёта регистра по началу логина, email, имени или фамилии.
+     * Страница выбирается одним запросом проекции (с основной ролью) и запросом количества,
+     * без загрузки сущностей и их коллекций.
+     * </p>
+     *
+     * @param query префикс для поиска; пустой или null — все пользователи
+     * @param page  номер страницы, начиная с 0
+     * @param size  размер страницы, от 1 до {@value #MAX_PAGE_SIZE}
+     * @return страница {@link UserDto}
+     * @throws InvalidDataException если параметры страницы некорректны
+     */
+    public PageDto<UserDto> searchUsers(String query, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidDataException("Номер страницы должен быть неотрицательным, размер — от 1 до " + MAX_PAGE_SIZE);
+        }
+        log.info("Поиск пользователей: запрос '{}', страница {}, размер {}", query, page, size);
+
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Page<UserSummary> summaries = query == null || query.isBlank()
+                ? userRepository.findSummaries(pageRequest)
+                : userRepository.searchSummaries(likePrefix(query), pageRequest);
+        return PageDto.of(summaries.map(userMapper::toDto));
+    }
+
+    /**
+     * Строит шаблон LIKE для поиска по префиксу, экранируя спецсимволы шаблона.
+     */
+    private String likePrefix(String query) {
+        String escaped = query.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
 }
@@ -1,12 +1,16 @@
 package com.example.auth_service.service.user;
 
 import com.example.auth_service.dto.UserDto;
+import com.example.auth_service.event.RoleChangedEvent;
+import com.example.auth_service.event.UserChangedEvent;
 import com.example.auth_service.exception.UserNotFoundException;
+import com.example.auth_service.mapper.UserMapper;
 import com.example.auth_service.model.Role;
 import com.example.auth_service.repository.UserRepository;
 import com.example.auth_service.repository.RoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +21,7 @@ import java.util.Set;
  * Сервис для обновления информации о пользователях.
  * <p>
  * Этот сервис предоставляет методы для обновления различных данных пользователей, таких как email, имя, фамилия, роль и статус активности.
+ * Каждое изменение публикует доменное событие, по которому после фиксации сбрасываются кэши пользователя.
  * </p>
  */
 @Service
@@ -26,27 +31,8 @@ public class UserUpdateService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-
-    /**
-     * Создает {@link UserDto} на основе данных пользователя.
-     *
-     * @param user объект пользователя
-     * @return {@link UserDto} с информацией о пользователе
-     */
-    private UserDto createUserDto(com.example.auth_service.model.User user) {
-        return new UserDto(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getRoles().stream()
-                        .findFirst()
-                        .map(role -> role.getRoleType().toString())
-                        .orElse("ROLE_USER"),
-                user.isActive()
-        );
-    }
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserMapper userMapper;
 
     /**
      * Обновить email пользователя.
@@ -77,7 +63,8 @@ public class UserUpdateService {
         return userRepository.findById(userId)
                 .map(user -> {
                     user.setEmail(email);
-                    return createUserDto(user);
+                    eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+                    return userMapper.toDto(user);
                 })
                 .orElseThrow(() -> {
                     log.error("Пользователь с ID {} не найден для обновления почты", userId);
@@ -110,7 +97,8 @@ public class UserUpdateService {
         return userRepository.findById(userId)
                 .map(user -> {
                     user.setFirstName(firstName);
-                    return createUserDto(user);
+                    eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+                    return userMapper.toDto(user);
                 })
                 .orElseThrow(() -> {
                     log.error("Пользователь с ID {} не найден для обновления имени", userId);
@@ -143,7 +131,8 @@ public class UserUpdateService {
         return userRepository.findById(userId)
                 .map(user -> {
                     user.setLastName(lastName);
-                    return createUserDto(user);
+                    eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+                    return userMapper.toDto(user);
                 })
                 .orElseThrow(() -> {
                     log.error("Пользователь с ID {} не найден для обновления фамилии", userId);
@@ -191,7 +180,8 @@ public class UserUpdateService {
                     // Обновляем роли пользователя
                     user.setRoles(Set.of(newRole));
 
-                    return createUserDto(user);
+                    eventPublisher.publishEvent(new RoleChangedEvent(user.getId(), user.getUsername(), roleType));
+                    return userMapper.toDto(user);
                 })
                 .orElseThrow(() -> {
                     log.error("Пользователь с ID {} не найден для обновления роли", userId);
@@ -217,7 +207,8 @@ public class UserUpdateService {
         return userRepository.findById(userId)
                 .map(user -> {
                     user.setActive(active);
-                    return createUserDto(user);
+                    eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+                    return userMapper.toDto(user);
                 })
                 .orElseThrow(() -> {
                     log.error("Пользователь с ID {} не найден для обновления статуса активности", userId);
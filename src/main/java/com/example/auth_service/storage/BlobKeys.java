@@ -0,0 +1,31 @@
+package com.example.auth_service.storage;
+
+import com.example.auth_service.exception.FileNotFoundException;
+
+/**
+ * Проверка ключей объектов хранилища.
+ */
+final class BlobKeys {
+
+    private BlobKeys() {
+    }
+
+    /**
+     * Проверяет, что ключ относительный и не выходит за пределы хранилища.
+     *
+     * @param key ключ объекта
+     * @return тот же ключ
+     * @throws FileNotFoundException если ключ недопустим
+     */
+    static String validate(String key) {
+        if (key == null || key.isBlank() || key.startsWith("/") || key.contains("\\")) {
+            throw new FileNotFoundException("Файл не найден: " + key);
+        }
+        for (String segment : key.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                throw new FileNotFoundException("Файл не найден: " + key);
+            }
+        }
+        return key;
+    }
+}
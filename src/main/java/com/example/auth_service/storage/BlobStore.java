@@ -0,0 +1,79 @@
+package com.example.auth_service.storage;
+
+import com.example.auth_service.exception.FileNotFoundException;
+import com.example.auth_service.exception.FileStorageException;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Абстракция хранилища бинарных объектов (вложений, превью).
+ * <p>
+ * Объекты адресуются относительными ключами вида {@code uuid.pdf} или {@code thumbnails/small/uuid.jpg}.
+ * Реализации обязаны читать и писать содержимое потоково, не загружая объект в память целиком.
+ * </p>
+ */
+public interface BlobStore {
+
+    /**
+     * Сохраняет объект, заменяя существующий с тем же ключом.
+     * Читатели никогда не должны увидеть частично записанный объект.
+     *
+     * @param key           ключ объекта
+     * @param content       поток содержимого; закрывается вызывающей стороной
+     * @param contentLength размер содержимого в байтах
+     * @param contentType   MIME-тип содержимого
+     * @throws FileStorageException если объект не удалось сохранить
+     */
+    void put(String key, InputStream content, long contentLength, String contentType);
+
+    /**
+     * Возвращает объект как ресурс. Содержимое открывается лениво при вызове
+     * {@link Resource#getInputStream()}, размер доступен через {@link Resource#contentLength()}.
+     *
+     * @param key ключ объекта
+     * @return ресурс объекта
+     * @throws FileNotFoundException если объект не найден
+     */
+    Resource load(String key);
+
+    /**
+     * Проверяет наличие объекта.
+     *
+     * @param key ключ объекта
+     * @return true, если объект существует
+     */
+    boolean exists(String key);
+
+    /**
+     * Возвращает размер объекта.
+     *
+     * @param key ключ объекта
+     * @return размер в байтах
+     * @throws FileNotFoundException если объект не найден
+     */
+    long size(String key);
+
+    /**
+     * Удаляет объект. Отсутствие объекта ошибкой не считается.
+     *
+     * @param key ключ объекта
+     * @throws FileStorageException если объект не удалось удалить
+     */
+    void delete(String key);
+
+    /**
+     * Формирует подписанную ссылку для прямого скачивания объекта из хранилища в обход приложения.
+     *
+     * @param key      ключ объекта
+     * @param fileName имя файла, предлагаемое клиенту при скачивании
+     * @param ttl      срок действия ссылки
+     * @return ссылка или пустой Optional, если хранилище не поддерживает прямое скачивание
+     */
+    default Optional<URI> presignDownload(String key, String fileName, Duration ttl) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.auth_service.storage;
+
+import com.example.auth_service.exception.FileNotFoundException;
+import com.example.auth_service.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Хранилище объектов в каталоге локальной файловой системы.
+ * Ключ объекта соответствует относительному пути внутри корневого каталога.
+ */
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    /**
+     * Создаёт хранилище и при необходимости корневой каталог.
+     *
+     * @param root корневой каталог
+     * @throws FileStorageException если каталог не удалось создать
+     */
+    public LocalBlobStore(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException ex) {
+            throw new FileStorageException("Не удалось создать директорию для хранения загруженных файлов.", ex);
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Записывает содержимое во временный файл рядом с целевым и атомарно переименовывает его.
+     */
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) {
+        Path target = resolve(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), "upload-", ".tmp");
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new FileStorageException("Не удалось сохранить файл " + key, ex);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException("Файл не найден: " + key);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public long size(String key) {
+        try {
+            return Files.size(resolve(key));
+        } catch (NoSuchFileException ex) {
+            throw new FileNotFoundException("Файл не найден: " + key, ex);
+        } catch (IOException ex) {
+            throw new FileStorageException("Не удалось получить размер файла " + key, ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException ex) {
+            throw new FileStorageException("Не удалось удалить файл " + key, ex);
+        }
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(BlobKeys.validate(key)).normalize();
+        if (!path.startsWith(root)) {
+            throw new FileNotFoundException("Файл не найден: " + key);
+        }
+        return path;
+    }
+
+    private void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл {}: {}", temp, e.getMessage());
+        }
+    }
+}
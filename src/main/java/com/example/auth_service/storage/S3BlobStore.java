@@ -0,0 +1,194 @@
+package com.example.auth_service.storage;
+
+import com.example.auth_service.exception.FileNotFoundException;
+import com.example.auth_service.exception.FileStorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Хранилище объектов в S3-совместимом сервисе (AWS S3, MinIO и т.п.).
+ * <p>
+ * Загрузка передаёт поток клиента напрямую в {@code PutObject} с известной длиной, скачивание
+ * открывает поток {@code GetObject} только при чтении ресурса. Для больших файлов клиенту
+ * можно выдать подписанную ссылку, и тогда содержимое вообще не проходит через приложение.
+ * </p>
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore, AutoCloseable {
+
+    private final S3Client client;
+    private final S3Presigner presigner;
+    private final String bucket;
+
+    public S3BlobStore(S3Client client, S3Presigner presigner, String bucket) {
+        this.client = client;
+        this.presigner = presigner;
+        this.bucket = bucket;
+    }
+
+    /**
+     * Создаёт бакет, если он ещё не существует. Используется для локальных стендов.
+     */
+    public void createBucketIfMissing() {
+        try {
+            client.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+        } catch (NoSuchBucketException ex) {
+            client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+            log.info("Создан бакет {}", bucket);
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(BlobKeys.validate(key))
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        try {
+            client.putObject(request, RequestBody.fromInputStream(content, contentLength));
+        } catch (SdkException ex) {
+            throw new FileStorageException("Не удалось сохранить файл " + key, ex);
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        return new S3ObjectResource(key, size(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            size(key);
+            return true;
+        } catch (FileNotFoundException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public long size(String key) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(BlobKeys.validate(key))
+                .build();
+        try {
+            return client.headObject(request).contentLength();
+        } catch (NoSuchKeyException ex) {
+            throw new FileNotFoundException("Файл не найден: " + key, ex);
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                throw new FileNotFoundException("Файл не найден: " + key, ex);
+            }
+            throw new FileStorageException("Не удалось получить размер файла " + key, ex);
+        } catch (SdkException ex) {
+            throw new FileStorageException("Не удалось получить размер файла " + key, ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(BlobKeys.validate(key)).build());
+        } catch (SdkException ex) {
+            throw new FileStorageException("Не удалось удалить файл " + key, ex);
+        }
+    }
+
+    @Override
+    public Optional<URI> presignDownload(String key, String fileName, Duration ttl) {
+        GetObjectRequest getRequest = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(BlobKeys.validate(key))
+                .responseContentDisposition(ContentDisposition.inline()
+                        .filename(fileName, StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .build();
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .getObjectRequest(getRequest)
+                .build();
+        try {
+            return Optional.of(presigner.presignGetObject(presignRequest).url().toURI());
+        } catch (URISyntaxException ex) {
+            throw new FileStorageException("Не удалось сформировать ссылку на файл " + key, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        presigner.close();
+        client.close();
+    }
+
+    /**
+     * Ресурс объекта S3 с заранее известным размером; содержимое запрашивается при открытии потока.
+     */
+    private class S3ObjectResource extends AbstractResource {
+
+        private final String key;
+        private final long contentLength;
+
+        S3ObjectResource(String key, long contentLength) {
+            this.key = key;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            try {
+                return client.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+            } catch (NoSuchKeyException ex) {
+                throw new FileNotFoundException("Файл не найден: " + key, ex);
+            } catch (SdkException ex) {
+                throw new FileStorageException("Не удалось прочитать файл " + key, ex);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public String getFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getDescription() {
+            return "S3 object [" + bucket + "/" + key + "]";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.auth_service.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Хранилище, распределяющее объекты по нескольким каталогам (как правило, на разных дисках),
+ * чтобы разнести нагрузку ввода-вывода.
+ * <p>
+ * Каталог выбирается по ключу объекта rendezvous-хешированием: для каждого каталога вычисляется
+ * вес {@code mix(hash(key) ^ hash(shard))} и выбирается каталог с наибольшим весом. В отличие от
+ * {@code hash(key) % n}, при добавлении каталога переезжает только ~1/n объектов.
+ * Порядок каталогов в конфигурации значения не имеет: вес зависит от пути каталога, а не от индекса.
+ * </p>
+ */
+public class ShardedBlobStore implements BlobStore {
+
+    private final List<LocalBlobStore> shards;
+    private final long[] shardSeeds;
+
+    /**
+     * @param roots корневые каталоги шардов
+     * @throws IllegalArgumentException если список каталогов пуст
+     */
+    public ShardedBlobStore(List<Path> roots) {
+        if (roots.isEmpty()) {
+            throw new IllegalArgumentException("Не задан ни один каталог для шардированного хранилища");
+        }
+        this.shards = roots.stream().map(LocalBlobStore::new).toList();
+        this.shardSeeds = shards.stream()
+                .mapToLong(shard -> fnv1a(shard.getRoot().toString().getBytes(StandardCharsets.UTF_8)))
+                .toArray();
+    }
+
+    @Override
+    public void put(String key, InputStream content, long contentLength, String contentType) {
+        shardFor(key).put(key, content, contentLength, contentType);
+    }
+
+    @Override
+    public Resource load(String key) {
+        return shardFor(key).load(key);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return shardFor(key).exists(key);
+    }
+
+    @Override
+    public long size(String key) {
+        return shardFor(key).size(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        shardFor(key).delete(key);
+    }
+
+    /**
+     * Выбирает шард для ключа.
+     *
+     * @param key ключ объекта
+     * @return хранилище шарда
+     */
+    LocalBlobStore shardFor(String key) {
+        long keyHash = fnv1a(BlobKeys.validate(key).getBytes(StandardCharsets.UTF_8));
+        int best = 0;
+        long bestWeight = mix(keyHash ^ shardSeeds[0]);
+        for (int i = 1; i < shardSeeds.length; i++) {
+            long weight = mix(keyHash ^ shardSeeds[i]);
+            if (Long.compareUnsigned(weight, bestWeight) > 0) {
+                bestWeight = weight;
+                best = i;
+            }
+        }
+        return shards.get(best);
+    }
+
+    private static long fnv1a(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Финализатор SplitMix64: нелинейное перемешивание, без которого веса шардов
+     * для соседних ключей были бы коррелированы.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
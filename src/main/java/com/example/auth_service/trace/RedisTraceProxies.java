@@ -0,0 +1,118 @@
+package com.example.auth_service.trace;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.redis.connection.RedisCommandsProvider;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Прокси над фабрикой подключений Redis, передающие выполненные команды в {@link RequestTrace}.
+ * <p>
+ * Оборачивается само подключение и объекты команд, которые оно отдаёт ({@code stringCommands()},
+ * {@code hashCommands()} и т.д.): через них работают все шаблоны и репозитории Redis. Служебные методы
+ * подключения (закрытие, конвейер, доступ к объектам команд) командами не считаются.
+ * </p>
+ * <p>
+ * Фабрика и подключение проксируются по классу, поэтому точки внедрения и приведения к
+ * {@code LettuceConnectionFactory} и {@code LettuceConnection} продолжают работать. Объекты команд
+ * отдаются через интерфейсы, объявленные в {@link RedisCommandsProvider}, и проксируются по ним.
+ * </p>
+ */
+public final class RedisTraceProxies {
+
+    private static final Set<String> COMMAND_ACCESSORS = Arrays.stream(RedisCommandsProvider.class.getMethods())
+            .map(Method::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private RedisTraceProxies() {
+    }
+
+    /**
+     * Оборачивает фабрику подключений. Класс, жизненный цикл и остальные интерфейсы фабрики сохраняются.
+     *
+     * @param connectionFactory фабрика подключений
+     * @return фабрика, выдающая трассируемые подключения
+     */
+    public static RedisConnectionFactory trace(RedisConnectionFactory connectionFactory) {
+        ProxyFactory proxyFactory = new ProxyFactory(connectionFactory);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            if (result instanceof RedisConnection connection && "getConnection".equals(invocation.getMethod().getName())) {
+                return traceConnection(connection);
+            }
+            return result;
+        });
+        return (RedisConnectionFactory) proxyFactory.getProxy();
+    }
+
+    private static RedisConnection traceConnection(RedisConnection connection) {
+        ProxyFactory proxyFactory = new ProxyFactory(connection);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TracingInterceptor());
+        return (RedisConnection) proxyFactory.getProxy();
+    }
+
+    private static Object traceCommands(Class<?> type, Object commands) {
+        ProxyFactory proxyFactory = new ProxyFactory(commands);
+        proxyFactory.setInterfaces(type);
+        proxyFactory.addAdvice(new TracingInterceptor());
+        return proxyFactory.getProxy();
+    }
+
+    private static boolean isCommand(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        return declaringClass != Object.class
+                && declaringClass.isInterface()
+                && declaringClass != RedisConnection.class
+                && declaringClass != AutoCloseable.class
+                && declaringClass != RedisCommandsProvider.class;
+    }
+
+    /**
+     * Для прокси по классу метод приходит объявленным в классе подключения; команда определяется
+     * по интерфейсу, в котором он объявлен.
+     */
+    private static Method commandMethod(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        return target == null
+                ? invocation.getMethod()
+                : ClassUtils.getInterfaceMethodIfPossible(invocation.getMethod(), target.getClass());
+    }
+
+    private static boolean isCommandAccessor(Method method) {
+        return method.getParameterCount() == 0
+                && method.getReturnType().isInterface()
+                && COMMAND_ACCESSORS.contains(method.getName());
+    }
+
+    private static final class TracingInterceptor implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            if (isCommandAccessor(method)) {
+                Object commands = invocation.proceed();
+                return commands == null ? null : traceCommands(method.getReturnType(), commands);
+            }
+            RequestTrace trace = RequestTrace.current();
+            if (trace == null || !isCommand(commandMethod(invocation))) {
+                return invocation.proceed();
+            }
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                trace.recordRedis(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.auth_service.trace;
+
+import com.example.auth_service.config.RequestBudgetProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Открывает {@link RequestTrace} на время обработки запроса и сверяет результат с бюджетом точки входа.
+ * <p>
+ * Превышение бюджета пишется в журнал предупреждением. При {@code request-budget.expose-headers=true}
+ * счётчики добавляются в заголовки ответа: {@code X-Sql-Statements}, {@code X-Redis-Commands}
+ * и {@code Server-Timing}, который показывают инструменты разработчика браузера. Заголовки пишутся
+ * в момент фиксации ответа и отражают обращения, сделанные до начала отправки тела.
+ * </p>
+ * <p>
+ * Учитывается только исходная обработка запроса. Асинхронные ответы ({@code StreamingResponseBody},
+ * например выгрузка архива вложений) пишутся в другом потоке, куда трасса не передаётся,
+ * а повторная диспетчеризация {@code ASYNC} фильтром пропускается: обращения при отправке тела
+ * в бюджет не входят.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestBudgetFilter extends OncePerRequestFilter {
+
+    public static final String SQL_STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String REDIS_COMMANDS_HEADER = "X-Redis-Commands";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final RequestBudgetProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.start();
+        TraceHeadersResponse tracedResponse = properties.isExposeHeaders()
+                ? new TraceHeadersResponse(response, trace)
+                : null;
+        try {
+            filterChain.doFilter(request, tracedResponse != null ? tracedResponse : response);
+        } finally {
+            trace.close();
+            if (tracedResponse != null && !response.isCommitted()) {
+                tracedResponse.writeHeaders();
+            }
+            checkBudget(request, trace);
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, RequestTrace trace) {
+        String endpoint = endpoint(request);
+        RequestBudgetProperties.Budget budget = properties.budgetFor(endpoint);
+        if (trace.getSqlStatements() > budget.getSqlStatements()
+                || trace.getRedisCommands() > budget.getRedisCommands()) {
+            log.warn("Превышен бюджет запроса {}: SQL {} из {} ({} мс), Redis {} из {} ({} мс), всего {} мс",
+                    endpoint,
+                    trace.getSqlStatements(), budget.getSqlStatements(), millis(trace.getSqlNanos()),
+                    trace.getRedisCommands(), budget.getRedisCommands(), millis(trace.getRedisNanos()),
+                    millis(trace.getElapsedNanos()));
+        }
+    }
+
+    /**
+     * Метод и шаблон пути обработчика, например {@code GET /tasks/{id}}; для запросов
+     * без обработчика — фактический путь.
+     */
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Добавляет заголовки со счётчиками перед фиксацией ответа, пока их ещё можно изменить.
+     */
+    private static final class TraceHeadersResponse extends OnCommittedResponseWrapper {
+
+        private final RequestTrace trace;
+        private boolean headersWritten;
+
+        private TraceHeadersResponse(HttpServletResponse response, RequestTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        private void writeHeaders() {
+            if (headersWritten) {
+                return;
+            }
+            headersWritten = true;
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(SQL_STATEMENTS_HEADER, String.valueOf(trace.getSqlStatements()));
+            response.setHeader(REDIS_COMMANDS_HEADER, String.valueOf(trace.getRedisCommands()));
+            response.addHeader(SERVER_TIMING_HEADER, "sql;dur=" + millis(trace.getSqlNanos())
+                    + ", redis;dur=" + millis(trace.getRedisNanos())
+                    + ", app;dur=" + millis(trace.getElapsedNanos()));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.auth_service.trace;
+
+/**
+ * Счётчики обращений к базе данных и Redis в рамках одного запроса.
+ * <p>
+ * Трасса привязана к потоку: её открывает {@link RequestBudgetFilter} на время обработки
+ * HTTP-запроса, а в интеграционных тестах — сам тест:
+ * </p>
+ * <pre>{@code
+ * try (RequestTrace trace = RequestTrace.start()) {
+ *     taskService.getTasksByObjectId(id);
+ *     assertEquals(1, trace.getSqlStatements());
+ * }
+ * }</pre>
+ * <p>
+ * Учитываются только синхронные вызовы в потоке запроса; работа фоновых воркеров в трассу не попадает.
+ * </p>
+ */
+public final class RequestTrace implements AutoCloseable {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final RequestTrace previous;
+    private final long startNanos = System.nanoTime();
+    private long endNanos;
+    private int sqlStatements;
+    private long sqlNanos;
+    private int redisCommands;
+    private long redisNanos;
+
+    private RequestTrace(RequestTrace previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Открывает трассу в текущем потоке. Вложенная трасса на время своей жизни заменяет внешнюю.
+     *
+     * @return открытая трасса
+     */
+    public static RequestTrace start() {
+        RequestTrace trace = new RequestTrace(CURRENT.get());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * @return открытая в текущем потоке трасса или {@code null}
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Учитывает выполненный SQL-запрос.
+     *
+     * @param nanos время выполнения
+     */
+    public void recordSql(long nanos) {
+        sqlStatements++;
+        sqlNanos += nanos;
+    }
+
+    /**
+     * Учитывает выполненную команду Redis.
+     *
+     * @param nanos время выполнения
+     */
+    public void recordRedis(long nanos) {
+        redisCommands++;
+        redisNanos += nanos;
+    }
+
+    public int getSqlStatements() {
+        return sqlStatements;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public int getRedisCommands() {
+        return redisCommands;
+    }
+
+    public long getRedisNanos() {
+        return redisNanos;
+    }
+
+    /**
+     * @return время с открытия трассы до её закрытия или до текущего момента, если трасса открыта
+     */
+    public long getElapsedNanos() {
+        return (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * Закрывает трассу и восстанавливает внешнюю, если она была.
+     */
+    @Override
+    public void close() {
+        if (endNanos != 0) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
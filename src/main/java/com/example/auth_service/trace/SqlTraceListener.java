@@ -0,0 +1,32 @@
+package com.example.auth_service.trace;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Передаёт выполненные через datasource-proxy запросы в {@link RequestTrace} текущего потока.
+ * Пакетная вставка считается одним обращением к базе данных.
+ */
+public class SqlTraceListener implements QueryExecutionListener {
+
+    private static final String START_NANOS = SqlTraceListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestTrace.current() != null) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTrace trace = RequestTrace.current();
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (trace != null && start != null) {
+            trace.recordSql(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Очередь заданий на генерацию превью для изображений-вложений
+CREATE TABLE thumbnail_jobs (
+                                id BIGSERIAL PRIMARY KEY,
+                                file_path TEXT NOT NULL,
+                                status VARCHAR(20) NOT NULL,
+                                attempts INTEGER DEFAULT 0 NOT NULL,
+                                last_error TEXT,
+                                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+                                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_thumbnail_jobs_status ON thumbnail_jobs(status, id);
@@ -0,0 +1,17 @@
+-- Очередь исходящих писем (transactional outbox)
+CREATE TABLE email_outbox (
+                              id BIGSERIAL PRIMARY KEY,
+                              recipient VARCHAR(255) NOT NULL,
+                              subject VARCHAR(255) NOT NULL,
+                              body TEXT NOT NULL,
+                              html BOOLEAN DEFAULT FALSE NOT NULL,
+                              status VARCHAR(20) NOT NULL,
+                              attempts INTEGER DEFAULT 0 NOT NULL,
+                              next_attempt_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+                              last_error TEXT,
+                              created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+                              updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_status_updated ON email_outbox(status, updated_at);
@@ -0,0 +1,9 @@
+-- Индексы для поиска пользователей по префиксу логина, почты, имени и фамилии без учёта регистра.
+-- text_pattern_ops позволяет использовать B-tree для LIKE 'префикс%' при любой локали базы.
+CREATE INDEX idx_users_username_lower ON users (lower(username) text_pattern_ops);
+CREATE INDEX idx_users_email_lower ON users (lower(email) text_pattern_ops);
+CREATE INDEX idx_users_first_name_lower ON users (lower(first_name) text_pattern_ops);
+CREATE INDEX idx_users_last_name_lower ON users (lower(last_name) text_pattern_ops);
+
+-- Выборка пользователей по роли: первичный ключ (user_id, role_id) её не покрывает
+CREATE INDEX idx_users_roles_role_id ON users_roles (role_id);
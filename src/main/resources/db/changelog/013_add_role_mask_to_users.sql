@@ -0,0 +1,19 @@
+-- Роли пользователя в виде битовой маски: бит роли = 1 << порядковый номер Role.RoleType.
+-- Таблица users_roles остаётся источником для администрирования, маска — для проверок прав.
+ALTER TABLE users ADD COLUMN role_mask INTEGER NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET role_mask = m.mask
+FROM (SELECT ur.user_id,
+             bit_or(CASE r.role_type
+                        WHEN 'ROLE_USER' THEN 1
+                        WHEN 'ROLE_ADMIN' THEN 2
+                        WHEN 'ROLE_DIRECTOR' THEN 4
+                        WHEN 'ROLE_CHIEF' THEN 8
+                        WHEN 'ROLE_RESPONSIBLE' THEN 16
+                        ELSE 0
+                    END) AS mask
+      FROM users_roles ur
+               JOIN roles r ON r.id = ur.role_id
+      GROUP BY ur.user_id) m
+WHERE u.id = m.user_id;
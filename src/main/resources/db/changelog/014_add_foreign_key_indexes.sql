@@ -0,0 +1,20 @@
+-- Индексы по внешним ключам и условиям поиска репозиториев объектов, задач и вложений.
+-- PostgreSQL не создаёт индексы для внешних ключей сам, поэтому без них поиск по ним
+-- и проверка ссылок при удалении родительской строки выполняются полным просмотром таблицы.
+
+-- objects: поиск детей (findByParentId, рекурсивные обходы поддерева) и объектов создателя.
+-- objects.responsible_user_id уже проиндексирован в 007.
+CREATE INDEX idx_objects_parent_id ON objects (parent_id);
+CREATE INDEX idx_objects_created_by ON objects (created_by);
+
+-- tasks: составной индекс обслуживает поиск по объекту, по списку объектов, по объекту и статусу,
+-- а также подсчёт задач по статусам без чтения таблицы
+CREATE INDEX idx_tasks_object_id_status ON tasks (object_id, status);
+CREATE INDEX idx_tasks_created_by_id ON tasks (created_by_id);
+CREATE INDEX idx_tasks_responsible_user_id ON tasks (responsible_user_id);
+
+-- task_attachments: вложения задачи и поиск по пути файла.
+-- Путь — TEXT произвольной длины и ищется только на равенство, поэтому hash, а не B-tree
+-- (у B-tree есть предел размера ключа, а порядок здесь не нужен).
+CREATE INDEX idx_task_attachments_task_id ON task_attachments (task_id);
+CREATE INDEX idx_task_attachments_file_path ON task_attachments USING hash (file_path);
@@ -0,0 +1,7 @@
+-- Сессия устройства, которой принадлежит refresh-токен: обновление токена продлевает именно её,
+-- а отзыв сессии удаляет и её refresh-токены.
+ALTER TABLE refresh_tokens ADD COLUMN session_id VARCHAR(32);
+
+-- Составной индекс обслуживает и удаление по пользователю, поэтому прежний индекс по username не нужен
+CREATE INDEX idx_refresh_username_session ON refresh_tokens (username, session_id);
+DROP INDEX idx_refresh_username;
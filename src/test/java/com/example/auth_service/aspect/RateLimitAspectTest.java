@@ -2,6 +2,7 @@ package com.example.auth_service.aspect;
 
 import com.example.auth_service.annotation.RateLimit;
 import com.example.auth_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
@@ -43,6 +45,9 @@ public class RateLimitAspectTest {
     @Mock
     private ServletRequestAttributes requestAttributes;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private RateLimitAspect rateLimitAspect;
 
@@ -96,6 +101,7 @@ public class RateLimitAspectTest {
         assertThrows(RateLimitExceededException.class, () -> {
             rateLimitAspect.rateLimit(joinPoint, rateLimit);
         });
+        assertEquals(1.0, meterRegistry.counter("rate_limit.rejections", "endpoint", "AuthController.login").count());
     }
 
     @Test
@@ -0,0 +1,158 @@
+package com.example.auth_service.cache;
+
+import com.example.auth_service.dto.ObjectResponseDto;
+import com.example.auth_service.event.ObjectMovedEvent;
+import com.example.auth_service.event.ObjectUpdatedEvent;
+import com.example.auth_service.event.UserChangedEvent;
+import com.example.auth_service.mapper.ObjectMapper;
+import com.example.auth_service.model.ObjectEntity;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.projection.ObjectPathRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ObjectPathCacheTest {
+
+    @Mock
+    private ObjectRepository objectRepository;
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, ObjectEntity> objects = new HashMap<>();
+    private ObjectPathCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // 1 ─ 2 ─ 3, 1 ─ 4
+        ObjectEntity root = object(1L, "Проект", null);
+        ObjectEntity building = object(2L, "Корпус", root);
+        object(3L, "Этаж 1", building);
+        object(4L, "Корпус Б", root);
+        lenient().when(objectRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(objects.get(invocation.<Long>getArgument(0))));
+        cache = new ObjectPathCache(objectRepository, objectMapper, publisher, true);
+    }
+
+    @Test
+    @DisplayName("Путь строится один раз, пути предков кэшируются попутно")
+    void getPath_cachesAncestors() {
+        assertEquals(List.of(1L, 2L, 3L), ids(cache.getPath(3L)));
+        assertEquals(List.of(1L, 2L), ids(cache.getPath(2L)));
+        assertEquals(List.of(1L, 2L, 3L), ids(cache.getPath(3L)));
+
+        verify(objectRepository, times(3)).findById(anyLong());
+        assertEquals(2, cache.getStatistics().l1Hits());
+    }
+
+    @Test
+    @DisplayName("Переименование сбрасывает пути всего поддерева, но не соседних ветвей")
+    void onObjectUpdated_invalidatesSubtree() {
+        cache.getPath(3L);
+        cache.getPath(4L);
+        objects.get(2L).setName("Корпус А");
+
+        cache.onObjectUpdated(new ObjectUpdatedEvent(2L, null));
+
+        assertEquals("Корпус А", cache.getPath(3L).get(1).getName());
+        clearInvocations(objectRepository);
+        cache.getPath(4L);
+        verify(objectRepository, never()).findById(any());
+        verify(publisher).publishEvict(CacheNames.OBJECT_PATH, "2");
+    }
+
+    @Test
+    @DisplayName("Перенос объекта перестраивает путь его потомков")
+    void onObjectMoved_rebuildsDescendants() {
+        cache.getPath(3L);
+        objects.get(2L).setParent(objects.get(4L));
+
+        cache.onObjectMoved(new ObjectMovedEvent(2L, 1L, 4L));
+
+        assertEquals(List.of(1L, 4L, 2L, 3L), ids(cache.getPath(3L)));
+    }
+
+    @Test
+    @DisplayName("Путь, прочитанный до инвалидации, не остаётся в кэше")
+    void getPath_discardsPathBuiltAcrossInvalidation() {
+        when(objectRepository.findById(3L)).thenAnswer(invocation -> {
+            cache.evictLocal("1");
+            return Optional.of(objects.get(3L));
+        });
+
+        cache.getPath(3L);
+
+        assertEquals(0, cache.getStatistics().l1Size());
+    }
+
+    @Test
+    @DisplayName("Прогрев кэширует пути всех объектов одним запросом-проекцией")
+    void warmUp_loadsAllPaths() {
+        when(objectRepository.findAllPathRows()).thenReturn(objects.values().stream().map(this::row).toList());
+
+        cache.warmUp();
+
+        assertEquals(4, cache.getStatistics().l1Size());
+        assertEquals(List.of(1L, 4L), ids(cache.getPath(4L)));
+        assertEquals("Корпус Б", cache.getPath(4L).get(1).getName());
+        verify(objectRepository, never()).findById(any());
+        verify(objectRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Изменение пользователя сбрасывает только поддеревья объектов, где он указан")
+    void onUserChanged_invalidatesOnlyReferencingObjects() {
+        User responsible = new User();
+        responsible.setId(9L);
+        objects.get(2L).setResponsibleUser(responsible);
+        cache.getPath(3L);
+        cache.getPath(4L);
+
+        cache.onUserChanged(new UserChangedEvent(9L, "ivan"));
+
+        assertEquals(2, cache.getStatistics().l1Size());
+        verify(publisher).publishEvict(CacheNames.OBJECT_PATH, "2");
+        clearInvocations(objectRepository);
+        cache.getPath(4L);
+        verify(objectRepository, never()).findById(any());
+    }
+
+    private ObjectEntity object(Long id, String name, ObjectEntity parent) {
+        ObjectEntity entity = new ObjectEntity();
+        entity.setId(id);
+        entity.setName(name);
+        entity.setParent(parent);
+        objects.put(id, entity);
+        return entity;
+    }
+
+    private ObjectPathRow row(ObjectEntity entity) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", entity.getId());
+        values.put("parentId", entity.getParent() != null ? entity.getParent().getId() : null);
+        values.put("name", entity.getName());
+        return new SpelAwareProxyProjectionFactory().createProjection(ObjectPathRow.class, values);
+    }
+
+    private List<Long> ids(List<ObjectResponseDto> path) {
+        return path.stream().map(ObjectResponseDto::getId).toList();
+    }
+}
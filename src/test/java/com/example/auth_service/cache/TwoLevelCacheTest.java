@@ -0,0 +1,155 @@
+package com.example.auth_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TwoLevelCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TwoLevelCache("userInfo",
+                Caffeine.newBuilder().maximumSize(100).executor(Runnable::run).recordStats().build(),
+                redisTemplate, Duration.ofMinutes(30), publisher);
+    }
+
+    @Test
+    @DisplayName("При промахе L1 значение берётся из Redis и оседает в L1")
+    void readsThroughL2() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("cache:userInfo:alice")).thenReturn("dto");
+
+        assertEquals("dto", cache.get("alice").get());
+        assertEquals("dto", cache.get("alice").get());
+
+        verify(valueOperations, times(1)).get("cache:userInfo:alice");
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.l1Hits());
+        assertEquals(1, statistics.l2Hits());
+    }
+
+    @Test
+    @DisplayName("Загрузчик вызывается один раз, результат пишется в Redis с TTL")
+    void loadsOnceAndWritesL2() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("dto", cache.get("alice", () -> {
+            loads.incrementAndGet();
+            return "dto";
+        }));
+        assertEquals("dto", cache.get("alice", () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+
+        assertEquals(1, loads.get());
+        verify(valueOperations).set("cache:userInfo:alice", "dto", Duration.ofMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Удаление затрагивает оба уровня и рассылается другим узлам")
+    void evictBroadcasts() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache.put("alice", "dto");
+
+        cache.evict("alice");
+
+        verify(redisTemplate).delete("cache:userInfo:alice");
+        verify(publisher, times(2)).publishEvict("userInfo", "alice");
+        when(valueOperations.get(anyString())).thenReturn(null);
+        assertNull(cache.get("alice"));
+    }
+
+    @Test
+    @DisplayName("Инвалидация с другого узла сбрасывает только L1")
+    void remoteInvalidationIsLocalOnly() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache.put("alice", "dto");
+
+        cache.evictLocal("alice");
+
+        verify(redisTemplate, never()).delete(anyString());
+        verify(valueOperations).set(eq("cache:userInfo:alice"), any(), any(Duration.class));
+        assertEquals(0, cache.getStatistics().l1Size());
+    }
+
+    @Test
+    @DisplayName("Ошибка Redis не ломает кэш: значение загружается и хранится в L1")
+    void survivesRedisFailure() {
+        when(redisTemplate.opsForValue()).thenThrow(new IllegalStateException("redis down"));
+
+        assertEquals("dto", cache.get("alice", () -> "dto"));
+        assertEquals("dto", cache.get("alice").get());
+        assertTrue(cache.getStatistics().l2Errors() >= 2);
+    }
+
+    @Test
+    @DisplayName("Размер L1 ограничен")
+    void l1IsBounded() {
+        TwoLevelCache bounded = new TwoLevelCache("userDetails",
+                Caffeine.newBuilder().maximumSize(10).executor(Runnable::run).recordStats().build(),
+                null, Duration.ZERO, publisher);
+
+        for (int i = 0; i < 1000; i++) {
+            bounded.put("user" + i, "details" + i);
+        }
+
+        CacheStatistics statistics = bounded.getStatistics();
+        assertTrue(statistics.l1Size() <= 10);
+        assertTrue(statistics.l1Evictions() >= 990);
+    }
+
+    @Test
+    @DisplayName("Статистика обоих уровней публикуется в MeterRegistry")
+    void bindsMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("cache:userInfo:alice")).thenReturn("dto");
+        when(valueOperations.get("cache:userInfo:bob")).thenReturn(null);
+
+        cache.get("alice");
+        cache.get("alice");
+        cache.get("bob");
+
+        assertEquals(1, registry.get("cache.gets").tags("cache", "userInfo", "result", "hit")
+                .functionCounter().count());
+        assertEquals(2, registry.get("cache.gets").tags("cache", "userInfo", "result", "miss")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.l2.gets").tags("cache", "userInfo", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.l2.gets").tags("cache", "userInfo", "result", "miss")
+                .functionCounter().count());
+        assertEquals(0, registry.get("cache.l2.errors").tag("cache", "userInfo").functionCounter().count());
+        assertEquals(1, registry.get("cache.size").tag("cache", "userInfo").gauge().value());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.auth_service.cache;
+
+import com.example.auth_service.event.UserChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UserCacheInvalidatorTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Событие изменения пользователя сразу сбрасывает его записи и общий список, даже при активной синхронизации")
+    void onUserChanged_evictsImmediately() {
+        ConcurrentMapCacheManager target = new ConcurrentMapCacheManager(
+                CacheNames.USER_DETAILS, CacheNames.USER_INFO, CacheNames.USER_INFO_LIST);
+        TransactionAwareCacheManagerProxy cacheManager = new TransactionAwareCacheManagerProxy(target);
+        cacheManager.getCache(CacheNames.USER_DETAILS).put("alice", "details");
+        cacheManager.getCache(CacheNames.USER_INFO).put("alice", "info");
+        cacheManager.getCache(CacheNames.USER_INFO_LIST).put("all", List.of("info"));
+
+        // Фаза AFTER_COMMIT: синхронизация ещё активна, отложенное удаление уже не сработало бы
+        TransactionSynchronizationManager.initSynchronization();
+        new UserCacheInvalidator(cacheManager).onUserChanged(new UserChangedEvent(1L, "alice"));
+
+        assertNull(target.getCache(CacheNames.USER_DETAILS).get("alice"));
+        assertNull(target.getCache(CacheNames.USER_INFO).get("alice"));
+        Cache list = target.getCache(CacheNames.USER_INFO_LIST);
+        assertNull(list.get("all"));
+    }
+}
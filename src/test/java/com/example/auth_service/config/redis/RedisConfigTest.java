@@ -0,0 +1,41 @@
+package com.example.auth_service.config.redis;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.resource.ClientResources;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class RedisConfigTest {
+
+    @Test
+    @DisplayName("Фабрика подключений использует пул, общее подключение и таймауты из настроек")
+    void redisConnectionFactory_appliesClientProperties() {
+        RedisConfig redisConfig = new RedisConfig();
+        ReflectionTestUtils.setField(redisConfig, "host", "localhost");
+        ReflectionTestUtils.setField(redisConfig, "port", 6379);
+        ReflectionTestUtils.setField(redisConfig, "password", "secret");
+        RedisClientProperties properties = new RedisClientProperties();
+        properties.setCommandTimeout(Duration.ofMillis(750));
+        properties.getPool().setMaxActive(32);
+
+        LettuceConnectionFactory connectionFactory =
+                redisConfig.redisConnectionFactory(mock(ClientResources.class), properties);
+
+        LettucePoolingClientConfiguration clientConfig =
+                assertInstanceOf(LettucePoolingClientConfiguration.class, connectionFactory.getClientConfiguration());
+        assertEquals(32, clientConfig.getPoolConfig().getMaxTotal());
+        assertEquals(Duration.ofMillis(750), clientConfig.getCommandTimeout());
+        assertTrue(connectionFactory.getShareNativeConnection());
+        ClientOptions clientOptions = clientConfig.getClientOptions().orElseThrow();
+        assertTrue(clientOptions.isAutoReconnect());
+        assertEquals(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS, clientOptions.getDisconnectedBehavior());
+    }
+}
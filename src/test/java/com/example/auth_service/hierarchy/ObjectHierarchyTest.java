@@ -0,0 +1,93 @@
+package com.example.auth_service.hierarchy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectHierarchyTest {
+
+    private static final byte BUILDING = 0;
+    private static final byte FLOOR = 3;
+
+    private ObjectHierarchy hierarchy;
+
+    @BeforeEach
+    void setUp() {
+        // 1 ─ 2 ─ 4, 2 ─ 5, 1 ─ 3; 10 — отдельный корень
+        hierarchy = ObjectHierarchy.of(
+                new long[]{1, 2, 3, 4, 5, 10},
+                new long[]{0, 1, 1, 2, 2, 0},
+                new byte[]{BUILDING, FLOOR, FLOOR, FLOOR, FLOOR, BUILDING},
+                6);
+    }
+
+    @Test
+    @DisplayName("Обходы поддерева, предков и по типу")
+    void traversals() {
+        assertArrayEquals(new long[]{2, 3, 4, 5}, sorted(hierarchy.descendantIds(1)));
+        assertEquals(4, hierarchy.countDescendants(1));
+        assertArrayEquals(new long[]{1, 2}, hierarchy.ancestorIds(4));
+        assertArrayEquals(new long[]{4, 5}, sorted(hierarchy.childIds(2)));
+        assertArrayEquals(new long[]{1, 10}, sorted(hierarchy.idsByType(BUILDING)));
+        assertEquals(0, hierarchy.descendantIds(99).length);
+    }
+
+    @Test
+    @DisplayName("Перенос меняет поддеревья, перенос в собственного потомка отклоняется")
+    void move() {
+        assertTrue(hierarchy.move(2, 10));
+        assertArrayEquals(new long[]{3}, hierarchy.descendantIds(1));
+        assertArrayEquals(new long[]{2, 4, 5}, sorted(hierarchy.descendantIds(10)));
+
+        assertFalse(hierarchy.move(10, 4));
+        assertEquals(0, hierarchy.ancestorIds(10).length);
+    }
+
+    @Test
+    @DisplayName("Удалённая ячейка переиспользуется, повторное создание идемпотентно")
+    void removeAndUpsert() {
+        hierarchy.remove(5);
+        assertFalse(hierarchy.contains(5));
+        assertArrayEquals(new long[]{4}, hierarchy.childIds(2));
+
+        assertTrue(hierarchy.upsert(6, 3, FLOOR));
+        assertTrue(hierarchy.upsert(6, 3, FLOOR));
+        assertEquals(6, hierarchy.size());
+        assertArrayEquals(new long[]{1, 3}, hierarchy.ancestorIds(6));
+    }
+
+    @Test
+    @DisplayName("Хеш-таблица сохраняет ключи после удалений со сдвигом кластеров")
+    void longIntHashMap_matchesHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                map.remove(key);
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING), map.get(key));
+        }
+    }
+
+    private long[] sorted(long[] values) {
+        long[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.auth_service.model;
+
+import com.example.auth_service.service.security.RoleAuthorities;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoleMaskTest {
+
+    @Test
+    @DisplayName("Назначение ролей пересчитывает маску, проверка роли — битовая")
+    void setRoles_syncsMask() {
+        User user = new User();
+        user.setRoles(Set.of(new Role(2L, Role.RoleType.ROLE_ADMIN), new Role(5L, Role.RoleType.ROLE_RESPONSIBLE)));
+
+        assertEquals(Role.RoleType.ROLE_ADMIN.bit() | Role.RoleType.ROLE_RESPONSIBLE.bit(), user.getRoleMask());
+        assertTrue(user.hasRole(Role.RoleType.ROLE_ADMIN));
+        assertFalse(user.hasRole(Role.RoleType.ROLE_USER));
+        assertEquals(Role.RoleType.ROLE_ADMIN, RoleMask.primary(user.getRoleMask()));
+        assertEquals(EnumSet.of(Role.RoleType.ROLE_ADMIN, Role.RoleType.ROLE_RESPONSIBLE), RoleMask.types(user.getRoleMask()));
+
+        user.setRoles(null);
+        assertEquals(0, user.getRoleMask());
+        assertEquals(Role.RoleType.ROLE_USER, RoleMask.primary(0));
+    }
+
+    @Test
+    @DisplayName("Полномочия по маске совпадают с ролями")
+    void roleAuthorities_matchMask() {
+        int mask = Role.RoleType.ROLE_USER.bit() | Role.RoleType.ROLE_CHIEF.bit();
+
+        assertEquals(List.of("ROLE_USER", "ROLE_CHIEF"),
+                RoleAuthorities.of(mask).stream().map(GrantedAuthority::getAuthority).toList());
+        assertTrue(RoleAuthorities.of(0).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.auth_service.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверяет по EXPLAIN, что частые запросы репозиториев не читают таблицы полным просмотром.
+ * Схема создаётся changelog'ами Liquibase, данные генерируются в объёме, при котором
+ * планировщик выбирает полный просмотр только в отсутствие подходящего индекса.
+ * Пропускается, если Docker недоступен.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IndexUsageTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Данные фиксируются и создаются один раз на контейнер. */
+    private static boolean seeded;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        seeded = true;
+        jdbcTemplate.execute("""
+                INSERT INTO users (username, email, password, active)
+                SELECT 'user' || g, 'user' || g || '@example.com', 'password', true
+                FROM generate_series(1, 1000) g
+                """);
+        // 500 корней и по 19 детей у каждого
+        jdbcTemplate.execute("""
+                INSERT INTO objects (name, object_type, parent_id, created_by, responsible_user_id)
+                SELECT 'Корпус ' || g, 'BUILDING', NULL,
+                       (SELECT min(id) FROM users) + g % 1000, (SELECT min(id) FROM users) + (g * 7) % 1000
+                FROM generate_series(1, 500) g
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO objects (name, object_type, parent_id, created_by, responsible_user_id)
+                SELECT 'Этаж ' || g, 'FLOOR', p.id, p.created_by, p.responsible_user_id
+                FROM objects p CROSS JOIN generate_series(1, 19) g
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO tasks (title, status, object_id, created_by_id, responsible_user_id)
+                SELECT 'Задача ' || g, (ARRAY['NEW', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3], o.id,
+                       o.created_by, o.responsible_user_id
+                FROM objects o CROSS JOIN generate_series(1, 5) g
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO task_attachments (task_id, file_path)
+                SELECT t.id, 'tasks/' || t.id || '/' || md5(t.id::text) || '.pdf'
+                FROM tasks t
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("objects", "SELECT * FROM objects WHERE parent_id = (SELECT min(id) FROM objects)"),
+                Arguments.of("objects", "SELECT * FROM objects WHERE created_by = (SELECT min(id) FROM users)"),
+                Arguments.of("objects", "SELECT * FROM objects WHERE responsible_user_id = (SELECT min(id) FROM users)"),
+                Arguments.of("tasks", "SELECT * FROM tasks WHERE object_id = (SELECT min(id) FROM objects)"),
+                Arguments.of("tasks", "SELECT * FROM tasks WHERE object_id = (SELECT min(id) FROM objects) AND status = 'NEW'"),
+                Arguments.of("tasks", "SELECT status, count(*) FROM tasks"
+                        + " WHERE object_id IN (SELECT id FROM objects ORDER BY id LIMIT 20) GROUP BY status"),
+                Arguments.of("tasks", "SELECT * FROM tasks WHERE created_by_id = (SELECT min(id) FROM users)"),
+                Arguments.of("tasks", "SELECT * FROM tasks WHERE responsible_user_id = (SELECT min(id) FROM users)"),
+                Arguments.of("task_attachments", "SELECT * FROM task_attachments WHERE task_id = (SELECT min(id) FROM tasks)"),
+                Arguments.of("task_attachments", "SELECT * FROM task_attachments"
+                        + " WHERE file_path = (SELECT 'tasks/' || min(id) || '/' || md5(min(id)::text) || '.pdf' FROM tasks)"));
+    }
+
+    @ParameterizedTest(name = "{1}")
+    @DisplayName("Частый запрос не читает таблицу полным просмотром")
+    @MethodSource("hotQueries")
+    void hotQueryDoesNotSeqScan(String table, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.stream().anyMatch(line -> line.contains("Seq Scan on " + table + " ")),
+                () -> "Полный просмотр " + table + ":\n" + String.join("\n", plan));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.auth_service.repository;
+
+import com.example.auth_service.dto.TaskDTO;
+import com.example.auth_service.dto.TaskUpdateDTO;
+import com.example.auth_service.hierarchy.ObjectHierarchyService;
+import com.example.auth_service.model.ObjectEntity;
+import com.example.auth_service.model.ObjectType;
+import com.example.auth_service.model.Task;
+import com.example.auth_service.model.TaskStatus;
+import com.example.auth_service.model.User;
+import com.example.auth_service.service.TaskService;
+import com.example.auth_service.service.security.CurrentUserProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Фиксирует число SQL-запросов на каждый путь чтения {@link TaskService}.
+ * Рост числа означает, что ленивая связь снова загружается по одной строке.
+ * Пропускается, если Docker недоступен.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class TaskQueryCountTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectRepository objectRepository;
+
+    private TaskService taskService;
+    private Statistics statistics;
+    private ObjectEntity building;
+    private Task firstTask;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new TaskService(taskRepository, new ModelMapper(), userRepository, objectRepository,
+                new DefaultListableBeanFactory().getBeanProvider(ObjectHierarchyService.class),
+                new CurrentUserProvider(userRepository));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User author = persistUser("author", "Анна");
+        User responsible = persistUser("responsible", "Борис");
+        building = entityManager.persist(ObjectEntity.builder()
+                .name("Корпус").objectType(ObjectType.BUILDING)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+        ObjectEntity floor = entityManager.persist(ObjectEntity.builder()
+                .name("Этаж 1").objectType(ObjectType.FLOOR).parent(building)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+        firstTask = persistTask("Проверить счётчики", building, author, responsible, TaskStatus.NEW);
+        persistTask("Покрасить стены", floor, author, null, TaskStatus.IN_PROGRESS);
+        persistTask("Заменить окна", floor, responsible, author, TaskStatus.NEW);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Список всех задач — один запрос")
+    void getAllTasks() {
+        List<TaskDTO> tasks = countStatements(1, taskService::getAllTasks);
+
+        assertEquals(3, tasks.size());
+        assertEquals("Анна", tasks.get(0).getCreatedByFirstName());
+        assertEquals("Борис", tasks.get(0).getResponsibleUserFirstName());
+    }
+
+    @Test
+    @DisplayName("Задача по идентификатору — один запрос")
+    void getTaskById() {
+        TaskDTO task = countStatements(1, () -> taskService.getTaskById(firstTask.getId()));
+
+        assertEquals(building.getId(), task.getRealEstateObjectId());
+    }
+
+    @Test
+    @DisplayName("Задачи объекта — один запрос")
+    void getTasksByObjectId() {
+        List<TaskDTO> tasks = countStatements(1, () -> taskService.getTasksByObjectId(building.getId()));
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    @DisplayName("Статистика по поддереву — запросы потомков по уровням и один агрегирующий")
+    void getTaskStatusStatsRecursive() {
+        // Корпус и этаж: по запросу детей на каждый узел, затем подсчёт
+        Map<String, Integer> stats = countStatements(3, () -> taskService.getTaskStatusStatsRecursive(building.getId()));
+
+        assertEquals(2, stats.get(TaskStatus.NEW.name()));
+        assertEquals(1, stats.get(TaskStatus.IN_PROGRESS.name()));
+    }
+
+    @Test
+    @DisplayName("Обновление задачи — чтение с пользователями и одно изменение")
+    void updateTask() {
+        TaskUpdateDTO update = new TaskUpdateDTO();
+        update.setTitle("Проверить счётчики воды");
+        update.setDescription("Снять показания");
+        update.setStatus(TaskStatus.IN_PROGRESS);
+        update.setDeadline(LocalDateTime.now().plusDays(1));
+
+        TaskDTO task = countStatements(2, () -> {
+            TaskDTO result = taskService.updateTask(firstTask.getId(), update);
+            entityManager.flush();
+            return result;
+        });
+
+        assertEquals("Проверить счётчики воды", task.getTitle());
+        assertEquals("Анна", task.getCreatedByFirstName());
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> action) {
+        statistics.clear();
+        T result = action.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Число SQL-запросов");
+        return result;
+    }
+
+    private User persistUser(String username, String firstName) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setFirstName(firstName);
+        user.setActive(true);
+        return entityManager.persist(user);
+    }
+
+    private Task persistTask(String title, ObjectEntity object, User author, User responsible, TaskStatus status) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setRealEstateObject(object);
+        task.setCreatedBy(author);
+        task.setResponsibleUser(responsible);
+        return entityManager.persist(task);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.auth_service.serialization;
+
+import com.example.auth_service.dto.UserDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactRedisSerializerTest {
+
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(getClass().getClassLoader());
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer(getClass().getClassLoader());
+
+    @Test
+    @DisplayName("Пользователь и список пользователей читаются без потерь и занимают меньше стандартной сериализации")
+    void roundTrip_userAndList() {
+        UserDto user = new UserDto(300L, "ivan", "ivan@example.com", "Иван", null, "ROLE_USER", true);
+        UserDto blocked = new UserDto(null, "petr", null, null, "Петров", null, false);
+
+        byte[] bytes = serializer.serialize(user);
+        assertEquals(CompactRedisSerializer.USER_V1, bytes[0]);
+        assertEquals(user, serializer.deserialize(bytes));
+        assertTrue(bytes.length * 3 < jdk.serialize(user).length);
+
+        List<UserDto> users = List.of(user, blocked);
+        assertEquals(users, serializer.deserialize(serializer.serialize(users)));
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+    }
+
+    @Test
+    @DisplayName("Прочие значения и записи, сохранённые стандартной сериализацией, читаются как раньше")
+    void fallback_andLegacyEntries() {
+        Map<String, Long> other = Map.of("count", 5L);
+        assertEquals(other, serializer.deserialize(serializer.serialize(other)));
+
+        UserDto legacy = new UserDto(1L, "old", "old@example.com", null, null, "ROLE_ADMIN", true);
+        assertEquals(legacy, serializer.deserialize(jdk.serialize(legacy)));
+    }
+
+    @Test
+    @DisplayName("Неизвестная версия и оборванные данные — ошибка чтения")
+    void rejectsUnknownTagAndTruncatedData() {
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{0x7F, 0}));
+
+        byte[] bytes = serializer.serialize(new UserDto(1L, "ivan", "ivan@example.com", null, null, null, true));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+
+    @Test
+    @DisplayName("Отрицательная или слишком большая длина строки — ошибка чтения, а не исключение индекса")
+    void rejectsOutOfRangeStringLength() {
+        // varint со всеми 64 установленными битами — длина -1
+        byte[] negative = {-1, -1, -1, -1, -1, -1, -1, -1, -1, 0x01};
+        assertThrows(SerializationException.class, () -> new BinaryReader(negative, 0).readString());
+
+        byte[] tooLong = {0x05, 'a', 'b'};
+        assertThrows(SerializationException.class, () -> new BinaryReader(tooLong, 0).readString());
+    }
+
+    @Test
+    @DisplayName("Запись сессии читается без потерь, совпадает только со своим токеном и своей версией")
+    void sessionRecord_roundTripAndVersion() {
+        SessionRecord record = SessionRecord.create("header.payload.signature", "2001:db8::1", 1_000, 2_000);
+        byte[] bytes = SessionRecordCodec.encode(record);
+
+        SessionRecord decoded = SessionRecordCodec.decode(bytes);
+        assertEquals(1_000, decoded.createdAt());
+        assertEquals(2_000, decoded.expiresAt());
+        assertEquals("2001:db8:0:0:0:0:0:1", decoded.addressString());
+        assertTrue(decoded.matches("header.payload.signature"));
+        assertFalse(decoded.matches("header.payload.other"));
+        assertTrue(bytes.length <= 64, "запись должна помещаться в listpack");
+
+        bytes[0] = SessionRecordCodec.VERSION + 1;
+        assertNull(SessionRecordCodec.decode(bytes));
+        assertNull(SessionRecordCodec.decode(Arrays.copyOf(SessionRecordCodec.encode(record), 10)));
+        assertNull(SessionRecord.create("t", "example.com", 0, 1).addressString());
+    }
+}
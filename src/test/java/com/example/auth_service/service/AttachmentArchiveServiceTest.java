@@ -0,0 +1,137 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.exception.ObjectNotFoundException;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.TaskAttachmentRepository;
+import com.example.auth_service.repository.projection.AttachmentArchiveEntry;
+import com.example.auth_service.storage.BlobStore;
+import com.example.auth_service.storage.ShardedBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AttachmentArchiveServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ObjectRepository objectRepository;
+
+    @Mock
+    private TaskAttachmentRepository taskAttachmentRepository;
+
+    private BlobStore blobStore;
+    private AttachmentArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new ShardedBlobStore(List.of(tempDir));
+        archiveService = new AttachmentArchiveService(blobStore, objectRepository, taskAttachmentRepository);
+    }
+
+    @Test
+    @DisplayName("Архив содержит все файлы поддерева, сжатые форматы пишутся без сжатия, потерянные файлы пропускаются")
+    void exportObjectAttachments_streamsAllEntries() throws IOException {
+        put("a.pdf", "report");
+        put("b.jpg", "photo");
+        put("c.txt", "notes");
+        when(objectRepository.existsById(1L)).thenReturn(true);
+        when(taskAttachmentRepository.findArchiveEntriesBySubtree(1L)).thenReturn(List.of(
+                entry(1L, "Дом", 10L, "Осмотр", "a.pdf"),
+                entry(1L, "Дом", 10L, "Осмотр", "b.jpg"),
+                entry(2L, "Квартира/5", 20L, "Ремонт", "c.txt"),
+                entry(2L, "Квартира/5", 20L, "Ремонт", "lost.pdf")));
+
+        ResponseEntity<StreamingResponseBody> response = archiveService.exportObjectAttachments(1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/zip", response.getHeaders().getContentType().toString());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)
+                .contains("object-1-attachments.zip"));
+
+        Map<String, String> contents = new LinkedHashMap<>();
+        Map<String, Integer> methods = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zip.getNextEntry()) != null) {
+                contents.put(zipEntry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+                methods.put(zipEntry.getName(), zipEntry.getMethod());
+            }
+        }
+
+        assertEquals(Map.of(
+                "Дом-1/Осмотр-10/a.pdf", "report",
+                "Дом-1/Осмотр-10/b.jpg", "photo",
+                "Квартира_5-2/Ремонт-20/c.txt", "notes"), contents);
+        assertEquals(ZipEntry.STORED, methods.get("Дом-1/Осмотр-10/b.jpg"));
+        assertEquals(ZipEntry.DEFLATED, methods.get("Дом-1/Осмотр-10/a.pdf"));
+    }
+
+    @Test
+    @DisplayName("Выгрузка архива несуществующего объекта — ObjectNotFoundException")
+    void exportObjectAttachments_unknownObject() {
+        when(objectRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ObjectNotFoundException.class, () -> archiveService.exportObjectAttachments(1L));
+        verifyNoInteractions(taskAttachmentRepository);
+    }
+
+    private void put(String key, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        blobStore.put(key, new ByteArrayInputStream(bytes), bytes.length, "application/octet-stream");
+    }
+
+    private AttachmentArchiveEntry entry(Long objectId, String objectName, Long taskId, String taskTitle,
+                                         String filePath) {
+        return new AttachmentArchiveEntry() {
+            @Override
+            public Long getObjectId() {
+                return objectId;
+            }
+
+            @Override
+            public String getObjectName() {
+                return objectName;
+            }
+
+            @Override
+            public Long getTaskId() {
+                return taskId;
+            }
+
+            @Override
+            public String getTaskTitle() {
+                return taskTitle;
+            }
+
+            @Override
+            public String getFilePath() {
+                return filePath;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.cache.ObjectPathCache;
+import com.example.auth_service.dto.ObjectResponseDto;
+import com.example.auth_service.exception.ObjectNotFoundException;
+import com.example.auth_service.mapper.ObjectMapper;
+import com.example.auth_service.model.ObjectEntity;
+import com.example.auth_service.model.ObjectType;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.service.security.CurrentUserProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ObjectCreateTest {
+
+    @Mock
+    private ObjectRepository objectRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectPathCache objectPathCache;
+
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
+    private ObjectService objectService;
+    private User currentUser;
+
+    @BeforeEach
+    void setUp() {
+        objectService = new ObjectService(objectRepository, new ObjectMapper(), userRepository,
+                eventPublisher, objectPathCache, currentUserProvider);
+        currentUser = new User();
+        currentUser.setId(7L);
+        currentUser.setFirstName("Иван");
+        when(currentUserProvider.getCurrentUser()).thenReturn(Optional.of(currentUser));
+    }
+
+    @Test
+    @DisplayName("Создание объекта не читает ни текущего пользователя, ни родителя, ни ответственного")
+    void createObject_usesReferencesWithoutLookups() {
+        when(objectRepository.getReferenceById(1L)).thenReturn(new ObjectEntity(1L));
+        when(objectRepository.save(any(ObjectEntity.class))).thenAnswer(invocation -> {
+            ObjectEntity entity = invocation.getArgument(0);
+            entity.setId(10L);
+            return entity;
+        });
+
+        ObjectResponseDto dto = new ObjectResponseDto();
+        dto.setName("Этаж 1");
+        dto.setObjectType(ObjectType.FLOOR);
+        dto.setParentId(1L);
+        dto.setResponsibleUserId(7L);
+
+        ObjectResponseDto created = objectService.createObject(dto);
+
+        assertEquals(10L, created.getId());
+        assertEquals(1L, created.getParentId());
+        assertEquals(7L, created.getCreatedById());
+        assertEquals("Иван", created.getResponsibleUserFirstName());
+        verify(objectRepository, times(1)).save(any(ObjectEntity.class));
+        verify(objectRepository, never()).findById(any());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Нарушение внешнего ключа означает, что родитель или ответственный не существует")
+    void createObject_mapsForeignKeyViolation() {
+        when(userRepository.getReferenceById(99L)).thenReturn(new User());
+        when(objectRepository.save(any(ObjectEntity.class))).thenThrow(
+                new DataIntegrityViolationException("fk", new SQLException("fk", "23503")));
+
+        ObjectResponseDto dto = new ObjectResponseDto();
+        dto.setName("Корпус");
+        dto.setObjectType(ObjectType.BUILDING);
+        dto.setResponsibleUserId(99L);
+
+        assertThrows(ObjectNotFoundException.class, () -> objectService.createObject(dto));
+    }
+
+    @Test
+    @DisplayName("Прочие нарушения целостности не выдаются за отсутствие родителя")
+    void createObject_rethrowsOtherIntegrityViolations() {
+        DataIntegrityViolationException notNull =
+                new DataIntegrityViolationException("not null", new SQLException("not null", "23502"));
+        when(objectRepository.save(any(ObjectEntity.class))).thenThrow(notNull);
+
+        ObjectResponseDto dto = new ObjectResponseDto();
+        dto.setName("Корпус");
+        dto.setObjectType(ObjectType.BUILDING);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class, () -> objectService.createObject(dto)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.cache.ObjectPathCache;
+import com.example.auth_service.dto.ObjectResponseDto;
+import com.example.auth_service.event.ObjectMovedEvent;
+import com.example.auth_service.exception.InvalidDataException;
+import com.example.auth_service.mapper.ObjectMapper;
+import com.example.auth_service.model.ObjectEntity;
+import com.example.auth_service.model.ObjectType;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.service.security.CurrentUserProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ObjectMoveTest {
+
+    @Mock
+    private ObjectRepository objectRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectPathCache objectPathCache;
+
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
+    private ObjectService objectService;
+    private ObjectEntity building;
+
+    @BeforeEach
+    void setUp() {
+        objectService = new ObjectService(objectRepository, new ObjectMapper(), userRepository,
+                eventPublisher, objectPathCache, currentUserProvider);
+        building = new ObjectEntity(1L);
+        building.setName("Дом");
+        building.setObjectType(ObjectType.BUILDING);
+        when(objectRepository.findById(1L)).thenReturn(Optional.of(building));
+    }
+
+    @Test
+    @DisplayName("Перемещение объекта под собственного потомка отклоняется без сохранения")
+    void updateObject_rejectsMoveIntoOwnSubtree() {
+        when(objectRepository.isInSubtree(1L, 5L)).thenReturn(true);
+
+        assertThrows(InvalidDataException.class, () -> objectService.updateObject(1L, update(5L)));
+
+        verify(objectRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Перемещение объекта под самого себя отклоняется")
+    void updateObject_rejectsMoveUnderItself() {
+        when(objectRepository.isInSubtree(1L, 1L)).thenReturn(true);
+
+        assertThrows(InvalidDataException.class, () -> objectService.updateObject(1L, update(1L)));
+
+        verify(objectRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Перемещение в другое поддерево сохраняется и публикует событие")
+    void updateObject_movesToUnrelatedParent() {
+        ObjectEntity complex = new ObjectEntity(3L);
+        when(objectRepository.isInSubtree(1L, 3L)).thenReturn(false);
+        when(objectRepository.findById(3L)).thenReturn(Optional.of(complex));
+        when(objectRepository.save(building)).thenReturn(building);
+
+        ObjectResponseDto moved = objectService.updateObject(1L, update(3L));
+
+        assertEquals(3L, moved.getParentId());
+        verify(eventPublisher).publishEvent(new ObjectMovedEvent(1L, null, 3L));
+    }
+
+    private ObjectResponseDto update(Long parentId) {
+        ObjectResponseDto dto = new ObjectResponseDto();
+        dto.setName("Дом");
+        dto.setObjectType(ObjectType.BUILDING);
+        dto.setParentId(parentId);
+        return dto;
+    }
+}
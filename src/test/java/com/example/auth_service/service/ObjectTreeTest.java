@@ -0,0 +1,115 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.cache.ObjectPathCache;
+import com.example.auth_service.dto.ObjectTreeNodeDto;
+import com.example.auth_service.exception.InvalidDataException;
+import com.example.auth_service.exception.ObjectNotFoundException;
+import com.example.auth_service.mapper.ObjectMapper;
+import com.example.auth_service.repository.ObjectRepository;
+import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.repository.projection.ObjectTreeRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ObjectTreeTest {
+
+    @Mock
+    private ObjectRepository objectRepository;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectPathCache objectPathCache;
+
+    @InjectMocks
+    private ObjectService objectService;
+
+    @Test
+    @DisplayName("Дерево собирается из строк одного запроса с вложенными детьми")
+    void getObjectTree_assemblesNestedNodes() {
+        when(objectRepository.findSubtree(1L, 2)).thenReturn(List.of(
+                new Row(1L, null, "Корпус", "BUILDING", 0),
+                new Row(2L, 1L, "Этаж 1", "FLOOR", 1),
+                new Row(3L, 1L, "Этаж 2", "FLOOR", 1),
+                new Row(4L, 2L, "Кв. 1", "APARTMENT", 2)));
+
+        ObjectTreeNodeDto tree = objectService.getObjectTree(1L, 2);
+
+        assertEquals("Корпус", tree.getName());
+        assertEquals(List.of(2L, 3L), tree.getChildren().stream().map(ObjectTreeNodeDto::getId).toList());
+        assertEquals(4L, tree.getChildren().get(0).getChildren().get(0).getId());
+        assertTrue(tree.getChildren().get(1).getChildren().isEmpty());
+        verify(objectRepository, times(1)).findSubtree(1L, 2);
+        verifyNoInteractions(objectMapper);
+    }
+
+    @Test
+    @DisplayName("Несуществующий объект и недопустимая глубина отклоняются")
+    void getObjectTree_rejectsMissingObjectAndBadDepth() {
+        when(objectRepository.findSubtree(99L, 10)).thenReturn(List.of());
+
+        assertThrows(ObjectNotFoundException.class, () -> objectService.getObjectTree(99L, 10));
+        assertThrows(InvalidDataException.class, () -> objectService.getObjectTree(1L, ObjectService.MAX_TREE_DEPTH + 1));
+    }
+
+    private record Row(Long id, Long parentId, String name, String objectType, Integer depth) implements ObjectTreeRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getObjectType() {
+            return objectType;
+        }
+
+        @Override
+        public Integer getDepth() {
+            return depth;
+        }
+
+        @Override
+        public Long getResponsibleUserId() {
+            return null;
+        }
+
+        @Override
+        public String getResponsibleUserFirstName() {
+            return null;
+        }
+
+        @Override
+        public String getResponsibleUserLastName() {
+            return null;
+        }
+    }
+}
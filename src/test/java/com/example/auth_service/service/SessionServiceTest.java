@@ -0,0 +1,185 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.config.SessionProperties;
+import com.example.auth_service.model.RefreshToken;
+import com.example.auth_service.repository.RefreshTokenRepository;
+import com.example.auth_service.repository.redis.RedisPasswordResetTokenRepository;
+import com.example.auth_service.repository.redis.RedisSessionRepository;
+import com.example.auth_service.serialization.SessionRecord;
+import com.example.auth_service.serialization.SessionRecordCodec;
+import com.example.auth_service.service.redis.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionServiceTest {
+
+    private static final String USER = "ivan";
+
+    @Mock
+    private RedisTemplate<String, byte[]> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private RedisTemplate<String, String> stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisPasswordResetTokenRepository passwordResetTokenRepository;
+
+    private RedisService redisService;
+    private SessionService sessionService;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        SessionProperties properties = new SessionProperties();
+        properties.setMaxDevices(2);
+        redisService = new RedisService(stringRedisTemplate, passwordResetTokenRepository, refreshTokenRepository);
+        sessionService = new SessionService(new RedisSessionRepository(redisTemplate), redisService, properties);
+        now = Instant.now().getEpochSecond();
+    }
+
+    @Test
+    @DisplayName("Вход сверх предела закрывает самую давнюю по активности и истёкшие сессии")
+    void saveSession_evictsLeastRecentlyUsedAndExpired() {
+        Map<Object, Object> existing = new LinkedHashMap<>();
+        existing.put("recent", record("a", now - 10, now + 1_000));
+        existing.put("old", record("b", now - 1_000, now + 1_000));
+        existing.put("expired", record("c", now - 10, now - 1));
+        when(hashOperations.entries("sessions:" + USER)).thenReturn(existing);
+
+        sessionService.saveSession(USER, "new", "token", "10.0.0.1");
+
+        verify(hashOperations).delete("sessions:" + USER, "expired", "old");
+        verify(hashOperations).put(eq("sessions:" + USER), eq("new"), any(byte[].class));
+        verify(refreshTokenRepository).deleteByUsernameAndSessionId(USER, "old");
+        verify(refreshTokenRepository, never()).deleteByUsernameAndSessionId(USER, "recent");
+    }
+
+    @Test
+    @DisplayName("Проверка — одно чтение; продление только после интервала и только для того же токена")
+    void validateSession_touchesOnlyAfterInterval() {
+        when(hashOperations.get("sessions:" + USER, "fresh")).thenReturn(record("token", now - 10, now + 1_000));
+        when(hashOperations.get("sessions:" + USER, "stale")).thenReturn(record("token", now - 600, now + 1_000));
+
+        assertTrue(sessionService.validateSession(USER, "fresh", "token"));
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+        assertTrue(sessionService.validateSession(USER, "stale", "token"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("sessions:" + USER)), any(Object[].class));
+
+        assertFalse(sessionService.validateSession(USER, "fresh", "other-token"));
+        assertFalse(sessionService.validateSession(USER, null, "token"));
+    }
+
+    @Test
+    @DisplayName("Простоявшая сессия не принимает запросы, но обновляется по refresh-токену; отозванная — нет")
+    void idleSessionRefreshes_revokedDoesNot() {
+        when(hashOperations.get("sessions:" + USER, "idle")).thenReturn(record("token", now - 3 * 3_600, now + 1_000));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+
+        assertFalse(sessionService.validateSession(USER, "idle", "token"));
+        assertTrue(sessionService.rotateSession(USER, "idle", "new-token"));
+        assertFalse(sessionService.rotateSession(USER, "revoked", "new-token"));
+    }
+
+    @Test
+    @DisplayName("Отзыв сессии удаляет её refresh-токены из Redis и базы данных, остальные сессии не затрагивает")
+    void revokeSession_deletesRefreshKeys() {
+        storeRefreshTokens(refreshToken("r1", "a"), refreshToken("r2", "b"));
+        assertTrue(redisService.isRefreshTokenValid(USER, "r1"));
+
+        sessionService.revokeSession(USER, "a");
+
+        assertFalse(redisService.isRefreshTokenValid(USER, "r1"));
+        assertTrue(redisService.isRefreshTokenValid(USER, "r2"));
+    }
+
+    @Test
+    @DisplayName("Отзыв всех сессий удаляет все refresh-токены пользователя из Redis и базы данных")
+    void revokeAllSessions_deletesRefreshKeys() {
+        storeRefreshTokens(refreshToken("r1", "a"), refreshToken("r2", "b"));
+
+        sessionService.revokeAllSessions(USER);
+
+        assertFalse(redisService.isRefreshTokenValid(USER, "r1"));
+        assertFalse(redisService.isRefreshTokenValid(USER, "r2"));
+    }
+
+    /**
+     * Подменяет Redis и таблицу refresh_tokens картой и списком в памяти.
+     */
+    private void storeRefreshTokens(RefreshToken... tokens) {
+        Map<String, String> keys = new HashMap<>();
+        List<RefreshToken> rows = new ArrayList<>(List.of(tokens));
+        for (RefreshToken token : tokens) {
+            keys.put("refresh:" + token.getUsername() + ":" + token.getToken(), token.getSessionId());
+        }
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString())).thenAnswer(invocation -> keys.get(invocation.<String>getArgument(0)));
+        lenient().when(stringRedisTemplate.delete(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> deleted = invocation.getArgument(0);
+            return deleted.stream().filter(key -> keys.remove(key) != null).count();
+        });
+        lenient().when(refreshTokenRepository.findByToken(anyString())).thenAnswer(invocation -> rows.stream()
+                .filter(row -> row.getToken().equals(invocation.getArgument(0)))
+                .findFirst());
+        lenient().when(refreshTokenRepository.findByUsernameAndSessionId(anyString(), anyString()))
+                .thenAnswer(invocation -> rows.stream()
+                        .filter(row -> row.getUsername().equals(invocation.getArgument(0))
+                                && row.getSessionId().equals(invocation.getArgument(1)))
+                        .toList());
+        lenient().when(refreshTokenRepository.findByUsername(anyString())).thenAnswer(invocation -> rows.stream()
+                .filter(row -> row.getUsername().equals(invocation.getArgument(0)))
+                .toList());
+        lenient().doAnswer(invocation -> rows.removeIf(row -> row.getUsername().equals(invocation.getArgument(0))
+                        && row.getSessionId().equals(invocation.getArgument(1))))
+                .when(refreshTokenRepository).deleteByUsernameAndSessionId(anyString(), anyString());
+        lenient().doAnswer(invocation -> rows.removeIf(row -> row.getUsername().equals(invocation.getArgument(0))))
+                .when(refreshTokenRepository).deleteByUsername(anyString());
+    }
+
+    private static RefreshToken refreshToken(String token, String sessionId) {
+        return RefreshToken.builder()
+                .username(USER)
+                .token(token)
+                .sessionId(sessionId)
+                .expiresAt(LocalDateTime.now().plusDays(7))
+                .build();
+    }
+
+    private static byte[] record(String token, long lastSeenAt, long expiresAt) {
+        SessionRecord created = SessionRecord.create(token, null, lastSeenAt - 100, expiresAt);
+        return SessionRecordCodec.encode(created.touchedAt(lastSeenAt));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.event.ThumbnailJobsCreatedEvent;
+import com.example.auth_service.exception.FileNotFoundException;
+import com.example.auth_service.model.ThumbnailJob;
+import com.example.auth_service.model.ThumbnailSize;
+import com.example.auth_service.repository.ThumbnailJobRepository;
+import com.example.auth_service.storage.BlobStore;
+import com.example.auth_service.storage.ShardedBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ThumbnailServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ThumbnailJobRepository thumbnailJobRepository;
+
+    private BlobStore blobStore;
+    private ThumbnailService thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new ShardedBlobStore(List.of(tempDir));
+        thumbnailService = new ThumbnailService(blobStore, thumbnailJobRepository, 1, 10, MAX_ATTEMPTS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Превью строятся только для JPEG и PNG")
+    void isSupported_onlyJpegAndPng() {
+        assertTrue(thumbnailService.isSupported(MediaType.IMAGE_JPEG_VALUE));
+        assertTrue(thumbnailService.isSupported(MediaType.IMAGE_PNG_VALUE));
+        assertFalse(thumbnailService.isSupported(MediaType.IMAGE_GIF_VALUE));
+        assertFalse(thumbnailService.isSupported(MediaType.APPLICATION_PDF_VALUE));
+        assertFalse(thumbnailService.isSupported(null));
+    }
+
+    @Test
+    @DisplayName("Большая сторона превью не превышает размер, маленькие изображения не увеличиваются")
+    void process_capsThumbnailSize() throws IOException {
+        putImage("large.png", 2000, 1000, "png");
+        putImage("small.jpg", 50, 40, "jpeg");
+        ThumbnailJob large = claimableJob(1L, "large.png", 1);
+        ThumbnailJob small = claimableJob(2L, "small.jpg", 1);
+
+        thumbnailService.onJobsCreated(new ThumbnailJobsCreatedEvent(List.of(1L, 2L)));
+
+        verify(thumbnailJobRepository, timeout(5000)).save(large);
+        verify(thumbnailJobRepository, timeout(5000)).save(small);
+        assertEquals(ThumbnailJob.Status.DONE, large.getStatus());
+        assertEquals(ThumbnailJob.Status.DONE, small.getStatus());
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            BufferedImage largeThumbnail = readThumbnail("large.png", size);
+            assertEquals(size.getMaxDimension(), largeThumbnail.getWidth());
+            assertEquals(size.getMaxDimension() / 2, largeThumbnail.getHeight());
+
+            BufferedImage smallThumbnail = readThumbnail("small.jpg", size);
+            assertEquals(50, smallThumbnail.getWidth());
+            assertEquals(40, smallThumbnail.getHeight());
+        }
+    }
+
+    @Test
+    @DisplayName("Готовое превью отдаётся с долгосрочным кэшированием, отсутствующее — 404")
+    void loadThumbnail_servesStoredThumbnailWithCacheHeaders() throws IOException {
+        byte[] content = "thumbnail".getBytes(StandardCharsets.UTF_8);
+        blobStore.put("thumbnails/small/a.png", new ByteArrayInputStream(content), content.length,
+                MediaType.IMAGE_PNG_VALUE);
+
+        ResponseEntity<Resource> response = thumbnailService.loadThumbnail("a.png", ThumbnailSize.SMALL);
+
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertEquals("max-age=31536000, private", response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+        try (InputStream in = response.getBody().getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertThrows(FileNotFoundException.class,
+                () -> thumbnailService.loadThumbnail("a.png", ThumbnailSize.MEDIUM));
+        verifyNoInteractions(thumbnailJobRepository);
+    }
+
+    @Test
+    @DisplayName("Задание, уже захваченное другим воркером, повторно не обрабатывается")
+    void process_skipsJobClaimedElsewhere() {
+        when(thumbnailJobRepository.claim(eq(1L), any(), eq(ThumbnailJob.Status.PENDING),
+                eq(ThumbnailJob.Status.PROCESSING))).thenReturn(0);
+
+        thumbnailService.onJobsCreated(new ThumbnailJobsCreatedEvent(List.of(1L)));
+
+        verify(thumbnailJobRepository, timeout(5000)).claim(eq(1L), any(), any(), any());
+        verify(thumbnailJobRepository, after(200).never()).findById(anyLong());
+        verify(thumbnailJobRepository, never()).save(any());
+        assertFalse(blobStore.exists("thumbnails/small/a.png"));
+    }
+
+    @Test
+    @DisplayName("Повреждённое изображение возвращает задание в очередь, а после последней попытки — в FAILED")
+    void process_failureReturnsJobToQueueUntilAttemptsExhausted() {
+        byte[] broken = "not an image".getBytes(StandardCharsets.UTF_8);
+        blobStore.put("broken.jpg", new ByteArrayInputStream(broken), broken.length, MediaType.IMAGE_JPEG_VALUE);
+        ThumbnailJob retry = claimableJob(1L, "broken.jpg", 1);
+        ThumbnailJob last = claimableJob(2L, "broken.jpg", MAX_ATTEMPTS);
+
+        thumbnailService.onJobsCreated(new ThumbnailJobsCreatedEvent(List.of(1L, 2L)));
+
+        verify(thumbnailJobRepository, timeout(5000)).save(retry);
+        verify(thumbnailJobRepository, timeout(5000)).save(last);
+        assertEquals(ThumbnailJob.Status.PENDING, retry.getStatus());
+        assertNotNull(retry.getLastError());
+        assertEquals(ThumbnailJob.Status.FAILED, last.getStatus());
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            assertFalse(blobStore.exists("thumbnails/" + size.directoryName() + "/broken.jpg"));
+        }
+    }
+
+    private ThumbnailJob claimableJob(Long id, String filePath, int attempts) {
+        ThumbnailJob job = ThumbnailJob.builder()
+                .id(id)
+                .filePath(filePath)
+                .status(ThumbnailJob.Status.PROCESSING)
+                .attempts(attempts)
+                .build();
+        when(thumbnailJobRepository.claim(eq(id), any(), eq(ThumbnailJob.Status.PENDING),
+                eq(ThumbnailJob.Status.PROCESSING))).thenReturn(1);
+        when(thumbnailJobRepository.findById(id)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private void putImage(String key, int width, int height, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        blobStore.put(key, new ByteArrayInputStream(out.toByteArray()), out.size(),
+                "png".equals(format) ? MediaType.IMAGE_PNG_VALUE : MediaType.IMAGE_JPEG_VALUE);
+    }
+
+    private BufferedImage readThumbnail(String fileName, ThumbnailSize size) throws IOException {
+        try (InputStream in = blobStore.load("thumbnails/" + size.directoryName() + "/" + fileName).getInputStream()) {
+            return ImageIO.read(in);
+        }
+    }
+}
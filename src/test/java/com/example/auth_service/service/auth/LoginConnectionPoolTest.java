@@ -0,0 +1,149 @@
+package com.example.auth_service.service.auth;
+
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Проверяет, что вход, ожидающий в очереди хеширования паролей, не удерживает соединение с базой.
+ * Пул меньше числа одновременных входов: если бы каждый вход держал соединение до конца запроса
+ * (open-in-view), часть входов не дошла бы до хеширования. Пропускается, если Docker недоступен.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + LoginConnectionPoolTest.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + LoginConnectionPoolTest.POOL_SIZE
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+public class LoginConnectionPoolTest {
+
+    static final int POOL_SIZE = 2;
+    private static final int LOGINS = POOL_SIZE * 2;
+    private static final String PASSWORD = "secret-password";
+    private static final String REDIS_PASSWORD = "pool-test";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+            .withCommand("redis-server", "--requirepass", REDIS_PASSWORD)
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.redis.data.host", REDIS::getHost);
+        registry.add("spring.redis.data.port", () -> REDIS.getMappedPort(6379));
+        registry.add("spring.redis.data.password", () -> REDIS_PASSWORD);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+        registry.add("spring.data.redis.password", () -> REDIS_PASSWORD);
+        registry.add("file.upload-dir", Files.createTempDirectory("login-pool-test").toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.findByUsername("pool-user").isEmpty()) {
+            User user = new User();
+            user.setUsername("pool-user");
+            user.setEmail("pool-user@example.com");
+            user.setPassword(passwordEncoder.encode(PASSWORD));
+            user.setRoleMask(Role.RoleType.ROLE_USER.bit());
+            user.setActive(true);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    @DisplayName("Входы в очереди хеширования не занимают соединения пула")
+    void queuedLogins_doNotHoldPoolConnections() throws Exception {
+        CountDownLatch queued = new CountDownLatch(LOGINS);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            queued.countDown();
+            release.await();
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).matches(any(), any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(LOGINS);
+        try {
+            List<Future<MvcResult>> logins = new ArrayList<>();
+            for (int i = 0; i < LOGINS; i++) {
+                // Ограничение частоты входа считается по адресу клиента
+                String clientAddress = "10.0.0." + (i + 1);
+                logins.add(executor.submit(() -> mockMvc.perform(post("/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"username\":\"pool-user\",\"password\":\"" + PASSWORD + "\"}")
+                                .with(request -> {
+                                    request.setRemoteAddr(clientAddress);
+                                    return request;
+                                }))
+                        .andReturn()));
+            }
+
+            try {
+                assertTrue(queued.await(10, TimeUnit.SECONDS),
+                        "Все входы должны дойти до хеширования, хотя пул меньше их числа");
+                int active = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections();
+                assertTrue(active < POOL_SIZE, "Во время ожидания хеширования занято соединений: " + active);
+            } finally {
+                release.countDown();
+            }
+
+            for (Future<MvcResult> login : logins) {
+                assertEquals(200, login.get(10, TimeUnit.SECONDS).getResponse().getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.auth_service.service.auth;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.auth_service.dto.AuthResponse;
+import com.example.auth_service.model.Role;
+import com.example.auth_service.model.User;
+import com.example.auth_service.repository.RoleRepository;
+import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.service.AuthService;
+import com.example.auth_service.service.SessionService;
+import com.example.auth_service.service.email.EmailService;
+import com.example.auth_service.service.redis.RedisService;
+import com.example.auth_service.service.security.jwt.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PasswordResetTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JwtUtil jwtUtil;
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private SessionService sessionService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private DecodedJWT resetToken;
+
+    private AuthService authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(userRepository, roleRepository, passwordEncoder, jwtUtil,
+                authenticationManager, redisService, emailService, sessionService, eventPublisher,
+                transactionTemplate);
+        user = new User();
+        user.setId(7L);
+        user.setUsername("ivan");
+        user.setEmail("ivan@example.com");
+        user.setRoleMask(Role.RoleType.ROLE_USER.bit());
+
+        when(jwtUtil.decodePasswordResetToken("reset-token")).thenReturn(resetToken);
+        when(resetToken.getSubject()).thenReturn("ivan");
+        when(userRepository.findByUsername("ivan")).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode("new-password")).thenReturn("new-hash");
+        when(sessionService.newSessionId()).thenReturn("new-device");
+        when(jwtUtil.generateToken(eq(user), any(), eq("new-device"))).thenReturn("new-token");
+    }
+
+    @Test
+    @DisplayName("Сброс пароля закрывает сессии всех устройств после сохранения пароля")
+    void resetPassword_revokesAllSessions() {
+        authService.resetPassword("reset-token", "new-password");
+
+        InOrder order = inOrder(userRepository, sessionService);
+        order.verify(userRepository).save(user);
+        order.verify(sessionService).revokeAllSessions("ivan");
+        order.verify(sessionService).saveSession("ivan", "new-device", "new-token", null);
+        assertEquals("new-hash", user.getPassword());
+    }
+
+    @Test
+    @DisplayName("Возвращаемый токен привязан к новой сессии устройства")
+    void resetPassword_returnsTokenBoundToNewSession() {
+        AuthResponse response = authService.resetPassword("reset-token", "new-password");
+
+        assertEquals("new-token", response.getJwtToken());
+        verify(jwtUtil).generateToken(eq(user), any(), eq("new-device"));
+        verify(sessionService).saveSession(eq("ivan"), eq("new-device"), eq("new-token"), isNull());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.auth_service.service.auth;
+
+import com.example.auth_service.dto.UserSignupDto;
+import com.example.auth_service.exception.EmailAlreadyExistsException;
+import com.example.auth_service.exception.UserAlreadyExistsException;
+import com.example.auth_service.repository.RoleRepository;
+import com.example.auth_service.repository.UserRepository;
+import com.example.auth_service.service.AuthService;
+import com.example.auth_service.service.SessionService;
+import com.example.auth_service.service.email.EmailService;
+import com.example.auth_service.service.redis.RedisService;
+import com.example.auth_service.service.security.jwt.JwtUtil;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RegisterTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JwtUtil jwtUtil;
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private RedisService redisService;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private SessionService sessionService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AuthService authService;
+    private UserSignupDto signup;
+
+    @BeforeEach
+    void setUp() {
+        authService = new AuthService(userRepository, roleRepository, passwordEncoder, jwtUtil,
+                authenticationManager, redisService, emailService, sessionService, eventPublisher,
+                transactionTemplate);
+        signup = new UserSignupDto();
+        signup.setUsername("ivan");
+        signup.setEmail("ivan@example.com");
+        signup.setPassword("password");
+    }
+
+    @Test
+    @DisplayName("Занятое имя отклоняется до хеширования пароля и открытия транзакции")
+    void register_duplicateUsernameSkipsHashing() {
+        when(userRepository.existsByUsername("ivan")).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> authService.register(signup, false));
+        verifyNoInteractions(passwordEncoder, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Занятый email отклоняется до хеширования пароля и открытия транзакции")
+    void register_duplicateEmailSkipsHashing() {
+        when(userRepository.existsByEmail("ivan@example.com")).thenReturn(true);
+
+        assertThrows(EmailAlreadyExistsException.class, () -> authService.register(signup, false));
+        verifyNoInteractions(passwordEncoder, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Нарушение уникального индекса при одновременной регистрации — EmailAlreadyExistsException")
+    void register_uniqueViolationOnInsert() {
+        when(passwordEncoder.encode("password")).thenReturn("hash");
+        doThrow(new DataIntegrityViolationException("duplicate", new ConstraintViolationException("duplicate",
+                new SQLException("duplicate key value", "23505"), "users_email_key")))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(EmailAlreadyExistsException.class, () -> authService.register(signup, false));
+    }
+}
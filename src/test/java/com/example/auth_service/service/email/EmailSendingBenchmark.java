@@ -0,0 +1,131 @@
+package com.example.auth_service.service.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнение прежнего способа отправки (String.format, новое SMTP-соединение на каждое письмо)
+ * с шаблонизатором и пакетной отправкой через одно соединение. SMTP-сервер — локальный GreenMail.
+ * <p>
+ * Не входит в обычный прогон тестов: {@code ./gradlew benchmark}.
+ * </p>
+ */
+@Tag("benchmark")
+public class EmailSendingBenchmark {
+
+    private static final int MESSAGES = 300;
+    private static final int RENDER_ITERATIONS = 200_000;
+    private static final String LEGACY_RESET_TEMPLATE = """
+            <html>
+                <body>
+                    <h2>Сброс пароля</h2>
+                    <p>Вы запросили сброс пароля для вашего аккаунта в RealEstate PRO.</p>
+                    <p>Для сброса пароля перейдите по следующей ссылке:</p>
+                    <p><a href="%s">Сбросить пароль</a></p>
+                    <p>Ссылка действительна в течение 1 часа.</p>
+                    <p>Если вы не запрашивали сброс пароля, проигнорируйте это письмо.</p>
+                </body>
+            </html>
+            """;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl mailSender;
+    private EmailTemplateEngine templateEngine;
+    private SmtpMailer smtpMailer;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setProtocol("smtp");
+        templateEngine = new EmailTemplateEngine();
+        smtpMailer = new SmtpMailer(new SmtpTransportPool(mailSender, 4, Duration.ofSeconds(60)), "noreply@example.com",
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void perMessageConnectionVersusBatch() throws Exception {
+        // Прогрев JIT и JavaMail
+        sendPerMessage(20);
+        smtpMailer.sendBatch(renderAll(20));
+
+        long legacyStart = System.nanoTime();
+        sendPerMessage(MESSAGES);
+        long legacyNanos = System.nanoTime() - legacyStart;
+
+        List<OutgoingEmail> emails = renderAll(MESSAGES);
+        long batchStart = System.nanoTime();
+        List<SmtpMailer.SendResult> results = smtpMailer.sendBatch(emails);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        assertTrue(results.stream().allMatch(SmtpMailer.SendResult::sent));
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 2 * MESSAGES + 40));
+        System.out.printf("Отправка %d писем: по соединению на письмо %d мс, пачкой %d мс (x%.1f)%n",
+                MESSAGES, legacyNanos / 1_000_000, batchNanos / 1_000_000, (double) legacyNanos / batchNanos);
+    }
+
+    @Test
+    void templateRenderingVersusStringFormat() {
+        Map<String, String> variables = Map.of("resetLink", "http://localhost:3000/reset-password?token=abc.def.ghi");
+        long sink = 0;
+        for (int i = 0; i < RENDER_ITERATIONS / 10; i++) {
+            sink += String.format(LEGACY_RESET_TEMPLATE, variables.get("resetLink")).length();
+            sink += templateEngine.render(EmailTemplate.PASSWORD_RESET, "a@b.c", variables).body().length();
+        }
+
+        long formatStart = System.nanoTime();
+        for (int i = 0; i < RENDER_ITERATIONS; i++) {
+            sink += String.format(LEGACY_RESET_TEMPLATE, variables.get("resetLink")).length();
+        }
+        long formatNanos = System.nanoTime() - formatStart;
+
+        long templateStart = System.nanoTime();
+        for (int i = 0; i < RENDER_ITERATIONS; i++) {
+            sink += templateEngine.render(EmailTemplate.PASSWORD_RESET, "a@b.c", variables).body().length();
+        }
+        long templateNanos = System.nanoTime() - templateStart;
+
+        assertTrue(sink > 0);
+        System.out.printf("Формирование письма: String.format %d нс/оп, шаблонизатор %d нс/оп%n",
+                formatNanos / RENDER_ITERATIONS, templateNanos / RENDER_ITERATIONS);
+    }
+
+    private void sendPerMessage(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("noreply@example.com");
+            helper.setTo("user" + i + "@example.com");
+            helper.setSubject("Сброс пароля - RealEstate PRO");
+            helper.setText(String.format(LEGACY_RESET_TEMPLATE, "http://localhost:3000/reset-password?token=" + i), true);
+            mailSender.send(message);
+        }
+    }
+
+    private List<OutgoingEmail> renderAll(int count) {
+        List<OutgoingEmail> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add(templateEngine.render(EmailTemplate.PASSWORD_RESET, "user" + i + "@example.com",
+                    Map.of("resetLink", "http://localhost:3000/reset-password?token=" + i)));
+        }
+        return emails;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.auth_service.service.email;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailTemplateEngineTest {
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine();
+
+    @Test
+    @DisplayName("Все шаблоны загружаются при старте, переменные подставляются в тему и текст")
+    void rendersSubjectAndBody() {
+        OutgoingEmail email = engine.render(EmailTemplate.DEADLINE_REMINDER, "user@example.com", Map.of(
+                "username", "Иван",
+                "taskTitle", "Проверка счётчиков",
+                "deadline", "01.02.2025 10:00",
+                "taskLink", "http://localhost:3000/tasks/1"));
+
+        assertEquals("user@example.com", email.to());
+        assertEquals("Напоминание о сроке задачи «Проверка счётчиков»", email.subject());
+        assertTrue(email.html());
+        assertTrue(email.body().contains("Здравствуйте, Иван!"));
+        assertTrue(email.body().contains("href=\"http://localhost:3000/tasks/1\""));
+    }
+
+    @Test
+    @DisplayName("Значения переменных экранируются в HTML-шаблонах и не экранируются в текстовых")
+    void escapesOnlyHtmlTemplates() {
+        OutgoingEmail html = engine.render(EmailTemplate.PASSWORD_RESET, "a@b.c",
+                Map.of("resetLink", "http://x/reset?token=\"1\"&a=<b>"));
+        OutgoingEmail text = engine.render(EmailTemplate.CONFIRMATION_CODE, "a@b.c", Map.of("code", "<123>"));
+
+        assertTrue(html.body().contains("http://x/reset?token=&quot;1&quot;&amp;a=&lt;b&gt;"));
+        assertEquals("Ваш код подтверждения: <123>", text.body());
+    }
+
+    @Test
+    @DisplayName("Отсутствующая переменная и ошибки синтаксиса шаблона приводят к исключению")
+    void rejectsMissingVariablesAndBrokenTemplates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.render(EmailTemplate.CONFIRMATION_CODE, "a@b.c", Map.of()));
+        assertThrows(IllegalStateException.class, () -> EmailTemplateEngine.compile("Привет, {{name", false));
+        assertThrows(IllegalStateException.class, () -> EmailTemplateEngine.compile("Привет, {{ }}", false));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.auth_service.service.security;
+
+import com.example.auth_service.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    /** Отдельный поток на вызов: как поток запроса, ожидающий результат. */
+    private static final Executor NEW_THREAD = runnable -> new Thread(runnable).start();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Результат и исключения кодировщика возвращаются в поток запроса")
+    void encodeAndMatches_delegateOnPool() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(false), 1, 1, new SimpleMeterRegistry());
+
+        assertEquals("hash:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hash:secret"));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(""));
+    }
+
+    @Test
+    @DisplayName("При заполненной очереди операция сразу отклоняется, а пересчёт хеша откладывается")
+    void encode_rejectsWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(true), 1, 1, new SimpleMeterRegistry());
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"), NEW_THREAD);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"), NEW_THREAD);
+        awaitQueued();
+
+        assertThrows(PasswordHashingOverloadedException.class, () -> encoder.encode("third"));
+
+        release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+        assertTrue(encoder.upgradeEncoding("hash:old"), "Без очереди устаревший хеш пересчитывается");
+    }
+
+    /**
+     * Ждёт, пока вторая операция встанет в очередь: пока очередь не пуста, пересчёт хеша откладывается.
+     */
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.upgradeEncoding("hash:old")) {
+            if (System.nanoTime() > deadline) {
+                fail("Операция не попала в очередь");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Кодировщик-заглушка: «хеш» — пароль с префиксом, старыми считаются хеши {@code hash:old}.
+     */
+    private class BlockingEncoder implements PasswordEncoder {
+
+        private final boolean block;
+
+        BlockingEncoder(boolean block) {
+            this.block = block;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (rawPassword.isEmpty()) {
+                throw new IllegalArgumentException("Пустой пароль");
+            }
+            if (block) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return "hash:old".equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.auth_service.service.security.jwt;
+
+import com.example.auth_service.config.JwtBlacklistProperties;
+import com.example.auth_service.repository.redis.JwtBlacklistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtBlacklistServiceTest {
+
+    @Mock
+    private JwtBlacklistRepository repository;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private JwtBlacklistService blacklist;
+    private long expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        blacklist = new JwtBlacklistService(repository, redisTemplate, new JwtBlacklistProperties(),
+                new SimpleMeterRegistry());
+        expiresAt = System.currentTimeMillis() + 60_000;
+    }
+
+    @Test
+    @DisplayName("До первой выгрузки каждая проверка идёт в Redis")
+    void isRevoked_beforeSyncAsksRedis() {
+        when(repository.contains("jti-1")).thenReturn(true);
+
+        assertTrue(blacklist.isRevoked("jti-1"));
+    }
+
+    @Test
+    @DisplayName("После выгрузки неотозванный токен проверяется без Redis, отозванный — через Redis")
+    void isRevoked_afterSyncSkipsRedisForUnknownTokens() {
+        when(repository.findActive()).thenReturn(Map.of("revoked", expiresAt));
+        when(repository.contains("revoked")).thenReturn(true);
+        blacklist.sync();
+
+        for (int i = 0; i < 1_000; i++) {
+            blacklist.isRevoked("token-" + i);
+        }
+        assertTrue(blacklist.isRevoked("revoked"));
+
+        // Ложные срабатывания фильтра допустимы, но их доля мала
+        verify(repository, atMost(10)).contains(startsWith("token-"));
+        verify(repository).contains("revoked");
+    }
+
+    @Test
+    @DisplayName("Отзыв с другого узла виден сразу, без обращения к Redis")
+    void onMessage_revocationVisibleWithoutRedis() {
+        when(repository.findActive()).thenReturn(Map.of());
+        blacklist.sync();
+
+        blacklist.onMessage(new DefaultMessage("jwt:revocations".getBytes(StandardCharsets.UTF_8),
+                ("remote|" + expiresAt).getBytes(StandardCharsets.UTF_8)), null);
+
+        assertTrue(blacklist.isRevoked("remote"));
+        verify(repository, never()).contains(anyString());
+    }
+
+    @Test
+    @DisplayName("Отзыв пишется в Redis и рассылается остальным узлам")
+    void revoke_writesAndPublishes() {
+        Date expiration = new Date(expiresAt);
+
+        blacklist.revoke("local", expiration);
+
+        verify(repository).add("local", expiration);
+        verify(redisTemplate).convertAndSend("jwt:revocations", "local|" + expiresAt);
+        assertTrue(blacklist.isRevoked("local"));
+    }
+}
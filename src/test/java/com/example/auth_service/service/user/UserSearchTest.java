@@ -0,0 +1,61 @@
+package com.example.auth_service.service.user;
+
+import com.example.auth_service.exception.InvalidDataException;
+import com.example.auth_service.mapper.UserMapper;
+import com.example.auth_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserSearchTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserInfoService userInfoService;
+
+    @BeforeEach
+    void setUp() {
+        userInfoService = new UserInfoService(userRepository, new UserMapper());
+    }
+
+    @Test
+    @DisplayName("Префикс приводится к нижнему регистру, спецсимволы LIKE экранируются")
+    void searchUsers_escapesLikePattern() {
+        when(userRepository.searchSummaries(any(), any())).thenReturn(Page.empty());
+
+        userInfoService.searchUsers("  Ив_%  ", 2, 50);
+
+        verify(userRepository).searchSummaries(eq("ив\\_\\%%"), eq(PageRequest.of(2, 50)));
+    }
+
+    @Test
+    @DisplayName("Пустой запрос возвращает всех пользователей без фильтра")
+    void searchUsers_blankQueryListsAll() {
+        when(userRepository.findSummaries(any())).thenReturn(Page.empty());
+
+        userInfoService.searchUsers(" ", 0, 20);
+
+        verify(userRepository).findSummaries(PageRequest.of(0, 20));
+        verify(userRepository, never()).searchSummaries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Размер страницы ограничен")
+    void searchUsers_rejectsOversizedPage() {
+        assertThrows(InvalidDataException.class,
+                () -> userInfoService.searchUsers(null, 0, UserInfoService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(userRepository);
+    }
+}
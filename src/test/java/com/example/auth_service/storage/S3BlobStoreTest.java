@@ -0,0 +1,119 @@
+package com.example.auth_service.storage;
+
+import com.example.auth_service.exception.FileNotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка S3-хранилища на локальном MinIO. Пропускается, если Docker недоступен.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class S3BlobStoreTest {
+
+    @Container
+    static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z");
+
+    private static S3BlobStore store;
+
+    @BeforeAll
+    static void setUp() {
+        StaticCredentialsProvider credentials = StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword()));
+        S3Configuration pathStyle = S3Configuration.builder().pathStyleAccessEnabled(true).build();
+        URI endpoint = URI.create(MINIO.getS3URL());
+
+        S3Client client = S3Client.builder()
+                .endpointOverride(endpoint)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(pathStyle)
+                .build();
+        S3Presigner presigner = S3Presigner.builder()
+                .endpointOverride(endpoint)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(pathStyle)
+                .build();
+        store = new S3BlobStore(client, presigner, "attachments");
+        store.createBucketIfMissing();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Объект сохраняется и читается потоково, размер берётся из метаданных")
+    void putAndLoadStreaming() throws Exception {
+        byte[] content = randomBytes(3 * 1024 * 1024);
+        store.put("big.pdf", new ByteArrayInputStream(content), content.length, "application/pdf");
+
+        assertTrue(store.exists("big.pdf"));
+        assertEquals(content.length, store.size("big.pdf"));
+        Resource resource = store.load("big.pdf");
+        assertEquals(content.length, resource.contentLength());
+        assertEquals("big.pdf", resource.getFilename());
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Удалённый объект не находится, повторное удаление не является ошибкой")
+    void deleteIsIdempotent() {
+        byte[] content = randomBytes(16);
+        store.put("thumbnails/small/x.jpg", new ByteArrayInputStream(content), content.length, "image/jpeg");
+
+        store.delete("thumbnails/small/x.jpg");
+        store.delete("thumbnails/small/x.jpg");
+
+        assertFalse(store.exists("thumbnails/small/x.jpg"));
+        assertThrows(FileNotFoundException.class, () -> store.load("thumbnails/small/x.jpg"));
+    }
+
+    @Test
+    @DisplayName("Подписанная ссылка позволяет скачать объект без учётных данных")
+    void presignedDownload() throws Exception {
+        byte[] content = randomBytes(4096);
+        store.put("report.xlsx", new ByteArrayInputStream(content), content.length,
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        URI url = store.presignDownload("report.xlsx", "report.xlsx", Duration.ofMinutes(1)).orElseThrow();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(url).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(content, response.body());
+        assertTrue(response.headers().firstValue("Content-Disposition").orElse("").contains("report.xlsx"));
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.auth_service.storage;
+
+import com.example.auth_service.exception.FileNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedBlobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Path> roots;
+    private ShardedBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        roots = IntStream.range(0, 3).mapToObj(i -> tempDir.resolve("disk" + i)).toList();
+        store = new ShardedBlobStore(roots);
+    }
+
+    @Test
+    @DisplayName("Сохранённый объект читается, удаляется и физически лежит ровно в одном шарде")
+    void putLoadDeleteRoundTrip() throws IOException {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        put("thumbnails/small/a.jpg", content);
+
+        assertTrue(store.exists("thumbnails/small/a.jpg"));
+        assertEquals(content.length, store.size("thumbnails/small/a.jpg"));
+        Resource resource = store.load("thumbnails/small/a.jpg");
+        try (InputStream in = resource.getInputStream()) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        long copies = roots.stream().filter(root -> Files.exists(root.resolve("thumbnails/small/a.jpg"))).count();
+        assertEquals(1, copies);
+
+        store.delete("thumbnails/small/a.jpg");
+        assertFalse(store.exists("thumbnails/small/a.jpg"));
+        assertThrows(FileNotFoundException.class, () -> store.load("thumbnails/small/a.jpg"));
+    }
+
+    @Test
+    @DisplayName("Ключи распределяются по всем шардам примерно равномерно")
+    void distributesKeysEvenly() {
+        Map<Path, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            counts.merge(store.shardFor("file-" + i + ".pdf").getRoot(), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 800 && count < 1200, "count=" + count));
+    }
+
+    @Test
+    @DisplayName("Порядок каталогов не влияет на выбор шарда, а новый каталог забирает лишь часть ключей")
+    void shardChoiceIsStable() {
+        List<Path> reversed = new ArrayList<>(roots);
+        Collections.reverse(reversed);
+        ShardedBlobStore reordered = new ShardedBlobStore(reversed);
+        List<Path> extended = new ArrayList<>(roots);
+        extended.add(tempDir.resolve("disk3"));
+        ShardedBlobStore grown = new ShardedBlobStore(extended);
+
+        int moved = 0;
+        for (int i = 0; i < 2000; i++) {
+            String key = "file-" + i + ".pdf";
+            Path original = store.shardFor(key).getRoot();
+            assertEquals(original, reordered.shardFor(key).getRoot());
+            Path after = grown.shardFor(key).getRoot();
+            if (!after.equals(original)) {
+                assertEquals(tempDir.resolve("disk3").toAbsolutePath().normalize(), after);
+                moved++;
+            }
+        }
+        assertTrue(moved > 300 && moved < 700, "moved=" + moved);
+    }
+
+    @Test
+    @DisplayName("Ключи с выходом за пределы хранилища отклоняются")
+    void rejectsTraversalKeys() {
+        assertThrows(FileNotFoundException.class, () -> store.exists("../secret"));
+        assertThrows(FileNotFoundException.class, () -> store.exists("/etc/passwd"));
+    }
+
+    private void put(String key, byte[] content) {
+        store.put(key, new ByteArrayInputStream(content), content.length, "application/octet-stream");
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.auth_service.trace;
+
+import com.example.auth_service.config.RequestBudgetProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RequestTraceTest {
+
+    @Test
+    @DisplayName("Фильтр открывает трассу на запрос и пишет счётчики в заголовки")
+    void filter_exposesCountersInHeaders() throws Exception {
+        RequestBudgetProperties properties = new RequestBudgetProperties();
+        properties.setExposeHeaders(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new RequestBudgetFilter(properties).doFilter(new MockHttpServletRequest("GET", "/tasks"), response,
+                (request, servletResponse) -> {
+                    RequestTrace trace = RequestTrace.current();
+                    trace.recordSql(TimeUnit.MILLISECONDS.toNanos(2));
+                    trace.recordSql(TimeUnit.MILLISECONDS.toNanos(1));
+                    trace.recordRedis(TimeUnit.MILLISECONDS.toNanos(1));
+                    servletResponse.getWriter().write("[]");
+                });
+
+        assertEquals("2", response.getHeader(RequestBudgetFilter.SQL_STATEMENTS_HEADER));
+        assertEquals("1", response.getHeader(RequestBudgetFilter.REDIS_COMMANDS_HEADER));
+        assertTrue(response.getHeader(RequestBudgetFilter.SERVER_TIMING_HEADER).startsWith("sql;dur=3.0, redis;dur=1.0"));
+        assertNull(RequestTrace.current());
+    }
+
+    @Test
+    @DisplayName("Команды Redis считаются, служебные методы подключения — нет")
+    void redisProxy_countsCommandsOnly() {
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+
+        RedisConnectionFactory traced = RedisTraceProxies.trace(connectionFactory);
+        try (RequestTrace trace = RequestTrace.start()) {
+            RedisConnection tracedConnection = traced.getConnection();
+            tracedConnection.stringCommands().get("key".getBytes());
+            tracedConnection.stringCommands().set("key".getBytes(), "value".getBytes());
+            tracedConnection.close();
+
+            assertEquals(2, trace.getRedisCommands());
+            assertEquals(0, trace.getSqlStatements());
+        }
+        verify(connection).close();
+    }
+}